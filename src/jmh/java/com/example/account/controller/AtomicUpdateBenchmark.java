@@ -0,0 +1,105 @@
+package com.example.account.controller;
+
+import com.example.account.AccountApplication;
+import com.example.account.config.TransactionProperties;
+import com.example.account.dto.AccountDto;
+import com.example.account.dto.UseBalance;
+import com.example.account.exception.AccountException;
+import com.example.account.service.AccountService;
+import com.example.account.type.UseBalanceMode;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TransactionController.useBalance 를 32 스레드로 동시에 호출한다. (계좌 1개 = 최대 경합, 8개 = 분산)
+ * - LOCKED : 요청마다 내장 Redis 계좌 락 + 읽기/검증/dirty checking
+ * - ATOMIC : 락 없이 조건부 update 1회
+ * 락 대기 시간 초과 같은 거절은 failed 로 따로 센다. 성공 건수만큼 잔액이 줄었는지도 확인한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(32)
+public class AtomicUpdateBenchmark {
+    private static final long USER_ID = 1L;
+    private static final long AMOUNT = 10L;
+    private static final long INITIAL_BALANCE = 1_000_000_000L;
+
+    @Param({"LOCKED", "ATOMIC"})
+    private UseBalanceMode mode;
+
+    @Param({"1", "8"})
+    private int accounts;
+
+    private ConfigurableApplicationContext context;
+    private TransactionController transactionController;
+    private AccountService accountService;
+    private List<String> accountNumbers;
+    private final AtomicLong succeeded = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(AccountApplication.class)
+                .properties(
+                        "spring.main.web-application-type=none",
+                        "spring.jpa.properties.hibernate.show_sql=false",
+                        "account.rate-limit.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        context.getBean(TransactionProperties.class).setUseMode(mode);
+        transactionController = context.getBean(TransactionController.class);
+        accountService = context.getBean(AccountService.class);
+        accountNumbers = new ArrayList<>(accounts);
+        for (int i = 0; i < accounts; i++) {
+            accountNumbers.add(accountService.createAccount(USER_ID, INITIAL_BALANCE)
+                    .getAccountNumber());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        long used = INITIAL_BALANCE * accounts - accountService.getAccountsByUserId(USER_ID).stream()
+                .filter(account -> accountNumbers.contains(account.getAccountNumber()))
+                .mapToLong(AccountDto::getBalance)
+                .sum();
+        context.close();
+        if (used != succeeded.get() * AMOUNT) {
+            throw new IllegalStateException(
+                    "used " + used + " but succeeded " + succeeded.get() + " x " + AMOUNT);
+        }
+    }
+
+    @Benchmark
+    public void useBalance(Outcome outcome) {
+        String accountNumber = accountNumbers.get(
+                ThreadLocalRandom.current().nextInt(accountNumbers.size()));
+        try {
+            transactionController.useBalance(
+                    new UseBalance.Request(USER_ID, accountNumber, AMOUNT));
+            succeeded.incrementAndGet();
+            outcome.succeeded++;
+        } catch (AccountException e) {
+            outcome.failed++;
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Outcome {
+        public long succeeded;
+        public long failed;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            succeeded = 0;
+            failed = 0;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.account.domain;
+
+import com.example.account.type.AccountStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AccountBenchmark {
+    private Account account;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        account = Account.builder()
+                .accountNumber("1000000000")
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(Long.MAX_VALUE / 2)
+                .heldBalance(0L)
+                .build();
+    }
+
+    @Benchmark
+    public Long useBalance() {
+        account.useBalance(1000L);
+        return account.getBalance();
+    }
+
+    @Benchmark
+    public Long cancelBalance() {
+        account.cancelBalance(1000L);
+        return account.getBalance();
+    }
+
+    @Benchmark
+    public Long useThenCancel() {
+        account.useBalance(1000L);
+        account.cancelBalance(1000L);
+        return account.getBalance();
+    }
+}
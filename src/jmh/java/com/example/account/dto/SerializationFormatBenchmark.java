@@ -0,0 +1,118 @@
+package com.example.account.dto;
+
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 거래 API DTO 의 형식별 직렬화/역직렬화 비용
+ * 페이로드 크기(bytes)는 Trial 시작 시 한 번 출력한다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SerializationFormatBenchmark {
+    @Param({"JSON", "CBOR", "SMILE"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private UseBalance.Request useRequest;
+    private QueryTransactionResponse queryResponse;
+    private byte[] useRequestBytes;
+    private byte[] useResponseBytes;
+    private byte[] queryResponseBytes;
+    private UseBalance.Response useResponse;
+    private CancelBalance.Request cancelRequest;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = newObjectMapper(format);
+
+        LocalDateTime now = LocalDateTime.now();
+        useRequest = new UseBalance.Request(12L, "1000000012", 1000L);
+        cancelRequest = new CancelBalance.Request(
+                "0183a1b2c3d4e5f60718293a4b5c6d7e", "1000000012", 1000L);
+        useResponse = UseBalance.Response.builder()
+                .accountNumber("1000000012")
+                .transactionResult(TransactionResultType.S)
+                .transactionId("0183a1b2c3d4e5f60718293a4b5c6d7e")
+                .amount(1000L)
+                .transactedAt(now)
+                .build();
+        queryResponse = QueryTransactionResponse.builder()
+                .accountNumber("1000000012")
+                .transactionType(TransactionType.USE)
+                .transactionResult(TransactionResultType.S)
+                .transactionId("0183a1b2c3d4e5f60718293a4b5c6d7e")
+                .amount(1000L)
+                .transactedAt(now)
+                .build();
+
+        useRequestBytes = objectMapper.writeValueAsBytes(useRequest);
+        useResponseBytes = objectMapper.writeValueAsBytes(useResponse);
+        queryResponseBytes = objectMapper.writeValueAsBytes(queryResponse);
+        System.out.printf("%n[%s] UseBalance.Request=%dB, UseBalance.Response=%dB, " +
+                        "CancelBalance.Request=%dB, QueryTransactionResponse=%dB%n",
+                format, useRequestBytes.length, useResponseBytes.length,
+                objectMapper.writeValueAsBytes(cancelRequest).length,
+                queryResponseBytes.length);
+    }
+
+    /**
+     * WebConfig 와 같이 스프링 부트 기본 설정(파라미터 이름 모듈, 날짜 문자열)을 맞춘다.
+     */
+    private static ObjectMapper newObjectMapper(String format) {
+        Jackson2ObjectMapperBuilder builder;
+        switch (format) {
+            case "CBOR":
+                builder = Jackson2ObjectMapperBuilder.cbor();
+                break;
+            case "SMILE":
+                builder = Jackson2ObjectMapperBuilder.smile();
+                break;
+            default:
+                builder = Jackson2ObjectMapperBuilder.json();
+        }
+        return builder.modulesToInstall(new ParameterNamesModule())
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] writeUseRequest() throws IOException {
+        return objectMapper.writeValueAsBytes(useRequest);
+    }
+
+    @Benchmark
+    public UseBalance.Request readUseRequest() throws IOException {
+        return objectMapper.readValue(useRequestBytes, UseBalance.Request.class);
+    }
+
+    @Benchmark
+    public byte[] writeUseResponse() throws IOException {
+        return objectMapper.writeValueAsBytes(useResponse);
+    }
+
+    @Benchmark
+    public UseBalance.Response readUseResponse() throws IOException {
+        return objectMapper.readValue(useResponseBytes, UseBalance.Response.class);
+    }
+
+    @Benchmark
+    public byte[] writeQueryResponse() throws IOException {
+        return objectMapper.writeValueAsBytes(queryResponse);
+    }
+
+    @Benchmark
+    public QueryTransactionResponse readQueryResponse() throws IOException {
+        return objectMapper.readValue(queryResponseBytes, QueryTransactionResponse.class);
+    }
+}
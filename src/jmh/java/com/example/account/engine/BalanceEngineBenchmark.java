@@ -0,0 +1,90 @@
+package com.example.account.engine;
+
+import com.example.account.config.EngineProperties;
+import com.example.account.service.TimeOrderedTransactionIdGenerator;
+import com.example.account.type.AccountStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 엔진 파티션의 잔액 사용 1건 왕복 시간 (요청 스레드 -> 파티션 -> 저널 -> 응답)
+ * - forcePerBatch=true : 배치마다 fsync (기본값)
+ * - forcePerBatch=false : 매핑된 페이지에만 쓰고 fsync 는 OS 에 맡김 (결정 자체의 비용)
+ * DB 반영은 빼고 측정한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BalanceEngineBenchmark {
+    private static final int ACCOUNTS = 10_000;
+    private static final long FIRST_ACCOUNT_NUMBER = 1_000_000_000L;
+
+    @Param({"true", "false"})
+    private boolean forcePerBatch;
+
+    private Path dir;
+    private EnginePartition partition;
+    private long next;
+
+    @Setup
+    public void setUp() throws Exception {
+        dir = Files.createTempDirectory("balance-engine");
+        EngineProperties engineProperties = new EngineProperties();
+        engineProperties.setForcePerBatch(forcePerBatch);
+        partition = new EnginePartition(0, dir, engineProperties,
+                new TimeOrderedTransactionIdGenerator(1), decision -> {
+        }, () -> Long.MAX_VALUE);
+        partition.recover();
+        partition.start();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            execute(Command.load(FIRST_ACCOUNT_NUMBER + i, Long.MAX_VALUE / 2, 0L, 1L,
+                    (byte) AccountStatus.IN_USE.getCode()));
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long useBalance() throws Exception {
+        return useNext();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long useBalanceConcurrent() throws Exception {
+        return useNext();
+    }
+
+    private long useNext() throws Exception {
+        long accountNumber;
+        synchronized (this) {
+            accountNumber = FIRST_ACCOUNT_NUMBER + next++ % ACCOUNTS;
+        }
+        return execute(Command.use(1L, accountNumber, 1L)).balanceAfter;
+    }
+
+    private Decision execute(Command command) throws Exception {
+        if (!partition.submit(command)) {
+            throw new IllegalStateException("queue full");
+        }
+        return command.future.get();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        partition.stop();
+        partition.close();
+        deleteRecursively(dir);
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        try (Stream<Path> paths = Files.walk(path)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.account.exception;
+
+import com.example.account.dto.BalanceResult;
+import com.example.account.type.ErrorCode;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 잔액 부족 같은 예상된 실패를 depth 만큼의 호출 스택을 거쳐 돌려줄 때의 비용
+ * - stackTraceException : 이전 AccountException (스택 트레이스 생성)
+ * - stacklessException : 현재 AccountException
+ * - preallocatedException : AccountException.of
+ * - resultValue : BalanceResult
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FailurePathBenchmark {
+    // 컨트롤러까지 Spring 프록시/AOP 를 거치는 정도의 깊이
+    @Param({"20", "80"})
+    private int depth;
+
+    @Benchmark
+    public ErrorCode stackTraceException() {
+        try {
+            throwAt(depth, () -> new StackTraceAccountException(ErrorCode.AMOUNT_EXCEED_BALANCE));
+            return null;
+        } catch (StackTraceAccountException e) {
+            return e.errorCode;
+        }
+    }
+
+    @Benchmark
+    public ErrorCode stacklessException() {
+        try {
+            throwAt(depth, () -> new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE));
+            return null;
+        } catch (AccountException e) {
+            return e.getErrorCode();
+        }
+    }
+
+    @Benchmark
+    public ErrorCode preallocatedException() {
+        try {
+            throwAt(depth, () -> AccountException.of(ErrorCode.AMOUNT_EXCEED_BALANCE));
+            return null;
+        } catch (AccountException e) {
+            return e.getErrorCode();
+        }
+    }
+
+    @Benchmark
+    public ErrorCode resultValue() {
+        return returnAt(depth).getErrorCode();
+    }
+
+    private static void throwAt(int depth, Supplier<? extends RuntimeException> exception) {
+        if (depth == 0) {
+            throw exception.get();
+        }
+        throwAt(depth - 1, exception);
+    }
+
+    private static BalanceResult returnAt(int depth) {
+        if (depth == 0) {
+            return BalanceResult.failure(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        }
+        return returnAt(depth - 1);
+    }
+
+    private static class StackTraceAccountException extends RuntimeException {
+        private final ErrorCode errorCode;
+
+        private StackTraceAccountException(ErrorCode errorCode) {
+            this.errorCode = errorCode;
+        }
+    }
+}
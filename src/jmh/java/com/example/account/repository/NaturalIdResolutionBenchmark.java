@@ -0,0 +1,124 @@
+package com.example.account.repository;
+
+import com.example.account.AccountApplication;
+import com.example.account.domain.Account;
+import com.example.account.domain.AccountUser;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import redis.embedded.RedisServer;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.account.type.AccountStatus.IN_USE;
+
+/**
+ * 계좌번호 -> 계좌 읽기 (요청마다 트랜잭션 1개, JPA + H2)
+ * - query : 계좌번호 조건 쿼리 1회
+ * - naturalIdCold : 매 호출 전에 natural id 캐시를 비우므로 id 해석 쿼리 + id 조회
+ * - naturalIdWarm : 캐시에서 해석 + id 조회
+ * 기동 시 Redis 에 연결하는 빈이 있으므로 내장 Redis 를 따로 띄운다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(16)
+public class NaturalIdResolutionBenchmark {
+    private static final int ACCOUNTS = 5_000;
+    private static final int REDIS_PORT = 6398;
+
+    private RedisServer redisServer;
+    private ConfigurableApplicationContext context;
+    private AccountRepository accountRepository;
+    private EntityManager entityManager;
+    private SessionFactory sessionFactory;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        redisServer = new RedisServer(REDIS_PORT);
+        redisServer.start();
+        context = new SpringApplicationBuilder(AccountApplication.class)
+                .properties(
+                        "spring.main.web-application-type=none",
+                        "spring.jpa.properties.hibernate.show_sql=false",
+                        "spring.redis.port=" + REDIS_PORT,
+                        "account.redis.embedded=false",
+                        "logging.level.root=WARN")
+                .run();
+        accountRepository = context.getBean(AccountRepository.class);
+        EntityManagerFactory entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        transactionTemplate = new TransactionTemplate(
+                context.getBean(PlatformTransactionManager.class));
+
+        AccountUser user = context.getBean(AccountUserRepository.class).findById(1L).get();
+        List<Account> accounts = new ArrayList<>(ACCOUNTS);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts.add(Account.builder()
+                    .accountUser(user)
+                    .accountNumber(accountNumber(i))
+                    .accountStatus(IN_USE)
+                    .balance(10000L)
+                    .heldBalance(0L)
+                    .registeredAt(LocalDateTime.now())
+                    .build());
+        }
+        accountRepository.saveAll(accounts);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        redisServer.stop();
+    }
+
+    @Benchmark
+    public List<Account> query() {
+        return transactionTemplate.execute(status -> entityManager.createQuery(
+                        "select a from Account a where a.accountNumber = :accountNumber",
+                        Account.class)
+                .setParameter("accountNumber", randomAccountNumber())
+                .getResultList());
+    }
+
+    @Benchmark
+    public Optional<Account> naturalIdCold(ColdCache coldCache) {
+        return transactionTemplate.execute(status ->
+                accountRepository.findByAccountNumber(randomAccountNumber()));
+    }
+
+    @Benchmark
+    public Optional<Account> naturalIdWarm() {
+        return transactionTemplate.execute(status ->
+                accountRepository.findByAccountNumber(randomAccountNumber()));
+    }
+
+    @State(Scope.Thread)
+    public static class ColdCache {
+        @Setup(Level.Invocation)
+        public void evict(NaturalIdResolutionBenchmark benchmark) {
+            benchmark.sessionFactory.getCache().evictNaturalIdData(Account.class);
+        }
+    }
+
+    private static String randomAccountNumber() {
+        return accountNumber(ThreadLocalRandom.current().nextInt(ACCOUNTS));
+    }
+
+    private static String accountNumber(int i) {
+        return String.valueOf(1_000_000_000L + i);
+    }
+}
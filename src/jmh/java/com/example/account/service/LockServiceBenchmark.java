@@ -0,0 +1,55 @@
+package com.example.account.service;
+
+import org.openjdk.jmh.annotations.*;
+import redis.embedded.RedisServer;
+
+import java.util.Collections;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 내장 Redis 에 대한 계좌 락 lock + unlock 왕복
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LockServiceBenchmark {
+    private static final int PORT = 6397;
+
+    private RedisServer redisServer;
+    private RedisLockRouter redisLockRouter;
+    private LockService lockService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        redisServer = new RedisServer(PORT);
+        redisServer.start();
+        redisLockRouter = new RedisLockRouter(
+                Collections.singletonList("redis://127.0.0.1:" + PORT), 160, 3);
+        lockService = new LockService(redisLockRouter);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        redisLockRouter.shutdown();
+        redisServer.stop();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void lockAndUnlock() {
+        String accountNumber = String.valueOf(
+                1_000_000_000L + ThreadLocalRandom.current().nextInt(10_000));
+        lockService.lock(accountNumber);
+        lockService.unlock(accountNumber);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void lockAndUnlockContended() {
+        String accountNumber = String.valueOf(
+                1_000_000_000L + ThreadLocalRandom.current().nextInt(10_000));
+        lockService.lock(accountNumber);
+        lockService.unlock(accountNumber);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.account.service;
+
+import com.example.account.config.ShardContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * saveAndGetTransaction 이 거래마다 만드는 거래 id
+ * Contended 는 8 스레드가 생성기 하나를 함께 쓴다. (UUID 는 SecureRandom, 시간 순 id 는 CAS 경합)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TransactionIdBenchmark {
+    private final TransactionIdGenerator random = new RandomTransactionIdGenerator();
+    private final TransactionIdGenerator timeOrdered = new TimeOrderedTransactionIdGenerator(1);
+
+    @Benchmark
+    public String random() {
+        return ShardRouter.tagTransactionId(random.nextId());
+    }
+
+    @Benchmark
+    public String timeOrdered() {
+        return ShardRouter.tagTransactionId(timeOrdered.nextId());
+    }
+
+    @Benchmark
+    public String timeOrderedSharded() {
+        return ShardContext.callOn(3, () -> ShardRouter.tagTransactionId(timeOrdered.nextId()));
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String randomContended() {
+        return random.nextId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String timeOrderedContended() {
+        return timeOrdered.nextId();
+    }
+}
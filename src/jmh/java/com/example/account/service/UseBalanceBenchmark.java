@@ -0,0 +1,56 @@
+package com.example.account.service;
+
+import com.example.account.AccountApplication;
+import com.example.account.dto.BalanceResult;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import redis.embedded.RedisServer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TransactionService.tryUseBalance 전체 (JPA + H2, 락 제외)
+ * 웹 없이 컨텍스트를 띄운다. 기동 시 Redis 에 연결하는 빈(캐시 무효화, 잔액 스트림 등)이 있으므로
+ * 내장 Redis 를 따로 띄운다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UseBalanceBenchmark {
+    private static final int REDIS_PORT = 6398;
+
+    private RedisServer redisServer;
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private String accountNumber;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        redisServer = new RedisServer(REDIS_PORT);
+        redisServer.start();
+        context = new SpringApplicationBuilder(AccountApplication.class)
+                .properties(
+                        "spring.main.web-application-type=none",
+                        "spring.jpa.properties.hibernate.show_sql=false",
+                        "spring.redis.port=" + REDIS_PORT,
+                        "account.redis.embedded=false",
+                        "logging.level.root=WARN")
+                .run();
+        transactionService = context.getBean(TransactionService.class);
+        accountNumber = context.getBean(AccountService.class)
+                .createAccount(1L, Long.MAX_VALUE / 2)
+                .getAccountNumber();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        redisServer.stop();
+    }
+
+    @Benchmark
+    public BalanceResult useBalance() {
+        return transactionService.tryUseBalance(1L, accountNumber, 10L);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.account.loadtest;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 마이크로초 단위 로그 버킷 히스토그램 (버킷 폭 약 2%, 최대 약 400초)
+ * 락 없이 여러 스레드에서 기록할 수 있다.
+ */
+public class LatencyHistogram {
+    private static final double BASE = Math.log(1.02);
+    private static final int BUCKETS = 1000;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    public void record(long micros) {
+        int bucket = micros <= 1 ? 0 : (int) Math.min(BUCKETS - 1, Math.ceil(Math.log(micros) / BASE));
+        counts.incrementAndGet(bucket);
+    }
+
+    public long count() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * @return 해당 백분위가 속한 버킷의 상한(us)
+     */
+    public long percentile(double percentile) {
+        long total = count();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return (long) Math.exp(i * BASE);
+            }
+        }
+        return (long) Math.exp((BUCKETS - 1) * BASE);
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.account.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * open-loop 부하 발생기
+ * 1. 요청은 rate 에 맞춘 예정 시각에 보낸다. 응답이 늦어져도 다음 요청을 미루지 않는다.
+ * 2. 지연 시간은 예정 시각부터 잰다. (서버가 밀릴 때 대기한 시간까지 포함)
+ * 3. 진행 중 요청이 concurrency 를 넘으면 보내지 않고 dropped 로 센다.
+ */
+public class LoadGenerator {
+    private static final int RECENT_TRANSACTIONS = 4096;
+    private static final long INITIAL_BALANCE = 1_000_000_000L;
+
+    private final LoadTestConfig config;
+    private final String baseUrl;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService executor;
+    private final HttpClient httpClient;
+    private final List<SeededAccount> accounts = new ArrayList<>();
+    private final AtomicReferenceArray<RecentTransaction> recentTransactions =
+            new AtomicReferenceArray<>(RECENT_TRANSACTIONS);
+    private final AtomicLong recentSequence = new AtomicLong();
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    public LoadGenerator(LoadTestConfig config, String baseUrl) {
+        this.config = config;
+        this.baseUrl = baseUrl;
+        this.executor = Executors.newFixedThreadPool(
+                Math.max(2, Runtime.getRuntime().availableProcessors()));
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    /**
+     * 사용자 1..users 마다 계좌를 만든다. (사용자는 loadtest 프로필의 시드 SQL 로 들어가 있다.)
+     * Zipf 순위가 특정 사용자에게 몰리지 않도록 계좌 순서를 섞는다.
+     */
+    public void seed() throws Exception {
+        for (long userId = 1; userId <= config.getUsers(); userId++) {
+            for (int i = 0; i < config.getAccountsPerUser(); i++) {
+                JsonNode response = objectMapper.readTree(httpClient.send(
+                        post("/account", Map.of("userId", userId, "initialBalance", INITIAL_BALANCE)),
+                        HttpResponse.BodyHandlers.ofString()).body());
+                if (!response.hasNonNull("accountNumber")) {
+                    throw new IllegalStateException("Seeding failed for userId " + userId + " : " + response);
+                }
+                accounts.add(new SeededAccount(userId, response.get("accountNumber").asText()));
+            }
+        }
+        Collections.shuffle(accounts, new Random(config.getSeed()));
+    }
+
+    public LoadTestReport run() throws InterruptedException {
+        ZipfSampler accountSampler = new ZipfSampler(accounts.size(), config.getZipf());
+        Random random = new Random(config.getSeed());
+        int[] mix = config.getMix();
+        int mixTotal = Arrays.stream(mix).sum();
+        Semaphore inFlight = new Semaphore(config.getConcurrency());
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.getRate();
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(config.getWarmupSeconds());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(config.getDurationSeconds());
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean measured = intended >= measureFrom;
+            if (!inFlight.tryAcquire()) {
+                if (measured) {
+                    dropped.increment();
+                }
+                continue;
+            }
+            Operation operation = pickOperation(random.nextInt(mixTotal), mix);
+            SeededAccount account = accounts.get(accountSampler.next(random));
+            CompletableFuture<String> call = send(operation, account, random);
+            if (call == null) {
+                inFlight.release();
+                if (measured) {
+                    skipped.increment();
+                }
+                continue;
+            }
+            call.whenComplete((outcome, e) -> {
+                inFlight.release();
+                if (measured) {
+                    long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+                    stats.get(operation).record(micros, e == null ? outcome
+                            : (e.getCause() != null ? e.getCause() : e).getClass().getSimpleName());
+                }
+            });
+        }
+
+        // 남은 응답을 기다린다.
+        inFlight.tryAcquire(config.getConcurrency(), 30, TimeUnit.SECONDS);
+        executor.shutdown();
+        return new LoadTestReport(config, stats, dropped.sum(), skipped.sum());
+    }
+
+    private static Operation pickOperation(int draw, int[] mix) {
+        for (int i = 0; i < mix.length; i++) {
+            if (draw < mix[i]) {
+                return Operation.values()[i];
+            }
+            draw -= mix[i];
+        }
+        return Operation.USE;
+    }
+
+    /**
+     * @return 응답 결과 코드 (OK, ErrorCode 이름, 또는 HTTP_상태코드). 보낼 거래가 없으면 null
+     */
+    private CompletableFuture<String> send(Operation operation, SeededAccount account, Random random) {
+        switch (operation) {
+            case USE: {
+                long amount = 10 + random.nextInt(991);
+                return call(post("/transaction/use", Map.of(
+                        "userId", account.userId,
+                        "accountNumber", account.accountNumber,
+                        "amount", amount)), body -> {
+                    if (body.hasNonNull("transactionId") && "S".equals(body.path("transactionResult").asText())) {
+                        recentTransactions.set((int) (recentSequence.getAndIncrement() % RECENT_TRANSACTIONS),
+                                new RecentTransaction(body.get("transactionId").asText(),
+                                        account.accountNumber, amount));
+                    }
+                });
+            }
+            case CANCEL: {
+                // 같은 거래를 두 번 취소하지 않도록 꺼내 간다.
+                RecentTransaction transaction = recentTransactions.getAndSet(
+                        random.nextInt(RECENT_TRANSACTIONS), null);
+                if (transaction == null) {
+                    return null;
+                }
+                return call(post("/transaction/cancel", Map.of(
+                        "transactionId", transaction.transactionId,
+                        "accountNumber", transaction.accountNumber,
+                        "amount", transaction.amount)), body -> {
+                });
+            }
+            case QUERY: {
+                RecentTransaction transaction = recentTransactions.get(random.nextInt(RECENT_TRANSACTIONS));
+                if (transaction == null) {
+                    return null;
+                }
+                return call(get("/transaction/" + transaction.transactionId), body -> {
+                });
+            }
+            default:
+                return call(get("/account?user_id=" + account.userId), body -> {
+                });
+        }
+    }
+
+    private CompletableFuture<String> call(HttpRequest request, java.util.function.Consumer<JsonNode> onSuccess) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        return "HTTP_" + response.statusCode();
+                    }
+                    JsonNode body;
+                    try {
+                        body = objectMapper.readTree(response.body());
+                    } catch (Exception e) {
+                        return "UNPARSEABLE";
+                    }
+                    // AccountException 은 200 + ErrorResponse 로 내려온다.
+                    if (body.hasNonNull("errorCode")) {
+                        return body.get("errorCode").asText();
+                    }
+                    onSuccess.accept(body);
+                    return "OK";
+                });
+    }
+
+    private HttpRequest post(String path, Map<String, Object> body) {
+        try {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                    .build();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private static class SeededAccount {
+        private final long userId;
+        private final String accountNumber;
+
+        private SeededAccount(long userId, String accountNumber) {
+            this.userId = userId;
+            this.accountNumber = accountNumber;
+        }
+    }
+
+    private static class RecentTransaction {
+        private final String transactionId;
+        private final String accountNumber;
+        private final long amount;
+
+        private RecentTransaction(String transactionId, String accountNumber, long amount) {
+            this.transactionId = transactionId;
+            this.accountNumber = accountNumber;
+            this.amount = amount;
+        }
+    }
+
+    static class OperationStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final ConcurrentMap<String, LongAdder> outcomes = new ConcurrentSkipListMap<>();
+
+        void record(long micros, String outcome) {
+            latency.record(micros);
+            outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+        }
+    }
+}
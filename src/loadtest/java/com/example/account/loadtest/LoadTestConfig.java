@@ -0,0 +1,109 @@
+package com.example.account.loadtest;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * --key=value 인자
+ * target        : 이미 떠 있는 서버 주소. 없으면 앱을 직접 띄운다.
+ * rate          : 초당 요청 수 (open-loop, 응답을 기다리지 않고 일정 간격으로 보낸다)
+ * duration      : 측정 시간(초), warmup : 측정 전 예열 시간(초)
+ * concurrency   : 동시에 진행 중인 요청 상한. 넘으면 보내지 않고 dropped 로 센다.
+ * mix           : use:cancel:query:account 비율 (예: 70:10:15:5)
+ * zipf          : 계좌 선택 편중도 (0 이면 균등, 1 이상이면 소수 계좌에 몰림)
+ * users, accountsPerUser : 시드할 사용자 수(id 1..users)와 사용자당 계좌 수(최대 10)
+ * traceRate     : 앱을 직접 띄울 때 초당 샘플링할 trace 수. span 은 내장 수집기 대용으로 보내 요약한다.
+ */
+public class LoadTestConfig {
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("target", "");
+        DEFAULTS.put("rate", "500");
+        DEFAULTS.put("duration", "30");
+        DEFAULTS.put("warmup", "5");
+        DEFAULTS.put("concurrency", "256");
+        DEFAULTS.put("mix", "70:10:15:5");
+        DEFAULTS.put("zipf", "1.1");
+        DEFAULTS.put("users", "100");
+        DEFAULTS.put("accountsPerUser", "3");
+        DEFAULTS.put("seed", "42");
+        DEFAULTS.put("traceRate", "10");
+    }
+
+    private final Map<String, String> values = new HashMap<>(DEFAULTS);
+
+    public static LoadTestConfig parse(String[] args) {
+        LoadTestConfig config = new LoadTestConfig();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value : " + arg);
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            if (!DEFAULTS.containsKey(key)) {
+                throw new IllegalArgumentException("Unknown option : " + key
+                        + " (known : " + DEFAULTS.keySet() + ")");
+            }
+            config.values.put(key, arg.substring(arg.indexOf('=') + 1));
+        }
+        return config;
+    }
+
+    public String getTarget() {
+        return values.get("target");
+    }
+
+    public int getRate() {
+        return Integer.parseInt(values.get("rate"));
+    }
+
+    public int getDurationSeconds() {
+        return Integer.parseInt(values.get("duration"));
+    }
+
+    public int getWarmupSeconds() {
+        return Integer.parseInt(values.get("warmup"));
+    }
+
+    public int getConcurrency() {
+        return Integer.parseInt(values.get("concurrency"));
+    }
+
+    public int[] getMix() {
+        String[] parts = values.get("mix").split(":");
+        if (parts.length != Operation.values().length) {
+            throw new IllegalArgumentException("mix needs " + Operation.values().length + " weights");
+        }
+        int[] mix = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            mix[i] = Integer.parseInt(parts[i]);
+        }
+        return mix;
+    }
+
+    public double getZipf() {
+        return Double.parseDouble(values.get("zipf"));
+    }
+
+    public int getUsers() {
+        return Integer.parseInt(values.get("users"));
+    }
+
+    public int getAccountsPerUser() {
+        return Math.min(10, Integer.parseInt(values.get("accountsPerUser")));
+    }
+
+    public int getTraceRate() {
+        return Integer.parseInt(values.get("traceRate"));
+    }
+
+    public long getSeed() {
+        return Long.parseLong(values.get("seed"));
+    }
+
+    @Override
+    public String toString() {
+        return values.toString();
+    }
+}
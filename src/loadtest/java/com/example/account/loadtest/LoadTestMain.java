@@ -0,0 +1,46 @@
+package com.example.account.loadtest;
+
+import com.example.account.AccountApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * ./gradlew loadTest -Pargs="--rate=1000 --duration=60 --zipf=1.2"
+ * --target 가 없으면 loadtest 프로필로 앱을 임의 포트에 띄워서 돌린다.
+ * 이미 떠 있는 서버를 대상으로 하면 사용자 1..users 가 미리 있어야 한다.
+ */
+public class LoadTestMain {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+
+        ConfigurableApplicationContext context = null;
+        ZipkinCollectorStub collector = null;
+        String baseUrl = config.getTarget();
+        if (baseUrl.isEmpty()) {
+            collector = new ZipkinCollectorStub(0);
+            SpringApplication application = new SpringApplication(AccountApplication.class);
+            application.setAdditionalProfiles("loadtest");
+            context = application.run("--server.port=0",
+                    "--spring.zipkin.enabled=true",
+                    "--spring.zipkin.base-url=http://127.0.0.1:" + collector.getPort() + "/",
+                    "--spring.sleuth.sampler.rate=" + config.getTraceRate());
+            baseUrl = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+        }
+
+        try {
+            LoadGenerator loadGenerator = new LoadGenerator(config, baseUrl);
+            loadGenerator.seed();
+            System.out.print(loadGenerator.run().format());
+        } finally {
+            if (context != null) {
+                // 닫을 때 남은 span 을 내보낸다.
+                context.close();
+            }
+            if (collector != null) {
+                System.out.print(collector.summary());
+                collector.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.account.loadtest;
+
+import java.util.Map;
+
+public class LoadTestReport {
+    private final LoadTestConfig config;
+    private final Map<Operation, LoadGenerator.OperationStats> stats;
+    private final long dropped;
+    private final long skipped;
+
+    LoadTestReport(LoadTestConfig config, Map<Operation, LoadGenerator.OperationStats> stats,
+                   long dropped, long skipped) {
+        this.config = config;
+        this.stats = stats;
+        this.dropped = dropped;
+        this.skipped = skipped;
+    }
+
+    public String format() {
+        double seconds = config.getDurationSeconds();
+        StringBuilder report = new StringBuilder();
+        report.append("config  : ").append(config).append('\n');
+        report.append(String.format("%-8s %10s %10s %10s %10s %10s  %s%n",
+                "op", "count", "req/s", "p50(ms)", "p99(ms)", "p99.9(ms)", "outcomes"));
+        long total = 0;
+        for (Map.Entry<Operation, LoadGenerator.OperationStats> entry : stats.entrySet()) {
+            LatencyHistogram latency = entry.getValue().latency;
+            long count = latency.count();
+            total += count;
+            report.append(String.format("%-8s %10d %10.1f %10.2f %10.2f %10.2f  %s%n",
+                    entry.getKey(), count, count / seconds,
+                    latency.percentile(50) / 1000.0,
+                    latency.percentile(99) / 1000.0,
+                    latency.percentile(99.9) / 1000.0,
+                    entry.getValue().outcomes));
+        }
+        report.append(String.format("total   : %d (%.1f req/s), dropped : %d, skipped : %d%n",
+                total, total / seconds, dropped, skipped));
+        return report.toString();
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.account.loadtest;
+
+public enum Operation {
+    USE,
+    CANCEL,
+    QUERY,
+    ACCOUNT
+}
@@ -0,0 +1,29 @@
+package com.example.account.loadtest;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 순위 k (0부터) 를 1/(k+1)^s 에 비례하는 확률로 뽑는다.
+ * 누적 분포를 미리 계산해 두고 이진 탐색한다.
+ */
+public class ZipfSampler {
+    private final double[] cumulative;
+
+    public ZipfSampler(int size, double exponent) {
+        cumulative = new double[size];
+        double sum = 0;
+        for (int k = 0; k < size; k++) {
+            sum += 1.0 / Math.pow(k + 1, exponent);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < size; k++) {
+            cumulative[k] /= sum;
+        }
+    }
+
+    public int next(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.account.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 로컬 Zipkin 수집기 대용. POST /api/v2/spans (JSON v2) 를 받아 span 이름별 건수와 평균 시간만 집계한다.
+ * ./gradlew zipkinStub 로 9411 에 띄우고 spring.zipkin.enabled=true 로 앱을 실행한다.
+ */
+public class ZipkinCollectorStub implements AutoCloseable {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ConcurrentMap<String, SpanStats> spans = new ConcurrentSkipListMap<>();
+    private final HttpServer server;
+
+    public ZipkinCollectorStub(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.createContext("/api/v2/spans", this::collect);
+        server.setExecutor(Executors.newSingleThreadExecutor());
+        server.start();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 9411;
+        ZipkinCollectorStub stub = new ZipkinCollectorStub(port);
+        System.out.println("Zipkin collector stub listening on " + stub.getPort());
+        Executors.newSingleThreadScheduledExecutor().scheduleAtFixedRate(
+                () -> System.out.print(stub.summary()), 10, 10, TimeUnit.SECONDS);
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void collect(HttpExchange exchange) throws IOException {
+        try (InputStream body = "gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))
+                ? new GZIPInputStream(exchange.getRequestBody()) : exchange.getRequestBody()) {
+            for (JsonNode span : objectMapper.readTree(body)) {
+                spans.computeIfAbsent(span.path("name").asText("unknown"), name -> new SpanStats())
+                        .record(span.path("duration").asLong());
+            }
+            exchange.sendResponseHeaders(202, -1);
+        } catch (Exception e) {
+            exchange.sendResponseHeaders(400, -1);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    public String summary() {
+        StringBuilder summary = new StringBuilder(String.format("%-40s %10s %12s%n", "span", "count", "avg(ms)"));
+        for (Map.Entry<String, SpanStats> entry : spans.entrySet()) {
+            long count = entry.getValue().count.sum();
+            summary.append(String.format("%-40s %10d %12.2f%n", entry.getKey(), count,
+                    count == 0 ? 0 : entry.getValue().totalMicros.sum() / 1000.0 / count));
+        }
+        return summary.toString();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        ((java.util.concurrent.ExecutorService) server.getExecutor()).shutdown();
+    }
+
+    private static class SpanStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalMicros = new LongAdder();
+
+        private void record(long micros) {
+            count.increment();
+            totalMicros.add(micros);
+        }
+    }
+}
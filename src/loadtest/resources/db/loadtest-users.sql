@@ -0,0 +1,3 @@
+insert into account_user(id, name, created_at, updated_at)
+select x, concat('loadtest-', x), now(), now()
+from system_range(4, 1000);
@@ -8,4 +8,15 @@ import java.lang.annotation.*;
 @Inherited
 public @interface AccountLock {
     long tryLockTime() default 5000L;
+
+    /**
+     * true 이면 use-mode 가 계좌별 직렬화를 직접 책임질 때(그룹 커밋 등)
+     * 요청 단위 락을 생략한다. rate limit 은 그대로 적용된다.
+     */
+    boolean skippable() default false;
+
+    /**
+     * true 이면 여러 Redis 노드의 과반에서 락을 잡는다. 노드 하나를 잃어도 중복 실행되면 안 되는 작업에 쓴다.
+     */
+    boolean quorum() default false;
 }
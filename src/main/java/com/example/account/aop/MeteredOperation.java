@@ -0,0 +1,16 @@
+package com.example.account.aop;
+
+import java.lang.annotation.*;
+
+/**
+ * 컨트롤러 메서드에 붙이면 요청 단위로 전체/DB/락 시간과 결과(ErrorCode)를 기록한다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface MeteredOperation {
+    /**
+     * operation 태그 값 (예: useBalance)
+     */
+    String value();
+}
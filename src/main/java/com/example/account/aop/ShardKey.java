@@ -0,0 +1,16 @@
+package com.example.account.aop;
+
+import com.example.account.type.ShardKeyType;
+
+import java.lang.annotation.*;
+
+/**
+ * 이 파라미터 값으로 메서드를 실행할 샤드를 정한다.
+ * 샤딩이 꺼져 있으면 아무 일도 하지 않는다.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ShardKey {
+    ShardKeyType value() default ShardKeyType.ACCOUNT_NUMBER;
+}
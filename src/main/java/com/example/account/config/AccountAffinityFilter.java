@@ -0,0 +1,244 @@
+package com.example.account.config;
+
+import com.example.account.dto.ErrorResponse;
+import com.example.account.service.AccountAffinityService;
+import com.example.account.type.AffinityRoutingType;
+import com.example.account.type.ErrorCode;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 계좌 락을 잡는 요청(POST /transaction/**)을 본문의 계좌번호를 맡은 노드로 보낸다.
+ * 1. FORWARD : 소유 노드에 그대로 보내고 받은 응답을 돌려준다.
+ * 2. REDIRECT : 307 과 소유 노드 주소를 돌려준다.
+ * 넘겨받은 요청은 다시 넘기지 않는다. (멤버 변화를 알아챈 시점이 노드마다 달라도 한 번만 넘어간다)
+ * 소유 노드에 연결하지 못하면 처리하지 않고 503 으로 거절한다. 멤버에서 빠지면(ttl) 다른 노드가 맡는다.
+ */
+@Slf4j
+public class AccountAffinityFilter extends OncePerRequestFilter {
+    static final String FORWARDED_HEADER = "X-Account-Forwarded";
+    // HttpClient 가 직접 정하거나 한 구간에만 의미가 있는 헤더는 옮기지 않는다.
+    private static final Set<String> SKIPPED_HEADERS = caseInsensitive(
+            "connection", "content-length", "date", "expect", "from", "host", "origin",
+            "referer", "upgrade", "via", "warning", "keep-alive", "transfer-encoding", "te",
+            "trailer", "proxy-connection");
+
+    private final AccountAffinityService accountAffinityService;
+    private final AffinityProperties affinityProperties;
+    private final List<AbstractJackson2HttpMessageConverter> converters;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+
+    public AccountAffinityFilter(AccountAffinityService accountAffinityService,
+                                 AffinityProperties affinityProperties,
+                                 List<AbstractJackson2HttpMessageConverter> converters,
+                                 ObjectMapper objectMapper) {
+        this.accountAffinityService = accountAffinityService;
+        this.affinityProperties = affinityProperties;
+        this.converters = converters;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(affinityProperties.getConnectTimeoutMillis()))
+                .build();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod())
+                || request.getHeader(FORWARDED_HEADER) != null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+        byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+        Optional<String> ownerUrl = readAccountNumber(request, body)
+                .flatMap(accountAffinityService::getRemoteOwnerUrl);
+        if (!ownerUrl.isPresent()) {
+            filterChain.doFilter(new CachedBodyRequest(request, body), response);
+            return;
+        }
+
+        String location = ownerUrl.get() + request.getRequestURI()
+                + (request.getQueryString() == null ? "" : "?" + request.getQueryString());
+        if (affinityProperties.getRouting() == AffinityRoutingType.REDIRECT) {
+            // 307 은 메서드와 본문을 그대로 다시 보내게 한다.
+            response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+            response.setHeader(HttpHeaders.LOCATION, location);
+            return;
+        }
+        forward(request, body, location, response);
+    }
+
+    private Optional<String> readAccountNumber(HttpServletRequest request, byte[] body) {
+        MediaType contentType = request.getContentType() == null
+                ? MediaType.APPLICATION_JSON
+                : MediaType.parseMediaType(request.getContentType());
+        for (AbstractJackson2HttpMessageConverter converter : converters) {
+            if (!converter.canRead(JsonNode.class, contentType)) {
+                continue;
+            }
+            try {
+                return Optional.ofNullable(converter.getObjectMapper().readTree(body))
+                        .map(tree -> tree.path("accountNumber").textValue());
+            } catch (IOException e) {
+                // 잘못된 본문은 이 노드의 컨트롤러가 INVALID_REQUEST 로 답한다.
+                return Optional.empty();
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void forward(HttpServletRequest request, byte[] body, String location,
+                         HttpServletResponse response) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(location))
+                .timeout(Duration.ofMillis(affinityProperties.getForwardTimeoutMillis()))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body));
+        for (String name : Collections.list(request.getHeaderNames())) {
+            if (!SKIPPED_HEADERS.contains(name)) {
+                for (String value : Collections.list(request.getHeaders(name))) {
+                    builder.header(name, value);
+                }
+            }
+        }
+        builder.header(FORWARDED_HEADER, accountAffinityService.getNodeId());
+
+        HttpResponse<byte[]> forwarded;
+        try {
+            forwarded = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (ConnectException | HttpConnectTimeoutException e) {
+            log.warn("Fail to connect account owner. {}", location, e);
+            writeError(response, HttpStatus.SERVICE_UNAVAILABLE, ErrorCode.ACCOUNT_OWNER_UNAVAILABLE);
+            return;
+        } catch (IOException e) {
+            // 보낸 뒤의 실패는 소유 노드가 처리했는지 알 수 없으므로 다시 처리하지 않는다.
+            log.error("Fail to forward to account owner. {}", location, e);
+            writeError(response, HttpStatus.BAD_GATEWAY, ErrorCode.INTERNAL_SERVER_ERROR);
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writeError(response, HttpStatus.BAD_GATEWAY, ErrorCode.INTERNAL_SERVER_ERROR);
+            return;
+        }
+
+        response.setStatus(forwarded.statusCode());
+        forwarded.headers().map().forEach((name, values) -> {
+            if (!name.startsWith(":") && !SKIPPED_HEADERS.contains(name)) {
+                values.forEach(value -> response.addHeader(name, value));
+            }
+        });
+        response.getOutputStream().write(forwarded.body());
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, ErrorCode errorCode)
+            throws IOException {
+        response.setStatus(status.value());
+        if (status == HttpStatus.SERVICE_UNAVAILABLE) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse(errorCode, errorCode.getDescription()));
+    }
+
+    private static Set<String> caseInsensitive(String... names) {
+        Set<String> set = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        set.addAll(Arrays.asList(names));
+        return set;
+    }
+
+    /**
+     * 계좌번호를 읽느라 소비한 본문을 컨트롤러가 다시 읽을 수 있게 한다.
+     */
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body),
+                    encoding == null ? StandardCharsets.UTF_8 : java.nio.charset.Charset.forName(encoding)));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
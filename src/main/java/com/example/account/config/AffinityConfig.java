@@ -0,0 +1,40 @@
+package com.example.account.config;
+
+import com.example.account.service.AccountAffinityService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 계좌 친화 라우팅 필터 등록
+ * 계좌 락을 잡는 요청만 거치도록 /transaction/* 에만 건다.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "account.affinity", name = "enabled", havingValue = "true")
+public class AffinityConfig {
+    @Bean
+    public FilterRegistrationBean<AccountAffinityFilter> accountAffinityFilter(
+            AccountAffinityService accountAffinityService,
+            AffinityProperties affinityProperties,
+            HttpMessageConverters httpMessageConverters,
+            ObjectMapper objectMapper) {
+        // 컨트롤러가 읽을 수 있는 본문(JSON, CBOR, Smile)에서 같은 방식으로 계좌번호를 읽는다.
+        List<AbstractJackson2HttpMessageConverter> converters =
+                httpMessageConverters.getConverters().stream()
+                        .filter(AbstractJackson2HttpMessageConverter.class::isInstance)
+                        .map(AbstractJackson2HttpMessageConverter.class::cast)
+                        .collect(Collectors.toList());
+        FilterRegistrationBean<AccountAffinityFilter> registration = new FilterRegistrationBean<>(
+                new AccountAffinityFilter(accountAffinityService, affinityProperties,
+                        converters, objectMapper));
+        registration.addUrlPatterns("/transaction/*");
+        return registration;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.account.config;
+
+import com.example.account.type.AffinityRoutingType;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "account.affinity")
+public class AffinityProperties {
+    private boolean enabled = false;
+    // 비어 있으면 기동 시 임의로 정한다.
+    private String nodeId = "";
+    // 다른 노드가 이 노드로 요청을 보낼 주소. 비어 있으면 http://127.0.0.1:{server.port}
+    private String advertisedUrl = "";
+    private long heartbeatMillis = 1000;
+    // 이 시간 동안 하트비트가 없으면 멤버에서 빠진다.
+    private long ttlMillis = 3000;
+    // 새 노드는 처음 보인 뒤 이 시간이 지나야 계좌를 맡는다. (다른 노드가 먼저 알아채도록)
+    private long joinDelayMillis = 3000;
+    // 멤버가 바뀐 뒤 이 시간 동안은 소유 노드도 Redis 락을 함께 잡는다.
+    private long stableMillis = 3000;
+    private int virtualNodes = 160;
+    private AffinityRoutingType routing = AffinityRoutingType.FORWARD;
+    private long connectTimeoutMillis = 500;
+    private long forwardTimeoutMillis = 5000;
+    // 안정 상태의 소유 노드는 Redis 락 없이 JVM 락만 잡는다.
+    private boolean localLock = true;
+}
@@ -0,0 +1,57 @@
+package com.example.account.config;
+
+/**
+ * 요청 단위 읽기 일관성 정보
+ * - requiredPosition : 클라이언트가 보낸 토큰. 복제본이 이 시점 이후까지 반영했을 때만 복제본에서 읽는다.
+ * - lastCommitPosition : 이 요청에서 커밋한 쓰기의 시점. 응답 헤더로 돌려준다.
+ */
+public final class ConsistencyContext {
+    public static final String HEADER = "X-Consistency-Token";
+
+    private static final ThreadLocal<Long> REQUIRED_POSITION = new ThreadLocal<>();
+    private static final ThreadLocal<Long> LAST_COMMIT_POSITION = new ThreadLocal<>();
+
+    private ConsistencyContext() {
+    }
+
+    public static Long getRequiredPosition() {
+        return REQUIRED_POSITION.get();
+    }
+
+    public static void require(Long position) {
+        REQUIRED_POSITION.set(position);
+    }
+
+    /**
+     * 요청 헤더(HTTP, gRPC 메타데이터)의 토큰을 읽어 둔다.
+     * 잘못된 토큰은 무시하지 않고 가장 안전하게 primary 에서 읽게 한다.
+     *
+     * @return 토큰이 올바르면 true
+     */
+    public static boolean requireToken(String token) {
+        try {
+            require(Long.parseLong(token));
+            return true;
+        } catch (NumberFormatException e) {
+            require(Long.MAX_VALUE);
+            return false;
+        }
+    }
+
+    public static Long getLastCommitPosition() {
+        return LAST_COMMIT_POSITION.get();
+    }
+
+    public static void recordCommit() {
+        recordCommit(System.currentTimeMillis());
+    }
+
+    public static void recordCommit(long position) {
+        LAST_COMMIT_POSITION.set(position);
+    }
+
+    public static void clear() {
+        REQUIRED_POSITION.remove();
+        LAST_COMMIT_POSITION.remove();
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.account.config;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * 이 요청에서 쓰기가 커밋되었으면 그 시점을 일관성 토큰 헤더로 돌려준다.
+ * 클라이언트는 다음 조회 요청에 같은 헤더를 보내 자신의 쓰기를 읽을 수 있다.
+ */
+@RestControllerAdvice
+public class ConsistencyTokenAdvice implements ResponseBodyAdvice<Object> {
+    @Override
+    public boolean supports(MethodParameter returnType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType,
+                                  MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        Long lastCommitPosition = ConsistencyContext.getLastCommitPosition();
+        if (lastCommitPosition != null) {
+            response.getHeaders().set(ConsistencyContext.HEADER, String.valueOf(lastCommitPosition));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.account.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * use-mode: ENGINE 일 때 메모리 잔액 엔진 설정
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "account.engine")
+public class EngineProperties {
+    // 계좌번호로 나누는 단일 스레드 파티션 수
+    private int partitions = 4;
+    private int queueCapacity = 10_000;
+    // 파티션 스레드가 한 번에 꺼내 처리하고 fsync 하는 최대 요청 수
+    private int maxBatchSize = 256;
+    // 파티션별 저널/스냅샷 위치
+    private String journalDir = "data/engine";
+    // 파티션별 저널 크기. 가득 차면 스냅샷을 남기고 처음부터 다시 쓴다.
+    private int journalBytes = 64 * 1024 * 1024;
+    // false 이면 배치마다 fsync 하지 않는다. (OS 에 맡김, 장애 시 마지막 배치 유실 가능)
+    private boolean forcePerBatch = true;
+    // DB 반영 배치 크기
+    private int projectionBatchSize = 500;
+    private long projectionRetryMillis = 1000;
+    // 요청 스레드가 파티션 결과를 기다리는 시간
+    private long timeoutMillis = 5000;
+}
@@ -0,0 +1,18 @@
+package com.example.account.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "account.grpc")
+public class GrpcProperties {
+    private boolean enabled = false;
+    // 0 이면 빈 포트를 고른다. (테스트용)
+    private int port = 9090;
+    // 종료 시 처리 중인 호출을 기다리는 최대 시간
+    private long shutdownSeconds = 5;
+}
@@ -1,29 +1,55 @@
 package com.example.account.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Configuration;
 import redis.embedded.RedisServer;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 @Configuration
+@ConditionalOnProperty(prefix = "account.redis", name = "embedded",
+        havingValue = "true", matchIfMissing = true)
 public class LocalRedisConfig {
     @Value("${spring.redis.port}")
     private int redisPort;
 
-    private RedisServer redisServer;
+    private final RedisLockProperties redisLockProperties;
 
+    private final List<RedisServer> redisServers = new ArrayList<>();
+
+    public LocalRedisConfig(RedisLockProperties redisLockProperties) {
+        this.redisLockProperties = redisLockProperties;
+    }
+
+    /**
+     * spring.redis 와 로컬 주소의 락 노드마다 내장 Redis 를 띄운다.
+     */
     @PostConstruct
     public void startRedis() {
-        redisServer = new RedisServer(redisPort);
-        redisServer.start();
+        Set<Integer> ports = new LinkedHashSet<>();
+        ports.add(redisPort);
+        for (String node : redisLockProperties.getNodes()) {
+            URI uri = URI.create(node);
+            if ("localhost".equals(uri.getHost()) || "127.0.0.1".equals(uri.getHost())) {
+                ports.add(uri.getPort());
+            }
+        }
+        for (int port : ports) {
+            RedisServer redisServer = new RedisServer(port);
+            redisServer.start();
+            redisServers.add(redisServer);
+        }
     }
 
     @PreDestroy
     public void stopRedis() {
-        if (redisServer != null) {
-            redisServer.stop();
-        }
+        redisServers.forEach(RedisServer::stop);
     }
 }
@@ -0,0 +1,30 @@
+package com.example.account.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * 업무 지표 설정. 지표는 /actuator/prometheus 로 노출된다.
+ */
+@Configuration
+public class MetricsConfig {
+    /**
+     * JPA 가 쓰는 기본 dataSource 만 감싼다. (라우팅 대상 DataSource 까지 감싸면 두 번 잰다.)
+     */
+    @Bean
+    public static BeanPostProcessor timedDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource
+                        && !(bean instanceof TimedDataSource)) {
+                    return new TimedDataSource((DataSource) bean);
+                }
+                return bean;
+            }
+        };
+    }
+}
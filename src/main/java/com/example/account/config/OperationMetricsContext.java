@@ -0,0 +1,71 @@
+package com.example.account.config;
+
+import com.example.account.type.ErrorCode;
+
+/**
+ * 요청 단위 측정값
+ * - dbNanos : JDBC 실행/커밋에 쓴 시간
+ * - lockNanos : 계좌 락 획득/해제에 쓴 시간
+ * - errorCode : GlobalExceptionHandler 가 응답한 에러 코드
+ * 요청 스레드에서만 쌓인다. (그룹 커밋 배치, 샤드 병렬 조회는 다른 스레드라 빠진다.)
+ */
+public final class OperationMetricsContext {
+    private static final ThreadLocal<Timings> TIMINGS = new ThreadLocal<>();
+
+    private OperationMetricsContext() {
+    }
+
+    public static void begin() {
+        TIMINGS.set(new Timings());
+    }
+
+    public static void addDbTime(long nanos) {
+        Timings timings = TIMINGS.get();
+        if (timings != null) {
+            timings.dbNanos += nanos;
+        }
+    }
+
+    public static void addLockTime(long nanos) {
+        Timings timings = TIMINGS.get();
+        if (timings != null) {
+            timings.lockNanos += nanos;
+        }
+    }
+
+    public static void recordError(ErrorCode errorCode) {
+        Timings timings = TIMINGS.get();
+        if (timings != null) {
+            timings.errorCode = errorCode;
+        }
+    }
+
+    public static Timings end() {
+        Timings timings = TIMINGS.get();
+        TIMINGS.remove();
+        return timings;
+    }
+
+    public static final class Timings {
+        private final long startNanos = System.nanoTime();
+        private long dbNanos;
+        private long lockNanos;
+        private ErrorCode errorCode;
+
+        public long getStartNanos() {
+            return startNanos;
+        }
+
+        public long getDbNanos() {
+            return dbNanos;
+        }
+
+        public long getLockNanos() {
+            return lockNanos;
+        }
+
+        public ErrorCode getErrorCode() {
+            return errorCode;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.account.config;
+
+import com.example.account.aop.MeteredOperation;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * {@link MeteredOperation} 이 붙은 요청의 시간을 나눠서 기록한다. (지표는 {@link OperationMetricsRecorder})
+ */
+public class OperationMetricsInterceptor implements HandlerInterceptor {
+    private final OperationMetricsRecorder recorder;
+
+    public OperationMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.recorder = new OperationMetricsRecorder(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+                             Object handler) {
+        if (getOperation(handler) != null) {
+            OperationMetricsContext.begin();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        String operation = getOperation(handler);
+        OperationMetricsContext.Timings timings = OperationMetricsContext.end();
+        if (operation == null || timings == null) {
+            return;
+        }
+        recorder.record(operation, timings, ex != null);
+    }
+
+    private static String getOperation(Object handler) {
+        if (!(handler instanceof HandlerMethod)) {
+            return null;
+        }
+        MeteredOperation meteredOperation =
+                ((HandlerMethod) handler).getMethodAnnotation(MeteredOperation.class);
+        return meteredOperation == null ? null : meteredOperation.value();
+    }
+}
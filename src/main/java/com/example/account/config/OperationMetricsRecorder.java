@@ -0,0 +1,51 @@
+package com.example.account.config;
+
+import com.example.account.type.ErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청 하나의 {@link OperationMetricsContext} 측정값을 지표로 남긴다. (HTTP, gRPC 공통)
+ * - account.operation{operation, outcome, error_code} : 전체 시간
+ * - account.operation.db{operation}, account.operation.lock{operation} : 그중 DB / 락 시간
+ * - account.operation.errors{operation, error_code} : 실패 건수
+ */
+@RequiredArgsConstructor
+public class OperationMetricsRecorder {
+    private static final String NONE = "NONE";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * @param failed 에러 코드 없이 예외로 끝났는지. 그렇다면 INTERNAL_SERVER_ERROR 로 센다.
+     */
+    public void record(String operation, OperationMetricsContext.Timings timings, boolean failed) {
+        ErrorCode errorCode = timings.getErrorCode();
+        if (errorCode == null && failed) {
+            errorCode = ErrorCode.INTERNAL_SERVER_ERROR;
+        }
+        String errorTag = errorCode == null ? NONE : errorCode.name();
+
+        Timer.builder("account.operation")
+                .tag("operation", operation)
+                .tag("outcome", errorCode == null ? "SUCCESS" : "FAILURE")
+                .tag("error_code", errorTag)
+                .register(meterRegistry)
+                .record(System.nanoTime() - timings.getStartNanos(), TimeUnit.NANOSECONDS);
+        Timer.builder("account.operation.db")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .record(timings.getDbNanos(), TimeUnit.NANOSECONDS);
+        Timer.builder("account.operation.lock")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .record(timings.getLockNanos(), TimeUnit.NANOSECONDS);
+        if (errorCode != null) {
+            meterRegistry.counter("account.operation.errors",
+                    "operation", operation, "error_code", errorTag).increment();
+        }
+    }
+}
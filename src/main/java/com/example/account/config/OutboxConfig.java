@@ -0,0 +1,22 @@
+package com.example.account.config;
+
+import com.example.account.service.FileOutboxSink;
+import com.example.account.service.InMemoryOutboxSink;
+import com.example.account.service.OutboxSink;
+import com.example.account.type.OutboxSinkType;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+@Configuration
+public class OutboxConfig {
+    @Bean
+    public OutboxSink outboxSink(OutboxProperties outboxProperties) throws IOException {
+        if (outboxProperties.getSink() == OutboxSinkType.FILE) {
+            return new FileOutboxSink(Paths.get(outboxProperties.getFile()));
+        }
+        return new InMemoryOutboxSink(outboxProperties.getMemoryCapacity());
+    }
+}
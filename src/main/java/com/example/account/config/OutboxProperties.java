@@ -0,0 +1,30 @@
+package com.example.account.config;
+
+import com.example.account.type.OutboxSinkType;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "account.outbox")
+public class OutboxProperties {
+    // false 이면 아웃박스에 쌓기만 하고 발행하지 않는다. (다른 노드의 릴레이가 발행)
+    // 발행한 행은 지워지므로 sink 를 소비하는 쪽이 준비된 배포에서만 켠다.
+    private boolean relayEnabled = false;
+    // 비어 있으면 기동 시 임의로 정한다.
+    private String relayId = "";
+    private OutboxSinkType sink = OutboxSinkType.MEMORY;
+    private int memoryCapacity = 10_000;
+    private String file = "data/outbox/balance-events.log";
+    // 한 번에 선점/발행하는 최대 행 수
+    private int batchSize = 200;
+    // 아웃박스가 빌 때까지 배치를 이어서 돌리다가, 비면 이 간격으로 다시 확인한다.
+    private long pollMillis = 200;
+    // 한 번 깨어났을 때 샤드별로 처리하는 최대 배치 수
+    private int maxBatchesPerPoll = 50;
+    // 선점 후 이 시간 안에 발행/삭제하지 못하면 다른 릴레이가 다시 가져간다.
+    private long leaseMillis = 30_000;
+}
@@ -0,0 +1,56 @@
+package com.example.account.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 계좌/사용자 단위 토큰 버킷 설정
+ * 계좌는 등급(tier) 별로 버킷 크기를 다르게 줄 수 있고,
+ * 등급이 지정되지 않은 계좌는 defaultTier 를 따른다.
+ * 크기나 충전량이 0 이하인 버킷은 기동 시 거부한다. (스크립트가 충전량으로 나눈다)
+ */
+@Getter
+@Setter
+@Component
+@Validated
+@ConfigurationProperties(prefix = "account.rate-limit")
+public class RateLimitProperties {
+    // 기존 클라이언트에 429 를 돌려주지 않도록 배포에서 켠다.
+    private boolean enabled = false;
+    private String defaultTier = "standard";
+    private Map<String, @Valid Bucket> tiers = new HashMap<>();
+    private Map<String, String> accountTiers = new HashMap<>();
+    @Valid
+    private Bucket user = new Bucket(50, 25);
+
+    public Bucket getAccountBucket(String accountNumber) {
+        String tier = accountTiers.getOrDefault(accountNumber, defaultTier);
+        Bucket bucket = tiers.get(tier);
+        if (bucket == null) {
+            throw new IllegalStateException("Unknown rate limit tier : " + tier);
+        }
+        return bucket;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bucket {
+        @Positive
+        private long capacity;
+        @Positive
+        private double refillPerSecond;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.account.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 요청의 일관성 토큰을 읽어 두고, 요청이 끝나면 지운다.
+ */
+@Slf4j
+public class ReadConsistencyInterceptor implements HandlerInterceptor {
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+                             Object handler) {
+        String token = request.getHeader(ConsistencyContext.HEADER);
+        if (token != null && !ConsistencyContext.requireToken(token)) {
+            log.debug("Invalid consistency token : {}", token);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        ConsistencyContext.clear();
+    }
+}
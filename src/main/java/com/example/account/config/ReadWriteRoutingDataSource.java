@@ -0,0 +1,81 @@
+package com.example.account.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 읽기 전용 트랜잭션은 복제본으로, 나머지는 primary 로 보낸다.
+ * 1. 요청이 일관성 토큰을 가지고 있고 복제본이 그 시점까지 따라오지 못했으면 primary 에서 읽는다.
+ * 2. 쓰기 트랜잭션이 커밋되면 그 시점을 요청에 남겨 토큰으로 돌려준다.
+ * 커넥션은 LazyConnectionDataSourceProxy 를 통해 트랜잭션 속성이 정해진 뒤에 얻어야 한다.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private static final Object COMMIT_MARKER_KEY = new Object();
+
+    private final ReplicaPositionSource replicaPositionSource;
+    private final LongAdder primaryReads = new LongAdder();
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+
+    public ReadWriteRoutingDataSource(ReplicaPositionSource replicaPositionSource) {
+        this.replicaPositionSource = replicaPositionSource;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writes.increment();
+            registerCommitMarker();
+            return PRIMARY;
+        }
+        if (isReplicaCaughtUp()) {
+            replicaReads.increment();
+            return REPLICA;
+        }
+        primaryReads.increment();
+        return PRIMARY;
+    }
+
+    private boolean isReplicaCaughtUp() {
+        Long requiredPosition = ConsistencyContext.getRequiredPosition();
+        return requiredPosition == null
+                || replicaPositionSource.getReplicatedUpTo() > requiredPosition;
+    }
+
+    private static void registerCommitMarker() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(COMMIT_MARKER_KEY)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(COMMIT_MARKER_KEY, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ConsistencyContext.recordCommit();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(COMMIT_MARKER_KEY);
+            }
+        });
+    }
+
+    public long getPrimaryReads() {
+        return primaryReads.sum();
+    }
+
+    public long getReplicaReads() {
+        return replicaReads.sum();
+    }
+
+    public long getWrites() {
+        return writes.sum();
+    }
+}
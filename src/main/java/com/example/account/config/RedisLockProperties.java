@@ -0,0 +1,26 @@
+package com.example.account.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 계좌 락을 나눠 담을 Redis 노드 목록
+ * 비어 있으면 spring.redis 하나만 쓴다.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "account.lock")
+public class RedisLockProperties {
+    // redis://host:port
+    private List<String> nodes = new ArrayList<>();
+    // 노드당 해시 링 위의 가상 노드 수
+    private int virtualNodes = 160;
+    // 정족수 락을 잡을 노드 수 (키의 주 노드 + 링을 따라 다음 노드들)
+    private int quorumSize = 3;
+}
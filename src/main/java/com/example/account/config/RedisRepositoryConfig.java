@@ -1,5 +1,6 @@
 package com.example.account.config;
 
+import com.example.account.service.RedisLockRouter;
 import org.redisson.Redisson;
 import org.redisson.api.RedissonClient;
 import org.redisson.config.Config;
@@ -7,6 +8,9 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Collections;
+import java.util.List;
+
 @Configuration
 public class RedisRepositoryConfig {
     @Value("${spring.redis.host}")
@@ -22,4 +26,14 @@ public class RedisRepositoryConfig {
 
         return Redisson.create(config);
     }
+
+    @Bean(destroyMethod = "shutdown")
+    public RedisLockRouter redisLockRouter(RedisLockProperties redisLockProperties) {
+        List<String> nodes = redisLockProperties.getNodes().isEmpty()
+                ? Collections.singletonList("redis://" + redisHost + ":" + redisPort)
+                : redisLockProperties.getNodes();
+
+        return new RedisLockRouter(nodes,
+                redisLockProperties.getVirtualNodes(), redisLockProperties.getQuorumSize());
+    }
 }
@@ -0,0 +1,91 @@
+package com.example.account.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * account.replica.enabled=true 일 때 읽기 전용 트랜잭션을 복제본으로 보낸다.
+ * 샤딩과 함께 쓰지 않는다. (샤드별 복제본은 아직 지원하지 않는다.)
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "account.replica", name = "enabled", havingValue = "true")
+public class ReplicaConfig {
+    private final DataSourceProperties dataSourceProperties;
+    private final ReplicaProperties replicaProperties;
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(
+            ReplicaPositionSource replicaPositionSource
+    ) {
+        Map<Object, Object> targetDataSources = new HashMap<>();
+        targetDataSources.put(ReadWriteRoutingDataSource.PRIMARY, primaryDataSource());
+        targetDataSources.put(ReadWriteRoutingDataSource.REPLICA, replicaDataSource());
+
+        ReadWriteRoutingDataSource routingDataSource =
+                new ReadWriteRoutingDataSource(replicaPositionSource);
+        routingDataSource.setTargetDataSources(targetDataSources);
+        routingDataSource.setDefaultTargetDataSource(primaryDataSource());
+        return routingDataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+
+    @Bean
+    public DataSource primaryDataSource() {
+        return dataSourceProperties.initializeDataSourceBuilder().build();
+    }
+
+    @Bean
+    public DataSource replicaDataSource() {
+        DataSource dataSource = DataSourceBuilder.create()
+                .url(replicaProperties.getUrl())
+                .username(replicaProperties.getUsername())
+                .password(replicaProperties.getPassword())
+                .build();
+        if (replicaProperties.getSimulation().isEnabled()) {
+            new ResourceDatabasePopulator(new ClassPathResource("db/schema.sql"))
+                    .execute(dataSource);
+        }
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnProperty(prefix = "account.replica.simulation", name = "enabled",
+            havingValue = "true", matchIfMissing = true)
+    public SimulatedReplicator simulatedReplicator() {
+        log.info("Simulated replication enabled. lag : {}ms",
+                replicaProperties.getSimulation().getLagMillis());
+        return new SimulatedReplicator(primaryDataSource(), replicaDataSource(),
+                replicaProperties.getSimulation().getLagMillis());
+    }
+
+    /**
+     * 복제 위치를 알 수 없으면 토큰을 가진 읽기는 모두 primary 로 간다.
+     * 실제 복제본을 쓸 때는 DB 의 복제 지연 정보로 ReplicaPositionSource 를 등록한다.
+     */
+    @Bean
+    @ConditionalOnMissingBean(ReplicaPositionSource.class)
+    public ReplicaPositionSource unknownReplicaPosition() {
+        return () -> Long.MIN_VALUE;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.account.config;
+
+/**
+ * 복제본이 primary 의 어느 시점(ms)까지 반영했는지 알려준다.
+ */
+@FunctionalInterface
+public interface ReplicaPositionSource {
+    long getReplicatedUpTo();
+}
@@ -0,0 +1,30 @@
+package com.example.account.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 읽기 전용 복제본 설정. 샤딩을 쓰지 않을 때 spring.datasource 를 primary 로 쓴다.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "account.replica")
+public class ReplicaProperties {
+    private boolean enabled = false;
+    private String url;
+    private String username;
+    private String password;
+    private Simulation simulation = new Simulation();
+
+    @Getter
+    @Setter
+    public static class Simulation {
+        // 로컬 확인용 : primary 를 주기적으로 복제본에 복사한다.
+        private boolean enabled = true;
+        // 복사 주기. 복제본은 최대 이만큼 뒤처진다.
+        private long lagMillis = 500;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.account.config;
+
+import java.util.function.Supplier;
+
+/**
+ * 현재 스레드가 사용할 샤드 번호. 샤드를 정하지 않은 스레드는 null 이다.
+ */
+public final class ShardContext {
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @return 이전 샤드 번호. 끝나면 {@link #restore(Integer)} 로 되돌린다.
+     */
+    public static Integer bind(int shard) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        return previous;
+    }
+
+    public static void restore(Integer previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    public static <T> T callOn(int shard, Supplier<T> supplier) {
+        Integer previous = bind(shard);
+        try {
+            return supplier.get();
+        } finally {
+            restore(previous);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.account.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * 커넥션을 얻는 시점의 {@link ShardContext} 로 샤드를 고른다.
+ * 샤드가 정해지지 않은 요청(사용자 조회 등 모든 샤드에 복제된 데이터)은 0번 샤드로 간다.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardContext.current();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.account.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * account.sharding.enabled=true 일 때 spring.datasource 대신 샤드 라우팅 DataSource 를 쓴다.
+ * 1. 샤드마다 스키마(db/schema.sql)와 사용자 데이터(data.sql)를 만든다.
+ * 2. 샤드마다 id 시퀀스를 샤드 번호에서 시작해 샤드 수 간격으로 증가시켜 id 로 샤드를 알 수 있게 한다.
+ * 3. 커넥션은 첫 SQL 을 실행할 때 얻으므로 트랜잭션이 먼저 시작되어도 샤드가 정해진 뒤에 라우팅된다.
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "account.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+    // 거래 id 앞 2자리(16진수)에 샤드 번호를 넣는다.
+    public static final int MAX_SHARDS = 256;
+    // data.sql 로 넣는 사용자 id 와 겹치지 않도록 시퀀스를 띄워서 시작한다.
+    private static final long SEQUENCE_BASE = 1000;
+
+    private final ShardingProperties shardingProperties;
+
+    @Bean
+    @Primary
+    public DataSource dataSource() {
+        return createRoutingDataSource(shardingProperties.getShards());
+    }
+
+    public static DataSource createRoutingDataSource(List<ShardingProperties.Shard> shards) {
+        if (shards.isEmpty() || shards.size() > MAX_SHARDS) {
+            throw new IllegalStateException("Shard count must be 1.." + MAX_SHARDS
+                    + " : " + shards.size());
+        }
+
+        Map<Object, Object> targetDataSources = new HashMap<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            DataSource dataSource = DataSourceBuilder.create()
+                    .url(shards.get(shard).getUrl())
+                    .username(shards.get(shard).getUsername())
+                    .password(shards.get(shard).getPassword())
+                    .build();
+            initialize(dataSource, shard, shards.size());
+            targetDataSources.put(shard, dataSource);
+        }
+        log.info("Sharding enabled. shards : {}", shards.size());
+
+        ShardRoutingDataSource routingDataSource = new ShardRoutingDataSource();
+        routingDataSource.setTargetDataSources(targetDataSources);
+        routingDataSource.setDefaultTargetDataSource(targetDataSources.get(0));
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    private static void initialize(DataSource dataSource, int shard, int shardCount) {
+        new ResourceDatabasePopulator(
+                new ClassPathResource("db/schema.sql"),
+                new ClassPathResource("data.sql")
+        ).execute(dataSource);
+        new JdbcTemplate(dataSource).execute(
+                "create sequence hibernate_sequence start with "
+                        + (SEQUENCE_BASE * shardCount + shard)
+                        + " increment by " + shardCount);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.account.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 샤드 목록. 목록의 순서가 샤드 번호이며, 계좌번호와 거래 id 에 샤드 번호가 들어가므로
+ * 운영 중에는 순서를 바꾸거나 샤드 수를 바꿀 수 없다.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "account.sharding")
+public class ShardingProperties {
+    private boolean enabled = false;
+    private List<Shard> shards = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.account.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 로컬용 복제 흉내 : lagMillis 마다 primary 의 테이블을 통째로 복제본에 복사한다.
+ * 복사를 시작한 시각을 복제 위치로 삼으므로 그보다 먼저 커밋된 쓰기는 모두 복제본에 있다.
+ */
+@Slf4j
+public class SimulatedReplicator implements ReplicaPositionSource {
+    // 외래 키 순서
+    private static final String[] TABLES = {"account_user", "account", "transaction", "balance_hold"};
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final TransactionTemplate replicaTransaction;
+    private final ScheduledExecutorService executor;
+    private volatile long replicatedUpTo = Long.MIN_VALUE;
+
+    public SimulatedReplicator(DataSource primary, DataSource replica, long lagMillis) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.replicaTransaction = new TransactionTemplate(new DataSourceTransactionManager(replica));
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "simulated-replicator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::replicate, lagMillis, lagMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public long getReplicatedUpTo() {
+        return replicatedUpTo;
+    }
+
+    void replicate() {
+        try {
+            long position = System.currentTimeMillis();
+            List<List<Map<String, Object>>> snapshot = new ArrayList<>();
+            for (String table : TABLES) {
+                snapshot.add(primary.queryForList("select * from " + table));
+            }
+            replicaTransaction.executeWithoutResult(status -> {
+                for (int i = TABLES.length - 1; i >= 0; i--) {
+                    replica.update("delete from " + TABLES[i]);
+                }
+                for (int i = 0; i < TABLES.length; i++) {
+                    insertAll(TABLES[i], snapshot.get(i));
+                }
+            });
+            replicatedUpTo = position;
+        } catch (Exception e) {
+            log.warn("Simulated replication failed", e);
+        }
+    }
+
+    private void insertAll(String table, List<Map<String, Object>> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<String> columns = new ArrayList<>(rows.get(0).keySet());
+        String sql = "insert into " + table + "(" + String.join(", ", columns) + ") values ("
+                + columns.stream().map(column -> "?").collect(Collectors.joining(", ")) + ")";
+        replica.batchUpdate(sql, rows.stream()
+                .map(row -> columns.stream().map(row::get).toArray())
+                .collect(Collectors.toList()));
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.account.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "account.startup")
+public class StartupProperties {
+    // 기동 직후 백그라운드에서 지연 초기화된 빈과 Redis/DB 연결을 미리 만든다.
+    private boolean warmUp = false;
+    // 기동 단계별 소요 시간을 로그로 남긴다.
+    private boolean report = false;
+    private int reportTop = 15;
+    // 기동이 끝나면 바로 종료한다. (CDS 아카이브 생성용)
+    private boolean exitOnReady = false;
+}
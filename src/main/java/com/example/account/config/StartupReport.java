@@ -0,0 +1,78 @@
+package com.example.account.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * 기동 시간 분석
+ * 1. 단계(step 이름)별 합계 : 빈 생성, JPA 초기화, 리포지토리 초기화, 컨텍스트 refresh 등
+ * 2. 생성에 오래 걸린 빈 상위 N 개 (내장 Redis, Redisson, EntityManagerFactory 등)
+ * BufferingApplicationStartup 으로 기동했을 때만 동작한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StartupReport {
+    private final StartupProperties startupProperties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady(ApplicationReadyEvent event) {
+        ConfigurableApplicationContext context = event.getApplicationContext();
+        ApplicationStartup applicationStartup = context.getApplicationStartup();
+
+        if (startupProperties.isReport()
+                && applicationStartup instanceof BufferingApplicationStartup) {
+            log.info("Startup breakdown (ready in {} ms)\n{}",
+                    event.getTimeTaken() == null ? "?" : event.getTimeTaken().toMillis(),
+                    summarize(((BufferingApplicationStartup) applicationStartup).getBufferedTimeline(),
+                            startupProperties.getReportTop()));
+        }
+
+        if (startupProperties.isExitOnReady()) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    static String summarize(StartupTimeline timeline, int top) {
+        Map<String, Duration> byStep = new TreeMap<>();
+        List<Map.Entry<String, Duration>> beans = new ArrayList<>();
+        for (StartupTimeline.TimelineEvent event : timeline.getEvents()) {
+            StartupStep step = event.getStartupStep();
+            byStep.merge(step.getName(), event.getDuration(), Duration::plus);
+            if ("spring.beans.instantiate".equals(step.getName())) {
+                for (StartupStep.Tag tag : step.getTags()) {
+                    if ("beanName".equals(tag.getKey())) {
+                        beans.add(new AbstractMap.SimpleEntry<>(tag.getValue(), event.getDuration()));
+                    }
+                }
+            }
+        }
+        // 빈 생성 시간은 의존 빈 생성 시간을 포함한다.
+        beans.sort(Map.Entry.<String, Duration>comparingByValue().reversed());
+
+        StringBuilder report = new StringBuilder("  [steps]\n");
+        byStep.entrySet().stream()
+                .sorted(Map.Entry.<String, Duration>comparingByValue().reversed())
+                .limit(top)
+                .forEach(entry -> report.append(String.format("  %6d ms  %s%n",
+                        entry.getValue().toMillis(), entry.getKey())));
+        report.append("  [beans, inclusive]\n");
+        beans.stream()
+                .limit(top)
+                .forEach(entry -> report.append(String.format("  %6d ms  %s%n",
+                        entry.getValue().toMillis(), entry.getKey())));
+        return report.toString();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.account.config;
+
+import com.example.account.repository.AccountUserRepository;
+import com.example.account.service.LockService;
+import com.example.account.service.RateLimitService;
+import com.example.account.service.RedisLockRouter;
+import com.example.account.service.TransactionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * 지연 초기화(faststart) 프로필에서 첫 요청이 빈 생성과 Redis/DB 연결을 떠안지 않도록
+ * 트래픽을 받기 시작한 뒤 백그라운드에서 미리 만들어 둔다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StartupWarmUp {
+    private final StartupProperties startupProperties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady(ApplicationReadyEvent event) {
+        if (!startupProperties.isWarmUp() || startupProperties.isExitOnReady()) {
+            return;
+        }
+        ApplicationContext context = event.getApplicationContext();
+        Thread thread = new Thread(() -> warmUp(context), "startup-warm-up");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static void warmUp(ApplicationContext context) {
+        long startedAt = System.nanoTime();
+        try {
+            context.getBean(TransactionService.class);
+            context.getBean(LockService.class);
+            context.getBean(RateLimitService.class);
+            context.getBean(RedisLockRouter.class).getLock("ACLK:warm-up").isLocked();
+            context.getBean(AccountUserRepository.class).existsById(0L);
+            log.info("Warm-up finished in {} ms", (System.nanoTime() - startedAt) / 1_000_000);
+        } catch (Exception e) {
+            log.warn("Warm-up failed", e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.account.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "account.stream")
+public class StreamProperties {
+    // 노드 간 변경 전달에 쓰는 Redis 채널
+    private String topic = "account:balance-changed";
+    // 이 시간 동안 모인 같은 사용자의 변경은 계좌별 마지막 값만 한 번에 보낸다.
+    private long coalesceMillis = 200;
+    // 끊긴 연결을 찾고 프록시의 유휴 연결 종료를 막는다.
+    private long heartbeatSeconds = 30;
+    // 0 이면 서버에서 끊지 않는다.
+    private long timeoutMillis = 0;
+    private int maxConnections = 50_000;
+    private int maxConnectionsPerUser = 5;
+}
@@ -0,0 +1,73 @@
+package com.example.account.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * 쿼리 실행과 커밋/롤백에 걸린 시간을 {@link OperationMetricsContext} 에 더한다.
+ * 연결 획득 대기 시간은 포함하지 않는다. (커넥션 풀 지표로 따로 본다.)
+ */
+public class TimedDataSource extends DelegatingDataSource {
+
+    public TimedDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(Connection.class, super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(Connection.class, super.getConnection(username, password));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T wrap(Class<T> type, T target) {
+        return (T) Proxy.newProxyInstance(TimedDataSource.class.getClassLoader(),
+                new Class<?>[]{type}, new TimingHandler(target));
+    }
+
+    private static class TimingHandler implements InvocationHandler {
+        private final Object target;
+
+        private TimingHandler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("unwrap".equals(name) || "isWrapperFor".equals(name)) {
+                return method.invoke(target, args);
+            }
+            boolean timed = name.startsWith("execute") || "commit".equals(name) || "rollback".equals(name);
+            long start = timed ? System.nanoTime() : 0;
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                if (timed) {
+                    OperationMetricsContext.addDbTime(System.nanoTime() - start);
+                }
+            }
+            // 문장 객체도 감싸서 실행 시간을 잰다.
+            if (result instanceof Statement && method.getReturnType().isInterface()) {
+                return wrap((Class<Object>) method.getReturnType(), result);
+            }
+            return result;
+        }
+    }
+}
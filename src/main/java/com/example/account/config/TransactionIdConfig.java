@@ -0,0 +1,31 @@
+package com.example.account.config;
+
+import com.example.account.service.RandomTransactionIdGenerator;
+import com.example.account.service.TimeOrderedTransactionIdGenerator;
+import com.example.account.service.TransactionIdGenerator;
+import com.example.account.type.TransactionIdType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+@Slf4j
+@Configuration
+public class TransactionIdConfig {
+    @Bean
+    public TransactionIdGenerator transactionIdGenerator(TransactionProperties transactionProperties) {
+        TransactionProperties.Id id = transactionProperties.getId();
+        if (id.getGenerator() == TransactionIdType.RANDOM) {
+            return new RandomTransactionIdGenerator();
+        }
+
+        int nodeId = id.getNodeId();
+        if (nodeId < 0) {
+            // 노드 id 를 정하지 않으면 임의로 고른다. 노드 간 유일성은 난수 부분에 맡긴다.
+            nodeId = ThreadLocalRandom.current().nextInt(TimeOrderedTransactionIdGenerator.MAX_NODE_ID + 1);
+            log.info("account.transaction.id.node-id is not set. Using random node id : {}", nodeId);
+        }
+        return new TimeOrderedTransactionIdGenerator(nodeId);
+    }
+}
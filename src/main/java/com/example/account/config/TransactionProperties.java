@@ -0,0 +1,49 @@
+package com.example.account.config;
+
+import com.example.account.type.TransactionIdType;
+import com.example.account.type.UseBalanceMode;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "account.transaction")
+public class TransactionProperties {
+    private UseBalanceMode useMode = UseBalanceMode.LOCKED;
+    private GroupCommit groupCommit = new GroupCommit();
+    private Hold hold = new Hold();
+    private Id id = new Id();
+
+    @Getter
+    @Setter
+    public static class GroupCommit {
+        // 첫 요청 이후 같은 계좌 요청을 모으는 시간
+        private long windowMillis = 2;
+        private int maxBatchSize = 100;
+        private int threads = 4;
+        // 배치에 들어가지 못한 요청이 포기하는 시간
+        private long timeoutMillis = 5000;
+    }
+
+    @Getter
+    @Setter
+    public static class Hold {
+        // 확정/해제되지 않은 홀드가 자동으로 풀리는 시간
+        private long ttlSeconds = 600;
+        // 만료 처리 중 락을 얻지 못하면 다시 시도하기까지의 시간
+        private long retryMillis = 1000;
+        // 만료 타이머는 이 시간 안에 만료되는 홀드만 DB 에서 읽어 둔다. (절반이 지나면 다음 구간을 읽는다)
+        private long horizonSeconds = 60;
+    }
+
+    @Getter
+    @Setter
+    public static class Id {
+        private TransactionIdType generator = TransactionIdType.TIME_ORDERED;
+        // 0..65535, 노드마다 다르게 준다. 음수면 기동 시 임의로 고른다.
+        private int nodeId = -1;
+    }
+}
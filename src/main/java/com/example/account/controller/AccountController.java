@@ -1,12 +1,19 @@
 package com.example.account.controller;
 
-import com.example.account.domain.Account;
+import com.example.account.aop.MeteredOperation;
+import com.example.account.dto.AccountDto;
 import com.example.account.dto.AccountInfo;
 import com.example.account.dto.CreateAccount;
 import com.example.account.dto.DeleteAccount;
+import com.example.account.engine.BalanceEngine;
+import com.example.account.exception.AccountException;
 import com.example.account.service.AccountService;
+import com.example.account.service.BalanceStreamHub;
+import com.example.account.type.ErrorCode;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import javax.validation.Valid;
 import java.util.List;
@@ -16,8 +23,11 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AccountController {
     private final AccountService accountService;
+    private final BalanceEngine balanceEngine;
+    private final BalanceStreamHub balanceStreamHub;
 
     @PostMapping("/account")
+    @MeteredOperation("createAccount")
     public CreateAccount.Response createAccount(
             @RequestBody @Valid CreateAccount.Request request
     ) {
@@ -30,9 +40,14 @@ public class AccountController {
     }
 
     @DeleteMapping("/account")
+    @MeteredOperation("deleteAccount")
     public DeleteAccount.Response deleteAccount(
             @RequestBody @Valid DeleteAccount.Request request
     ) {
+        // 엔진 모드에서는 잔액이 엔진에 있으므로 DB 잔액으로 해지 여부를 판단할 수 없다.
+        if (balanceEngine.isEnabled()) {
+            throw AccountException.of(ErrorCode.ENGINE_MODE_UNSUPPORTED);
+        }
         return DeleteAccount.Response.from(
                 accountService.deleteAccount(
                         request.getUserId(),
@@ -45,6 +60,26 @@ public class AccountController {
     public List<AccountInfo> getAccountsByUserId(
             @RequestParam("user_id") Long userId
     ) {
+        return getAccountInfos(userId);
+    }
+
+    /**
+     * 현재 계좌 목록을 먼저 보내고, 이후 잔액이 바뀔 때마다 변경된 계좌를 보낸다.
+     */
+    @GetMapping(value = "/account/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAccounts(
+            @RequestParam("user_id") Long userId
+    ) {
+        return balanceStreamHub.subscribe(userId, getAccountInfos(userId));
+    }
+
+    @GetMapping("/account/{id}")
+    public AccountDto getAccount(
+            @PathVariable Long id) {
+        return accountService.getAccount(id);
+    }
+
+    private List<AccountInfo> getAccountInfos(Long userId) {
         return accountService.getAccountsByUserId(userId)
                 .stream()
                 .map(accountDto -> AccountInfo.builder()
@@ -53,10 +88,4 @@ public class AccountController {
                         .build())
                 .collect(Collectors.toList());
     }
-
-    @GetMapping("/account/{id}")
-    public Account getAccount(
-            @PathVariable Long id) {
-        return accountService.getAccount(id);
-    }
 }
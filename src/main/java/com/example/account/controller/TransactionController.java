@@ -1,11 +1,13 @@
 package com.example.account.controller;
 
-import com.example.account.aop.AccountLock;
+import com.example.account.aop.MeteredOperation;
+import com.example.account.dto.AuthorizeBalance;
 import com.example.account.dto.CancelBalance;
+import com.example.account.dto.CaptureBalance;
 import com.example.account.dto.QueryTransactionResponse;
+import com.example.account.dto.ReleaseBalance;
 import com.example.account.dto.UseBalance;
-import com.example.account.exception.AccountException;
-import com.example.account.service.TransactionService;
+import com.example.account.service.BalanceService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.bind.annotation.*;
@@ -17,62 +19,70 @@ import javax.validation.Valid;
  * 1. 잔액 사용
  * 2. 잔액 사용 취소
  * 3. 거래 확인
+ * 4. 잔액 홀드 승인/확정/해제
+ * 계좌 락과 사용 모드 분기는 gRPC 와 같이 쓰는 BalanceService 에 있다.
+ * 실패는 AccountException 으로 GlobalExceptionHandler 에 넘겨 같은 에러 응답을 만든다.
  */
 @Slf4j
 @RestController
 @RequiredArgsConstructor
 public class TransactionController {
-    private final TransactionService transactionService;
+    private final BalanceService balanceService;
 
     @PostMapping("/transaction/use")
-    @AccountLock
+    @MeteredOperation("useBalance")
     public UseBalance.Response useBalance(
             @Valid @RequestBody UseBalance.Request request
-    ) throws InterruptedException {
-        try {
-            Thread.sleep(3000L);
-            return UseBalance.Response.from(
-                    transactionService.useBalance(request.getUserId(),
-                            request.getAccountNumber(), request.getAmount())
-            );
-        } catch (AccountException e) {
-            log.error("Fail to use balance. ");
-
-            transactionService.saveFailedUseTransaction(
-                    request.getAccountNumber(),
-                    request.getAmount()
-            );
-            throw e;
-        }
+    ) {
+        return UseBalance.Response.from(
+                balanceService.useBalance(request)
+        );
     }
 
     @PostMapping("/transaction/cancel")
-    @AccountLock
+    @MeteredOperation("cancelBalance")
     public CancelBalance.Response cancelBalance(
             @Valid @RequestBody CancelBalance.Request request
     ) {
-        try {
-            return CancelBalance.Response.from(
-                    transactionService.cancelBalance(request.getTransactionId(),
-                            request.getAccountNumber(), request.getAmount())
-            );
-        } catch (AccountException e) {
-            log.error("Fail to use balance. ");
+        return CancelBalance.Response.from(
+                balanceService.cancelBalance(request)
+        );
+    }
+
+    @PostMapping("/transaction/hold")
+    public AuthorizeBalance.Response authorizeBalance(
+            @Valid @RequestBody AuthorizeBalance.Request request
+    ) {
+        return AuthorizeBalance.Response.from(
+                balanceService.authorizeBalance(request)
+        );
+    }
+
+    @PostMapping("/transaction/hold/capture")
+    public CaptureBalance.Response captureBalance(
+            @Valid @RequestBody CaptureBalance.Request request
+    ) {
+        return CaptureBalance.Response.from(
+                balanceService.captureBalance(request)
+        );
+    }
 
-            transactionService.saveFailedCancelTransaction(
-                    request.getAccountNumber(), request.getAmount()
-            );
-            throw e;
-        }
+    @PostMapping("/transaction/hold/release")
+    public ReleaseBalance.Response releaseBalance(
+            @Valid @RequestBody ReleaseBalance.Request request
+    ) {
+        return ReleaseBalance.Response.from(
+                balanceService.releaseBalance(request)
+        );
     }
 
     @GetMapping("/transaction/{transactionId}")
+    @MeteredOperation("queryTransaction")
     public QueryTransactionResponse queryTransaction(
             @PathVariable String transactionId
     ) {
         return QueryTransactionResponse.from(
-                transactionService.queryTransaction(transactionId)
+                balanceService.queryTransaction(transactionId)
         );
-
     }
 }
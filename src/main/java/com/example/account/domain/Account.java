@@ -8,10 +8,13 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
+import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.Entity;
-import javax.persistence.EnumType;
-import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
 import javax.persistence.ManyToOne;
 import java.time.LocalDateTime;
 
@@ -21,28 +24,61 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @SuperBuilder
 @Entity
+// 잔액은 다른 노드와 JDBC 경로(원자적 갱신, 엔진 반영)가 바꾸므로 엔티티는 2차 캐시에 두지 않는다.
+// 바뀌지 않는 계좌번호 -> id 해석만 캐시한다.
+@NaturalIdCache(region = "accountNaturalId")
 public class Account extends BaseEntity {
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private AccountUser accountUser;
+    // 만든 뒤 바뀌지 않는다. 계좌번호 -> id 해석은 natural id 캐시에 둔다.
+    @NaturalId
+    @Convert(converter = AccountNumberConverter.class)
+    @Column(unique = true)
     private String accountNumber;
 
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = AccountStatusConverter.class)
     private AccountStatus accountStatus;
     private Long balance;
+    // 홀드로 묶여 있는 금액. 사용 가능 잔액 = balance - heldBalance
+    private Long heldBalance;
 
     private LocalDateTime registeredAt;
     private LocalDateTime unRegisteredAt;
 
     public void useBalance(Long amount) {
-        if (amount > balance) {
-            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        if (amount > getAvailableBalance()) {
+            throw AccountException.of(ErrorCode.AMOUNT_EXCEED_BALANCE);
         }
         balance -= amount;
     }
 
+    public Long getAvailableBalance() {
+        return balance - getHeldAmount();
+    }
+
+    public void hold(Long amount) {
+        if (amount > getAvailableBalance()) {
+            throw AccountException.of(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        }
+        heldBalance = getHeldAmount() + amount;
+    }
+
+    public void releaseHold(Long amount) {
+        heldBalance = getHeldAmount() - amount;
+    }
+
+    public void captureHold(Long amount) {
+        releaseHold(amount);
+        balance -= amount;
+    }
+
+    private long getHeldAmount() {
+        return heldBalance == null ? 0L : heldBalance;
+    }
+
     public void cancelBalance(Long amount) {
         if (amount < 0) {
-            throw new AccountException(ErrorCode.INVALID_REQUEST);
+            throw AccountException.of(ErrorCode.INVALID_REQUEST);
         }
         balance += amount;
     }
@@ -0,0 +1,50 @@
+package com.example.account.domain;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+/**
+ * 10자리 계좌번호를 bigint 로 저장한다. 문자열은 엔티티/DTO 쪽에서만 쓴다.
+ * 10자리 숫자가 아닌 계좌번호로 조회하면 어떤 계좌와도 맞지 않는 -1 로 바꾼다.
+ * (짧은 "12" 가 "0000000012" 와 맞지 않도록 길이도 정확히 본다.)
+ */
+@Converter
+public class AccountNumberConverter implements AttributeConverter<String, Long> {
+    private static final int LENGTH = 10;
+    private static final long NO_MATCH = -1L;
+
+    @Override
+    public Long convertToDatabaseColumn(String accountNumber) {
+        if (accountNumber == null) {
+            return null;
+        }
+        if (accountNumber.length() != LENGTH) {
+            return NO_MATCH;
+        }
+        long value = 0;
+        for (int i = 0; i < accountNumber.length(); i++) {
+            char c = accountNumber.charAt(i);
+            if (c < '0' || c > '9') {
+                return NO_MATCH;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    @Override
+    public String convertToEntityAttribute(Long value) {
+        if (value == null) {
+            return null;
+        }
+        String accountNumber = Long.toString(value);
+        if (accountNumber.length() >= LENGTH) {
+            return accountNumber;
+        }
+        StringBuilder padded = new StringBuilder(LENGTH);
+        for (int i = accountNumber.length(); i < LENGTH; i++) {
+            padded.append('0');
+        }
+        return padded.append(accountNumber).toString();
+    }
+}
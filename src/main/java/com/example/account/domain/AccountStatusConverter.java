@@ -0,0 +1,12 @@
+package com.example.account.domain;
+
+import com.example.account.type.AccountStatus;
+
+import javax.persistence.Converter;
+
+@Converter
+public class AccountStatusConverter extends CodedEnumConverter<AccountStatus> {
+    public AccountStatusConverter() {
+        super(AccountStatus.class);
+    }
+}
@@ -5,7 +5,10 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
 
 @Getter
@@ -14,6 +17,9 @@ import javax.persistence.Entity;
 @AllArgsConstructor
 @SuperBuilder
 @Entity
+// 생성 후 바뀌지 않으므로 2차 캐시에 읽기 전용으로 둔다.
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "accountUser")
 public class AccountUser extends BaseEntity {
     private String name;
 }
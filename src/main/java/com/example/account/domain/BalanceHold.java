@@ -0,0 +1,43 @@
+package com.example.account.domain;
+
+import com.example.account.type.HoldStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.ManyToOne;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+@Entity
+public class BalanceHold extends BaseEntity {
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Account account;
+
+    private String holdId;
+    private Long amount;
+
+    @Convert(converter = HoldStatusConverter.class)
+    private HoldStatus holdStatus;
+
+    private LocalDateTime expiresAt;
+    private LocalDateTime closedAt;
+
+    public boolean isExpired(LocalDateTime now) {
+        return !expiresAt.isAfter(now);
+    }
+
+    public void close(HoldStatus holdStatus) {
+        this.holdStatus = holdStatus;
+        this.closedAt = LocalDateTime.now();
+    }
+}
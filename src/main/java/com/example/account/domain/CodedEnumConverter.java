@@ -0,0 +1,47 @@
+package com.example.account.domain;
+
+import com.example.account.type.CodedEnum;
+
+import javax.persistence.AttributeConverter;
+
+/**
+ * enum 을 smallint 코드로 저장한다. 코드로 찾을 때는 배열 인덱스 한 번이다.
+ */
+public abstract class CodedEnumConverter<E extends Enum<E> & CodedEnum>
+        implements AttributeConverter<E, Short> {
+    private final Class<E> type;
+    private final E[] byCode;
+
+    @SuppressWarnings("unchecked")
+    protected CodedEnumConverter(Class<E> type) {
+        this.type = type;
+        E[] constants = type.getEnumConstants();
+        int maxCode = 0;
+        for (E constant : constants) {
+            maxCode = Math.max(maxCode, constant.getCode());
+        }
+        byCode = (E[]) java.lang.reflect.Array.newInstance(type, maxCode + 1);
+        for (E constant : constants) {
+            if (byCode[constant.getCode()] != null) {
+                throw new IllegalStateException("Duplicate code " + constant.getCode() + " in " + type);
+            }
+            byCode[constant.getCode()] = constant;
+        }
+    }
+
+    @Override
+    public Short convertToDatabaseColumn(E attribute) {
+        return attribute == null ? null : (short) attribute.getCode();
+    }
+
+    @Override
+    public E convertToEntityAttribute(Short code) {
+        if (code == null) {
+            return null;
+        }
+        if (code < 0 || code >= byCode.length || byCode[code] == null) {
+            throw new IllegalArgumentException("Unknown " + type.getSimpleName() + " code : " + code);
+        }
+        return byCode[code];
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.account.domain;
+
+import com.example.account.type.HoldStatus;
+
+import javax.persistence.Converter;
+
+@Converter
+public class HoldStatusConverter extends CodedEnumConverter<HoldStatus> {
+    public HoldStatusConverter() {
+        super(HoldStatus.class);
+    }
+}
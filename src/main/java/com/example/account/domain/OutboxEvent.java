@@ -0,0 +1,50 @@
+package com.example.account.domain;
+
+import com.example.account.type.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * 잔액 변경 이벤트 아웃박스
+ * 성공한 거래와 같은 커밋으로 저장되고, OutboxRelay 가 발행한 뒤 지운다.
+ * 발행 전 행만 남으므로 테이블 크기는 쓰기량이 아니라 발행 지연에 비례한다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+@Entity
+public class OutboxEvent extends BaseEntity {
+    @Convert(converter = TransactionTypeConverter.class)
+    private TransactionType eventType;
+    @Convert(converter = TransactionIdConverter.class)
+    @Column(length = 16)
+    private String transactionId;
+    @Convert(converter = AccountNumberConverter.class)
+    private String accountNumber;
+    private Long amount;
+    private Long balanceSnapShot;
+    private LocalDateTime transactedAt;
+
+    // 발행 중인 릴레이의 선점 표시. 선점 기한이 지나면 다른 릴레이가 다시 가져간다.
+    private String claimedBy;
+    private LocalDateTime claimedUntil;
+
+    public static OutboxEvent from(Transaction transaction) {
+        return OutboxEvent.builder()
+                .eventType(transaction.getTransactionType())
+                .transactionId(transaction.getTransactionId())
+                .accountNumber(transaction.getAccount().getAccountNumber())
+                .amount(transaction.getAmount())
+                .balanceSnapShot(transaction.getBalanceSnapShot())
+                .transactedAt(transaction.getTransactedAt())
+                .build();
+    }
+}
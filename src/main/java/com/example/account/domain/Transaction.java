@@ -7,10 +7,16 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
+import javax.persistence.Cacheable;
+import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.Entity;
-import javax.persistence.EnumType;
-import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
 import javax.persistence.ManyToOne;
 import java.time.LocalDateTime;
 
@@ -20,18 +26,25 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @SuperBuilder
 @Entity
+// 저장 후 바뀌지 않는다. natural id 캐시는 엔티티 캐시 전략을 따르므로 읽기 전용으로 둔다.
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "transaction")
+@NaturalIdCache(region = "transactionNaturalId")
 public class Transaction extends BaseEntity {
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = TransactionTypeConverter.class)
     private TransactionType transactionType;
-    @Enumerated(EnumType.STRING)
+    @Convert(converter = TransactionResultTypeConverter.class)
     private TransactionResultType transactionResultType;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Account account;
 
     private Long amount;
     private Long balanceSnapShot;
 
+    @NaturalId
+    @Convert(converter = TransactionIdConverter.class)
+    @Column(unique = true, length = 16)
     private String transactionId;
     private LocalDateTime transactedAt;
 }
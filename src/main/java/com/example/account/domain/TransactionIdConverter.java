@@ -0,0 +1,59 @@
+package com.example.account.domain;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+/**
+ * 32자리 16진수 거래 id 를 16바이트로 저장한다. (API 에서는 그대로 32자리 문자열)
+ * 형식이 맞지 않는 id(대문자 16진수 포함)로 조회하면 어떤 거래와도 맞지 않는 빈 값으로 바꾼다.
+ */
+@Converter
+public class TransactionIdConverter implements AttributeConverter<String, byte[]> {
+    private static final int BYTES = 16;
+    private static final byte[] NO_MATCH = new byte[0];
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    @Override
+    public byte[] convertToDatabaseColumn(String transactionId) {
+        if (transactionId == null) {
+            return null;
+        }
+        if (transactionId.length() != BYTES * 2) {
+            return NO_MATCH;
+        }
+        byte[] bytes = new byte[BYTES];
+        for (int i = 0; i < BYTES; i++) {
+            int high = lowerHexDigit(transactionId.charAt(i * 2));
+            int low = lowerHexDigit(transactionId.charAt(i * 2 + 1));
+            if (high < 0 || low < 0) {
+                return NO_MATCH;
+            }
+            bytes[i] = (byte) (high << 4 | low);
+        }
+        return bytes;
+    }
+
+    // 저장된 id 는 소문자로만 읽히므로 대문자는 받지 않는다. (문자열 컬럼일 때와 같은 결과)
+    private static int lowerHexDigit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        return -1;
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            hex[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(hex);
+    }
+}
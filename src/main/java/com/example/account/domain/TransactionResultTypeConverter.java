@@ -0,0 +1,12 @@
+package com.example.account.domain;
+
+import com.example.account.type.TransactionResultType;
+
+import javax.persistence.Converter;
+
+@Converter
+public class TransactionResultTypeConverter extends CodedEnumConverter<TransactionResultType> {
+    public TransactionResultTypeConverter() {
+        super(TransactionResultType.class);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.account.domain;
+
+import com.example.account.type.TransactionType;
+
+import javax.persistence.Converter;
+
+@Converter
+public class TransactionTypeConverter extends CodedEnumConverter<TransactionType> {
+    public TransactionTypeConverter() {
+        super(TransactionType.class);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.account.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+
+/**
+ * 계좌 친화 링의 소유 노드가 바뀌면 이 노드가 새로 맡은 계좌의 작업(홀드 만료 등)을 다시 잡기 위한 이벤트
+ */
+@Getter
+@AllArgsConstructor
+public class AccountOwnershipChangedEvent {
+    private final Set<String> owners;
+}
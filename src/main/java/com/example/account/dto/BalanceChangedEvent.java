@@ -0,0 +1,34 @@
+package com.example.account.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 계좌 잔액/상태 변경이 커밋된 뒤 구독 중인 사용자에게 밀어 주기 위한 이벤트
+ * version 은 같은 계좌의 변경 순서다. 계좌 락(ATOMIC 모드는 update 의 행 락) 안에서 만들어지므로
+ * 같은 계좌의 나중 변경일수록 크다. 노드 안에서는 시계가 되돌아가도 줄지 않는다.
+ */
+@Getter
+@AllArgsConstructor
+public class BalanceChangedEvent {
+    private static final AtomicLong LAST_VERSION = new AtomicLong();
+
+    private final Long userId;
+    private final String accountNumber;
+    private final Long balance;
+    private final long version;
+
+    public BalanceChangedEvent(Long userId, String accountNumber, Long balance) {
+        this(userId, accountNumber, balance, nextVersion());
+    }
+
+    // epoch 마이크로초
+    private static long nextVersion() {
+        long now = ChronoUnit.MICROS.between(Instant.EPOCH, Instant.now());
+        return LAST_VERSION.updateAndGet(last -> Math.max(last + 1, now));
+    }
+}
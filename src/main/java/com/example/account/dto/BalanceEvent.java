@@ -0,0 +1,25 @@
+package com.example.account.dto;
+
+import com.example.account.type.TransactionType;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 외부로 발행하는 잔액 변경 이벤트
+ * eventId 는 아웃박스 행 id 로, 재발행된 이벤트를 받는 쪽에서 걸러낼 때 쓴다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceEvent {
+    private Long eventId;
+    private TransactionType eventType;
+    private String transactionId;
+    private String accountNumber;
+    private Long amount;
+    private Long balanceSnapShot;
+    private LocalDateTime transactedAt;
+}
@@ -0,0 +1,29 @@
+package com.example.account.dto;
+
+import com.example.account.type.ErrorCode;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 여러 요청을 한 번에 처리할 때 요청별 결과
+ * 성공이면 transactionDto, 실패면 errorCode 를 가진다.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class BalanceResult {
+    private final TransactionDto transactionDto;
+    private final ErrorCode errorCode;
+
+    public static BalanceResult success(TransactionDto transactionDto) {
+        return new BalanceResult(transactionDto, null);
+    }
+
+    public static BalanceResult failure(ErrorCode errorCode) {
+        return new BalanceResult(null, errorCode);
+    }
+
+    public boolean isSuccess() {
+        return errorCode == null;
+    }
+}
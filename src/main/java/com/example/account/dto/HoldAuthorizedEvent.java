@@ -0,0 +1,13 @@
+package com.example.account.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 홀드가 커밋된 뒤 만료 타이머를 걸기 위한 이벤트
+ */
+@Getter
+@AllArgsConstructor
+public class HoldAuthorizedEvent {
+    private final HoldDto holdDto;
+}
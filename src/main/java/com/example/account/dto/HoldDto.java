@@ -0,0 +1,32 @@
+package com.example.account.dto;
+
+import com.example.account.domain.BalanceHold;
+import com.example.account.type.HoldStatus;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HoldDto {
+    private String accountNumber;
+    private String holdId;
+    private HoldStatus holdStatus;
+    private Long amount;
+    private LocalDateTime expiresAt;
+    private LocalDateTime closedAt;
+
+    public static HoldDto fromEntity(BalanceHold balanceHold) {
+        return HoldDto.builder()
+                .accountNumber(balanceHold.getAccount().getAccountNumber())
+                .holdId(balanceHold.getHoldId())
+                .holdStatus(balanceHold.getHoldStatus())
+                .amount(balanceHold.getAmount())
+                .expiresAt(balanceHold.getExpiresAt())
+                .closedAt(balanceHold.getClosedAt())
+                .build();
+    }
+}
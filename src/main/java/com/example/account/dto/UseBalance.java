@@ -1,6 +1,7 @@
 package com.example.account.dto;
 
 import com.example.account.aop.AccountLockIdInterface;
+import com.example.account.aop.AccountUserIdInterface;
 import com.example.account.type.TransactionResultType;
 import lombok.*;
 
@@ -11,7 +12,7 @@ public class UseBalance {
     @Getter
     @Setter
     @AllArgsConstructor
-    public static class Request implements AccountLockIdInterface {
+    public static class Request implements AccountLockIdInterface, AccountUserIdInterface {
         @NotNull
         @Min(1)
         private Long userId;
@@ -0,0 +1,133 @@
+package com.example.account.engine;
+
+import java.util.Arrays;
+
+/**
+ * 파티션 스레드만 접근하는 계좌 상태 표
+ * 계좌번호(long) -> 행 번호 를 열린 주소법으로 찾고, 상태는 행 번호로 원시 배열에 둔다.
+ * 요청 처리 중에는 객체를 만들지 않는다.
+ */
+final class AccountTable {
+    static final int MISSING = -1;
+
+    // 해시 슬롯 : 계좌번호와 행 번호 + 1 (0 이면 빈 슬롯)
+    private long[] keys;
+    private int[] rows;
+    private int mask;
+
+    private long[] accountNumbers;
+    private long[] balances;
+    private long[] heldBalances;
+    private long[] owners;
+    private byte[] statuses;
+    private int size;
+
+    AccountTable(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        keys = new long[capacity];
+        rows = new int[capacity];
+        mask = capacity - 1;
+        int rowCapacity = Math.max(8, expectedSize);
+        accountNumbers = new long[rowCapacity];
+        balances = new long[rowCapacity];
+        heldBalances = new long[rowCapacity];
+        owners = new long[rowCapacity];
+        statuses = new byte[rowCapacity];
+    }
+
+    int indexOf(long accountNumber) {
+        int slot = slotOf(accountNumber);
+        while (rows[slot] != 0) {
+            if (keys[slot] == accountNumber) {
+                return rows[slot] - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return MISSING;
+    }
+
+    /**
+     * 이미 있으면 기존 상태를 그대로 두고 MISSING 을 돌려준다.
+     * (같은 계좌를 두 요청이 동시에 적재해도 먼저 들어간 상태가 유지된다.)
+     */
+    int insert(long accountNumber, long balance, long heldBalance, long owner, byte status) {
+        int slot = slotOf(accountNumber);
+        while (rows[slot] != 0) {
+            if (keys[slot] == accountNumber) {
+                return MISSING;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size == accountNumbers.length) {
+            growRows();
+        }
+        int row = size++;
+        accountNumbers[row] = accountNumber;
+        balances[row] = balance;
+        heldBalances[row] = heldBalance;
+        owners[row] = owner;
+        statuses[row] = status;
+        keys[slot] = accountNumber;
+        rows[slot] = row + 1;
+        if (size * 2 > keys.length) {
+            rehash();
+        }
+        return row;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long accountNumber(int row) {
+        return accountNumbers[row];
+    }
+
+    long balance(int row) {
+        return balances[row];
+    }
+
+    void balance(int row, long balance) {
+        balances[row] = balance;
+    }
+
+    long heldBalance(int row) {
+        return heldBalances[row];
+    }
+
+    long owner(int row) {
+        return owners[row];
+    }
+
+    byte status(int row) {
+        return statuses[row];
+    }
+
+    private int slotOf(long accountNumber) {
+        long h = accountNumber * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void growRows() {
+        int capacity = accountNumbers.length * 2;
+        accountNumbers = Arrays.copyOf(accountNumbers, capacity);
+        balances = Arrays.copyOf(balances, capacity);
+        heldBalances = Arrays.copyOf(heldBalances, capacity);
+        owners = Arrays.copyOf(owners, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+    }
+
+    private void rehash() {
+        keys = new long[keys.length * 2];
+        rows = new int[keys.length];
+        mask = keys.length - 1;
+        for (int row = 0; row < size; row++) {
+            int slot = slotOf(accountNumbers[row]);
+            while (rows[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = accountNumbers[row];
+            rows[slot] = row + 1;
+        }
+    }
+}
@@ -0,0 +1,354 @@
+package com.example.account.engine;
+
+import com.example.account.config.EngineProperties;
+import com.example.account.config.ShardingProperties;
+import com.example.account.config.TransactionProperties;
+import com.example.account.domain.AccountNumberConverter;
+import com.example.account.dto.BalanceChangedEvent;
+import com.example.account.dto.BalanceResult;
+import com.example.account.dto.TransactionDto;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountUserRepository;
+import com.example.account.repository.TransactionRepository;
+import com.example.account.service.AccountAffinityService;
+import com.example.account.service.TransactionIdGenerator;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import com.example.account.type.UseBalanceMode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 엔진 모드의 잔액 사용/취소
+ * 1. 계좌번호로 파티션을 고르고 파티션 스레드에 요청을 넘긴다. (계좌 락, JPA 없음)
+ * 2. 파티션에 없는 계좌는 DB 에서 한 번 읽어 적재한 뒤 다시 요청한다.
+ * 3. 결과는 저널에 fsync 된 뒤 응답하고, DB 에는 EngineProjector 가 비동기로 반영한다.
+ * DB 에 아직 반영되지 않은 거래는 pendingTransactions 에서 찾는다. (취소/거래 확인)
+ *
+ * 잔액의 원본이 이 JVM 의 파티션에 있으므로 계좌 락 없이 처리하려면 다른 노드가 같은 계좌를 처리하지 않아야 한다.
+ * 그래서 계좌 친화 라우팅의 멤버가 이 노드 하나뿐인 안정 상태에서만 처리하고, 아니면 ACCOUNT_OWNER_UNAVAILABLE 로 거절한다.
+ * 안정 상태가 새로 시작되면(다른 노드가 처리했을 수 있음) 파티션을 비우고 DB 에서 다시 적재한다.
+ */
+@Slf4j
+@Service
+public class BalanceEngine {
+    private static final AccountNumberConverter ACCOUNT_NUMBER_CONVERTER =
+            new AccountNumberConverter();
+    private static final String LOAD_ACCOUNT_SQL =
+            "select balance, held_balance, account_user_id, account_status " +
+            "from account where account_number = ?";
+
+    private final TransactionProperties transactionProperties;
+    private final EngineProperties engineProperties;
+    private final ShardingProperties shardingProperties;
+    private final AccountUserRepository accountUserRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final AccountAffinityService accountAffinityService;
+    private final ConcurrentMap<String, Decision> pendingTransactions = new ConcurrentHashMap<>();
+
+    private EnginePartition[] partitions;
+    private EngineProjector projector;
+    // 파티션 상태가 맞는 안정 상태의 시작 시각 (AccountAffinityService.getSoleOwnerSince)
+    private volatile long servingSince = -1;
+
+    public BalanceEngine(TransactionProperties transactionProperties,
+                         EngineProperties engineProperties,
+                         ShardingProperties shardingProperties,
+                         AccountUserRepository accountUserRepository,
+                         TransactionRepository transactionRepository,
+                         TransactionIdGenerator transactionIdGenerator,
+                         DataSource dataSource,
+                         PlatformTransactionManager transactionManager,
+                         ApplicationEventPublisher applicationEventPublisher,
+                         AccountAffinityService accountAffinityService) {
+        this.transactionProperties = transactionProperties;
+        this.engineProperties = engineProperties;
+        this.shardingProperties = shardingProperties;
+        this.accountUserRepository = accountUserRepository;
+        this.transactionRepository = transactionRepository;
+        this.transactionIdGenerator = transactionIdGenerator;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.accountAffinityService = accountAffinityService;
+    }
+
+    public boolean isEnabled() {
+        return transactionProperties.getUseMode() == UseBalanceMode.ENGINE;
+    }
+
+    /**
+     * 스냅샷과 저널로 파티션 상태를 복구하고 파티션 스레드를 띄운다.
+     * 재생한 거래의 DB 반영은 스키마 초기화가 끝난 뒤(ApplicationReadyEvent) 시작한다.
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        if (!isEnabled()) {
+            return;
+        }
+        if (shardingProperties.isEnabled()) {
+            throw new IllegalStateException("Balance engine can not be used with sharding.");
+        }
+        if (!accountAffinityService.isEnabled()) {
+            throw new IllegalStateException(
+                    "Balance engine requires account affinity to check that no other node serves accounts.");
+        }
+
+        int partitionCount = engineProperties.getPartitions();
+        projector = new EngineProjector(jdbcTemplate, transactionTemplate, partitionCount,
+                engineProperties.getProjectionBatchSize(),
+                engineProperties.getProjectionRetryMillis(),
+                decision -> pendingTransactions.remove(decision.transactionId, decision));
+
+        Path dir = Paths.get(engineProperties.getJournalDir());
+        partitions = new EnginePartition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            int partition = i;
+            partitions[i] = new EnginePartition(i, dir, engineProperties, transactionIdGenerator,
+                    this::project, () -> projector.getProjectedSeq(partition));
+            partitions[i].recover();
+            partitions[i].start();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startProjection() {
+        if (projector != null) {
+            projector.start();
+        }
+    }
+
+    public BalanceResult useBalance(Long userId, String accountNumber, Long amount) {
+        if (!checkSoleOwner()) {
+            return BalanceResult.failure(ErrorCode.ACCOUNT_OWNER_UNAVAILABLE);
+        }
+        long number = ACCOUNT_NUMBER_CONVERTER.convertToDatabaseColumn(accountNumber);
+        EnginePartition partition = partitionOf(number);
+
+        Decision decision = execute(partition, Command.use(userId, number, amount));
+        if (decision == null) {
+            if (!load(partition, number)) {
+                // 계좌가 없을 때도 사용자 확인이 먼저다.
+                return BalanceResult.failure(accountUserRepository.existsById(userId)
+                        ? ErrorCode.ACCOUNT_NOT_FOUND : ErrorCode.USER_NOT_FOUND);
+            }
+            decision = execute(partition, Command.use(userId, number, amount));
+        }
+
+        if (decision.errorCode == ErrorCode.USER_ACCOUNT_UN_MATCH
+                && !accountUserRepository.existsById(userId)) {
+            return BalanceResult.failure(ErrorCode.USER_NOT_FOUND);
+        }
+        return toResult(decision);
+    }
+
+    public BalanceResult cancelBalance(String transactionId, String accountNumber, Long amount) {
+        if (!checkSoleOwner()) {
+            return BalanceResult.failure(ErrorCode.ACCOUNT_OWNER_UNAVAILABLE);
+        }
+        long number = ACCOUNT_NUMBER_CONVERTER.convertToDatabaseColumn(accountNumber);
+        EnginePartition partition = partitionOf(number);
+        Decision target = findTarget(transactionId);
+
+        Decision decision = execute(partition, cancelCommand(target, number, amount));
+        if (decision == null) {
+            if (!load(partition, number)) {
+                return BalanceResult.failure(ErrorCode.ACCOUNT_NOT_FOUND);
+            }
+            decision = execute(partition, cancelCommand(target, number, amount));
+        }
+        return toResult(decision);
+    }
+
+    /**
+     * 아직 DB 에 반영되지 않은 거래. 반영된 거래는 비어 있으므로 DB 에서 조회한다.
+     */
+    public Optional<TransactionDto> findPendingTransaction(String transactionId) {
+        return Optional.ofNullable(pendingTransactions.get(transactionId))
+                .map(BalanceEngine::toTransactionDto);
+    }
+
+    /**
+     * 새 안정 상태에서 처음 처리할 때 파티션을 비운다. 그 전의 메모리 잔액은 다른 노드의 처리를 모른다.
+     * @return 이 노드 하나만 계좌를 처리하는 안정 상태가 아니면 false
+     */
+    private boolean checkSoleOwner() {
+        long since = accountAffinityService.getSoleOwnerSince();
+        if (since < 0) {
+            return false;
+        }
+        if (since != servingSince) {
+            resetPartitions(since);
+        }
+        return true;
+    }
+
+    private synchronized void resetPartitions(long since) {
+        if (since == servingSince) {
+            return;
+        }
+        for (EnginePartition partition : partitions) {
+            execute(partition, Command.reset());
+        }
+        servingSince = since;
+        log.info("Balance engine partitions reset for sole ownership since {}.", since);
+    }
+
+    private void project(Decision decision) {
+        pendingTransactions.put(decision.transactionId, decision);
+        projector.submit(decision);
+    }
+
+    private EnginePartition partitionOf(long accountNumber) {
+        return partitions[(int) Math.floorMod(accountNumber, (long) partitions.length)];
+    }
+
+    /**
+     * @return 적재할 계좌가 DB 에 없으면 false
+     */
+    private boolean load(EnginePartition partition, long accountNumber) {
+        List<Command> loads = jdbcTemplate.query(LOAD_ACCOUNT_SQL,
+                (rs, rowNum) -> Command.load(accountNumber, rs.getLong(1), rs.getLong(2),
+                        rs.getLong(3), rs.getByte(4)),
+                accountNumber);
+        if (loads.isEmpty()) {
+            return false;
+        }
+        // 동시에 적재된 경우 먼저 들어간 상태를 쓴다.
+        execute(partition, loads.get(0));
+        return true;
+    }
+
+    private Decision findTarget(String transactionId) {
+        Decision pending = pendingTransactions.get(transactionId);
+        if (pending != null) {
+            return pending;
+        }
+        return transactionRepository.findTransactionDtoByTransactionId(transactionId)
+                .map(BalanceEngine::fromTransactionDto)
+                .orElse(null);
+    }
+
+    private static Command cancelCommand(Decision target, long accountNumber, Long amount) {
+        if (target == null) {
+            return Command.cancel(accountNumber, amount);
+        }
+        return Command.cancel(accountNumber, amount, target.accountNumber,
+                target.amount, target.transactedAtMillis);
+    }
+
+    private Decision execute(EnginePartition partition, Command command) {
+        if (!partition.submit(command)) {
+            throw AccountException.of(ErrorCode.TOO_MANY_REQUESTS);
+        }
+        try {
+            try {
+                return command.future.get(engineProperties.getTimeoutMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (command.abandon()) {
+                    log.error("Balance engine timed out. accountNumber : {}", command.accountNumber);
+                    throw AccountException.of(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+                }
+                // 이미 파티션이 가져간 요청은 결과를 끝까지 기다린다.
+                return command.future.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof AccountException) {
+                throw (AccountException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw AccountException.of(ErrorCode.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * 저널에 남은 시점이 엔진의 커밋이므로 성공하면 바로 잔액 스트림으로 보낸다.
+     */
+    private BalanceResult toResult(Decision decision) {
+        if (!decision.success) {
+            return BalanceResult.failure(decision.errorCode);
+        }
+        TransactionDto transactionDto = toTransactionDto(decision);
+        applicationEventPublisher.publishEvent(new BalanceChangedEvent(decision.owner,
+                transactionDto.getAccountNumber(), decision.balanceAfter));
+        return BalanceResult.success(transactionDto);
+    }
+
+    private static TransactionDto toTransactionDto(Decision decision) {
+        return TransactionDto.builder()
+                .accountNumber(ACCOUNT_NUMBER_CONVERTER.convertToEntityAttribute(decision.accountNumber))
+                .transactionType(decision.op == Decision.USE
+                        ? TransactionType.USE : TransactionType.CANCEL)
+                .transactionResult(decision.success
+                        ? TransactionResultType.S : TransactionResultType.F)
+                .amount(decision.amount)
+                .balanceSnapShot(decision.balanceAfter)
+                .transactionId(decision.transactionId)
+                .transactedAt(LocalDateTime.ofInstant(
+                        Instant.ofEpochMilli(decision.transactedAtMillis), ZoneId.systemDefault()))
+                .build();
+    }
+
+    private static Decision fromTransactionDto(TransactionDto transactionDto) {
+        Decision decision = new Decision();
+        decision.accountNumber =
+                ACCOUNT_NUMBER_CONVERTER.convertToDatabaseColumn(transactionDto.getAccountNumber());
+        decision.amount = transactionDto.getAmount();
+        decision.transactedAtMillis = transactionDto.getTransactedAt()
+                .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return decision;
+    }
+
+    /**
+     * 파티션에 남은 요청을 처리하고, DB 반영을 마친 뒤 스냅샷을 남긴다.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (partitions == null) {
+            return;
+        }
+        try {
+            for (EnginePartition partition : partitions) {
+                partition.stop();
+            }
+            projector.stop(engineProperties.getTimeoutMillis());
+            for (EnginePartition partition : partitions) {
+                partition.close();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.error("Balance engine shutdown failed.", e);
+        }
+    }
+}
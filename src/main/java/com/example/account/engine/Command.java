@@ -0,0 +1,94 @@
+package com.example.account.engine;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 파티션 큐에 들어가는 요청
+ * 파티션에 없는 계좌면 future 는 null 로 끝나고, 호출한 쪽이 DB 에서 적재(LOAD)한 뒤 다시 넣는다.
+ */
+final class Command {
+    private static final int QUEUED = 0;
+    private static final int TAKEN = 1;
+    private static final int ABANDONED = 2;
+
+    final byte op;
+    final long accountNumber;
+    final long amount;
+    // USE : 요청 사용자, LOAD : 소유주
+    final long userId;
+    // LOAD
+    final long balance;
+    final long heldBalance;
+    final byte status;
+    // CANCEL : 취소할 거래 (없으면 targetFound = false)
+    final boolean targetFound;
+    final long targetAccountNumber;
+    final long targetAmount;
+    final long targetTransactedAtMillis;
+
+    final CompletableFuture<Decision> future = new CompletableFuture<>();
+    private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+    private Command(byte op, long accountNumber, long amount, long userId,
+                    long balance, long heldBalance, byte status,
+                    boolean targetFound, long targetAccountNumber,
+                    long targetAmount, long targetTransactedAtMillis) {
+        this.op = op;
+        this.accountNumber = accountNumber;
+        this.amount = amount;
+        this.userId = userId;
+        this.balance = balance;
+        this.heldBalance = heldBalance;
+        this.status = status;
+        this.targetFound = targetFound;
+        this.targetAccountNumber = targetAccountNumber;
+        this.targetAmount = targetAmount;
+        this.targetTransactedAtMillis = targetTransactedAtMillis;
+    }
+
+    static Command use(long userId, long accountNumber, long amount) {
+        return new Command(Decision.USE, accountNumber, amount, userId,
+                0, 0, (byte) 0, false, 0, 0, 0);
+    }
+
+    static Command load(long accountNumber, long balance, long heldBalance,
+                        long owner, byte status) {
+        return new Command(Decision.LOAD, accountNumber, 0, owner,
+                balance, heldBalance, status, false, 0, 0, 0);
+    }
+
+    static Command cancel(long accountNumber, long amount) {
+        return new Command(Decision.CANCEL, accountNumber, amount, 0,
+                0, 0, (byte) 0, false, 0, 0, 0);
+    }
+
+    static Command cancel(long accountNumber, long amount, long targetAccountNumber,
+                          long targetAmount, long targetTransactedAtMillis) {
+        return new Command(Decision.CANCEL, accountNumber, amount, 0,
+                0, 0, (byte) 0, true, targetAccountNumber,
+                targetAmount, targetTransactedAtMillis);
+    }
+
+    /**
+     * DB 반영이 따라오기를 기다렸다가 파티션의 계좌를 모두 비운다. 이후 계좌는 DB 에서 다시 적재한다.
+     */
+    static Command reset() {
+        return new Command(Decision.RESET, 0, 0, 0,
+                0, 0, (byte) 0, false, 0, 0, 0);
+    }
+
+    /**
+     * 파티션이 처리하기 직전에 호출한다. 호출한 쪽이 이미 포기한 요청이면 false
+     */
+    boolean take() {
+        return state.compareAndSet(QUEUED, TAKEN);
+    }
+
+    /**
+     * 시간 초과한 요청을 포기한다. 파티션이 이미 가져갔으면 false (결과를 끝까지 기다려야 한다.)
+     */
+    boolean abandon() {
+        return state.compareAndSet(QUEUED, ABANDONED);
+    }
+}
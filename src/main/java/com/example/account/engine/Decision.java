@@ -0,0 +1,37 @@
+package com.example.account.engine;
+
+import com.example.account.type.ErrorCode;
+
+/**
+ * 파티션이 결정한 결과 1건. 저널 레코드 1개와 같다.
+ * 파티션 스레드가 채운 뒤에는 바꾸지 않고 요청 스레드/반영 스레드가 읽기만 한다.
+ */
+final class Decision {
+    static final byte LOAD = 1;
+    static final byte USE = 2;
+    static final byte CANCEL = 3;
+    // 파티션 상태를 비운다. 저널에는 남지 않는다.
+    static final byte RESET = 4;
+
+    int partition;
+    long seq;
+    byte op;
+    boolean success;
+    // 응답에만 쓰고 저널에는 남기지 않는다. (재생한 실패 결과는 null)
+    ErrorCode errorCode;
+    long accountNumber;
+    long amount;
+    long balanceAfter;
+    // USE/CANCEL
+    long transactedAtMillis;
+    String transactionId;
+    // LOAD : 저널에 남는 소유주, USE/CANCEL : 응답/변경 알림용 (저널에는 남기지 않음)
+    long owner;
+    // LOAD
+    long heldBalance;
+    byte status;
+
+    boolean isTransaction() {
+        return op == USE || op == CANCEL;
+    }
+}
@@ -0,0 +1,382 @@
+package com.example.account.engine;
+
+import com.example.account.config.EngineProperties;
+import com.example.account.exception.AccountException;
+import com.example.account.service.TransactionIdGenerator;
+import com.example.account.type.AccountStatus;
+import com.example.account.type.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * 단일 스레드 파티션
+ * 1. 큐에서 요청을 모아 순서대로 검증/반영한다. (락 없음, JPA 없음)
+ * 2. 결과를 저널에 쓰고 배치마다 fsync 한 번 한 뒤 응답한다.
+ * 3. 거래 결과는 projection 으로 넘겨 DB 에 비동기로 반영한다.
+ * 저널이 가득 차면 DB 반영이 따라오기를 기다렸다가 스냅샷을 남기고 저널을 비운다.
+ * timeoutMillis 안에 따라오지 못하면(DB 장애 등) 그 배치만 거절하고 다음 배치에서 다시 기다린다.
+ * RESET 도 DB 반영을 기다린 뒤 계좌를 모두 비운다. (이후 계좌는 DB 에서 다시 적재)
+ */
+@Slf4j
+final class EnginePartition implements Runnable {
+    private static final byte IN_USE = (byte) AccountStatus.IN_USE.getCode();
+    private static final int INITIAL_ACCOUNTS = 1024;
+
+    private final int index;
+    private final EngineProperties engineProperties;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final Consumer<Decision> projection;
+    private final LongSupplier projectedSeq;
+    private final BlockingQueue<Command> queue;
+    private final Path snapshotFile;
+    private final MappedJournal journal;
+    private final Thread thread;
+
+    private AccountTable table;
+    private long seq;
+    // 저널에 남은 마지막 거래. 여기까지 DB 에 반영되어야 저널을 비울 수 있다.
+    private long lastTransactionSeq;
+    private volatile boolean running = true;
+    private volatile boolean failed;
+
+    EnginePartition(int index, Path dir, EngineProperties engineProperties,
+                    TransactionIdGenerator transactionIdGenerator,
+                    Consumer<Decision> projection, LongSupplier projectedSeq) throws IOException {
+        this.index = index;
+        this.engineProperties = engineProperties;
+        this.transactionIdGenerator = transactionIdGenerator;
+        this.projection = projection;
+        this.projectedSeq = projectedSeq;
+        this.queue = new ArrayBlockingQueue<>(engineProperties.getQueueCapacity());
+        Files.createDirectories(dir);
+        this.snapshotFile = dir.resolve("partition-" + index + ".snapshot");
+        this.journal = new MappedJournal(dir.resolve("partition-" + index + ".journal"),
+                engineProperties.getJournalBytes());
+        this.thread = new Thread(this, "balance-engine-" + index);
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * 최근 스냅샷을 읽고 그 이후 저널을 재생한다.
+     * 재생한 거래는 DB 에 반영되었는지 알 수 없으므로 다시 projection 으로 넘긴다. (반영은 멱등)
+     */
+    void recover() throws IOException {
+        EngineSnapshot snapshot = EngineSnapshot.read(snapshotFile, INITIAL_ACCOUNTS);
+        table = snapshot.table;
+        seq = snapshot.seq;
+        List<Decision> replayed = journal.readAfter(seq, index);
+        for (Decision decision : replayed) {
+            if (decision.op == Decision.LOAD) {
+                table.insert(decision.accountNumber, decision.balanceAfter,
+                        decision.heldBalance, decision.owner, decision.status);
+            } else {
+                int row = table.indexOf(decision.accountNumber);
+                if (row == AccountTable.MISSING) {
+                    // 거래 전에 LOAD 가 저널이나 스냅샷에 있어야 한다. 없으면 잔액을 복구할 수 없다.
+                    throw new IllegalStateException("Balance engine partition " + index
+                            + " can not recover. seq : " + decision.seq
+                            + ", missing account : " + decision.accountNumber);
+                }
+                table.balance(row, decision.balanceAfter);
+                lastTransactionSeq = decision.seq;
+                projection.accept(decision);
+            }
+            seq = decision.seq;
+        }
+        log.info("Balance engine partition {} recovered. accounts : {}, snapshotSeq : {}, replayed : {}",
+                index, table.size(), snapshot.seq, replayed.size());
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * @return 큐가 가득 찼거나 멈춘 파티션이면 false
+     */
+    boolean submit(Command command) {
+        return running && queue.offer(command);
+    }
+
+    @Override
+    public void run() {
+        int maxBatchSize = engineProperties.getMaxBatchSize();
+        List<Command> batch = new ArrayList<>(maxBatchSize);
+        Decision[] decisions = new Decision[maxBatchSize];
+        while (running || !queue.isEmpty()) {
+            Command first;
+            try {
+                first = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (first == null) {
+                continue;
+            }
+            batch.add(first);
+            queue.drainTo(batch, maxBatchSize - 1);
+            try {
+                processAll(batch, decisions);
+            } catch (Exception e) {
+                // 메모리 상태와 저널이 어긋났을 수 있으므로 파티션을 멈춘다. 재기동 시 저널로 복구한다.
+                log.error("Balance engine partition {} stopped.", index, e);
+                failed = true;
+                running = false;
+                batch.forEach(command -> command.future.completeExceptionally(e));
+                Command queued;
+                while ((queued = queue.poll()) != null) {
+                    queued.future.completeExceptionally(e);
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * RESET 앞뒤로 나눠 처리한다. RESET 은 앞의 요청까지 반영된 뒤에 실행된다.
+     */
+    private void processAll(List<Command> batch, Decision[] decisions)
+            throws IOException, InterruptedException {
+        int from = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            if (batch.get(i).op == Decision.RESET) {
+                if (i > from) {
+                    process(batch.subList(from, i), decisions);
+                }
+                reset(batch.get(i));
+                from = i + 1;
+            }
+        }
+        if (from == 0) {
+            process(batch, decisions);
+        } else if (from < batch.size()) {
+            process(batch.subList(from, batch.size()), decisions);
+        }
+    }
+
+    private void process(List<Command> batch, Decision[] decisions)
+            throws IOException, InterruptedException {
+        if (!journal.hasRoomFor(batch.size()) && !checkpoint()) {
+            // 아직 아무것도 반영하지 않았으므로 파티션은 멈추지 않는다.
+            for (Command command : batch) {
+                command.future.completeExceptionally(
+                        AccountException.of(ErrorCode.ENGINE_CHECKPOINT_TIMEOUT));
+            }
+            return;
+        }
+
+        long cancelCutoffMillis = LocalDateTime.now().minusYears(1)
+                .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        boolean appended = false;
+        for (int i = 0; i < batch.size(); i++) {
+            // 시간 초과로 포기한 요청은 반영하지 않는다.
+            Decision decision = batch.get(i).take()
+                    ? apply(batch.get(i), cancelCutoffMillis) : null;
+            if (decision != null) {
+                journal.append(decision);
+                appended = true;
+            }
+            decisions[i] = decision;
+        }
+        if (appended && engineProperties.isForcePerBatch()) {
+            journal.force();
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            if (decisions[i] != null && decisions[i].isTransaction()) {
+                projection.accept(decisions[i]);
+            }
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).future.complete(decisions[i]);
+            decisions[i] = null;
+        }
+    }
+
+    /**
+     * @return 파티션에 없는 계좌(적재 필요)이거나 이미 적재된 계좌의 LOAD 면 null
+     */
+    private Decision apply(Command command, long cancelCutoffMillis) {
+        int row = table.indexOf(command.accountNumber);
+        if (command.op == Decision.LOAD) {
+            if (row != AccountTable.MISSING) {
+                return null;
+            }
+            table.insert(command.accountNumber, command.balance, command.heldBalance,
+                    command.userId, command.status);
+            Decision decision = newDecision(Decision.LOAD, command.accountNumber);
+            decision.success = true;
+            decision.balanceAfter = command.balance;
+            decision.heldBalance = command.heldBalance;
+            decision.owner = command.userId;
+            decision.status = command.status;
+            return decision;
+        }
+        if (row == AccountTable.MISSING) {
+            return null;
+        }
+
+        long balance = table.balance(row);
+        ErrorCode errorCode;
+        if (command.op == Decision.USE) {
+            errorCode = checkUse(row, command);
+            if (errorCode == null) {
+                balance -= command.amount;
+            }
+        } else {
+            errorCode = checkCancel(command, cancelCutoffMillis);
+            if (errorCode == null) {
+                balance += command.amount;
+            }
+        }
+        table.balance(row, balance);
+        lastTransactionSeq = seq + 1;
+
+        Decision decision = newDecision(command.op, command.accountNumber);
+        decision.success = errorCode == null;
+        decision.errorCode = errorCode;
+        decision.amount = command.amount;
+        decision.balanceAfter = balance;
+        decision.owner = table.owner(row);
+        decision.transactedAtMillis = System.currentTimeMillis();
+        decision.transactionId = transactionIdGenerator.nextId();
+        return decision;
+    }
+
+    /**
+     * TransactionService.checkUserBalance 와 같은 순서로 확인한다.
+     * 사용자 존재 여부(USER_NOT_FOUND)는 파티션이 모르므로 호출한 쪽이 실패 경로에서 확인한다.
+     */
+    private ErrorCode checkUse(int row, Command command) {
+        if (table.owner(row) != command.userId) {
+            return ErrorCode.USER_ACCOUNT_UN_MATCH;
+        }
+        if (table.status(row) != IN_USE) {
+            return ErrorCode.ACCOUNT_ALREADY_UNREGISTERED;
+        }
+        if (table.balance(row) - table.heldBalance(row) < command.amount) {
+            return ErrorCode.AMOUNT_EXCEED_BALANCE;
+        }
+        return null;
+    }
+
+    /**
+     * TransactionService.checkCancelBalance 와 같은 순서로 확인한다.
+     */
+    private static ErrorCode checkCancel(Command command, long cancelCutoffMillis) {
+        if (!command.targetFound) {
+            return ErrorCode.TRANSACTION_NOT_FOUND;
+        }
+        if (command.targetAccountNumber != command.accountNumber) {
+            return ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH;
+        }
+        if (command.targetAmount != command.amount) {
+            return ErrorCode.CANCEL_MUST_FULLY;
+        }
+        if (command.targetTransactedAtMillis < cancelCutoffMillis) {
+            return ErrorCode.TOO_OLD_ORDER_TO_CANCEL;
+        }
+        if (command.amount < 0) {
+            return ErrorCode.INVALID_REQUEST;
+        }
+        return null;
+    }
+
+    private Decision newDecision(byte op, long accountNumber) {
+        Decision decision = new Decision();
+        decision.partition = index;
+        decision.seq = ++seq;
+        decision.op = op;
+        decision.accountNumber = accountNumber;
+        return decision;
+    }
+
+    /**
+     * 저널의 거래가 모두 DB 에 반영되면 스냅샷을 남기고 저널을 비운다.
+     * @return timeoutMillis 안에 반영이 따라오지 못하면 false
+     */
+    private boolean checkpoint() throws IOException, InterruptedException {
+        if (!awaitProjection()) {
+            return false;
+        }
+        EngineSnapshot.write(snapshotFile, seq, table);
+        journal.reset();
+        log.info("Balance engine partition {} checkpointed. seq : {}, accounts : {}",
+                index, seq, table.size());
+        return true;
+    }
+
+    /**
+     * 계좌를 모두 비우고 빈 스냅샷을 남긴다. 비우기 전의 거래는 DB 에 모두 반영되어 있어야 한다.
+     */
+    private void reset(Command command) throws IOException, InterruptedException {
+        if (!command.take()) {
+            return;
+        }
+        if (!awaitProjection()) {
+            command.future.completeExceptionally(
+                    AccountException.of(ErrorCode.ENGINE_CHECKPOINT_TIMEOUT));
+            return;
+        }
+        int accounts = table.size();
+        table = new AccountTable(INITIAL_ACCOUNTS);
+        EngineSnapshot.write(snapshotFile, seq, table);
+        journal.reset();
+        log.info("Balance engine partition {} reset. seq : {}, accounts : {}", index, seq, accounts);
+        command.future.complete(null);
+    }
+
+    /**
+     * @return timeoutMillis 안에 저널의 거래가 모두 DB 에 반영되지 않으면 false
+     */
+    private boolean awaitProjection() throws InterruptedException {
+        long deadline = System.nanoTime()
+                + TimeUnit.MILLISECONDS.toNanos(engineProperties.getTimeoutMillis());
+        while (projectedSeq.getAsLong() < lastTransactionSeq) {
+            if (System.nanoTime() - deadline >= 0) {
+                log.error("Balance engine partition {} projection wait timed out. projected : {}, required : {}",
+                        index, projectedSeq.getAsLong(), lastTransactionSeq);
+                return false;
+            }
+            Thread.sleep(1);
+        }
+        return true;
+    }
+
+    /**
+     * 큐에 남은 요청까지 처리하고 멈춘다.
+     */
+    void stop() throws InterruptedException {
+        running = false;
+        thread.join(engineProperties.getTimeoutMillis());
+    }
+
+    /**
+     * stop() 이후 호출한다. DB 반영이 끝났으면 스냅샷을 남겨 다음 기동 시 재생을 줄인다.
+     * 오류로 멈춘 파티션은 메모리 상태를 믿을 수 없으므로 저널만 남긴다.
+     */
+    void close() throws IOException {
+        try {
+            if (!failed && !thread.isAlive()
+                    && projectedSeq.getAsLong() >= lastTransactionSeq) {
+                EngineSnapshot.write(snapshotFile, seq, table);
+                journal.reset();
+            }
+        } finally {
+            journal.close();
+        }
+    }
+}
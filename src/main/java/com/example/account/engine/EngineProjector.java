@@ -0,0 +1,186 @@
+package com.example.account.engine;
+
+import com.example.account.domain.TransactionIdConverter;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * 엔진 결과를 Account/Transaction 테이블에 비동기로 반영한다.
+ * 배치마다 커밋 한 번 : 거래는 일괄 insert, 잔액은 계좌별 마지막 값만 update 한다.
+ * 같은 거래 id 는 다시 넣지 않고 잔액은 절대값으로 쓰므로 저널 재생으로 같은 결과를 다시 넣어도 된다.
+ * 성공 거래는 같은 커밋으로 아웃박스에도 넣는다. (이번에 처음 들어간 거래만)
+ */
+@Slf4j
+final class EngineProjector implements Runnable {
+    private static final String INSERT_TRANSACTION_SQL =
+            "insert into transaction (id, created_at, updated_at, amount, balance_snap_shot, " +
+            "transaction_id, transaction_result_type, transaction_type, transacted_at, account_id) " +
+            "select next value for hibernate_sequence, ?, ?, ?, ?, ?, ?, ?, ?, a.id " +
+            "from account a where a.account_number = ? " +
+            "and not exists (select 1 from transaction t where t.transaction_id = ?)";
+    private static final String INSERT_OUTBOX_SQL =
+            "insert into outbox_event (id, created_at, updated_at, event_type, transaction_id, " +
+            "account_number, amount, balance_snap_shot, transacted_at) " +
+            "values (next value for hibernate_sequence, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_BALANCE_SQL =
+            "update account set balance = ?, updated_at = ? where account_number = ?";
+    private static final TransactionIdConverter TRANSACTION_ID_CONVERTER =
+            new TransactionIdConverter();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long retryMillis;
+    private final Consumer<Decision> onProjected;
+    private final BlockingQueue<Decision> queue = new LinkedBlockingQueue<>();
+    // 파티션별로 DB 에 반영된 마지막 seq
+    private final AtomicLongArray projectedSeq;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    EngineProjector(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                    int partitions, int batchSize, long retryMillis,
+                    Consumer<Decision> onProjected) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.retryMillis = retryMillis;
+        this.onProjected = onProjected;
+        this.projectedSeq = new AtomicLongArray(partitions);
+        this.thread = new Thread(this, "balance-engine-projector");
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    void submit(Decision decision) {
+        queue.add(decision);
+    }
+
+    long getProjectedSeq(int partition) {
+        return projectedSeq.get(partition);
+    }
+
+    @Override
+    public void run() {
+        List<Decision> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Decision first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                while (!project(batch)) {
+                    if (!running) {
+                        // 반영하지 못한 거래는 저널에 남아 다음 기동 때 다시 반영된다.
+                        log.warn("Balance engine projection abandoned. remaining : {}",
+                                batch.size() + queue.size());
+                        return;
+                    }
+                    Thread.sleep(retryMillis);
+                }
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private boolean project(List<Decision> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                List<Object[]> transactions = new ArrayList<>(batch.size());
+                Map<Long, Long> balances = new LinkedHashMap<>();
+                for (Decision decision : batch) {
+                    transactions.add(toTransactionRow(decision, now));
+                    balances.put(decision.accountNumber, decision.balanceAfter);
+                }
+                List<Object[]> accounts = new ArrayList<>(balances.size());
+                balances.forEach((accountNumber, balance) ->
+                        accounts.add(new Object[]{balance, now, accountNumber}));
+
+                int[] inserted = jdbcTemplate.batchUpdate(INSERT_TRANSACTION_SQL, transactions);
+                List<Object[]> outboxEvents = new ArrayList<>(batch.size());
+                for (int i = 0; i < batch.size(); i++) {
+                    if (batch.get(i).success && inserted[i] != 0) {
+                        outboxEvents.add(toOutboxRow(batch.get(i), now));
+                    }
+                }
+                if (!outboxEvents.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_OUTBOX_SQL, outboxEvents);
+                }
+                jdbcTemplate.batchUpdate(UPDATE_BALANCE_SQL, accounts);
+            });
+        } catch (Exception e) {
+            log.error("Balance engine projection failed. size : {}", batch.size(), e);
+            return false;
+        }
+
+        for (Decision decision : batch) {
+            projectedSeq.accumulateAndGet(decision.partition, decision.seq, Math::max);
+            onProjected.accept(decision);
+        }
+        return true;
+    }
+
+    private static Object[] toTransactionRow(Decision decision, Timestamp now) {
+        byte[] transactionId = TRANSACTION_ID_CONVERTER.convertToDatabaseColumn(decision.transactionId);
+        TransactionResultType resultType =
+                decision.success ? TransactionResultType.S : TransactionResultType.F;
+        return new Object[]{
+                now, now, decision.amount, decision.balanceAfter, transactionId,
+                (short) resultType.getCode(), transactionTypeCode(decision),
+                transactedAt(decision), decision.accountNumber, transactionId
+        };
+    }
+
+    private static Object[] toOutboxRow(Decision decision, Timestamp now) {
+        return new Object[]{
+                now, now, transactionTypeCode(decision),
+                TRANSACTION_ID_CONVERTER.convertToDatabaseColumn(decision.transactionId),
+                decision.accountNumber, decision.amount, decision.balanceAfter, transactedAt(decision)
+        };
+    }
+
+    private static short transactionTypeCode(Decision decision) {
+        TransactionType transactionType =
+                decision.op == Decision.USE ? TransactionType.USE : TransactionType.CANCEL;
+        return (short) transactionType.getCode();
+    }
+
+    private static Timestamp transactedAt(Decision decision) {
+        return Timestamp.valueOf(LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(decision.transactedAtMillis), ZoneId.systemDefault()));
+    }
+
+    /**
+     * 큐에 남은 결과까지 반영하고 멈춘다.
+     */
+    void stop(long timeoutMillis) throws InterruptedException {
+        running = false;
+        thread.join(timeoutMillis);
+    }
+}
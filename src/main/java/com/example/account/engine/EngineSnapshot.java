@@ -0,0 +1,70 @@
+package com.example.account.engine;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * 파티션 계좌 표의 스냅샷
+ * 임시 파일에 쓰고 fsync 한 뒤 이름을 바꾸므로 항상 완전한 스냅샷 하나만 남는다.
+ * 스냅샷의 seq 이후 저널 레코드만 재생하면 된다.
+ */
+final class EngineSnapshot {
+    private static final int MAGIC = 0x41434E54;
+    private static final int VERSION = 1;
+
+    final long seq;
+    final AccountTable table;
+
+    private EngineSnapshot(long seq, AccountTable table) {
+        this.seq = seq;
+        this.table = table;
+    }
+
+    static EngineSnapshot empty(int expectedSize) {
+        return new EngineSnapshot(0, new AccountTable(expectedSize));
+    }
+
+    static EngineSnapshot read(Path file, int expectedSize) throws IOException {
+        if (!Files.exists(file)) {
+            return empty(expectedSize);
+        }
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Unknown engine snapshot format : " + file);
+            }
+            long seq = in.readLong();
+            int size = in.readInt();
+            AccountTable table = new AccountTable(Math.max(size, expectedSize));
+            for (int i = 0; i < size; i++) {
+                table.insert(in.readLong(), in.readLong(), in.readLong(),
+                        in.readLong(), in.readByte());
+            }
+            return new EngineSnapshot(seq, table);
+        }
+    }
+
+    static void write(Path file, long seq, AccountTable table) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileOutputStream fileOut = new FileOutputStream(tmp.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(seq);
+            out.writeInt(table.size());
+            for (int row = 0; row < table.size(); row++) {
+                out.writeLong(table.accountNumber(row));
+                out.writeLong(table.balance(row));
+                out.writeLong(table.heldBalance(row));
+                out.writeLong(table.owner(row));
+                out.writeByte(table.status(row));
+            }
+            out.flush();
+            fileOut.getChannel().force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+}
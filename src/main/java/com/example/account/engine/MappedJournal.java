@@ -0,0 +1,135 @@
+package com.example.account.engine;
+
+import com.example.account.domain.TransactionIdConverter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 파티션별 메모리 매핑 저널
+ * 64바이트 고정 레코드를 이어 쓰고 배치마다 force() 한 번으로 디스크에 내린다.
+ * seq 를 마지막에 쓰므로 seq 가 0 이 아닌 레코드까지만 유효하다. (쓰다 만 레코드는 무시)
+ *
+ * 0 seq | 8 op | 9 성공 여부 | 10 status
+ * 16 accountNumber | 24 amount(LOAD : heldBalance) | 32 balanceAfter
+ * 40 transactedAtMillis(LOAD : owner) | 48 transactionId(16바이트)
+ */
+final class MappedJournal implements Closeable {
+    static final int RECORD_BYTES = 64;
+    private static final int TRANSACTION_ID_BYTES = 16;
+    private static final TransactionIdConverter TRANSACTION_ID_CONVERTER =
+            new TransactionIdConverter();
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private int position;
+
+    MappedJournal(Path file, int bytes) throws IOException {
+        this.capacity = bytes - bytes % RECORD_BYTES;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    /**
+     * 유효한 레코드 중 afterSeq 이후 것을 읽고, 쓰기 위치를 유효한 끝으로 옮긴다.
+     */
+    List<Decision> readAfter(long afterSeq, int partition) {
+        List<Decision> decisions = new ArrayList<>();
+        position = 0;
+        long lastSeq = 0;
+        while (position < capacity) {
+            long seq = buffer.getLong(position);
+            if (seq == 0 || seq <= lastSeq) {
+                break;
+            }
+            if (seq > afterSeq) {
+                decisions.add(read(position, seq, partition));
+            }
+            lastSeq = seq;
+            position += RECORD_BYTES;
+        }
+        return decisions;
+    }
+
+    boolean hasRoomFor(int records) {
+        return capacity - position >= records * RECORD_BYTES;
+    }
+
+    void append(Decision decision) {
+        int base = position;
+        buffer.put(base + 8, decision.op);
+        buffer.put(base + 9, decision.success ? (byte) 1 : (byte) 0);
+        buffer.put(base + 10, decision.status);
+        buffer.putLong(base + 16, decision.accountNumber);
+        if (decision.op == Decision.LOAD) {
+            buffer.putLong(base + 24, decision.heldBalance);
+            buffer.putLong(base + 32, decision.balanceAfter);
+            buffer.putLong(base + 40, decision.owner);
+        } else {
+            buffer.putLong(base + 24, decision.amount);
+            buffer.putLong(base + 32, decision.balanceAfter);
+            buffer.putLong(base + 40, decision.transactedAtMillis);
+            byte[] transactionId =
+                    TRANSACTION_ID_CONVERTER.convertToDatabaseColumn(decision.transactionId);
+            for (int i = 0; i < TRANSACTION_ID_BYTES && i < transactionId.length; i++) {
+                buffer.put(base + 48 + i, transactionId[i]);
+            }
+        }
+        buffer.putLong(base, decision.seq);
+        position += RECORD_BYTES;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    /**
+     * 스냅샷을 남긴 뒤 저널을 비운다.
+     */
+    void reset() {
+        for (int i = 0; i < position; i += 8) {
+            buffer.putLong(i, 0L);
+        }
+        buffer.force();
+        position = 0;
+    }
+
+    private Decision read(int base, long seq, int partition) {
+        Decision decision = new Decision();
+        decision.partition = partition;
+        decision.seq = seq;
+        decision.op = buffer.get(base + 8);
+        decision.success = buffer.get(base + 9) == 1;
+        decision.status = buffer.get(base + 10);
+        decision.accountNumber = buffer.getLong(base + 16);
+        decision.balanceAfter = buffer.getLong(base + 32);
+        if (decision.op == Decision.LOAD) {
+            decision.heldBalance = buffer.getLong(base + 24);
+            decision.owner = buffer.getLong(base + 40);
+        } else {
+            decision.amount = buffer.getLong(base + 24);
+            decision.transactedAtMillis = buffer.getLong(base + 40);
+            byte[] transactionId = new byte[TRANSACTION_ID_BYTES];
+            for (int i = 0; i < TRANSACTION_ID_BYTES; i++) {
+                transactionId[i] = buffer.get(base + 48 + i);
+            }
+            decision.transactionId =
+                    TRANSACTION_ID_CONVERTER.convertToEntityAttribute(transactionId);
+        }
+        return decision;
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+}
@@ -1,19 +1,42 @@
 package com.example.account.exception;
 
 import com.example.account.type.ErrorCode;
-import lombok.*;
+import lombok.Getter;
 
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 잔액 부족, 소유주 불일치 등 예상된 거절을 나타낸다.
+ * 발생 위치는 ErrorCode 로 충분하므로 스택 트레이스를 만들지 않는다.
+ */
 @Getter
-@Setter
-@NoArgsConstructor
-@AllArgsConstructor
-@Builder
 public class AccountException extends RuntimeException {
-    private ErrorCode errorCode;
-    private String errorMessage;
+    private static final Map<ErrorCode, AccountException> PREALLOCATED = new EnumMap<>(ErrorCode.class);
+
+    static {
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            PREALLOCATED.put(errorCode, new AccountException(errorCode));
+        }
+    }
+
+    private final ErrorCode errorCode;
+    private final String errorMessage;
 
     public AccountException(ErrorCode errorCode) {
+        this(errorCode, errorCode.getDescription());
+    }
+
+    public AccountException(ErrorCode errorCode, String errorMessage) {
+        super(errorMessage, null, false, false);
         this.errorCode = errorCode;
-        this.errorMessage = errorCode.getDescription();
+        this.errorMessage = errorMessage;
+    }
+
+    /**
+     * 미리 만들어 둔 공유 인스턴스. 실패가 몰려도 예외 생성 비용이 없다.
+     */
+    public static AccountException of(ErrorCode errorCode) {
+        return PREALLOCATED.get(errorCode);
     }
 }
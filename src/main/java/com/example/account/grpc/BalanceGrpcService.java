@@ -0,0 +1,184 @@
+package com.example.account.grpc;
+
+import com.example.account.config.OperationMetricsContext;
+import com.example.account.dto.CancelBalance;
+import com.example.account.dto.TransactionDto;
+import com.example.account.dto.UseBalance;
+import com.example.account.exception.AccountException;
+import com.example.account.grpc.proto.BalanceCommand;
+import com.example.account.grpc.proto.BalanceReply;
+import com.example.account.grpc.proto.BalanceServiceGrpc;
+import com.example.account.grpc.proto.CancelBalanceRequest;
+import com.example.account.grpc.proto.QueryTransactionRequest;
+import com.example.account.grpc.proto.UseBalanceRequest;
+import com.example.account.service.BalanceService;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.TransactionType;
+import io.grpc.stub.StreamObserver;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import javax.validation.Validator;
+import java.time.ZoneId;
+import java.util.function.Supplier;
+
+import static com.example.account.type.ErrorCode.INTERNAL_SERVER_ERROR;
+import static com.example.account.type.ErrorCode.INVALID_REQUEST;
+
+/**
+ * 잔액 사용/취소/거래 확인 gRPC 서비스
+ * REST 컨트롤러와 같은 BalanceService 를 호출하므로 락, rate limit, 사용 모드(그룹 커밋/엔진) 분기가 REST 와 같다.
+ * 일관성 토큰과 요청 지표는 서버 인터셉터가 처리한다. (GrpcServer)
+ * 실패는 GlobalExceptionHandler 처럼 상태 코드가 아니라 error_code 가 담긴 응답으로 돌려준다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BalanceGrpcService extends BalanceServiceGrpc.BalanceServiceImplBase {
+    private final BalanceService balanceService;
+    private final Validator validator;
+
+    @Override
+    public void useBalance(UseBalanceRequest request,
+                           StreamObserver<BalanceReply> responseObserver) {
+        responseObserver.onNext(use(request));
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void cancelBalance(CancelBalanceRequest request,
+                              StreamObserver<BalanceReply> responseObserver) {
+        responseObserver.onNext(cancel(request));
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void queryTransaction(QueryTransactionRequest request,
+                                 StreamObserver<BalanceReply> responseObserver) {
+        responseObserver.onNext(query(request));
+        responseObserver.onCompleted();
+    }
+
+    /**
+     * gRPC 는 한 호출의 onNext 를 순서대로 한 번에 하나씩 부르므로
+     * 요청은 받은 순서대로 처리되고 응답도 같은 순서로 나간다.
+     */
+    @Override
+    public StreamObserver<BalanceCommand> pipeline(StreamObserver<BalanceReply> responseObserver) {
+        return new StreamObserver<BalanceCommand>() {
+            @Override
+            public void onNext(BalanceCommand command) {
+                responseObserver.onNext(handle(command).toBuilder()
+                        .setCorrelationId(command.getCorrelationId())
+                        .build());
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                log.debug("Pipeline is cancelled by client. {}", t.getMessage());
+            }
+
+            @Override
+            public void onCompleted() {
+                responseObserver.onCompleted();
+            }
+        };
+    }
+
+    private BalanceReply handle(BalanceCommand command) {
+        switch (command.getCommandCase()) {
+            case USE:
+                return use(command.getUse());
+            case CANCEL:
+                return cancel(command.getCancel());
+            case QUERY:
+                return query(command.getQuery());
+            default:
+                return failure(INVALID_REQUEST, INVALID_REQUEST.getDescription());
+        }
+    }
+
+    private BalanceReply use(UseBalanceRequest request) {
+        return execute(() -> {
+            TransactionDto transactionDto = balanceService.useBalance(validate(
+                    new UseBalance.Request(request.getUserId(),
+                            request.getAccountNumber(), request.getAmount())));
+            return success(TransactionType.USE, transactionDto);
+        });
+    }
+
+    private BalanceReply cancel(CancelBalanceRequest request) {
+        return execute(() -> {
+            TransactionDto transactionDto = balanceService.cancelBalance(validate(
+                    new CancelBalance.Request(request.getTransactionId(),
+                            request.getAccountNumber(), request.getAmount())));
+            return success(TransactionType.CANCEL, transactionDto);
+        });
+    }
+
+    private BalanceReply query(QueryTransactionRequest request) {
+        return execute(() -> {
+            if (request.getTransactionId().isEmpty()) {
+                throw AccountException.of(INVALID_REQUEST);
+            }
+            TransactionDto transactionDto =
+                    balanceService.queryTransaction(request.getTransactionId());
+            return success(transactionDto.getTransactionType(), transactionDto);
+        });
+    }
+
+    /**
+     * REST 의 @Valid 는 MVC 가 처리하므로 여기서 직접 검증한다.
+     */
+    private <T> T validate(T request) {
+        if (!validator.validate(request).isEmpty()) {
+            throw AccountException.of(INVALID_REQUEST);
+        }
+        return request;
+    }
+
+    private BalanceReply execute(Supplier<BalanceReply> call) {
+        try {
+            return call.get();
+        } catch (AccountException e) {
+            log.debug("{} is occurred.", e.getErrorCode());
+            return failure(e.getErrorCode(), e.getErrorMessage());
+        } catch (DataIntegrityViolationException e) {
+            log.error("DataIntegrityViolationException is occurred.", e);
+            return failure(INVALID_REQUEST, INVALID_REQUEST.getDescription());
+        } catch (Exception e) {
+            log.error("Exception is occurred.", e);
+            return failure(INTERNAL_SERVER_ERROR, INTERNAL_SERVER_ERROR.getDescription());
+        }
+    }
+
+    private static BalanceReply success(TransactionType transactionType,
+                                        TransactionDto transactionDto) {
+        BalanceReply.Builder builder = BalanceReply.newBuilder()
+                .setSuccess(true)
+                .setAccountNumber(transactionDto.getAccountNumber())
+                .setTransactionType(transactionType.name())
+                .setTransactionResult(transactionDto.getTransactionResult().name())
+                .setTransactionId(transactionDto.getTransactionId())
+                .setAmount(transactionDto.getAmount());
+        if (transactionDto.getTransactedAt() != null) {
+            builder.setTransactedAt(transactionDto.getTransactedAt()
+                    .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+        return builder.build();
+    }
+
+    /**
+     * 응답의 error_code 를 요청 지표에도 남긴다. (GlobalExceptionHandler 와 같다)
+     */
+    private static BalanceReply failure(ErrorCode errorCode, String errorMessage) {
+        OperationMetricsContext.recordError(errorCode);
+        return BalanceReply.newBuilder()
+                .setSuccess(false)
+                .setErrorCode(errorCode.name())
+                .setErrorMessage(errorMessage)
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.account.grpc;
+
+import com.example.account.config.GrpcProperties;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.ServerInterceptors;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * account.grpc.enabled 이면 HTTP 와 별도 포트로 gRPC 서버를 띄운다.
+ * MVC 인터셉터(WebConfig)와 같은 일을 하는 서버 인터셉터로 일관성 토큰과 요청 지표를 처리한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GrpcServer {
+    private final GrpcProperties grpcProperties;
+    private final BalanceGrpcService balanceGrpcService;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private Server server;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        if (!grpcProperties.isEnabled()) {
+            return;
+        }
+        server = ServerBuilder.forPort(grpcProperties.getPort())
+                .addService(ServerInterceptors.intercept(balanceGrpcService,
+                        new ReadConsistencyServerInterceptor(),
+                        new OperationMetricsServerInterceptor(
+                                meterRegistry.getIfAvailable(SimpleMeterRegistry::new))))
+                .build()
+                .start();
+        log.info("gRPC server started. port : {}", server.getPort());
+    }
+
+    public int getPort() {
+        return server == null ? -1 : server.getPort();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (server == null) {
+            return;
+        }
+        server.shutdown();
+        if (!server.awaitTermination(grpcProperties.getShutdownSeconds(), TimeUnit.SECONDS)) {
+            server.shutdownNow();
+        }
+    }
+}
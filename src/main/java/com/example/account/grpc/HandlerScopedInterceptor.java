@@ -0,0 +1,44 @@
+package com.example.account.grpc;
+
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+
+/**
+ * 서비스 메서드가 실행되는 콜백을 요청 단위로 감싼다. MVC 의 HandlerInterceptor 역할이다.
+ * - 단건 요청(unary) : 요청을 다 받은 onHalfClose 에서 메서드가 실행된다.
+ * - 스트림 요청(pipeline) : 메시지마다 onMessage 에서 처리되므로 메시지 하나가 요청 하나다.
+ * 콜백은 호출마다 다른 스레드에서 올 수 있으므로 스레드 로컬 문맥은 콜백 안에서만 잡고 푼다.
+ */
+abstract class HandlerScopedInterceptor implements ServerInterceptor {
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call,
+                                                                 Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        boolean perMessage = !call.getMethodDescriptor().getType().clientSendsOneMessage();
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<ReqT>(
+                next.startCall(call, headers)) {
+            @Override
+            public void onMessage(ReqT message) {
+                if (perMessage) {
+                    around(call, headers, () -> super.onMessage(message));
+                } else {
+                    super.onMessage(message);
+                }
+            }
+
+            @Override
+            public void onHalfClose() {
+                if (perMessage) {
+                    super.onHalfClose();
+                } else {
+                    around(call, headers, super::onHalfClose);
+                }
+            }
+        };
+    }
+
+    protected abstract void around(ServerCall<?, ?> call, Metadata headers, Runnable handler);
+}
@@ -0,0 +1,41 @@
+package com.example.account.grpc;
+
+import com.example.account.config.OperationMetricsContext;
+import com.example.account.config.OperationMetricsRecorder;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * gRPC 요청도 HTTP 와 같은 지표(account.operation*)로 전체/DB/락 시간과 결과를 기록한다.
+ * operation 태그는 메서드 이름을 소문자로 시작하게 바꾼 값이다. (UseBalance -> useBalance, 파이프라인은 pipeline)
+ */
+public class OperationMetricsServerInterceptor extends HandlerScopedInterceptor {
+    private final OperationMetricsRecorder recorder;
+
+    public OperationMetricsServerInterceptor(MeterRegistry meterRegistry) {
+        this.recorder = new OperationMetricsRecorder(meterRegistry);
+    }
+
+    @Override
+    protected void around(ServerCall<?, ?> call, Metadata headers, Runnable handler) {
+        OperationMetricsContext.begin();
+        boolean failed = true;
+        try {
+            handler.run();
+            failed = false;
+        } finally {
+            OperationMetricsContext.Timings timings = OperationMetricsContext.end();
+            recorder.record(getOperation(call.getMethodDescriptor()), timings, failed);
+        }
+    }
+
+    static String getOperation(MethodDescriptor<?, ?> method) {
+        String name = MethodDescriptor.extractBareMethodName(method.getFullMethodName());
+        if (name == null || name.isEmpty()) {
+            return method.getFullMethodName();
+        }
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+}
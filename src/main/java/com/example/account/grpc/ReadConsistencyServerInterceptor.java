@@ -0,0 +1,28 @@
+package com.example.account.grpc;
+
+import com.example.account.config.ConsistencyContext;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 메타데이터의 일관성 토큰을 읽어 두고, 요청이 끝나면 지운다. (ReadConsistencyInterceptor 와 같은 규칙)
+ */
+@Slf4j
+public class ReadConsistencyServerInterceptor extends HandlerScopedInterceptor {
+    static final Metadata.Key<String> TOKEN =
+            Metadata.Key.of(ConsistencyContext.HEADER, Metadata.ASCII_STRING_MARSHALLER);
+
+    @Override
+    protected void around(ServerCall<?, ?> call, Metadata headers, Runnable handler) {
+        String token = headers.get(TOKEN);
+        if (token != null && !ConsistencyContext.requireToken(token)) {
+            log.debug("Invalid consistency token : {}", token);
+        }
+        try {
+            handler.run();
+        } finally {
+            ConsistencyContext.clear();
+        }
+    }
+}
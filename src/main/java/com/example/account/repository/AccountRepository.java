@@ -2,19 +2,38 @@ package com.example.account.repository;
 
 import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
+import com.example.account.dto.AccountDto;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface AccountRepository extends JpaRepository<Account, Long> {
+public interface AccountRepository extends JpaRepository<Account, Long>, AccountRepositoryCustom {
     Optional<Account> findFirstByOrderByIdDesc();
 
     Integer countByAccountUser(AccountUser accountUser);
 
-    Optional<Account> findByAccountNumber(String accountNumber);
+    boolean existsByAccountNumber(String accountNumber);
 
     List<Account> findByAccountUser(AccountUser accountUser);
+
+    /**
+     * 조회 전용 경로 : 엔티티를 만들지 않고 AccountDto 에 필요한 컬럼만 읽는다.
+     * accountUser.id 는 FK 컬럼이라 account_user 조인이 생기지 않는다.
+     */
+    @Query("select new com.example.account.dto.AccountDto(" +
+            "a.accountUser.id, a.accountNumber, a.accountStatus, a.balance, " +
+            "a.registeredAt, a.unRegisteredAt) " +
+            "from Account a where a.id = :id")
+    Optional<AccountDto> findAccountDtoById(@Param("id") Long id);
+
+    @Query("select new com.example.account.dto.AccountDto(" +
+            "a.accountUser.id, a.accountNumber, a.accountStatus, a.balance, " +
+            "a.registeredAt, a.unRegisteredAt) " +
+            "from Account a where a.accountUser.id = :userId")
+    List<AccountDto> findAccountDtosByUserId(@Param("userId") Long userId);
 }
@@ -0,0 +1,21 @@
+package com.example.account.repository;
+
+import com.example.account.domain.Account;
+
+import java.util.Optional;
+
+public interface AccountRepositoryCustom {
+    Optional<Account> findByAccountNumber(String accountNumber);
+
+    /**
+     * 사용자/상태/사용 가능 잔액 조건을 만족할 때만 차감한다.
+     * @return 차감했으면 1, 조건이 하나라도 맞지 않으면 0
+     */
+    int useBalanceAtomically(Long userId, String accountNumber, Long amount);
+
+    /**
+     * 적립하고 account 를 DB 의 값으로 다시 읽는다.
+     * @return 적립했으면 1, 계좌가 없으면 0
+     */
+    int cancelBalanceAtomically(Account account, Long amount);
+}
@@ -0,0 +1,90 @@
+package com.example.account.repository;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.AccountNumberConverter;
+import com.example.account.domain.AccountStatusConverter;
+import com.example.account.type.AccountStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * 계좌번호는 natural id 캐시에서 id 로 바꾸고, 계좌는 id 로 DB 에서 읽는다.
+ * 원자적 갱신은 JDBC 로 한다. JPQL/네이티브 bulk update 는 계좌와 natural id 캐시 영역 전체를 비운다.
+ */
+@Transactional(readOnly = true)
+public class AccountRepositoryCustomImpl implements AccountRepositoryCustom {
+    private static final String USE_BALANCE_SQL =
+            "update account set balance = balance - ?, updated_at = ? " +
+            "where account_number = ? and account_user_id = ? and account_status = ? " +
+            "and balance - coalesce(held_balance, 0) >= ?";
+    private static final String CANCEL_BALANCE_SQL =
+            "update account set balance = balance + ?, updated_at = ? where account_number = ?";
+    private static final AccountNumberConverter ACCOUNT_NUMBER_CONVERTER =
+            new AccountNumberConverter();
+    private static final Short IN_USE =
+            new AccountStatusConverter().convertToDatabaseColumn(AccountStatus.IN_USE);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public AccountRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Optional<Account> findByAccountNumber(String accountNumber) {
+        if (!NaturalIdLookup.isCached(entityManager)) {
+            return queryByAccountNumber(accountNumber);
+        }
+
+        Optional<Long> id = NaturalIdLookup.resolveId(entityManager, Account.class, accountNumber);
+        if (!id.isPresent()) {
+            return Optional.empty();
+        }
+        Account account = entityManager.find(Account.class, id.get(), NaturalIdLookup.BYPASS_CACHE);
+        if (account == null) {
+            NaturalIdLookup.evict(entityManager, Account.class);
+            return queryByAccountNumber(accountNumber);
+        }
+        return Optional.of(account);
+    }
+
+    private Optional<Account> queryByAccountNumber(String accountNumber) {
+        return entityManager.createQuery(
+                        "select a from Account a where a.accountNumber = :accountNumber",
+                        Account.class)
+                .setParameter("accountNumber", accountNumber)
+                .getResultList()
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    @Transactional
+    public int useBalanceAtomically(Long userId, String accountNumber, Long amount) {
+        return jdbcTemplate.update(USE_BALANCE_SQL,
+                amount, Timestamp.valueOf(LocalDateTime.now()),
+                ACCOUNT_NUMBER_CONVERTER.convertToDatabaseColumn(accountNumber),
+                userId, IN_USE, amount);
+    }
+
+    @Override
+    @Transactional
+    public int cancelBalanceAtomically(Account account, Long amount) {
+        int updated = jdbcTemplate.update(CANCEL_BALANCE_SQL,
+                amount, Timestamp.valueOf(LocalDateTime.now()),
+                ACCOUNT_NUMBER_CONVERTER.convertToDatabaseColumn(account.getAccountNumber()));
+        if (updated > 0) {
+            entityManager.refresh(account);
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.account.repository;
+
+import com.example.account.domain.BalanceHold;
+import com.example.account.dto.HoldDto;
+import com.example.account.type.HoldStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BalanceHoldRepository extends JpaRepository<BalanceHold, Long> {
+    @Query("select h from BalanceHold h join fetch h.account " +
+            "where h.holdId = :holdId")
+    Optional<BalanceHold> findWithAccountByHoldId(@Param("holdId") String holdId);
+
+    /**
+     * 만료 타이머를 다시 걸기 위한 조회. (hold_status, expires_at) 인덱스로 읽고 엔티티를 만들지 않는다.
+     */
+    @Query("select new com.example.account.dto.HoldDto(" +
+            "a.accountNumber, h.holdId, h.holdStatus, h.amount, h.expiresAt, h.closedAt) " +
+            "from BalanceHold h join h.account a " +
+            "where h.holdStatus = :holdStatus and h.expiresAt < :until")
+    List<HoldDto> findHoldDtosExpiringBefore(@Param("holdStatus") HoldStatus holdStatus,
+                                             @Param("until") LocalDateTime until);
+
+    @Query("select new com.example.account.dto.HoldDto(" +
+            "a.accountNumber, h.holdId, h.holdStatus, h.amount, h.expiresAt, h.closedAt) " +
+            "from BalanceHold h join h.account a " +
+            "where h.holdStatus = :holdStatus and h.expiresAt >= :from and h.expiresAt < :until")
+    List<HoldDto> findHoldDtosExpiringBetween(@Param("holdStatus") HoldStatus holdStatus,
+                                              @Param("from") LocalDateTime from,
+                                              @Param("until") LocalDateTime until);
+}
@@ -0,0 +1,59 @@
+package com.example.account.repository;
+
+import com.example.account.domain.BaseEntity;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import javax.persistence.CacheRetrieveMode;
+import javax.persistence.EntityManager;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * natural id(계좌번호, 거래 id) -> id 해석
+ * 만든 뒤 바뀌지 않는 값이라 해석 결과는 2차 캐시의 natural id 영역에 두고,
+ * 엔티티 자체는 호출하는 쪽이 id 로 DB 에서 읽는다.
+ */
+final class NaturalIdLookup {
+    // 잔액처럼 다른 노드가 바꿀 수 있는 값은 2차 캐시에서 읽지 않는다.
+    static final Map<String, Object> BYPASS_CACHE = Collections.singletonMap(
+            "javax.persistence.cache.retrieveMode", CacheRetrieveMode.BYPASS);
+
+    private NaturalIdLookup() {
+    }
+
+    /**
+     * 2차 캐시가 꺼져 있으면(샤딩) 해석에도 쿼리가 필요하므로 호출하는 쪽이 쿼리 한 번으로 읽는다.
+     */
+    static boolean isCached(EntityManager entityManager) {
+        return entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getSessionFactoryOptions()
+                .isSecondLevelCacheEnabled();
+    }
+
+    /**
+     * natural id 캐시에 없으면 id 만 읽는 쿼리 1회로 해석하고 캐시에 남긴다.
+     * 엔티티는 만들지 않는다. (세션에 없으면 프록시)
+     */
+    static <T extends BaseEntity> Optional<Long> resolveId(EntityManager entityManager,
+                                                           Class<T> entityClass,
+                                                           Object naturalId) {
+        T reference = entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(entityClass)
+                .getReference(naturalId);
+        return Optional.ofNullable(reference).map(BaseEntity::getId);
+    }
+
+    /**
+     * 해석한 id 의 행이 없으면 롤백된 트랜잭션이 남긴 해석이다. 키 단위로 지울 수 없어 영역을 비운다.
+     */
+    static void evict(EntityManager entityManager, Class<?> entityClass) {
+        entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getCache()
+                .evictNaturalIdData(entityClass);
+    }
+}
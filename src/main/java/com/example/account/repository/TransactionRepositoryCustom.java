@@ -0,0 +1,12 @@
+package com.example.account.repository;
+
+import com.example.account.domain.Transaction;
+
+import java.util.Optional;
+
+public interface TransactionRepositoryCustom {
+    /**
+     * 거래와 계좌를 함께 읽는다. (취소 경로)
+     */
+    Optional<Transaction> findWithAccountByTransactionId(String transactionId);
+}
@@ -0,0 +1,52 @@
+package com.example.account.repository;
+
+import com.example.account.domain.Transaction;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Optional;
+
+/**
+ * 거래 id 는 natural id 캐시에서 id 로 바꾸고, 거래와 계좌는 id 로 조인 한 번에 DB 에서 읽는다.
+ */
+@Transactional(readOnly = true)
+public class TransactionRepositoryCustomImpl implements TransactionRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Transaction> findWithAccountByTransactionId(String transactionId) {
+        if (!NaturalIdLookup.isCached(entityManager)) {
+            return queryByTransactionId(transactionId);
+        }
+
+        Optional<Long> id = NaturalIdLookup.resolveId(entityManager, Transaction.class, transactionId);
+        if (!id.isPresent()) {
+            return Optional.empty();
+        }
+        Optional<Transaction> transaction = entityManager.createQuery(
+                        "select t from Transaction t join fetch t.account where t.id = :id",
+                        Transaction.class)
+                .setParameter("id", id.get())
+                .getResultList()
+                .stream()
+                .findFirst();
+        if (!transaction.isPresent()) {
+            NaturalIdLookup.evict(entityManager, Transaction.class);
+            return queryByTransactionId(transactionId);
+        }
+        return transaction;
+    }
+
+    private Optional<Transaction> queryByTransactionId(String transactionId) {
+        return entityManager.createQuery(
+                        "select t from Transaction t join fetch t.account " +
+                                "where t.transactionId = :transactionId",
+                        Transaction.class)
+                .setParameter("transactionId", transactionId)
+                .getResultList()
+                .stream()
+                .findFirst();
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.account.service;
+
+import com.example.account.config.AffinityProperties;
+import com.example.account.config.GrpcProperties;
+import com.example.account.dto.AccountOwnershipChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 계좌 친화 라우팅의 멤버십과 소유 노드
+ * 1. 노드마다 heartbeatMillis 간격으로 Redis 에 (nodeId -> 주소)를 ttlMillis 동안 남기고 전체 목록을 읽는다.
+ * 2. 계좌번호의 일관된 해시 링으로 소유 노드를 정한다. 멤버가 바뀌면 대략 1/N 의 계좌만 옮겨간다.
+ * 3. 소유 노드가 안정 상태일 때만 JVM 락으로 충분하다고 본다. (isSteadyOwner)
+ *
+ * 계좌가 두 노드에서 JVM 락만으로 처리되지 않도록 하는 순서
+ * - 새 노드는 처음 보인 뒤 joinDelayMillis 가 지나야 링에 들어가고, 다른 노드는 새 노드를 본 순간부터 불안정 상태다.
+ * - 목록을 freshness 안에 읽지 못한 노드(Redis 단절 등)는 다른 노드에서 빠지기(ttlMillis) 전에 안정 상태를 잃는다.
+ * - 불안정 상태에서는 소유 노드도 Redis 락을 함께 잡는다.
+ * - 소유 노드를 거치지 않는 경로(gRPC)가 켜져 있으면 항상 Redis 락을 잡는다.
+ * - ttlMillis 넘게 목록을 쓰지 못했으면 그동안 다른 노드가 계좌를 맡았을 수 있으므로 멤버가 바뀐 것으로 본다.
+ */
+@Slf4j
+@Service
+public class AccountAffinityService {
+    private static final String MEMBERS = "account:affinity:nodes";
+
+    private final AffinityProperties affinityProperties;
+    private final GrpcProperties grpcProperties;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final RMapCache<String, String> members;
+    private final String nodeId;
+    private final ScheduledExecutorService scheduler;
+    // 하트비트 스레드에서만 바뀐다.
+    private final Map<String, Long> firstSeen = new HashMap<>();
+    private boolean initialized;
+    private volatile View view = View.EMPTY;
+    private volatile long lastRefreshedAt = Long.MIN_VALUE;
+    private volatile boolean leaving;
+    private int serverPort;
+    private String advertisedUrl;
+
+    public AccountAffinityService(AffinityProperties affinityProperties,
+                                  GrpcProperties grpcProperties,
+                                  ApplicationEventPublisher applicationEventPublisher,
+                                  RedissonClient redissonClient) {
+        this.affinityProperties = affinityProperties;
+        this.grpcProperties = grpcProperties;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.members = redissonClient.getMapCache(MEMBERS, StringCodec.INSTANCE);
+        this.nodeId = StringUtils.hasText(affinityProperties.getNodeId())
+                ? affinityProperties.getNodeId()
+                : UUID.randomUUID().toString();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "account-affinity");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean isEnabled() {
+        return affinityProperties.isEnabled();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @EventListener
+    public void onWebServerInitialized(WebServerInitializedEvent event) {
+        serverPort = event.getWebServer().getPort();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        advertisedUrl = StringUtils.hasText(affinityProperties.getAdvertisedUrl())
+                ? affinityProperties.getAdvertisedUrl()
+                : "http://127.0.0.1:" + serverPort;
+        if (affinityProperties.isLocalLock() && grpcProperties.isEnabled()) {
+            log.warn("Account affinity local lock is not used while gRPC is enabled.");
+        }
+        if (getFreshnessMillis() <= 0) {
+            log.warn("Account affinity local lock is never used. " +
+                    "heartbeat-millis must be smaller than join-delay-millis and ttl-millis.");
+        }
+        scheduler.scheduleWithFixedDelay(this::heartbeat,
+                0, affinityProperties.getHeartbeatMillis(), TimeUnit.MILLISECONDS);
+        log.info("Account affinity started. nodeId : {}, url : {}", nodeId, advertisedUrl);
+    }
+
+    private void heartbeat() {
+        try {
+            members.fastPut(nodeId, advertisedUrl,
+                    affinityProperties.getTtlMillis(), TimeUnit.MILLISECONDS);
+            refresh(members.readAllMap(), now());
+        } catch (Exception e) {
+            // 읽지 못한 동안 lastRefreshedAt 이 오래되어 Redis 락으로 돌아간다.
+            log.warn("Fail to refresh account affinity members.", e);
+        }
+    }
+
+    /**
+     * @param live 살아 있는 노드 (nodeId -> 주소)
+     */
+    synchronized void refresh(Map<String, String> live, long now) {
+        firstSeen.keySet().retainAll(live.keySet());
+        for (String member : live.keySet()) {
+            // 처음 읽을 때 이미 있던 다른 노드는 이미 계좌를 맡고 있으므로 바로 링에 넣는다.
+            firstSeen.computeIfAbsent(member, id ->
+                    initialized || id.equals(nodeId) ? now : Long.MIN_VALUE);
+        }
+        initialized = true;
+
+        Map<String, String> owners = new TreeMap<>();
+        live.forEach((member, url) -> {
+            if (firstSeen.get(member) <= now - affinityProperties.getJoinDelayMillis()) {
+                owners.put(member, url);
+            }
+        });
+
+        View current = view;
+        // 링에 들어가기 전의 새 노드가 보여도 바로 불안정 상태가 된다.
+        // ttlMillis 넘게 목록을 쓰지 못했으면 다른 노드에서 빠졌다가 돌아온 것이다.
+        if (!owners.equals(current.owners) || !live.keySet().equals(current.seen)
+                || lastRefreshedAt < now - affinityProperties.getTtlMillis()) {
+            view = new View(owners, new HashSet<>(live.keySet()), now,
+                    affinityProperties.getVirtualNodes());
+            log.info("Account affinity members changed. owners : {}, seen : {}",
+                    owners.keySet(), live.keySet());
+        }
+        lastRefreshedAt = now;
+        if (!owners.keySet().equals(current.owners.keySet())) {
+            applicationEventPublisher.publishEvent(
+                    new AccountOwnershipChangedEvent(new HashSet<>(owners.keySet())));
+        }
+    }
+
+    /**
+     * 목록을 갱신하지 못하는 동안에도 마지막으로 읽은 링으로 보낸다. (이때는 소유 노드도 Redis 락을 잡는다)
+     * @return 다른 노드가 맡은 계좌면 그 노드의 주소, 이 노드가 맡았거나 아직 링이 없으면 empty
+     */
+    public Optional<String> getRemoteOwnerUrl(String accountNumber) {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        View current = view;
+        String owner = current.getOwner(accountNumber);
+        if (owner == null || owner.equals(nodeId)) {
+            return Optional.empty();
+        }
+        return Optional.of(current.owners.get(owner));
+    }
+
+    /**
+     * 이 노드가 맡은 계좌이고, 멤버가 stableMillis 동안 바뀌지 않았고, 목록이 최신이면 true
+     * 이때는 다른 노드가 같은 계좌를 처리하지 않으므로 Redis 락 없이 JVM 락으로 충분하다.
+     */
+    public boolean isSteadyOwner(String accountNumber) {
+        return isSteadyOwner(accountNumber, now());
+    }
+
+    boolean isSteadyOwner(String accountNumber, long now) {
+        if (!isEnabled() || !affinityProperties.isLocalLock() || grpcProperties.isEnabled()
+                || leaving || !isFresh(now)) {
+            return false;
+        }
+        View current = view;
+        return current.changedAt <= now - affinityProperties.getStableMillis()
+                && nodeId.equals(current.getOwner(accountNumber));
+    }
+
+    /**
+     * 멤버가 이 노드 하나뿐이고, stableMillis 동안 바뀌지 않았고, 목록이 최신이면 그 시점(멤버가 바뀐 시각)
+     * 같은 값이 이어지는 동안에는 다른 노드가 어떤 계좌도 처리하지 않는다. (엔진 모드)
+     * @return 아니면 -1
+     */
+    public long getSoleOwnerSince() {
+        return getSoleOwnerSince(now());
+    }
+
+    long getSoleOwnerSince(long now) {
+        if (!isEnabled() || leaving || !isFresh(now)) {
+            return -1;
+        }
+        View current = view;
+        if (current.changedAt > now - affinityProperties.getStableMillis()
+                || current.seen.size() != 1 || current.owners.size() != 1
+                || !current.owners.containsKey(nodeId)) {
+            return -1;
+        }
+        return current.changedAt;
+    }
+
+    /**
+     * 다른 노드는 목록을 읽은 지 heartbeatMillis 안에 새 노드를 알아채야 하고(joinDelay),
+     * 이 노드는 다른 노드에서 빠지기(ttl) 전에 안정 상태를 잃어야 한다.
+     */
+    private boolean isFresh(long now) {
+        return lastRefreshedAt >= now - getFreshnessMillis();
+    }
+
+    private long getFreshnessMillis() {
+        return Math.min(affinityProperties.getJoinDelayMillis(), affinityProperties.getTtlMillis())
+                - affinityProperties.getHeartbeatMillis();
+    }
+
+    private static long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    /**
+     * 나가는 노드는 먼저 JVM 락만 잡는 처리를 멈추고 멤버에서 빠진다.
+     * 다른 노드는 다음 하트비트에 이 노드의 계좌를 맡는다.
+     * 처리 중인 요청을 마무리하기(graceful shutdown) 전에 빠지도록 종료가 시작될 때 실행한다.
+     */
+    @EventListener(ContextClosedEvent.class)
+    @PreDestroy
+    public void shutdown() {
+        leaving = true;
+        scheduler.shutdownNow();
+        if (advertisedUrl == null) {
+            return;
+        }
+        try {
+            members.fastRemove(nodeId);
+        } catch (Exception e) {
+            // ttlMillis 가 지나면 빠진다.
+            log.warn("Fail to leave account affinity members.", e);
+        }
+    }
+
+    private static final class View {
+        private static final View EMPTY =
+                new View(new TreeMap<>(), new HashSet<>(), Long.MAX_VALUE, 1);
+
+        private final Map<String, String> owners;
+        private final Set<String> seen;
+        private final long changedAt;
+        private final ConsistentHashRing<String> ring;
+
+        private View(Map<String, String> owners, Set<String> seen, long changedAt,
+                     int virtualNodes) {
+            this.owners = owners;
+            this.seen = seen;
+            this.changedAt = changedAt;
+            List<String> nodeIds = new ArrayList<>(owners.keySet());
+            this.ring = nodeIds.isEmpty()
+                    ? null
+                    : new ConsistentHashRing<>(nodeIds, nodeIds, virtualNodes);
+        }
+
+        private String getOwner(String accountNumber) {
+            return ring == null ? null : ring.get(accountNumber);
+        }
+    }
+}
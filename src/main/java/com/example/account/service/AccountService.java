@@ -1,20 +1,24 @@
 package com.example.account.service;
 
+import com.example.account.aop.ShardKey;
 import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
 import com.example.account.dto.AccountDto;
+import com.example.account.dto.BalanceChangedEvent;
 import com.example.account.exception.AccountException;
 import com.example.account.repository.AccountRepository;
 import com.example.account.repository.AccountUserRepository;
 import com.example.account.type.AccountStatus;
+import com.example.account.type.ShardKeyType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 import static com.example.account.type.AccountStatus.IN_USE;
 import static com.example.account.type.ErrorCode.*;
@@ -24,50 +28,61 @@ import static com.example.account.type.ErrorCode.*;
 public class AccountService {
     private final AccountRepository accountRepository;
     private final AccountUserRepository accountUserRepository;
+    private final ShardRouter shardRouter;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     /**
      * 사용자가 있는지 조회
-     * 계좌의 번호를 생성
+     * 계좌의 번호를 생성 (샤딩 시 새 계좌를 둘 샤드 안에서 생성)
      * 계좌를 저장하고, 그 정보를 넘긴다.
      */
     @Transactional
-    public AccountDto createAccount(Long userId, Long initialBalance) {
+    public AccountDto createAccount(@ShardKey(ShardKeyType.NEW_ACCOUNT) Long userId,
+                                    Long initialBalance) {
         AccountUser accountUser = getAccountUser(userId);
 
         validateCreateAccount(accountUser);
 
         String newAccountNumber = accountRepository.findFirstByOrderByIdDesc()
-                .map(account -> (Integer.parseInt(account.getAccountNumber())) + 1 + "")
-                .orElse("1000000000");
-
-        return AccountDto.fromEntity(
-                accountRepository.save(
-                        Account.builder()
-                                .accountUser(accountUser)
-                                .accountStatus(IN_USE)
-                                .accountNumber(newAccountNumber)
-                                .balance(initialBalance)
-                                .registeredAt(LocalDateTime.now())
-                                .build())
-        );
+                .map(account -> shardRouter.nextAccountNumber(account.getAccountNumber()))
+                .orElseGet(shardRouter::firstAccountNumber);
+
+        Account account = accountRepository.save(
+                Account.builder()
+                        .accountUser(accountUser)
+                        .accountStatus(IN_USE)
+                        .accountNumber(newAccountNumber)
+                        .balance(initialBalance)
+                        .heldBalance(0L)
+                        .registeredAt(LocalDateTime.now())
+                        .build());
+        publishBalanceChanged(userId, account);
+
+        return AccountDto.fromEntity(account);
     }
 
     private void validateCreateAccount(AccountUser accountUser) {
-        if (accountRepository.countByAccountUser(accountUser) >= 10) {
-            throw new AccountException(MAX_ACCOUNT_PER_USER_10);
+        int accountCount = shardRouter.scatter(() -> Collections.singletonList(
+                        accountRepository.countByAccountUser(accountUser)))
+                .stream()
+                .mapToInt(Integer::intValue)
+                .sum();
+        if (accountCount >= 10) {
+            throw AccountException.of(MAX_ACCOUNT_PER_USER_10);
         }
     }
 
-    @Transactional
-    public Account getAccount(Long id) {
+    @Transactional(readOnly = true)
+    public AccountDto getAccount(@ShardKey(ShardKeyType.ACCOUNT_ID) Long id) {
         if (id < 0) {
             throw new RuntimeException("Minus");
         }
-        return accountRepository.findById(id).get();
+        return accountRepository.findAccountDtoById(id)
+                .orElseThrow(() -> AccountException.of(ACCOUNT_NOT_FOUND));
     }
 
     @Transactional
-    public AccountDto deleteAccount(Long userId, String accountNumber) {
+    public AccountDto deleteAccount(Long userId, @ShardKey String accountNumber) {
         AccountUser accountUser = getAccountUser(userId);
 
         Account account = getAccount(accountNumber);
@@ -77,40 +92,49 @@ public class AccountService {
         account.setUnRegisteredAt(LocalDateTime.now());
 
         accountRepository.save(account);
+        publishBalanceChanged(userId, account);
 
         return AccountDto.fromEntity(account);
     }
 
+    /**
+     * 커밋 후 BalanceStreamHub 가 구독 중인 사용자에게 보낸다.
+     */
+    private void publishBalanceChanged(Long userId, Account account) {
+        applicationEventPublisher.publishEvent(new BalanceChangedEvent(
+                userId, account.getAccountNumber(), account.getBalance()));
+    }
+
     private Account getAccount(String accountNumber) {
         return accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+                .orElseThrow(() -> AccountException.of(ACCOUNT_NOT_FOUND));
     }
 
     private void validateDeleteAccount(AccountUser accountUser, Account account) {
         if (!Objects.equals(accountUser.getId(), account.getAccountUser().getId())) {
-            throw new AccountException(USER_ACCOUNT_UN_MATCH);
+            throw AccountException.of(USER_ACCOUNT_UN_MATCH);
         }
         if (account.getAccountStatus() == AccountStatus.UNREGISTERED) {
-            throw new AccountException(ACCOUNT_ALREADY_UNREGISTERED);
+            throw AccountException.of(ACCOUNT_ALREADY_UNREGISTERED);
         }
         if (account.getBalance() > 0) {
-            throw new AccountException(BALANCE_NOT_EMPTY);
+            throw AccountException.of(BALANCE_NOT_EMPTY);
         }
     }
 
-    @Transactional
+    /**
+     * 사용자의 계좌는 여러 샤드에 흩어져 있으므로 모든 샤드에서 모은다.
+     */
+    @Transactional(readOnly = true)
     public List<AccountDto> getAccountsByUserId(Long userId) {
-        AccountUser accountUser = getAccountUser(userId);
+        // existsById 는 count 쿼리라 2차 캐시를 거치지 않으므로 id 로 찾는다.
+        getAccountUser(userId);
 
-        List<Account> accounts = accountRepository
-                .findByAccountUser(accountUser);
-        return accounts.stream()
-                .map(AccountDto::fromEntity)
-                .collect(Collectors.toList());
+        return shardRouter.scatter(() -> accountRepository.findAccountDtosByUserId(userId));
     }
 
     private AccountUser getAccountUser(Long userId) {
         return accountUserRepository.findById(userId)
-                .orElseThrow(() -> new AccountException(USER_NOT_FOUND));
+                .orElseThrow(() -> AccountException.of(USER_NOT_FOUND));
     }
 }
@@ -0,0 +1,124 @@
+package com.example.account.service;
+
+import com.example.account.aop.AccountLock;
+import com.example.account.dto.AuthorizeBalance;
+import com.example.account.dto.BalanceResult;
+import com.example.account.dto.CancelBalance;
+import com.example.account.dto.CaptureBalance;
+import com.example.account.dto.HoldDto;
+import com.example.account.dto.ReleaseBalance;
+import com.example.account.dto.TransactionDto;
+import com.example.account.dto.UseBalance;
+import com.example.account.engine.BalanceEngine;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * 잔액 요청의 계좌 락(rate limit 포함)과 사용 모드(엔진/그룹 커밋/원자적 갱신/락) 분기
+ * REST 컨트롤러와 gRPC 서비스가 같이 호출하므로 두 경로의 락과 분기가 같다.
+ * 실패는 미리 만들어 둔 AccountException 으로 던진다.
+ */
+@Service
+@RequiredArgsConstructor
+public class BalanceService {
+    private final TransactionService transactionService;
+    private final UseBalanceGroupCommitter useBalanceGroupCommitter;
+    private final HoldService holdService;
+    private final BalanceEngine balanceEngine;
+
+    @AccountLock(skippable = true)
+    public TransactionDto useBalance(UseBalance.Request request) {
+        if (balanceEngine.isEnabled()) {
+            // 파티션 스레드가 직렬화하고, DB 에는 비동기로 반영된다.
+            return getTransactionOrThrow(balanceEngine.useBalance(request.getUserId(),
+                    request.getAccountNumber(), request.getAmount()));
+        }
+
+        if (useBalanceGroupCommitter.isEnabled()) {
+            // 실패 거래는 그룹 커밋 안에서 함께 저장된다.
+            return useBalanceGroupCommitter.useBalance(request);
+        }
+
+        if (transactionService.isAtomicUpdateEnabled()) {
+            // 조건부 update 가 검증과 차감을 함께 하므로 요청 락 없이 처리된다.
+            return getTransactionOrThrow(transactionService.tryUseBalanceAtomic(
+                    request.getUserId(), request.getAccountNumber(), request.getAmount()));
+        }
+
+        // 실패 거래는 서비스가 같은 커밋으로 저장하고 결과로 돌려준다.
+        return getTransactionOrThrow(transactionService.tryUseBalance(
+                request.getUserId(), request.getAccountNumber(), request.getAmount()));
+    }
+
+    @AccountLock(quorum = true)
+    public TransactionDto cancelBalance(CancelBalance.Request request) {
+        if (balanceEngine.isEnabled()) {
+            return getTransactionOrThrow(balanceEngine.cancelBalance(request.getTransactionId(),
+                    request.getAccountNumber(), request.getAmount()));
+        }
+
+        if (transactionService.isAtomicUpdateEnabled()) {
+            // 락은 해지와의 순서를 위해 유지하고, 적립은 락 없는 차감과 섞여도 되도록 조건부 update 로 한다.
+            return getTransactionOrThrow(transactionService.tryCancelBalanceAtomic(
+                    request.getTransactionId(), request.getAccountNumber(), request.getAmount()));
+        }
+
+        return getTransactionOrThrow(transactionService.tryCancelBalance(
+                request.getTransactionId(), request.getAccountNumber(), request.getAmount()));
+    }
+
+    public TransactionDto queryTransaction(String transactionId) {
+        if (balanceEngine.isEnabled()) {
+            // DB 에 아직 반영되지 않은 거래는 엔진에서 찾는다.
+            Optional<TransactionDto> pending = balanceEngine.findPendingTransaction(transactionId);
+            if (pending.isPresent()) {
+                return pending.get();
+            }
+        }
+
+        return transactionService.queryTransaction(transactionId);
+    }
+
+    @AccountLock
+    public HoldDto authorizeBalance(AuthorizeBalance.Request request) {
+        rejectUnsupportedMode();
+        return holdService.authorize(request.getUserId(),
+                request.getAccountNumber(), request.getAmount());
+    }
+
+    @AccountLock(quorum = true)
+    public TransactionDto captureBalance(CaptureBalance.Request request) {
+        rejectUnsupportedMode();
+        return holdService.capture(request.getHoldId(), request.getAccountNumber());
+    }
+
+    @AccountLock
+    public HoldDto releaseBalance(ReleaseBalance.Request request) {
+        rejectUnsupportedMode();
+        return holdService.release(request.getHoldId(), request.getAccountNumber());
+    }
+
+    /**
+     * 엔진이 모르는 홀드 금액 변경은 엔진 모드에서 받지 않는다.
+     */
+    private void rejectUnsupportedMode() {
+        if (balanceEngine.isEnabled()) {
+            throw AccountException.of(ErrorCode.ENGINE_MODE_UNSUPPORTED);
+        }
+        // 홀드는 잔액을 읽고 다시 쓰므로 락 없이 차감되는 잔액을 덮어쓸 수 있다.
+        if (transactionService.isAtomicUpdateEnabled()) {
+            throw AccountException.of(ErrorCode.ATOMIC_MODE_UNSUPPORTED);
+        }
+    }
+
+    private static TransactionDto getTransactionOrThrow(BalanceResult result) {
+        if (!result.isSuccess()) {
+            throw AccountException.of(result.getErrorCode());
+        }
+        return result.getTransactionDto();
+    }
+}
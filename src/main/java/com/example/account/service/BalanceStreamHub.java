@@ -0,0 +1,258 @@
+package com.example.account.service;
+
+import com.example.account.config.StreamProperties;
+import com.example.account.dto.AccountInfo;
+import com.example.account.dto.BalanceChangedEvent;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 사용자별 잔액 변경 SSE 허브
+ * 1. 커밋된 변경(BalanceChangedEvent)을 Redis 채널로 발행한다.
+ * 2. 모든 노드가 채널을 구독하고, 이 노드에 연결된 사용자의 변경만 대기열에 모은다.
+ * 3. coalesceMillis 마다 사용자별로 계좌당 마지막 잔액만 한 번에 보낸다.
+ *    채널은 발행 순서를 보장하지 않으므로 계좌마다 version 이 가장 큰 변경만 남기고,
+ *    이미 보낸 것보다 오래된 변경은 버린다.
+ * 유휴 연결은 스레드를 잡지 않으므로(비동기 요청) 연결 수는 maxConnections 로만 제한한다.
+ */
+@Slf4j
+@Component
+public class BalanceStreamHub {
+    private static final String SNAPSHOT_EVENT = "accounts";
+    private static final String UPDATE_EVENT = "balance";
+    private static final String SEPARATOR = ":";
+
+    private final StreamProperties streamProperties;
+    private final RTopic topic;
+    private final ConcurrentMap<Long, Set<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    // 사용자 -> 계좌번호 -> 마지막 변경. compute/remove 로만 접근한다.
+    private final ConcurrentMap<Long, Map<String, Update>> pending = new ConcurrentHashMap<>();
+    // 사용자 -> 계좌번호 -> 보낸 변경의 version. 구독이 모두 끊기면 지운다.
+    private final ConcurrentMap<Long, Map<String, Long>> delivered = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ScheduledExecutorService executor;
+    private Integer listenerId;
+
+    public BalanceStreamHub(StreamProperties streamProperties, RedissonClient redissonClient) {
+        this.streamProperties = streamProperties;
+        this.topic = redissonClient.getTopic(streamProperties.getTopic(), StringCodec.INSTANCE);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "balance-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            listenerId = topic.addListener(String.class, (channel, message) -> onMessage(message));
+        } catch (Exception e) {
+            // Redis 가 없으면 이 노드에서 커밋된 변경만 전달된다.
+            log.error("Fail to subscribe balance stream topic. Only local changes will be streamed.", e);
+        }
+        long coalesceMillis = streamProperties.getCoalesceMillis();
+        executor.scheduleWithFixedDelay(this::flush, coalesceMillis, coalesceMillis,
+                TimeUnit.MILLISECONDS);
+        long heartbeatSeconds = streamProperties.getHeartbeatSeconds();
+        executor.scheduleWithFixedDelay(this::heartbeat, heartbeatSeconds, heartbeatSeconds,
+                TimeUnit.SECONDS);
+    }
+
+    /**
+     * 현재 계좌 목록을 먼저 보내고, 이후 변경을 이어서 보낸다.
+     */
+    public SseEmitter subscribe(Long userId, List<AccountInfo> accounts) {
+        if (connections.incrementAndGet() > streamProperties.getMaxConnections()) {
+            connections.decrementAndGet();
+            throw AccountException.of(ErrorCode.TOO_MANY_REQUESTS);
+        }
+
+        SseEmitter emitter = new SseEmitter(streamProperties.getTimeoutMillis());
+        try {
+            subscribers.compute(userId, (id, emitters) -> {
+                if (emitters == null) {
+                    emitters = ConcurrentHashMap.newKeySet();
+                }
+                if (emitters.size() >= streamProperties.getMaxConnectionsPerUser()) {
+                    throw AccountException.of(ErrorCode.TOO_MANY_REQUESTS);
+                }
+                emitters.add(emitter);
+                return emitters;
+            });
+        } catch (AccountException e) {
+            connections.decrementAndGet();
+            throw e;
+        }
+
+        Runnable remove = () -> remove(userId, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+        send(userId, emitter, SNAPSHOT_EVENT, accounts);
+        return emitter;
+    }
+
+    /**
+     * 커밋 후(트랜잭션이 없으면 바로) 모든 노드로 발행한다.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBalanceChanged(BalanceChangedEvent event) {
+        String message = event.getUserId() + SEPARATOR + event.getAccountNumber()
+                + SEPARATOR + event.getBalance() + SEPARATOR + event.getVersion();
+        if (listenerId == null) {
+            onMessage(message);
+            return;
+        }
+        topic.publishAsync(message).whenComplete((receivers, e) -> {
+            if (e != null) {
+                log.warn("Fail to publish balance change. Delivering locally.", e);
+                onMessage(message);
+            }
+        });
+    }
+
+    void onMessage(String message) {
+        int first = message.indexOf(SEPARATOR);
+        int second = message.indexOf(SEPARATOR, first + 1);
+        int third = message.indexOf(SEPARATOR, second + 1);
+        if (first < 0 || second < 0 || third < 0) {
+            log.warn("Malformed balance change message : {}", message);
+            return;
+        }
+        Long userId = Long.valueOf(message.substring(0, first));
+        // 이 노드에 연결되지 않은 사용자의 변경은 버린다.
+        if (!subscribers.containsKey(userId)) {
+            return;
+        }
+        String accountNumber = message.substring(first + 1, second);
+        Update update = new Update(Long.parseLong(message.substring(second + 1, third)),
+                Long.parseLong(message.substring(third + 1)));
+        pending.compute(userId, (id, updates) -> {
+            Map<String, Long> sent = delivered.get(userId);
+            Long sentVersion = sent == null ? null : sent.get(accountNumber);
+            if (sentVersion != null && sentVersion >= update.version) {
+                return updates;
+            }
+            if (updates == null) {
+                updates = new LinkedHashMap<>();
+            }
+            updates.merge(accountNumber, update,
+                    (current, arrived) -> arrived.version > current.version ? arrived : current);
+            return updates;
+        });
+    }
+
+    Long getPendingBalance(Long userId, String accountNumber) {
+        Map<String, Update> updates = pending.get(userId);
+        Update update = updates == null ? null : updates.get(accountNumber);
+        return update == null ? null : update.balance;
+    }
+
+    void flush() {
+        try {
+            for (Long userId : pending.keySet()) {
+                List<AccountInfo> accounts = new ArrayList<>();
+                // 대기열에서 꺼내는 것과 보낸 version 기록을 한 번에 해서 늦게 온 변경이 끼어들지 않게 한다.
+                pending.computeIfPresent(userId, (id, updates) -> {
+                    Map<String, Long> sent = delivered.computeIfAbsent(userId,
+                            key -> new ConcurrentHashMap<>());
+                    updates.forEach((accountNumber, update) -> {
+                        sent.put(accountNumber, update.version);
+                        accounts.add(AccountInfo.builder()
+                                .accountNumber(accountNumber)
+                                .balance(update.balance)
+                                .build());
+                    });
+                    return null;
+                });
+                Set<SseEmitter> emitters = subscribers.get(userId);
+                if (accounts.isEmpty() || emitters == null) {
+                    continue;
+                }
+                for (SseEmitter emitter : emitters) {
+                    send(userId, emitter, UPDATE_EVENT, accounts);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Balance stream flush failed.", e);
+        }
+    }
+
+    private void heartbeat() {
+        subscribers.forEach((userId, emitters) -> {
+            for (SseEmitter emitter : emitters) {
+                try {
+                    emitter.send(SseEmitter.event().comment(""));
+                } catch (IOException | IllegalStateException e) {
+                    remove(userId, emitter);
+                }
+            }
+        });
+    }
+
+    private void send(Long userId, SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            // 끊긴 연결. 컨테이너가 정리하므로 목록에서만 뺀다.
+            remove(userId, emitter);
+        }
+    }
+
+    private void remove(Long userId, SseEmitter emitter) {
+        subscribers.computeIfPresent(userId, (id, emitters) -> {
+            if (emitters.remove(emitter)) {
+                connections.decrementAndGet();
+            }
+            if (emitters.isEmpty()) {
+                delivered.remove(userId);
+                return null;
+            }
+            return emitters;
+        });
+    }
+
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        if (listenerId != null) {
+            topic.removeListener(listenerId);
+        }
+        subscribers.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+    }
+
+    private static final class Update {
+        private final long balance;
+        private final long version;
+
+        private Update(long balance, long version) {
+            this.balance = balance;
+            this.version = version;
+        }
+    }
+}
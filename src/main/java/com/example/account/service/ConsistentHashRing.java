@@ -0,0 +1,78 @@
+package com.example.account.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * 노드마다 가상 노드를 여러 개 두는 일관된 해시 링
+ * 노드가 추가/제거되어도 대략 1/N 의 키만 다른 노드로 옮겨간다.
+ */
+public class ConsistentHashRing<T> {
+    private final TreeMap<Long, T> ring = new TreeMap<>();
+    private final int nodeCount;
+
+    public ConsistentHashRing(List<T> nodes, List<String> nodeNames, int virtualNodes) {
+        if (nodes.isEmpty() || nodes.size() != nodeNames.size()) {
+            throw new IllegalArgumentException("Nodes and node names must match and not be empty");
+        }
+        this.nodeCount = nodes.size();
+        for (int i = 0; i < nodes.size(); i++) {
+            for (int v = 0; v < virtualNodes; v++) {
+                ring.put(hash(nodeNames.get(i) + "#" + v), nodes.get(i));
+            }
+        }
+    }
+
+    public T get(String key) {
+        Map.Entry<Long, T> entry = ring.ceilingEntry(hash(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    /**
+     * 키의 주 노드부터 링을 따라 서로 다른 노드를 count 개까지 돌려준다.
+     */
+    public List<T> get(String key, int count) {
+        int size = Math.min(count, nodeCount);
+        List<T> nodes = new ArrayList<>(size);
+        Iterator<T> clockwise = concat(ring.tailMap(hash(key), true).values(), ring.values());
+        while (nodes.size() < size && clockwise.hasNext()) {
+            T node = clockwise.next();
+            if (!nodes.contains(node)) {
+                nodes.add(node);
+            }
+        }
+        return nodes;
+    }
+
+    private static <T> Iterator<T> concat(Collection<T> first, Collection<T> second) {
+        Iterator<T> firstIterator = first.iterator();
+        Iterator<T> secondIterator = second.iterator();
+        return new Iterator<T>() {
+            @Override
+            public boolean hasNext() {
+                return firstIterator.hasNext() || secondIterator.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return firstIterator.hasNext() ? firstIterator.next() : secondIterator.next();
+            }
+        };
+    }
+
+    private static long hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5")
+                    .digest(key.getBytes(StandardCharsets.UTF_8));
+            long hash = 0;
+            for (int i = 0; i < 8; i++) {
+                hash = (hash << 8) | (digest[i] & 0xff);
+            }
+            return hash;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
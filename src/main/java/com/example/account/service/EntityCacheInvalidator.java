@@ -0,0 +1,129 @@
+package com.example.account.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManagerFactory;
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * 2차 캐시는 노드마다 따로 있으므로 다른 노드에서 바뀐 엔티티가 남지 않게 한다.
+ * 1. 캐시 대상 엔티티의 수정/삭제가 커밋되면 id 를 Redis 채널로 발행한다.
+ * 2. 다른 노드는 받은 id 의 캐시만 지운다. (커밋한 노드는 Hibernate 가 이미 지웠다)
+ * 잔액이 바뀌는 Account 는 캐시하지 않으므로 JDBC 로 직접 바꾸는 경로는 지울 것이 없다.
+ */
+@Slf4j
+@Component
+public class EntityCacheInvalidator
+        implements PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+    private static final String TOPIC = "account:entity-cache-invalidation";
+    private static final String SEPARATOR = "|";
+
+    private final transient SessionFactoryImplementor sessionFactory;
+    private final transient RTopic topic;
+    private final String nodeId = UUID.randomUUID().toString();
+    private Integer listenerId;
+
+    public EntityCacheInvalidator(EntityManagerFactory entityManagerFactory,
+                                  RedissonClient redissonClient) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.topic = redissonClient.getTopic(TOPIC, StringCodec.INSTANCE);
+    }
+
+    public boolean isEnabled() {
+        return sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+        try {
+            listenerId = topic.addListener(String.class, (channel, message) -> onMessage(message));
+        } catch (Exception e) {
+            // 단일 노드라면 지울 다른 캐시가 없다.
+            log.error("Fail to subscribe entity cache invalidation topic.", e);
+        }
+    }
+
+    /**
+     * Hibernate 5 에서는 이 (오타가 있는) 메서드가 추상이고 requiresPostCommitHandling 이 위임한다.
+     */
+    @Override
+    @SuppressWarnings("deprecation")
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return persister.canWriteToCache();
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        publish(event.getPersister().getEntityName(), String.valueOf(event.getId()));
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publish(event.getPersister().getEntityName(), String.valueOf(event.getId()));
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private void publish(String entityName, String id) {
+        if (listenerId == null) {
+            return;
+        }
+        topic.publishAsync(nodeId + SEPARATOR + entityName + SEPARATOR + id)
+                .whenComplete((receivers, e) -> {
+                    if (e != null) {
+                        log.warn("Fail to publish entity cache invalidation. {} {}",
+                                entityName, id, e);
+                    }
+                });
+    }
+
+    void onMessage(String message) {
+        String[] parts = message.split("\\" + SEPARATOR);
+        if (parts.length != 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        try {
+            // 모든 엔티티 id 는 BaseEntity 의 Long 이다.
+            Serializable id = Long.valueOf(parts[2]);
+            sessionFactory.getCache().evictEntityData(parts[1], id);
+        } catch (Exception e) {
+            log.warn("Malformed entity cache invalidation : {}", message, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (listenerId != null) {
+            topic.removeListener(listenerId);
+        }
+    }
+}
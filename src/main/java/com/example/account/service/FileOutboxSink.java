@@ -0,0 +1,49 @@
+package com.example.account.service;
+
+import com.example.account.dto.BalanceEvent;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * 이벤트를 파일에 한 줄씩 이어 쓴다. 배치마다 fsync 한 번.
+ * eventId,eventType,transactionId,accountNumber,amount,balanceSnapShot,transactedAt
+ */
+public class FileOutboxSink implements OutboxSink {
+    private final Path file;
+
+    public FileOutboxSink(Path file) throws IOException {
+        this.file = file;
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+    }
+
+    @Override
+    public synchronized void publish(List<BalanceEvent> events) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            StringBuilder lines = new StringBuilder(events.size() * 96);
+            for (BalanceEvent event : events) {
+                lines.append(event.getEventId()).append(',')
+                        .append(event.getEventType()).append(',')
+                        .append(event.getTransactionId()).append(',')
+                        .append(event.getAccountNumber()).append(',')
+                        .append(event.getAmount()).append(',')
+                        .append(event.getBalanceSnapShot()).append(',')
+                        .append(event.getTransactedAt()).append('\n');
+            }
+            ByteBuffer buffer = StandardCharsets.UTF_8.encode(lines.toString());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.account.service;
+
+import com.example.account.config.TransactionProperties;
+import com.example.account.dto.AccountOwnershipChangedEvent;
+import com.example.account.dto.HoldAuthorizedEvent;
+import com.example.account.dto.HoldDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 홀드 만료 타이머
+ * 만료 시각 순으로 정렬된 지연 큐에서 만료된 홀드만 꺼내 처리하므로 테이블을 훑지 않는다.
+ * 1. 홀드 승인이 커밋되면 큐에 넣는다.
+ * 2. DB 에서는 horizon 안에 만료되는 HELD 홀드만 (hold_status, expires_at) 인덱스로 읽어 넣는다.
+ *    기동 시 [처음, now + horizon) 을 읽고 (재기동 중 만료된 홀드도 여기서 처리된다.) 이후 horizon 의 절반마다 다음 구간을 읽는다.
+ * 3. 만료된 홀드는 계좌 락을 잡고 해제한다. 락을 얻지 못하면 잠시 후 다시 시도한다.
+ * 4. 계좌 친화 라우팅 중에는 계좌를 맡은 노드만 만료시킨다.
+ *    소유 노드가 바뀌면 이미 읽은 구간에서 새로 맡은 계좌의 홀드만 다시 넣는다. 이후 구간은 읽을 때 소유 노드를 본다.
+ */
+@Slf4j
+@Component
+public class HoldExpirationScheduler {
+    private final HoldService holdService;
+    private final LockService lockService;
+    private final TransactionProperties transactionProperties;
+    private final AccountAffinityService accountAffinityService;
+    private final DelayQueue<ExpiringHold> queue = new DelayQueue<>();
+    // 같은 홀드를 두 번 넣지 않는다.
+    private final Set<String> scheduled = ConcurrentHashMap.newKeySet();
+    private final Thread worker;
+    // 이 시각 전에 만료되는 홀드는 DB 에서 읽어 큐에 넣었다.
+    private LocalDateTime loadedUntil;
+
+    public HoldExpirationScheduler(HoldService holdService,
+                                   LockService lockService,
+                                   TransactionProperties transactionProperties,
+                                   AccountAffinityService accountAffinityService) {
+        this.holdService = holdService;
+        this.lockService = lockService;
+        this.transactionProperties = transactionProperties;
+        this.accountAffinityService = accountAffinityService;
+        this.worker = new Thread(this::run, "hold-expiration");
+        this.worker.setDaemon(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        load();
+        log.info("Hold expiration scheduler started. pending : {}", queue.size());
+        worker.start();
+    }
+
+    @TransactionalEventListener
+    public void onHoldAuthorized(HoldAuthorizedEvent event) {
+        HoldDto holdDto = event.getHoldDto();
+        schedule(holdDto.getHoldId(), holdDto.getAccountNumber(), holdDto.getExpiresAt());
+    }
+
+    @EventListener
+    public synchronized void onAccountOwnershipChanged(AccountOwnershipChangedEvent event) {
+        if (loadedUntil == null) {
+            // 아직 기동 전이다. 기동 시 읽는 구간에서 소유 노드를 본다.
+            return;
+        }
+        int before = queue.size();
+        scheduleOwned(holdService.getHeldHoldsExpiringBefore(loadedUntil));
+        log.info("Hold expiration rescheduled. owners : {}, added : {}",
+                event.getOwners(), queue.size() - before);
+    }
+
+    /**
+     * 다음 구간 [loadedUntil, now + horizon) 에 만료되는 홀드를 읽어 넣고, horizon 의 절반 뒤에 다시 읽도록 표시를 넣는다.
+     */
+    synchronized void load() {
+        long horizonMillis = TimeUnit.SECONDS.toMillis(transactionProperties.getHold().getHorizonSeconds());
+        LocalDateTime until = LocalDateTime.now().plus(Duration.ofMillis(horizonMillis));
+        try {
+            scheduleOwned(loadedUntil == null
+                    ? holdService.getHeldHoldsExpiringBefore(until)
+                    : holdService.getHeldHoldsExpiringBetween(loadedUntil, until));
+            loadedUntil = until;
+            queue.add(ExpiringHold.load(horizonMillis / 2));
+        } catch (Exception e) {
+            log.warn("Fail to load holds until {}, retry later", until, e);
+            queue.add(ExpiringHold.load(transactionProperties.getHold().getRetryMillis()));
+        }
+    }
+
+    private void scheduleOwned(List<HoldDto> holdDtos) {
+        for (HoldDto holdDto : holdDtos) {
+            if (!accountAffinityService.getRemoteOwnerUrl(holdDto.getAccountNumber()).isPresent()) {
+                schedule(holdDto.getHoldId(), holdDto.getAccountNumber(), holdDto.getExpiresAt());
+            }
+        }
+    }
+
+    public void schedule(String holdId, String accountNumber, LocalDateTime expiresAt) {
+        if (!scheduled.add(holdId)) {
+            return;
+        }
+        long delayMillis = Duration.between(LocalDateTime.now(), expiresAt).toMillis();
+        queue.add(new ExpiringHold(holdId, accountNumber,
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis)));
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                ExpiringHold hold = queue.take();
+                if (hold.isLoad()) {
+                    load();
+                } else {
+                    expire(hold);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    void expire(ExpiringHold hold) {
+        if (accountAffinityService.getRemoteOwnerUrl(hold.accountNumber).isPresent()) {
+            // 소유 노드가 만료시킨다.
+            scheduled.remove(hold.holdId);
+            return;
+        }
+        // 계좌 락 요청과 같은 규칙으로 JVM 락과 Redis 락을 잡는다. (LockAopAspect)
+        boolean localLock = accountAffinityService.isEnabled();
+        boolean distributedLock = !accountAffinityService.isSteadyOwner(hold.accountNumber);
+        try {
+            if (localLock) {
+                lockService.lockLocal(hold.accountNumber);
+            }
+            try {
+                if (distributedLock) {
+                    lockService.lock(hold.accountNumber);
+                }
+                try {
+                    if (holdService.expire(hold.holdId, hold.accountNumber)) {
+                        log.info("Hold expired. holdId : {}", hold.holdId);
+                    }
+                    scheduled.remove(hold.holdId);
+                } finally {
+                    if (distributedLock) {
+                        lockService.unlock(hold.accountNumber);
+                    }
+                }
+            } finally {
+                if (localLock) {
+                    lockService.unlockLocal(hold.accountNumber);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Fail to expire hold. holdId : {}, retry later", hold.holdId, e);
+            queue.add(new ExpiringHold(hold.holdId, hold.accountNumber, System.nanoTime()
+                    + TimeUnit.MILLISECONDS.toNanos(
+                    transactionProperties.getHold().getRetryMillis())));
+        }
+    }
+
+    int size() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.interrupt();
+    }
+
+    static class ExpiringHold implements Delayed {
+        private final String holdId;
+        private final String accountNumber;
+        private final long deadlineNanos;
+
+        ExpiringHold(String holdId, String accountNumber, long deadlineNanos) {
+            this.holdId = holdId;
+            this.accountNumber = accountNumber;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        // 홀드 대신 다음 구간을 읽을 시각을 나타낸다.
+        static ExpiringHold load(long delayMillis) {
+            return new ExpiringHold(null, null,
+                    System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis));
+        }
+
+        boolean isLoad() {
+            return holdId == null;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(deadlineNanos, ((ExpiringHold) other).deadlineNanos);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.account.service;
+
+import com.example.account.aop.ShardKey;
+import com.example.account.config.TransactionProperties;
+import com.example.account.domain.Account;
+import com.example.account.domain.BalanceHold;
+import com.example.account.dto.HoldAuthorizedEvent;
+import com.example.account.dto.HoldDto;
+import com.example.account.dto.TransactionDto;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.AccountUserRepository;
+import com.example.account.repository.BalanceHoldRepository;
+import com.example.account.type.AccountStatus;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.HoldStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * 잔액 홀드(예약)
+ * 1. 승인 : 사용 가능 잔액에서 금액을 묶는다.
+ * 2. 확정 : 묶인 금액을 실제로 사용하고 거래를 남긴다.
+ * 3. 해제/만료 : 묶인 금액을 돌려준다.
+ * 각 단계는 계좌 한 건을 읽고 쓰는 짧은 작업이다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class HoldService {
+    private final BalanceHoldRepository balanceHoldRepository;
+    private final AccountRepository accountRepository;
+    private final AccountUserRepository accountUserRepository;
+    private final TransactionService transactionService;
+    private final TransactionProperties transactionProperties;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final ShardRouter shardRouter;
+
+    @Transactional
+    public HoldDto authorize(Long userId, @ShardKey String accountNumber, Long amount) {
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> AccountException.of(ErrorCode.ACCOUNT_NOT_FOUND));
+
+        validateAuthorize(userId, account);
+
+        account.hold(amount);
+
+        HoldDto holdDto = HoldDto.fromEntity(balanceHoldRepository.save(
+                BalanceHold.builder()
+                        .account(account)
+                        .holdId(UUID.randomUUID().toString().replace("-", ""))
+                        .amount(amount)
+                        .holdStatus(HoldStatus.HELD)
+                        .expiresAt(LocalDateTime.now().plusSeconds(
+                                transactionProperties.getHold().getTtlSeconds()))
+                        .build()
+        ));
+        applicationEventPublisher.publishEvent(new HoldAuthorizedEvent(holdDto));
+        return holdDto;
+    }
+
+    private void validateAuthorize(Long userId, Account account) {
+        if (!Objects.equals(userId, account.getAccountUser().getId())) {
+            if (!accountUserRepository.existsById(userId)) {
+                throw AccountException.of(ErrorCode.USER_NOT_FOUND);
+            }
+            throw AccountException.of(ErrorCode.USER_ACCOUNT_UN_MATCH);
+        }
+        if (account.getAccountStatus() != AccountStatus.IN_USE) {
+            throw AccountException.of(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+        }
+    }
+
+    @Transactional
+    public TransactionDto capture(String holdId, @ShardKey String accountNumber) {
+        BalanceHold hold = getOpenHold(holdId, accountNumber);
+        if (hold.isExpired(LocalDateTime.now())) {
+            // 만료 처리는 타이머가 한다.
+            throw AccountException.of(ErrorCode.HOLD_EXPIRED);
+        }
+
+        Account account = hold.getAccount();
+        account.captureHold(hold.getAmount());
+        hold.close(HoldStatus.CAPTURED);
+
+        return transactionService.saveUseTransaction(account, hold.getAmount());
+    }
+
+    @Transactional
+    public HoldDto release(String holdId, @ShardKey String accountNumber) {
+        BalanceHold hold = getOpenHold(holdId, accountNumber);
+
+        hold.getAccount().releaseHold(hold.getAmount());
+        hold.close(HoldStatus.RELEASED);
+
+        return HoldDto.fromEntity(hold);
+    }
+
+    /**
+     * 만료 타이머에서 계좌 락을 잡은 채로 호출된다.
+     * 그 사이 확정/해제된 홀드는 그대로 둔다.
+     *
+     * @return 이번 호출로 만료되었으면 true
+     */
+    @Transactional
+    public boolean expire(String holdId, @ShardKey String accountNumber) {
+        Optional<BalanceHold> optionalHold = balanceHoldRepository.findWithAccountByHoldId(holdId);
+        if (!optionalHold.isPresent()
+                || optionalHold.get().getHoldStatus() != HoldStatus.HELD) {
+            return false;
+        }
+        BalanceHold hold = optionalHold.get();
+
+        hold.getAccount().releaseHold(hold.getAmount());
+        hold.close(HoldStatus.EXPIRED);
+        return true;
+    }
+
+    /**
+     * until 전에 만료되는 HELD 홀드
+     */
+    public List<HoldDto> getHeldHoldsExpiringBefore(LocalDateTime until) {
+        return shardRouter.scatter(() -> balanceHoldRepository.findHoldDtosExpiringBefore(
+                HoldStatus.HELD, until));
+    }
+
+    /**
+     * [from, until) 에 만료되는 HELD 홀드
+     */
+    public List<HoldDto> getHeldHoldsExpiringBetween(LocalDateTime from, LocalDateTime until) {
+        return shardRouter.scatter(() -> balanceHoldRepository.findHoldDtosExpiringBetween(
+                HoldStatus.HELD, from, until));
+    }
+
+    private BalanceHold getOpenHold(String holdId, String accountNumber) {
+        BalanceHold hold = balanceHoldRepository.findWithAccountByHoldId(holdId)
+                .orElseThrow(() -> AccountException.of(ErrorCode.HOLD_NOT_FOUND));
+
+        if (!Objects.equals(hold.getAccount().getAccountNumber(), accountNumber)) {
+            throw AccountException.of(ErrorCode.HOLD_ACCOUNT_UN_MATCH);
+        }
+        if (hold.getHoldStatus() != HoldStatus.HELD) {
+            throw AccountException.of(ErrorCode.HOLD_ALREADY_CLOSED);
+        }
+        return hold;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.account.service;
+
+import com.example.account.dto.BalanceEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * 발행된 이벤트를 메모리 큐에 쌓는다.
+ * 배치를 모두 받을 자리가 없으면 거절한다. 릴레이는 행을 지우지 않고 선점 기한이 지나면 다시 시도한다.
+ */
+public class InMemoryOutboxSink implements OutboxSink {
+    private final BlockingQueue<BalanceEvent> events;
+
+    public InMemoryOutboxSink(int capacity) {
+        this.events = new LinkedBlockingQueue<>(capacity);
+    }
+
+    @Override
+    public synchronized void publish(List<BalanceEvent> batch) {
+        // 배치 일부만 넣으면 다시 시도할 때 앞부분이 중복되므로 먼저 자리를 확인한다.
+        if (events.remainingCapacity() < batch.size()) {
+            throw new IllegalStateException("Outbox memory sink is full. remaining : "
+                    + events.remainingCapacity() + ", batch : " + batch.size());
+        }
+        for (BalanceEvent event : batch) {
+            if (!events.offer(event)) {
+                throw new IllegalStateException("Outbox memory sink is full.");
+            }
+        }
+    }
+
+    public List<BalanceEvent> drain() {
+        List<BalanceEvent> drained = new ArrayList<>();
+        events.drainTo(drained);
+        return drained;
+    }
+}
@@ -1,11 +1,17 @@
 package com.example.account.service;
 
+import com.example.account.aop.AccountLock;
 import com.example.account.aop.AccountLockIdInterface;
+import com.example.account.aop.AccountUserIdInterface;
+import com.example.account.config.OperationMetricsContext;
+import com.example.account.config.TransactionProperties;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.Tracer;
 import org.springframework.stereotype.Component;
 
 @Aspect
@@ -14,19 +20,109 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class LockAopAspect {
     private final LockService lockService;
+    private final RateLimitService rateLimitService;
+    private final TransactionProperties transactionProperties;
+    private final AccountAffinityService accountAffinityService;
+    private final Tracer tracer;
 
-    @Around("@annotation(com.example.account.aop.AccountLock) && args(request)")
+    @Around("@annotation(accountLock) && args(request)")
     public Object aroundMethod(
             ProceedingJoinPoint pjp,
+            AccountLock accountLock,
             AccountLockIdInterface request
     ) throws Throwable {
+        // 과도한 요청은 lock 대기열에 들어가기 전에 거절
+        rateLimitService.acquire(request.getAccountNumber(), getUserId(request));
+
+        // 그룹 커밋처럼 모드가 직렬화를 책임지면 요청 단위 lock 은 생략
+        // (엔진 모드는 이 노드만 계좌를 처리할 때만 받는다. BalanceEngine 참고)
+        if (accountLock.skippable()
+                && !transactionProperties.getUseMode().isRequestLockRequired()) {
+            return pjp.proceed();
+        }
+
+        String accountNumber = request.getAccountNumber();
+        // 계좌 친화 라우팅으로 이 노드에 모인 같은 계좌 요청은 JVM 락에서 줄을 선다.
+        boolean localLock = accountAffinityService.isEnabled();
+        // 안정 상태의 소유 노드라면 다른 노드가 같은 계좌를 처리하지 않으므로 Redis 락은 생략
+        boolean distributedLock = !accountAffinityService.isSteadyOwner(accountNumber);
+
         // lock 취득 시도
-        lockService.lock(request.getAccountNumber());
-        try {
+        Span acquireSpan = startSpan("account.lock.acquire", accountLock, distributedLock);
+        long lockStart = System.nanoTime();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(acquireSpan)) {
+            if (localLock) {
+                lockService.lockLocal(accountNumber);
+            }
+            try {
+                if (distributedLock) {
+                    lockDistributed(accountLock, accountNumber);
+                }
+            } catch (RuntimeException e) {
+                if (localLock) {
+                    lockService.unlockLocal(accountNumber);
+                }
+                throw e;
+            }
+        } catch (RuntimeException e) {
+            acquireSpan.error(e);
+            throw e;
+        } finally {
+            OperationMetricsContext.addLockTime(System.nanoTime() - lockStart);
+            acquireSpan.end();
+        }
+
+        // lock 을 쥐고 있는 동안의 조회/저장/커밋 span 은 hold 아래에 달린다.
+        Span holdSpan = startSpan("account.lock.hold", accountLock, distributedLock);
+        try (Tracer.SpanInScope ignored = tracer.withSpan(holdSpan)) {
             return pjp.proceed();
         } finally {
+            holdSpan.end();
             // lock 해제
-            lockService.unlock(request.getAccountNumber());
+            Span releaseSpan = startSpan("account.lock.release", accountLock, distributedLock);
+            long unlockStart = System.nanoTime();
+            try {
+                if (distributedLock) {
+                    unlockDistributed(accountLock, accountNumber);
+                }
+            } finally {
+                if (localLock) {
+                    lockService.unlockLocal(accountNumber);
+                }
+                OperationMetricsContext.addLockTime(System.nanoTime() - unlockStart);
+                releaseSpan.end();
+            }
+        }
+    }
+
+    private void lockDistributed(AccountLock accountLock, String accountNumber) {
+        if (accountLock.quorum()) {
+            lockService.lockQuorum(accountNumber);
+        } else {
+            lockService.lock(accountNumber);
+        }
+    }
+
+    private void unlockDistributed(AccountLock accountLock, String accountNumber) {
+        if (accountLock.quorum()) {
+            lockService.unlockQuorum(accountNumber);
+        } else {
+            lockService.unlock(accountNumber);
+        }
+    }
+
+    private Span startSpan(String name, AccountLock accountLock, boolean distributedLock) {
+        return tracer.nextSpan()
+                .name(name)
+                .tag("account.lock.quorum", String.valueOf(accountLock.quorum()))
+                .tag("account.lock.distributed", String.valueOf(distributedLock))
+                .start();
+    }
+
+    private static Long getUserId(AccountLockIdInterface request) {
+        if (request instanceof AccountUserIdInterface) {
+            return ((AccountUserIdInterface) request).getUserId();
         }
+        return null;
     }
 }
@@ -5,26 +5,31 @@ import com.example.account.type.ErrorCode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RLock;
-import org.redisson.api.RedissonClient;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class LockService {
-    private final RedissonClient redissonClient;
+    private static final int LOCAL_LOCK_STRIPES = 1024;
+
+    private final RedisLockRouter redisLockRouter;
+    // 계좌번호 해시로 나눈 JVM 락. 계좌 수와 무관하게 개수가 고정된다.
+    private final ReentrantLock[] localLocks = newLocalLocks();
 
     public void lock(String accountNumber) {
-        RLock lock = redissonClient.getLock(getLockKey(accountNumber));
+        RLock lock = redisLockRouter.getLock(getLockKey(accountNumber));
         log.debug("Trying lock for accountNumber : {}", accountNumber);
 
         try {
-            boolean isLock = lock.tryLock(1, 15, TimeUnit.SECONDS);
+            boolean isLock = tryLock(lock);
             if (!isLock) {
                 log.error("======Lock acquisition failed=====");
-                throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+                throw AccountException.of(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
             }
         } catch (AccountException e) {
             throw e;
@@ -33,9 +38,102 @@ public class LockService {
         }
     }
 
+    /**
+     * 정족수 락 : 주 노드의 락은 반드시, 나머지를 포함해 과반의 노드에서 락을 잡아야 성공한다.
+     * 주 노드를 반드시 잡으므로 {@link #lock(String)} 과도 서로 배제되고,
+     * 주 노드가 재시작되어 락을 잃어도 다른 정족수 락과는 겹치지 않는다.
+     */
+    public void lockQuorum(String accountNumber) {
+        List<RLock> locks = redisLockRouter.getQuorumLocks(getLockKey(accountNumber));
+        log.debug("Trying quorum lock for accountNumber : {}, nodes : {}",
+                accountNumber, locks.size());
+
+        if (!tryLockQuietly(locks.get(0))) {
+            log.error("======Quorum lock acquisition failed (primary)=====");
+            throw AccountException.of(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        }
+        int acquired = 1;
+        for (RLock lock : locks.subList(1, locks.size())) {
+            if (tryLockQuietly(lock)) {
+                acquired++;
+            }
+        }
+        if (acquired < locks.size() / 2 + 1) {
+            log.error("======Quorum lock acquisition failed ({}/{})=====", acquired, locks.size());
+            unlockQuietly(locks);
+            throw AccountException.of(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        }
+    }
+
     public void unlock(String accountNumber) {
         log.debug("Unlock for accountNumber : {} ", accountNumber);
-        redissonClient.getLock(getLockKey(accountNumber)).unlock();
+        redisLockRouter.getLock(getLockKey(accountNumber)).unlock();
+    }
+
+    public void unlockQuorum(String accountNumber) {
+        log.debug("Quorum unlock for accountNumber : {} ", accountNumber);
+        unlockQuietly(redisLockRouter.getQuorumLocks(getLockKey(accountNumber)));
+    }
+
+    /**
+     * 계좌 친화 라우팅으로 이 노드에 모인 요청이 줄을 서는 JVM 락
+     * Redis 락과 같은 대기 시간(1초)이 지나면 실패한다.
+     */
+    public void lockLocal(String accountNumber) {
+        try {
+            if (!getLocalLock(accountNumber).tryLock(1, TimeUnit.SECONDS)) {
+                log.error("======Local lock acquisition failed=====");
+                throw AccountException.of(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw AccountException.of(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        }
+    }
+
+    public void unlockLocal(String accountNumber) {
+        getLocalLock(accountNumber).unlock();
+    }
+
+    private ReentrantLock getLocalLock(String accountNumber) {
+        return localLocks[Math.floorMod(accountNumber.hashCode(), LOCAL_LOCK_STRIPES)];
+    }
+
+    private static ReentrantLock[] newLocalLocks() {
+        ReentrantLock[] locks = new ReentrantLock[LOCAL_LOCK_STRIPES];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+
+    private static boolean tryLock(RLock lock) throws InterruptedException {
+        return lock.tryLock(1, 15, TimeUnit.SECONDS);
+    }
+
+    private static boolean tryLockQuietly(RLock lock) {
+        try {
+            return tryLock(lock);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            // 장애 노드는 정족수에서 빠질 뿐이다.
+            log.warn("Redis lock failed on a quorum node", e);
+            return false;
+        }
+    }
+
+    private static void unlockQuietly(List<RLock> locks) {
+        for (RLock lock : locks) {
+            try {
+                if (lock.isHeldByCurrentThread()) {
+                    lock.unlock();
+                }
+            } catch (Exception e) {
+                log.warn("Redis unlock failed on a quorum node", e);
+            }
+        }
     }
 
     private static String getLockKey(String accountNumber) {
@@ -0,0 +1,160 @@
+package com.example.account.service;
+
+import com.example.account.config.OutboxProperties;
+import com.example.account.config.ShardContext;
+import com.example.account.domain.AccountNumberConverter;
+import com.example.account.domain.TransactionIdConverter;
+import com.example.account.domain.TransactionTypeConverter;
+import com.example.account.dto.BalanceEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 아웃박스 릴레이
+ * 1. 발행 전 행을 batchSize 만큼 선점한다. (다른 릴레이가 선점 중인 행은 건너뛴다.)
+ * 2. 선점한 행을 한 번에 읽어 sink 로 발행한다.
+ * 3. 발행이 끝나면 선점한 행을 한 번에 지운다.
+ * 배치가 가득 차는 동안은 쉬지 않고 이어서 처리하고, 비면 pollMillis 동안 쉰다.
+ * 쿼리 수는 행 수가 아니라 배치 수에 비례하고, 빈 아웃박스 확인은 주기당 샤드별 1회이다.
+ * 발행 후 삭제 전에 죽으면 선점 기한이 지난 뒤 다시 발행된다. (최소 1회 전달, eventId 로 중복 제거)
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+    /**
+     * 선점 조건을 바깥 update 에서 한 번 더 확인하므로, 같은 행을 두 릴레이가 동시에 잡으면
+     * 늦게 잡은 쪽은 먼저 잡은 쪽의 커밋 후 조건이 맞지 않아 건너뛴다. (SKIP LOCKED 와 같은 효과)
+     */
+    private static final String CLAIM_SQL =
+            "update outbox_event set claimed_by = ?, claimed_until = ? " +
+            "where id in (select id from outbox_event " +
+            "where claimed_until is null or claimed_until < ? order by id limit ?) " +
+            "and (claimed_until is null or claimed_until < ?)";
+    private static final String SELECT_CLAIMED_SQL =
+            "select id, event_type, transaction_id, account_number, amount, " +
+            "balance_snap_shot, transacted_at from outbox_event where claimed_by = ? order by id";
+    private static final String DELETE_CLAIMED_SQL =
+            "delete from outbox_event where claimed_by = ?";
+
+    private static final TransactionTypeConverter TRANSACTION_TYPE_CONVERTER =
+            new TransactionTypeConverter();
+    private static final TransactionIdConverter TRANSACTION_ID_CONVERTER =
+            new TransactionIdConverter();
+    private static final AccountNumberConverter ACCOUNT_NUMBER_CONVERTER =
+            new AccountNumberConverter();
+    private static final RowMapper<BalanceEvent> BALANCE_EVENT_MAPPER = (rs, rowNum) ->
+            BalanceEvent.builder()
+                    .eventId(rs.getLong("id"))
+                    .eventType(TRANSACTION_TYPE_CONVERTER.convertToEntityAttribute(
+                            rs.getShort("event_type")))
+                    .transactionId(TRANSACTION_ID_CONVERTER.convertToEntityAttribute(
+                            rs.getBytes("transaction_id")))
+                    .accountNumber(ACCOUNT_NUMBER_CONVERTER.convertToEntityAttribute(
+                            rs.getLong("account_number")))
+                    .amount(rs.getLong("amount"))
+                    .balanceSnapShot(rs.getLong("balance_snap_shot"))
+                    .transactedAt(rs.getTimestamp("transacted_at").toLocalDateTime())
+                    .build();
+
+    private final OutboxProperties outboxProperties;
+    private final OutboxSink outboxSink;
+    private final ShardRouter shardRouter;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String relayId;
+    private final AtomicLong claims = new AtomicLong();
+    private final ScheduledExecutorService executor;
+
+    public OutboxRelay(OutboxProperties outboxProperties,
+                       OutboxSink outboxSink,
+                       ShardRouter shardRouter,
+                       DataSource dataSource,
+                       PlatformTransactionManager transactionManager) {
+        this.outboxProperties = outboxProperties;
+        this.outboxSink = outboxSink;
+        this.shardRouter = shardRouter;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.relayId = outboxProperties.getRelayId().isEmpty()
+                ? UUID.randomUUID().toString().substring(0, 8)
+                : outboxProperties.getRelayId();
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!outboxProperties.isRelayEnabled()) {
+            return;
+        }
+        long pollMillis = outboxProperties.getPollMillis();
+        executor.scheduleWithFixedDelay(this::poll, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+        log.info("Outbox relay started. relayId : {}", relayId);
+    }
+
+    void poll() {
+        try {
+            for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+                int batches = 0;
+                int published;
+                // 가득 찬 배치가 나오는 동안은 바로 다음 배치를 처리한다.
+                do {
+                    published = ShardContext.callOn(shard, this::relayBatch);
+                } while (published == outboxProperties.getBatchSize()
+                        && ++batches < outboxProperties.getMaxBatchesPerPoll());
+            }
+        } catch (Exception e) {
+            // 발행하지 못한 행은 선점 기한이 지나면 다시 시도된다.
+            log.error("Outbox relay failed. relayId : {}", relayId, e);
+        }
+    }
+
+    /**
+     * @return 발행한 이벤트 수
+     */
+    int relayBatch() {
+        String claim = relayId + ":" + claims.incrementAndGet();
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp nowTimestamp = Timestamp.valueOf(now);
+        Integer claimed = transactionTemplate.execute(status -> jdbcTemplate.update(CLAIM_SQL,
+                claim, Timestamp.valueOf(now.plusNanos(outboxProperties.getLeaseMillis() * 1_000_000)),
+                nowTimestamp, outboxProperties.getBatchSize(), nowTimestamp));
+        if (claimed == null || claimed == 0) {
+            return 0;
+        }
+
+        List<BalanceEvent> events = jdbcTemplate.query(SELECT_CLAIMED_SQL, BALANCE_EVENT_MAPPER, claim);
+        try {
+            outboxSink.publish(events);
+        } catch (Exception e) {
+            throw new IllegalStateException("Outbox sink failed. claim : " + claim, e);
+        }
+        jdbcTemplate.update(DELETE_CLAIMED_SQL, claim);
+        return events.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.account.service;
+
+import com.example.account.dto.BalanceEvent;
+
+import java.util.List;
+
+/**
+ * 아웃박스 이벤트를 내보낼 곳. 배치 단위로 받는다.
+ * 예외 없이 돌아오면 발행된 것으로 보고 아웃박스에서 지운다. (최소 1회 전달)
+ */
+public interface OutboxSink {
+    void publish(List<BalanceEvent> events) throws Exception;
+}
@@ -0,0 +1,10 @@
+package com.example.account.service;
+
+import java.util.UUID;
+
+public class RandomTransactionIdGenerator implements TransactionIdGenerator {
+    @Override
+    public String nextId() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.account.service;
+
+import com.example.account.config.RateLimitProperties;
+import com.example.account.exception.RateLimitException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 락을 잡기 전에 계좌/사용자 단위 토큰 버킷을 Redis 에서 원자적으로 차감한다.
+ * 두 버킷을 스크립트 한 번으로 확인하므로 거절도 Redis 왕복 1회로 끝난다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RateLimitService {
+    /**
+     * KEYS[i] : 버킷 키
+     * ARGV[1] : 현재 시각(ms), ARGV[2i] : 버킷 크기, ARGV[2i+1] : 초당 충전량
+     * 모든 버킷에 토큰이 있을 때만 각각 1개씩 차감한다.
+     * 반환 : {허용 여부(1/0), 재시도까지 남은 ms}
+     */
+    private static final String TOKEN_BUCKET_SCRIPT =
+            "local now = tonumber(ARGV[1]) " +
+            "local allowed = 1 " +
+            "local retryAfter = 0 " +
+            "local tokens = {} " +
+            "for i = 1, #KEYS do " +
+            "  local capacity = tonumber(ARGV[i * 2]) " +
+            "  local refill = tonumber(ARGV[i * 2 + 1]) / 1000 " +
+            "  local bucket = redis.call('HMGET', KEYS[i], 'tokens', 'ts') " +
+            "  local available = tonumber(bucket[1]) or capacity " +
+            "  local elapsed = math.max(0, now - (tonumber(bucket[2]) or now)) " +
+            "  available = math.min(capacity, available + elapsed * refill) " +
+            "  if available < 1 then " +
+            "    allowed = 0 " +
+            "    retryAfter = math.max(retryAfter, math.ceil((1 - available) / refill)) " +
+            "  end " +
+            "  tokens[i] = available " +
+            "end " +
+            "for i = 1, #KEYS do " +
+            "  local capacity = tonumber(ARGV[i * 2]) " +
+            "  local refill = tonumber(ARGV[i * 2 + 1]) / 1000 " +
+            "  redis.call('HMSET', KEYS[i], 'tokens', tokens[i] - allowed, 'ts', now) " +
+            "  redis.call('PEXPIRE', KEYS[i], math.ceil(capacity / refill)) " +
+            "end " +
+            "return {allowed, retryAfter}";
+
+    private final RedissonClient redissonClient;
+    private final RateLimitProperties rateLimitProperties;
+
+    /**
+     * @param userId 사용자 단위 제한이 없는 요청(잔액 사용 취소 등)은 null
+     */
+    public void acquire(String accountNumber, Long userId) {
+        if (!rateLimitProperties.isEnabled()) {
+            return;
+        }
+
+        List<Object> keys = new ArrayList<>(2);
+        List<Object> args = new ArrayList<>(5);
+        args.add(String.valueOf(System.currentTimeMillis()));
+        addBucket(keys, args, getAccountKey(accountNumber),
+                rateLimitProperties.getAccountBucket(accountNumber));
+        if (userId != null) {
+            addBucket(keys, args, getUserKey(userId),
+                    rateLimitProperties.getUser());
+        }
+
+        List<Object> result;
+        try {
+            result = redissonClient.getScript(StringCodec.INSTANCE)
+                    .eval(RScript.Mode.READ_WRITE, TOKEN_BUCKET_SCRIPT,
+                            RScript.ReturnType.MULTI, keys, args.toArray());
+        } catch (Exception e) {
+            // 제한기 장애로 거래 전체를 막지는 않는다. 보호는 계좌 락이 계속 한다.
+            log.error("Rate limit check failed", e);
+            return;
+        }
+
+        if (((Number) result.get(0)).longValue() == 0) {
+            long retryAfterMillis = ((Number) result.get(1)).longValue();
+            log.debug("Rate limited. accountNumber : {}, userId : {}, retryAfter : {}ms",
+                    accountNumber, userId, retryAfterMillis);
+            throw new RateLimitException(retryAfterMillis);
+        }
+    }
+
+    private static void addBucket(List<Object> keys, List<Object> args, String key,
+                                  RateLimitProperties.Bucket bucket) {
+        keys.add(key);
+        args.add(String.valueOf(bucket.getCapacity()));
+        args.add(String.valueOf(bucket.getRefillPerSecond()));
+    }
+
+    private static String getAccountKey(String accountNumber) {
+        return "ACRL:" + accountNumber;
+    }
+
+    private static String getUserKey(Long userId) {
+        return "USRL:" + userId;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.account.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.Redisson;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 락 키를 일관된 해시로 Redis 노드에 나눠 보낸다.
+ */
+@Slf4j
+public class RedisLockRouter {
+    private final List<RedissonClient> clients;
+    private final ConsistentHashRing<RedissonClient> ring;
+    private final int quorumSize;
+
+    public RedisLockRouter(List<String> nodes, int virtualNodes, int quorumSize) {
+        this.clients = nodes.stream()
+                .map(RedisLockRouter::createClient)
+                .collect(Collectors.toList());
+        this.ring = new ConsistentHashRing<>(clients, nodes, virtualNodes);
+        this.quorumSize = quorumSize;
+        log.info("Lock nodes : {}", nodes);
+    }
+
+    RedisLockRouter(List<RedissonClient> clients, List<String> nodes,
+                    int virtualNodes, int quorumSize) {
+        this.clients = clients;
+        this.ring = new ConsistentHashRing<>(clients, nodes, virtualNodes);
+        this.quorumSize = quorumSize;
+    }
+
+    private static RedissonClient createClient(String address) {
+        Config config = new Config();
+        config.useSingleServer().setAddress(address);
+        return Redisson.create(config);
+    }
+
+    public RLock getLock(String key) {
+        return ring.get(key).getLock(key);
+    }
+
+    /**
+     * 정족수 락 대상. 첫 번째가 {@link #getLock(String)} 과 같은 주 노드의 락이다.
+     */
+    public List<RLock> getQuorumLocks(String key) {
+        return ring.get(key, quorumSize).stream()
+                .map(client -> client.getLock(key))
+                .collect(Collectors.toList());
+    }
+
+    public int getNodeCount() {
+        return clients.size();
+    }
+
+    public void shutdown() {
+        clients.forEach(RedissonClient::shutdown);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.account.service;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 리포지토리 호출마다 span 을 남기고, 트랜잭션마다 커밋(flush 포함) span 을 하나 남긴다.
+ * 커밋 span 은 트랜잭션 안의 첫 리포지토리 호출에서 등록한다.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class RepositoryTracingAspect {
+    private static final Object COMMIT_SPAN_KEY = new Object();
+
+    private final Tracer tracer;
+
+    @Around("execution(* com.example.account.repository.*Repository+.*(..))")
+    public Object aroundRepository(ProceedingJoinPoint pjp) throws Throwable {
+        registerCommitSpan();
+
+        Span span = tracer.nextSpan()
+                .name("repository." + pjp.getSignature().getName())
+                .start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            return pjp.proceed();
+        } catch (Throwable e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    private void registerCommitSpan() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(COMMIT_SPAN_KEY)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(COMMIT_SPAN_KEY, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private Span span;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                span = tracer.nextSpan()
+                        .name("transaction.commit")
+                        .tag("read_only", String.valueOf(readOnly))
+                        .start();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(COMMIT_SPAN_KEY);
+                if (span != null) {
+                    if (status != STATUS_COMMITTED) {
+                        span.tag("outcome", "rollback");
+                    }
+                    span.end();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.account.service;
+
+import com.example.account.config.ShardContext;
+import com.example.account.config.ShardingProperties;
+import com.example.account.type.ShardKeyType;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 샤드 키를 샤드 번호로 바꾸고, 여러 샤드에 걸친 조회를 병렬로 모은다.
+ * 샤딩이 꺼져 있으면 샤드는 0번 하나뿐이다.
+ */
+@Component
+public class ShardRouter {
+    private static final int SHARD_PREFIX_LENGTH = 2;
+
+    private final ShardingProperties shardingProperties;
+    private final AtomicInteger nextShard = new AtomicInteger();
+    private final ExecutorService scatterExecutor;
+
+    public ShardRouter(ShardingProperties shardingProperties) {
+        this.shardingProperties = shardingProperties;
+        this.scatterExecutor = shardingProperties.isEnabled()
+                ? Executors.newFixedThreadPool(getShardCount(), runnable -> {
+                    Thread thread = new Thread(runnable, "shard-scatter");
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+    }
+
+    public int getShardCount() {
+        return shardingProperties.isEnabled() ? shardingProperties.getShards().size() : 1;
+    }
+
+    public int resolve(ShardKeyType shardKeyType, Object key) {
+        switch (shardKeyType) {
+            case ACCOUNT_NUMBER:
+                return shardOfAccountNumber((String) key);
+            case ACCOUNT_ID:
+                return Math.floorMod((Long) key, getShardCount());
+            case TRANSACTION_ID:
+                return shardOfTransactionId((String) key);
+            case NEW_ACCOUNT:
+                return Math.floorMod(nextShard.getAndIncrement(), getShardCount());
+            default:
+                throw new IllegalArgumentException("Unknown shard key type : " + shardKeyType);
+        }
+    }
+
+    public int shardOfAccountNumber(String accountNumber) {
+        try {
+            return (int) Math.floorMod(Long.parseLong(accountNumber), (long) getShardCount());
+        } catch (NumberFormatException e) {
+            // 숫자가 아닌 계좌번호는 어느 샤드에도 없다.
+            return 0;
+        }
+    }
+
+    public int shardOfTransactionId(String transactionId) {
+        try {
+            int shard = Integer.parseInt(transactionId.substring(0, SHARD_PREFIX_LENGTH), 16);
+            return shard < getShardCount() ? shard : 0;
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * 샤드 번호가 (계좌번호 % 샤드 수) 가 되도록 샤드 안에서 샤드 수 간격으로 계좌번호를 매긴다.
+     */
+    public String nextAccountNumber(String lastAccountNumber) {
+        return String.valueOf(Long.parseLong(lastAccountNumber) + getShardCount());
+    }
+
+    public String firstAccountNumber() {
+        long first = 1_000_000_000L;
+        return String.valueOf(first + Math.floorMod(currentShard() - first, (long) getShardCount()));
+    }
+
+    /**
+     * 현재 샤드 번호를 거래 id 앞 2자리에 넣는다. 샤드가 정해지지 않았으면 그대로 둔다.
+     */
+    public static String tagTransactionId(String transactionId) {
+        Integer shard = ShardContext.current();
+        if (shard == null) {
+            return transactionId;
+        }
+        return String.format("%02x", shard) + transactionId.substring(SHARD_PREFIX_LENGTH);
+    }
+
+    /**
+     * 모든 샤드에서 같은 조회를 실행하고 결과를 샤드 순서대로 합친다.
+     */
+    public <T> List<T> scatter(Supplier<List<T>> query) {
+        if (scatterExecutor == null) {
+            return query.get();
+        }
+
+        List<CompletableFuture<List<T>>> futures = IntStream.range(0, getShardCount())
+                .mapToObj(shard -> CompletableFuture.supplyAsync(
+                        () -> ShardContext.callOn(shard, query), scatterExecutor))
+                .collect(Collectors.toList());
+        try {
+            return futures.stream()
+                    .map(CompletableFuture::join)
+                    .flatMap(List::stream)
+                    .collect(Collectors.toList());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static int currentShard() {
+        Integer shard = ShardContext.current();
+        return shard == null ? 0 : shard;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scatterExecutor != null) {
+            scatterExecutor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.account.service;
+
+import com.example.account.aop.ShardKey;
+import com.example.account.config.ShardContext;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * {@link ShardKey} 파라미터로 샤드를 정하고 메서드가 끝날 때까지 유지한다.
+ * 트랜잭션보다 먼저 실행되어야 하므로 가장 높은 우선순위를 준다.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "account.sharding", name = "enabled", havingValue = "true")
+public class ShardRoutingAspect {
+    private final ShardRouter shardRouter;
+
+    @Around("execution(* com.example.account.service..*(.., @com.example.account.aop.ShardKey (*), ..))")
+    public Object aroundMethod(ProceedingJoinPoint pjp) throws Throwable {
+        Annotation[][] parameterAnnotations =
+                ((MethodSignature) pjp.getSignature()).getMethod().getParameterAnnotations();
+        Object[] args = pjp.getArgs();
+
+        for (int i = 0; i < parameterAnnotations.length; i++) {
+            for (Annotation annotation : parameterAnnotations[i]) {
+                if (annotation instanceof ShardKey) {
+                    int shard = shardRouter.resolve(((ShardKey) annotation).value(), args[i]);
+                    Integer previous = ShardContext.bind(shard);
+                    try {
+                        return pjp.proceed();
+                    } finally {
+                        ShardContext.restore(previous);
+                    }
+                }
+            }
+        }
+        return pjp.proceed();
+    }
+}
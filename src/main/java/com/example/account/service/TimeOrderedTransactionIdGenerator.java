@@ -0,0 +1,69 @@
+package com.example.account.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 시간 순으로 정렬되는 거래 id (16진수 32자리)
+ * | 샤드 2 | 논리 시계 16 (ms 48bit + 순번 16bit) | 노드 4 | 난수 10 |
+ * - 논리 시계는 CAS 로 항상 증가한다. 1ms 에 순번을 다 쓰면 다음 ms 를 미리 빌려 쓴다.
+ * - 노드 id 가 다르면 노드 간에도 겹치지 않는다.
+ * - 난수는 재기동 직후 같은 시계 값이 다시 나와도 겹치지 않게 하고 id 추측을 어렵게 한다.
+ */
+public class TimeOrderedTransactionIdGenerator implements TransactionIdGenerator {
+    public static final int MAX_NODE_ID = 0xFFFF;
+
+    private static final int SEQUENCE_BITS = 16;
+    private static final long RANDOM_MASK = 0xFF_FFFF_FFFFL;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final AtomicLong lastClock = new AtomicLong();
+    private final int nodeId;
+    private final LongSupplier currentTimeMillis;
+
+    public TimeOrderedTransactionIdGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    TimeOrderedTransactionIdGenerator(int nodeId, LongSupplier currentTimeMillis) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("nodeId must be 0.." + MAX_NODE_ID + " : " + nodeId);
+        }
+        this.nodeId = nodeId;
+        this.currentTimeMillis = currentTimeMillis;
+    }
+
+    @Override
+    public String nextId() {
+        long clock = nextClock();
+        char[] id = new char[32];
+        writeHex(id, 0, 0, 2);
+        writeHex(id, 2, clock, 16);
+        writeHex(id, 18, nodeId, 4);
+        writeHex(id, 22, ThreadLocalRandom.current().nextLong() & RANDOM_MASK, 10);
+        return new String(id);
+    }
+
+    private long nextClock() {
+        long now = currentTimeMillis.getAsLong() << SEQUENCE_BITS;
+        while (true) {
+            long last = lastClock.get();
+            long next = Math.max(last + 1, now);
+            if (lastClock.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+
+    private static void writeHex(char[] out, int offset, long value, int digits) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            out[i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+
+    public int getNodeId() {
+        return nodeId;
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.account.service;
+
+/**
+ * 거래 id 생성기. 32자리 소문자 16진수 문자열을 만든다.
+ * 앞 2자리는 샤드 번호 자리로, {@link ShardRouter#tagTransactionId(String)} 가 덮어쓴다.
+ */
+public interface TransactionIdGenerator {
+    String nextId();
+}
@@ -1,25 +1,41 @@
 package com.example.account.service;
 
+import com.example.account.aop.ShardKey;
+import com.example.account.config.ShardContext;
+import com.example.account.config.TransactionProperties;
 import com.example.account.domain.Account;
-import com.example.account.domain.AccountUser;
+import com.example.account.domain.OutboxEvent;
 import com.example.account.domain.Transaction;
+import com.example.account.dto.BalanceChangedEvent;
+import com.example.account.dto.BalanceResult;
 import com.example.account.dto.TransactionDto;
+import com.example.account.dto.UseBalance;
 import com.example.account.exception.AccountException;
 import com.example.account.repository.AccountRepository;
 import com.example.account.repository.AccountUserRepository;
+import com.example.account.repository.OutboxEventRepository;
 import com.example.account.repository.TransactionRepository;
 import com.example.account.type.AccountStatus;
 import com.example.account.type.ErrorCode;
+import com.example.account.type.ShardKeyType;
 import com.example.account.type.TransactionResultType;
 import com.example.account.type.TransactionType;
+import com.example.account.type.UseBalanceMode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import javax.transaction.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
-import java.util.UUID;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static com.example.account.type.TransactionResultType.F;
 import static com.example.account.type.TransactionResultType.S;
@@ -33,99 +49,320 @@ public class TransactionService {
     private final TransactionRepository transactionRepository;
     private final AccountUserRepository accountUserRepository;
     private final AccountRepository accountRepository;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final OutboxEventRepository outboxEventRepository;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final TransactionProperties transactionProperties;
+    private final ShardRouter shardRouter;
+    private final PlatformTransactionManager transactionManager;
 
+    public boolean isAtomicUpdateEnabled() {
+        return transactionProperties.getUseMode() == UseBalanceMode.ATOMIC;
+    }
+
+    /**
+     * 예상된 실패를 예외 대신 결과로 돌려준다.
+     * 락 구간 안에서 읽는 것은 계좌 한 건뿐이다.
+     * 소유주 확인은 계좌의 사용자 FK 로 하고, 사용자 존재 여부는 실패 경로에서만 조회한다.
+     * 실패 거래(F)도 같은 커밋에 저장하므로 실패 기록을 위한 두 번째 트랜잭션이 없다.
+     */
     @Transactional
-    public TransactionDto useBalance(Long userId, String accountNumber,
-                                     Long amount
+    public BalanceResult tryUseBalance(Long userId, @ShardKey String accountNumber,
+                                       Long amount
     ) {
-        AccountUser user = accountUserRepository.findById(userId)
-                .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+        Optional<Account> optionalAccount = accountRepository.findByAccountNumber(accountNumber);
+        if (!optionalAccount.isPresent()) {
+            return BalanceResult.failure(checkAccountNotFound(userId));
+        }
+        Account account = optionalAccount.get();
 
-        validateUserBalance(user, account, amount);
+        ErrorCode errorCode = checkUserBalance(userId, account, amount);
+        if (errorCode != null) {
+            saveAndGetTransaction(USE, F, account, amount);
+            return BalanceResult.failure(errorCode);
+        }
 
         account.useBalance(amount);
 
-        return TransactionDto.fromEntity(saveAndGetTransaction(USE, S, account, amount));
+        return BalanceResult.success(
+                TransactionDto.fromEntity(saveAndGetTransaction(USE, S, account, amount)));
+    }
+
+    /**
+     * 락 없이 조건부 update 한 번으로 검증과 차감을 함께 한다.
+     * 차감한 행의 락은 커밋까지 유지되므로 이어서 읽은 잔액이 이 거래의 스냅샷이다.
+     * 갱신된 행이 없을 때만 계좌를 읽어 실패 이유를 가린다.
+     */
+    @Transactional
+    public BalanceResult tryUseBalanceAtomic(Long userId, @ShardKey String accountNumber,
+                                             Long amount
+    ) {
+        int updated = accountRepository.useBalanceAtomically(userId, accountNumber, amount);
+
+        Optional<Account> optionalAccount = accountRepository.findByAccountNumber(accountNumber);
+        if (!optionalAccount.isPresent()) {
+            return BalanceResult.failure(checkAccountNotFound(userId));
+        }
+        Account account = optionalAccount.get();
+
+        if (updated == 0) {
+            // 읽기 전에 다른 거래가 잔액을 채웠을 수 있다. 차감 시점에는 잔액이 부족했다.
+            ErrorCode errorCode = Optional.ofNullable(checkUserBalance(userId, account, amount))
+                    .orElse(ErrorCode.AMOUNT_EXCEED_BALANCE);
+            saveAndGetTransaction(USE, F, account, amount);
+            return BalanceResult.failure(errorCode);
+        }
+
+        return BalanceResult.success(
+                TransactionDto.fromEntity(saveAndGetTransaction(USE, S, account, amount)));
     }
 
-    private void validateUserBalance(AccountUser user, Account account, Long amount) {
-        if (!Objects.equals(user.getId(), account.getAccountUser().getId())) {
-            throw new AccountException(ErrorCode.USER_ACCOUNT_UN_MATCH);
+    /**
+     * 계좌가 없을 때도 사용자 확인이 먼저다. (사용자도 없으면 USER_NOT_FOUND)
+     */
+    private ErrorCode checkAccountNotFound(Long userId) {
+        if (!accountUserRepository.existsById(userId)) {
+            return ErrorCode.USER_NOT_FOUND;
+        }
+        return ErrorCode.ACCOUNT_NOT_FOUND;
+    }
+
+    /**
+     * @return 사용할 수 없으면 그 이유, 사용할 수 있으면 null
+     */
+    private ErrorCode checkUserBalance(Long userId, Account account, Long amount) {
+        if (!Objects.equals(userId, account.getAccountUser().getId())) {
+            if (!accountUserRepository.existsById(userId)) {
+                return ErrorCode.USER_NOT_FOUND;
+            }
+            return ErrorCode.USER_ACCOUNT_UN_MATCH;
         }
         if (account.getAccountStatus() != AccountStatus.IN_USE) {
-            throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
+            return ErrorCode.ACCOUNT_ALREADY_UNREGISTERED;
+        }
+        if (account.getAvailableBalance() < amount) {
+            return ErrorCode.AMOUNT_EXCEED_BALANCE;
+        }
+        return null;
+    }
+
+    /**
+     * 그룹 커밋 : 같은 계좌로 모인 잔액 사용 요청을 도착 순서대로 검증/차감하고
+     * 잔액 갱신 1회와 거래 일괄 저장을 한 커밋으로 처리한다.
+     * 실패한 요청도 같은 커밋에 실패 거래(F)로 남는다.
+     */
+    @Transactional
+    public List<BalanceResult> useBalanceInBatch(@ShardKey String accountNumber,
+                                                 List<UseBalance.Request> requests
+    ) {
+        Optional<Account> optionalAccount = accountRepository.findByAccountNumber(accountNumber);
+        if (!optionalAccount.isPresent()) {
+            return requests.stream()
+                    .map(request -> BalanceResult.failure(checkAccountNotFound(request.getUserId())))
+                    .collect(Collectors.toList());
+        }
+        Account account = optionalAccount.get();
+
+        List<Transaction> transactions = new ArrayList<>(requests.size());
+        List<ErrorCode> errorCodes = new ArrayList<>(requests.size());
+        for (UseBalance.Request request : requests) {
+            ErrorCode errorCode = checkUserBalance(request.getUserId(), account, request.getAmount());
+            if (errorCode == null) {
+                account.useBalance(request.getAmount());
+            }
+            transactions.add(newTransaction(USE, errorCode == null ? S : F,
+                    account, request.getAmount()));
+            errorCodes.add(errorCode);
         }
-        if (account.getBalance() < amount) {
-            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+
+        List<Transaction> savedTransactions = transactionRepository.saveAll(transactions);
+        List<OutboxEvent> outboxEvents = savedTransactions.stream()
+                .filter(transaction -> transaction.getTransactionResultType() == S)
+                .map(OutboxEvent::from)
+                .collect(Collectors.toList());
+        if (!outboxEvents.isEmpty()) {
+            outboxEventRepository.saveAll(outboxEvents);
+            publishBalanceChanged(account);
+        }
+
+        List<BalanceResult> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < savedTransactions.size(); i++) {
+            ErrorCode errorCode = errorCodes.get(i);
+            results.add(errorCode == null
+                    ? BalanceResult.success(TransactionDto.fromEntity(savedTransactions.get(i)))
+                    : BalanceResult.failure(errorCode));
         }
+        return results;
     }
 
+    /**
+     * 홀드 확정처럼 호출한 쪽에서 이미 잔액을 반영한 사용 거래를 기록한다.
+     * 호출한 쪽의 트랜잭션에 참여한다.
+     */
     @Transactional
-    public void saveFailedUseTransaction(String accountNumber, Long amount) {
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
-        saveAndGetTransaction(USE, F, account, amount);
+    public TransactionDto saveUseTransaction(Account account, Long amount) {
+        return TransactionDto.fromEntity(saveAndGetTransaction(USE, S, account, amount));
     }
 
+    /**
+     * 성공 거래는 같은 커밋으로 아웃박스에도 남겨 OutboxRelay 가 발행하게 하고,
+     * 커밋되면 잔액 스트림으로도 보낸다.
+     */
     private Transaction saveAndGetTransaction(
             TransactionType transactionType,
             TransactionResultType transactionResultType,
             Account account,
             Long amount) {
-        return transactionRepository.save(
-                Transaction.builder()
-                        .transactionType(transactionType)
-                        .transactionResultType(transactionResultType)
-                        .account(account)
-                        .amount(amount)
-                        .balanceSnapShot(account.getBalance())
-                        .transactionId(UUID.randomUUID().toString().replace("-", ""))
-                        .transactedAt(LocalDateTime.now())
-                        .build()
+        Transaction transaction = transactionRepository.save(
+                newTransaction(transactionType, transactionResultType, account, amount)
         );
+        if (transactionResultType == S) {
+            outboxEventRepository.save(OutboxEvent.from(transaction));
+            publishBalanceChanged(account);
+        }
+        return transaction;
+    }
+
+    /**
+     * 커밋 후 BalanceStreamHub 가 구독 중인 사용자에게 보낸다.
+     */
+    private void publishBalanceChanged(Account account) {
+        applicationEventPublisher.publishEvent(new BalanceChangedEvent(
+                account.getAccountUser().getId(), account.getAccountNumber(), account.getBalance()));
+    }
+
+    private Transaction newTransaction(
+            TransactionType transactionType,
+            TransactionResultType transactionResultType,
+            Account account,
+            Long amount) {
+        return Transaction.builder()
+                .transactionType(transactionType)
+                .transactionResultType(transactionResultType)
+                .account(account)
+                .amount(amount)
+                .balanceSnapShot(account.getBalance())
+                .transactionId(ShardRouter.tagTransactionId(transactionIdGenerator.nextId()))
+                .transactedAt(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * 예상된 실패를 예외 대신 결과로 돌려준다.
+     * 거래와 그 거래의 계좌를 fetch join 한 번으로 읽는다.
+     * 요청한 계좌번호가 다를 때만 계좌 존재 여부를 추가로 확인한다.
+     * 실패 거래(F)는 요청한 계좌에 같은 커밋으로 남기고, 요청한 계좌가 없으면 ACCOUNT_NOT_FOUND 이다.
+     */
+    @Transactional
+    public BalanceResult tryCancelBalance(String transactionId,
+                                          @ShardKey String accountNumber,
+                                          Long amount
+    ) {
+        Optional<Transaction> optionalTransaction =
+                transactionRepository.findWithAccountByTransactionId(transactionId);
+        Account transactionAccount = optionalTransaction.map(Transaction::getAccount).orElse(null);
+        ErrorCode errorCode = optionalTransaction
+                .map(transaction -> checkCancelBalance(transaction, accountNumber, amount))
+                .orElseGet(() -> checkTransactionOnOtherShard(transactionId));
+
+        if (errorCode == null) {
+            transactionAccount.cancelBalance(amount);
+            return BalanceResult.success(TransactionDto.fromEntity(
+                    saveAndGetTransaction(CANCEL, S, transactionAccount, amount)));
+        }
+
+        return failCancel(transactionAccount, accountNumber, amount, errorCode);
     }
 
+    /**
+     * tryCancelBalance 와 같지만 적립은 조건부 update 로 해서 락 없는 차감과 섞여도 잃지 않는다.
+     */
     @Transactional
-    public TransactionDto cancelBalance(String transactionId,
-                                        String accountNumber,
-                                        Long amount
+    public BalanceResult tryCancelBalanceAtomic(
+            String transactionId,
+            @ShardKey String accountNumber,
+            Long amount
     ) {
-        Transaction transaction = transactionRepository.findByTransactionId(transactionId)
-                .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND));
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+        Optional<Transaction> optionalTransaction =
+                transactionRepository.findWithAccountByTransactionId(transactionId);
+        Account transactionAccount = optionalTransaction.map(Transaction::getAccount).orElse(null);
+        ErrorCode errorCode = optionalTransaction
+                .map(transaction -> checkCancelBalance(transaction, accountNumber, amount))
+                .orElseGet(() -> checkTransactionOnOtherShard(transactionId));
 
-        validateCancelBalance(transaction, account, amount);
+        if (errorCode == null) {
+            if (accountRepository.cancelBalanceAtomically(transactionAccount, amount) == 0) {
+                return BalanceResult.failure(ErrorCode.ACCOUNT_NOT_FOUND);
+            }
+            return BalanceResult.success(TransactionDto.fromEntity(
+                    saveAndGetTransaction(CANCEL, S, transactionAccount, amount)));
+        }
 
-        account.cancelBalance(amount);
+        return failCancel(transactionAccount, accountNumber, amount, errorCode);
+    }
+
+    /**
+     * 거래는 그 거래의 계좌와 같은 샤드에 있으므로 취소는 요청한 계좌의 샤드에서 처리한다.
+     * 거기 없는 거래는 거래 id 의 샤드에서 다른 계좌의 거래인지만 확인한다. (별도 읽기 트랜잭션)
+     */
+    private ErrorCode checkTransactionOnOtherShard(String transactionId) {
+        Integer current = ShardContext.current();
+        if (current == null) {
+            return ErrorCode.TRANSACTION_NOT_FOUND;
+        }
+        int shard = shardRouter.shardOfTransactionId(transactionId);
+        if (shard == current) {
+            return ErrorCode.TRANSACTION_NOT_FOUND;
+        }
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate.setReadOnly(true);
+        Boolean exists = ShardContext.callOn(shard, () -> transactionTemplate.execute(
+                status -> transactionRepository.existsByTransactionId(transactionId)));
+        return Boolean.TRUE.equals(exists)
+                ? ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH
+                : ErrorCode.TRANSACTION_NOT_FOUND;
+    }
 
-        return TransactionDto.fromEntity(saveAndGetTransaction(
-                CANCEL, S, account, amount));
+    private BalanceResult failCancel(Account transactionAccount, String accountNumber,
+                                     Long amount, ErrorCode errorCode) {
+        Optional<Account> requestAccount = transactionAccount != null
+                && Objects.equals(transactionAccount.getAccountNumber(), accountNumber)
+                ? Optional.of(transactionAccount)
+                : accountRepository.findByAccountNumber(accountNumber);
+        if (!requestAccount.isPresent()) {
+            return BalanceResult.failure(ErrorCode.ACCOUNT_NOT_FOUND);
+        }
+        saveAndGetTransaction(CANCEL, F, requestAccount.get(), amount);
+        return BalanceResult.failure(errorCode);
     }
 
-    private void validateCancelBalance(Transaction transaction, Account account, Long amount) {
-        if (!Objects.equals(transaction.getAccount().getId(), account.getId())) {
-            throw new AccountException(ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH);
+    /**
+     * @return 취소할 수 없으면 그 이유, 취소할 수 있으면 null
+     */
+    private ErrorCode checkCancelBalance(Transaction transaction, String accountNumber, Long amount) {
+        if (!Objects.equals(transaction.getAccount().getAccountNumber(), accountNumber)) {
+            if (!accountRepository.existsByAccountNumber(accountNumber)) {
+                return ErrorCode.ACCOUNT_NOT_FOUND;
+            }
+            return ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH;
         }
         if (!transaction.getAmount().equals(amount)) {
-            throw new AccountException(ErrorCode.CANCEL_MUST_FULLY);
+            return ErrorCode.CANCEL_MUST_FULLY;
         }
         if (transaction.getTransactedAt().isBefore(LocalDateTime.now().minusYears(1))) {
-            throw new AccountException(ErrorCode.TOO_OLD_ORDER_TO_CANCEL);
+            return ErrorCode.TOO_OLD_ORDER_TO_CANCEL;
         }
+        if (amount < 0) {
+            return ErrorCode.INVALID_REQUEST;
+        }
+        return null;
     }
 
-    @Transactional
-    public void saveFailedCancelTransaction(String accountNumber, Long amount) {
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
-        saveAndGetTransaction(CANCEL, F, account, amount);
-    }
-
-    public TransactionDto queryTransaction(String transactionId) {
-        return TransactionDto.fromEntity(transactionRepository.findByTransactionId(transactionId)
-                .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND)));
+    @Transactional(readOnly = true)
+    public TransactionDto queryTransaction(
+            @ShardKey(ShardKeyType.TRANSACTION_ID) String transactionId) {
+        return transactionRepository.findTransactionDtoByTransactionId(transactionId)
+                .orElseThrow(() -> AccountException.of(ErrorCode.TRANSACTION_NOT_FOUND));
     }
 }
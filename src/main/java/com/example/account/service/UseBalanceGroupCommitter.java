@@ -0,0 +1,227 @@
+package com.example.account.service;
+
+import com.example.account.config.ConsistencyContext;
+import com.example.account.config.TransactionProperties;
+import com.example.account.dto.BalanceResult;
+import com.example.account.dto.TransactionDto;
+import com.example.account.dto.UseBalance;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import com.example.account.type.UseBalanceMode;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * 그룹 커밋 모드의 잔액 사용
+ * 1. 계좌별 대기열에 요청을 넣는다.
+ * 2. 첫 요청 후 windowMillis 동안 모인 요청을 계좌 락 1회, 커밋 1회로 처리한다.
+ * 3. 처리 중에 도착한 요청은 바로 다음 배치가 된다.
+ * 호출한 스레드는 자기 요청의 결과만 돌려받는다.
+ */
+@Slf4j
+@Service
+public class UseBalanceGroupCommitter {
+    private static final int QUEUED = 0;
+    private static final int TAKEN = 1;
+    private static final int CANCELLED = 2;
+
+    private final TransactionService transactionService;
+    private final LockService lockService;
+    private final TransactionProperties transactionProperties;
+    private final AccountAffinityService accountAffinityService;
+    private final ScheduledExecutorService executor;
+    private final ConcurrentMap<String, AccountQueue> queues = new ConcurrentHashMap<>();
+
+    public UseBalanceGroupCommitter(TransactionService transactionService,
+                                    LockService lockService,
+                                    TransactionProperties transactionProperties,
+                                    AccountAffinityService accountAffinityService) {
+        this.transactionService = transactionService;
+        this.lockService = lockService;
+        this.transactionProperties = transactionProperties;
+        this.accountAffinityService = accountAffinityService;
+        // 스레드는 첫 배치가 예약될 때 만들어진다.
+        this.executor = Executors.newScheduledThreadPool(
+                transactionProperties.getGroupCommit().getThreads(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "group-commit");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public boolean isEnabled() {
+        return transactionProperties.getUseMode() == UseBalanceMode.GROUP_COMMIT;
+    }
+
+    public TransactionDto useBalance(UseBalance.Request request) {
+        TransactionProperties.GroupCommit groupCommit = transactionProperties.getGroupCommit();
+        PendingUse pending = new PendingUse(request);
+
+        AccountQueue queue = queues.computeIfAbsent(request.getAccountNumber(), AccountQueue::new);
+        queue.pending.add(pending);
+        if (queue.scheduled.compareAndSet(false, true)) {
+            executor.schedule(() -> drain(queue),
+                    groupCommit.getWindowMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        return await(pending, groupCommit.getTimeoutMillis());
+    }
+
+    private TransactionDto await(PendingUse pending, long timeoutMillis) {
+        try {
+            BalanceResult result;
+            try {
+                result = pending.future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (pending.state.compareAndSet(QUEUED, CANCELLED)) {
+                    log.error("Group commit timed out. accountNumber : {}",
+                            pending.request.getAccountNumber());
+                    throw AccountException.of(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+                }
+                // 이미 배치에 들어간 요청은 결과를 끝까지 기다린다.
+                result = pending.future.get();
+            }
+            if (pending.commitPosition != null) {
+                ConsistencyContext.recordCommit(pending.commitPosition);
+            }
+            if (!result.isSuccess()) {
+                throw AccountException.of(result.getErrorCode());
+            }
+            return result.getTransactionDto();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof AccountException) {
+                throw (AccountException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw AccountException.of(ErrorCode.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private void drain(AccountQueue queue) {
+        try {
+            List<PendingUse> batch;
+            while (!(batch = queue.take(
+                    transactionProperties.getGroupCommit().getMaxBatchSize())).isEmpty()) {
+                commit(queue.accountNumber, batch);
+            }
+        } finally {
+            queue.scheduled.set(false);
+            if (!queue.pending.isEmpty() && queue.scheduled.compareAndSet(false, true)) {
+                executor.execute(() -> drain(queue));
+            } else {
+                // 비워진 대기열은 정리한다. 동시에 들어온 요청은 이 대기열 객체로 계속 처리된다.
+                queues.remove(queue.accountNumber, queue);
+            }
+        }
+    }
+
+    private void commit(String accountNumber, List<PendingUse> batch) {
+        List<UseBalance.Request> requests = batch.stream()
+                .map(PendingUse::getRequest)
+                .collect(Collectors.toList());
+        // 취소 등 계좌 락 요청과 같은 규칙으로 JVM 락과 Redis 락을 잡는다. (LockAopAspect)
+        boolean localLock = accountAffinityService.isEnabled();
+        boolean distributedLock = !accountAffinityService.isSteadyOwner(accountNumber);
+        try {
+            lock(accountNumber, localLock, distributedLock);
+            try {
+                List<BalanceResult> results =
+                        transactionService.useBalanceInBatch(accountNumber, requests);
+                // 커밋 시점은 이 스레드에 남으므로 요청한 스레드로 넘긴다.
+                Long commitPosition = ConsistencyContext.getLastCommitPosition();
+                ConsistencyContext.clear();
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).commitPosition = commitPosition;
+                    batch.get(i).future.complete(results.get(i));
+                }
+            } finally {
+                unlock(accountNumber, localLock, distributedLock);
+            }
+        } catch (Exception e) {
+            log.error("Group commit failed. accountNumber : {}, size : {}",
+                    accountNumber, batch.size(), e);
+            batch.forEach(pending -> pending.future.completeExceptionally(e));
+        }
+    }
+
+    private void lock(String accountNumber, boolean localLock, boolean distributedLock) {
+        if (localLock) {
+            lockService.lockLocal(accountNumber);
+        }
+        try {
+            if (distributedLock) {
+                lockService.lock(accountNumber);
+            }
+        } catch (RuntimeException e) {
+            if (localLock) {
+                lockService.unlockLocal(accountNumber);
+            }
+            throw e;
+        }
+    }
+
+    private void unlock(String accountNumber, boolean localLock, boolean distributedLock) {
+        try {
+            if (distributedLock) {
+                lockService.unlock(accountNumber);
+            }
+        } finally {
+            if (localLock) {
+                lockService.unlockLocal(accountNumber);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static class AccountQueue {
+        private final String accountNumber;
+        private final Queue<PendingUse> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private AccountQueue(String accountNumber) {
+            this.accountNumber = accountNumber;
+        }
+
+        private List<PendingUse> take(int maxBatchSize) {
+            List<PendingUse> batch = new ArrayList<>();
+            PendingUse pendingUse;
+            while (batch.size() < maxBatchSize && (pendingUse = pending.poll()) != null) {
+                // 시간 초과로 포기한 요청은 건너뛴다.
+                if (pendingUse.state.compareAndSet(QUEUED, TAKEN)) {
+                    batch.add(pendingUse);
+                }
+            }
+            return batch;
+        }
+    }
+
+    @Getter
+    private static class PendingUse {
+        private final UseBalance.Request request;
+        private final CompletableFuture<BalanceResult> future = new CompletableFuture<>();
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+        // future 완료 전에 쓰고 완료 후에 읽으므로 future 가 가시성을 보장한다.
+        private Long commitPosition;
+
+        private PendingUse(UseBalance.Request request) {
+            this.request = request;
+        }
+    }
+}
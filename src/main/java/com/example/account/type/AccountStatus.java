@@ -1,6 +1,14 @@
 package com.example.account.type;
 
-public enum AccountStatus {
-    IN_USE,
-    UNREGISTERED
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum AccountStatus implements CodedEnum {
+    IN_USE(1),
+    UNREGISTERED(2),
+    ;
+
+    private final int code;
 }
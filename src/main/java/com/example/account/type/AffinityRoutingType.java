@@ -0,0 +1,8 @@
+package com.example.account.type;
+
+public enum AffinityRoutingType {
+    // 받은 노드가 소유 노드에 그대로 보내고 응답을 돌려준다.
+    FORWARD,
+    // 307 과 Location 으로 소유 노드 주소를 알려준다. (클라이언트/밸런서가 다시 보냄)
+    REDIRECT,
+}
@@ -0,0 +1,8 @@
+package com.example.account.type;
+
+/**
+ * DB 에 이름 대신 작은 정수 코드로 저장하는 enum. 코드는 한 번 정하면 바꾸지 않는다.
+ */
+public interface CodedEnum {
+    int getCode();
+}
@@ -11,6 +11,7 @@ public enum ErrorCode {
     USER_NOT_FOUND("사용자가 없습니다."),
     ACCOUNT_NOT_FOUND("계좌가 없습니다."),
     ACCOUNT_TRANSACTION_LOCK("해당 계좌는 사용 중입니다."),
+    TOO_MANY_REQUESTS("요청이 너무 많습니다. 잠시 후 다시 시도해주세요."),
     TRANSACTION_NOT_FOUND("해당 거래가 없습니다."),
     AMOUNT_EXCEED_BALANCE("거래 금액이 계좌 잔액보다 큽니다."),
     USER_ACCOUNT_UN_MATCH("사용자와 계좌의 소유주가 다릅니다."),
@@ -20,6 +21,14 @@ public enum ErrorCode {
     ACCOUNT_ALREADY_UNREGISTERED("계좌가 이미 해지되었습니다."),
     BALANCE_NOT_EMPTY("잔액이 있는 계좌는 해지할 수 없습니다."),
     MAX_ACCOUNT_PER_USER_10("사용자 최대 계좌는 10개입니다."),
+    HOLD_NOT_FOUND("해당 홀드가 없습니다."),
+    HOLD_ACCOUNT_UN_MATCH("이 홀드는 해당 계좌의 홀드가 아닙니다."),
+    HOLD_ALREADY_CLOSED("이미 확정, 해제 또는 만료된 홀드입니다."),
+    HOLD_EXPIRED("만료된 홀드입니다."),
+    ENGINE_MODE_UNSUPPORTED("엔진 모드에서는 지원하지 않는 요청입니다."),
+    ENGINE_CHECKPOINT_TIMEOUT("잔액 엔진이 DB 반영을 기다리는 중입니다. 잠시 후 다시 시도해주세요."),
+    ATOMIC_MODE_UNSUPPORTED("원자적 갱신 모드에서는 지원하지 않는 요청입니다."),
+    ACCOUNT_OWNER_UNAVAILABLE("계좌를 맡은 노드에 연결할 수 없습니다. 잠시 후 다시 시도해주세요."),
     ;
 
     private final String description;
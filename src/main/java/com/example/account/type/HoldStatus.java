@@ -0,0 +1,16 @@
+package com.example.account.type;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum HoldStatus implements CodedEnum {
+    HELD(1),
+    CAPTURED(2),
+    RELEASED(3),
+    EXPIRED(4),
+    ;
+
+    private final int code;
+}
@@ -0,0 +1,8 @@
+package com.example.account.type;
+
+public enum OutboxSinkType {
+    // 메모리 큐 (테스트/로컬용)
+    MEMORY,
+    // 파일에 한 줄씩 이어 쓰는 브로커 대용
+    FILE,
+}
@@ -0,0 +1,12 @@
+package com.example.account.type;
+
+public enum ShardKeyType {
+    // 계좌번호 % 샤드 수
+    ACCOUNT_NUMBER,
+    // 계좌 id % 샤드 수 (샤드별 시퀀스가 샤드 수 간격으로 id 를 만든다)
+    ACCOUNT_ID,
+    // 거래 id 앞 2자리(16진수)
+    TRANSACTION_ID,
+    // 값과 무관하게 새 계좌를 둘 샤드를 돌아가며 고른다
+    NEW_ACCOUNT
+}
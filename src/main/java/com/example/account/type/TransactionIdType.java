@@ -0,0 +1,9 @@
+package com.example.account.type;
+
+public enum TransactionIdType {
+    // 시각 + 노드 id + 순번. 시간 순으로 정렬되어 거래 id 인덱스 끝에 쌓인다.
+    TIME_ORDERED,
+    // 이전 방식 (UUID 32자리)
+    RANDOM,
+    ;
+}
@@ -1,5 +1,14 @@
 package com.example.account.type;
 
-public enum TransactionResultType {
-    S, F,
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum TransactionResultType implements CodedEnum {
+    S(1),
+    F(2),
+    ;
+
+    private final int code;
 }
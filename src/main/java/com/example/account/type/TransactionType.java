@@ -1,5 +1,14 @@
 package com.example.account.type;
 
-public enum TransactionType {
-    USE, CANCEL
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum TransactionType implements CodedEnum {
+    USE(1),
+    CANCEL(2),
+    ;
+
+    private final int code;
 }
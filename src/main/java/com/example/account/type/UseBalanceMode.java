@@ -0,0 +1,21 @@
+package com.example.account.type;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum UseBalanceMode {
+    // 요청마다 계좌 락을 잡고 처리
+    LOCKED(true),
+    // 같은 계좌 요청을 모아 배치 단위로 락을 잡고 한 번에 커밋
+    GROUP_COMMIT(false),
+    // 메모리 엔진의 파티션 스레드가 직렬화하고 저널에 남긴 뒤 DB 에는 비동기로 반영
+    // (계좌 친화 라우팅의 멤버가 이 노드 하나뿐일 때만 처리)
+    ENGINE(false),
+    // 조건부 update 한 번으로 검증과 차감을 함께 하므로 요청 락이 없다. (홀드는 지원하지 않음)
+    ATOMIC(false),
+    ;
+
+    private final boolean requestLockRequired;
+}
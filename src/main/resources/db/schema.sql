@@ -0,0 +1,71 @@
+create table account_user
+(
+    id         bigint not null primary key,
+    created_at timestamp,
+    updated_at timestamp,
+    name       varchar(255)
+);
+
+create table account
+(
+    id               bigint not null primary key,
+    created_at       timestamp,
+    updated_at       timestamp,
+    account_number   bigint,
+    account_status   smallint,
+    balance          bigint,
+    held_balance     bigint,
+    registered_at    timestamp,
+    un_registered_at timestamp,
+    account_user_id  bigint,
+    foreign key (account_user_id) references account_user (id)
+);
+create unique index idx_account_account_number on account (account_number);
+create index idx_account_account_user_id on account (account_user_id);
+
+create table transaction
+(
+    id                      bigint not null primary key,
+    created_at              timestamp,
+    updated_at              timestamp,
+    amount                  bigint,
+    balance_snap_shot       bigint,
+    transaction_id          varbinary(16),
+    transaction_result_type smallint,
+    transaction_type        smallint,
+    transacted_at           timestamp,
+    account_id              bigint,
+    foreign key (account_id) references account (id)
+);
+create unique index idx_transaction_transaction_id on transaction (transaction_id);
+
+create table outbox_event
+(
+    id                bigint not null primary key,
+    created_at        timestamp,
+    updated_at        timestamp,
+    event_type        smallint,
+    transaction_id    varbinary(16),
+    account_number    bigint,
+    amount            bigint,
+    balance_snap_shot bigint,
+    transacted_at     timestamp,
+    claimed_by        varchar(255),
+    claimed_until     timestamp
+);
+
+create table balance_hold
+(
+    id          bigint not null primary key,
+    created_at  timestamp,
+    updated_at  timestamp,
+    amount      bigint,
+    closed_at   timestamp,
+    expires_at  timestamp,
+    hold_id     varchar(255),
+    hold_status smallint,
+    account_id  bigint,
+    foreign key (account_id) references account (id)
+);
+create index idx_balance_hold_hold_id on balance_hold (hold_id);
+create index idx_balance_hold_hold_status_expires_at on balance_hold (hold_status, expires_at);
@@ -0,0 +1 @@
+create sequence hibernate_sequence start with 1000;
@@ -0,0 +1,223 @@
+package com.example.account.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 로컬 인스턴스 NODES 개(각각 새 JVM, 같은 Redis 와 같은 H2 파일 DB)에 /transaction/use 를 돌아가며 보낸다.
+ * 1. affinity off : 받은 노드가 처리하고 요청마다 Redis 계좌 락
+ * 2. affinity on : 소유 노드로 넘기고, 안정 상태의 소유 노드는 JVM 락만
+ * 3. affinity on + 중간에 노드 하나 종료 : 멤버가 바뀌는 동안의 실패 건수 (옮겨간 계좌만 영향)
+ * 성공 건수만큼 잔액이 줄었는지도 확인한다.
+ * 기본 test 태스크에서는 제외되며 ./gradlew benchmark 로 실행한다.
+ */
+@Tag("benchmark")
+class AffinityRoutingBenchmark {
+    private static final int REDIS_PORT = 6397;
+    private static final int BASE_PORT = 18180;
+    private static final int NODES = 3;
+    private static final int THREADS = 32;
+    private static final int OPERATIONS = 10_000;
+    private static final int ACCOUNTS = 8;
+    private static final long AMOUNT = 10L;
+    private static final long INITIAL_BALANCE = 1_000_000_000L;
+    // join delay + stable 이 지나 모든 노드가 안정 상태가 될 때까지
+    private static final long SETTLE_MILLIS = 8000;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofMillis(500))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void affinityOffVersusOn() throws Exception {
+        RedisServer redisServer = new RedisServer(REDIS_PORT);
+        redisServer.start();
+        try {
+            measure("affinity off", false, false);
+            measure("affinity on", true, false);
+            measure("affinity on, node leaves", true, true);
+        } finally {
+            redisServer.stop();
+        }
+    }
+
+    private void measure(String name, boolean affinity, boolean nodeLeaves) throws Exception {
+        Path dir = Files.createTempDirectory("affinity");
+        List<Process> nodes = new ArrayList<>();
+        try {
+            // 첫 노드가 스키마와 사용자를 만든다.
+            for (int i = 0; i < NODES; i++) {
+                nodes.add(start(dir, i, affinity));
+                awaitReady(i, nodes.get(i), dir);
+            }
+            if (affinity) {
+                Thread.sleep(SETTLE_MILLIS);
+            }
+            List<String> accountNumbers = new ArrayList<>(ACCOUNTS);
+            for (int i = 0; i < ACCOUNTS; i++) {
+                accountNumbers.add(createAccount());
+            }
+
+            run(name + " warm-up", accountNumbers, OPERATIONS / 10, null);
+            run(name, accountNumbers, OPERATIONS, nodeLeaves ? nodes.get(NODES - 1) : null);
+        } finally {
+            for (Process node : nodes) {
+                node.destroy();
+                node.waitFor();
+            }
+        }
+    }
+
+    private void run(String name, List<String> accountNumbers, int operations,
+                     Process leaving) throws Exception {
+        long balanceBefore = getTotalBalance(accountNumbers);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicInteger sent = new AtomicInteger();
+        AtomicBoolean left = new AtomicBoolean();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < operations / THREADS; i++) {
+                    int seq = sent.incrementAndGet();
+                    if (leaving != null && seq == operations / 2) {
+                        // 정상 종료 : 멤버에서 빠진 뒤 처리 중인 요청을 마무리한다.
+                        leaving.destroy();
+                        left.set(true);
+                    }
+                    String accountNumber = accountNumbers.get(
+                            ThreadLocalRandom.current().nextInt(accountNumbers.size()));
+                    try {
+                        // 클라이언트는 종료된 노드(마지막 노드)로 더 보내지 않는다.
+                        int node = seq % (left.get() ? NODES - 1 : NODES);
+                        HttpResponse<String> response = post(node, "/transaction/use",
+                                "{\"userId\":1,\"accountNumber\":\"" + accountNumber
+                                        + "\",\"amount\":" + AMOUNT + "}");
+                        // 락 대기 시간 초과 등 거절은 errorCode 가 있는 200 응답이다.
+                        if (response.statusCode() == 200 && !response.body().contains("errorCode")) {
+                            succeeded.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        // 종료되는 노드로 보낸 요청
+                        failed.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+
+        assertEquals(succeeded.get() * AMOUNT, balanceBefore - getTotalBalance(accountNumbers));
+
+        System.out.printf("%-32s : %,.0f ops/s, %.1f us/op, succeeded %,d, failed %,d%n",
+                name, succeeded.get() * 1e9 / elapsed, elapsed / 1e3 / operations,
+                succeeded.get(), failed.get());
+    }
+
+    private Process start(Path dir, int index, boolean affinity) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("com.example.account.AccountApplication");
+        command.add("--server.port=" + (BASE_PORT + index));
+        command.add("--spring.redis.port=" + REDIS_PORT);
+        command.add("--account.redis.embedded=false");
+        command.add("--spring.datasource.url=jdbc:h2:file:" + dir.resolve("account")
+                + ";AUTO_SERVER=TRUE");
+        if (index > 0) {
+            command.add("--spring.jpa.hibernate.ddl-auto=none");
+            command.add("--spring.sql.init.mode=never");
+        }
+        command.add("--spring.jpa.properties.hibernate.show_sql=false");
+        command.add("--server.shutdown=graceful");
+        command.add("--account.rate-limit.enabled=false");
+        command.add("--account.outbox.relay-enabled=false");
+        command.add("--account.affinity.enabled=" + affinity);
+        command.add("--account.affinity.node-id=node-" + index);
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(dir.resolve("node-" + index + ".log").toFile())
+                .start();
+    }
+
+    private void awaitReady(int index, Process process, Path dir) throws Exception {
+        while (true) {
+            try {
+                httpClient.send(HttpRequest.newBuilder()
+                                .uri(URI.create("http://127.0.0.1:" + (BASE_PORT + index)
+                                        + "/account?user_id=1"))
+                                .build(),
+                        HttpResponse.BodyHandlers.discarding());
+                return;
+            } catch (IOException e) {
+                Thread.sleep(50);
+            }
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Node exited. See " + dir);
+            }
+        }
+    }
+
+    private String createAccount() throws Exception {
+        HttpResponse<String> response = post(0, "/account",
+                "{\"userId\":1,\"initialBalance\":" + INITIAL_BALANCE + "}");
+        return objectMapper.readTree(response.body()).get("accountNumber").asText();
+    }
+
+    private long getTotalBalance(List<String> accountNumbers) throws Exception {
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder()
+                        .uri(URI.create("http://127.0.0.1:" + BASE_PORT + "/account?user_id=1"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        long total = 0;
+        for (JsonNode account : objectMapper.readTree(response.body())) {
+            if (accountNumbers.contains(account.get("accountNumber").asText())) {
+                total += account.get("balance").asLong();
+            }
+        }
+        return total;
+    }
+
+    private HttpResponse<String> post(int index, String path, String body) throws Exception {
+        return httpClient.send(HttpRequest.newBuilder()
+                        .uri(URI.create("http://127.0.0.1:" + (BASE_PORT + index) + path))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+}
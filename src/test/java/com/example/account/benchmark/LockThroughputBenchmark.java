@@ -0,0 +1,76 @@
+package com.example.account.benchmark;
+
+import com.example.account.service.LockService;
+import com.example.account.service.RedisLockRouter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import redis.embedded.RedisServer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Redis 노드 수(1/2/4)별 계좌 락 처리량 (lock + unlock 1회 = 1 op)
+ * 기본 test 태스크에서는 제외되며 ./gradlew benchmark 로 실행한다.
+ */
+@Tag("benchmark")
+class LockThroughputBenchmark {
+    private static final int BASE_PORT = 6390;
+    private static final int THREADS = 32;
+    private static final int OPERATIONS = 20_000;
+    private static final int ACCOUNTS = 10_000;
+
+    @Test
+    void lockThroughputByNodeCount() throws Exception {
+        for (int nodeCount : new int[]{1, 2, 4}) {
+            System.out.printf("nodes=%d, single ops/s=%.0f%n", nodeCount, run(nodeCount, false));
+        }
+        System.out.printf("nodes=4, quorum ops/s=%.0f%n", run(4, true));
+    }
+
+    private double run(int nodeCount, boolean quorum) throws Exception {
+        List<RedisServer> servers = new ArrayList<>();
+        List<String> nodes = new ArrayList<>();
+        for (int i = 0; i < nodeCount; i++) {
+            RedisServer server = new RedisServer(BASE_PORT + i);
+            server.start();
+            servers.add(server);
+            nodes.add("redis://127.0.0.1:" + (BASE_PORT + i));
+        }
+        RedisLockRouter router = new RedisLockRouter(nodes, 160, 3);
+        LockService lockService = new LockService(router);
+        try {
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            List<Future<?>> futures = new ArrayList<>();
+            long startedAt = System.nanoTime();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < OPERATIONS / THREADS; i++) {
+                        String accountNumber = String.valueOf(1_000_000_000L
+                                + ThreadLocalRandom.current().nextInt(ACCOUNTS));
+                        if (quorum) {
+                            lockService.lockQuorum(accountNumber);
+                            lockService.unlockQuorum(accountNumber);
+                        } else {
+                            lockService.lock(accountNumber);
+                            lockService.unlock(accountNumber);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long elapsedNanos = System.nanoTime() - startedAt;
+            executor.shutdown();
+            return OPERATIONS / (elapsedNanos / 1_000_000_000.0);
+        } finally {
+            router.shutdown();
+            servers.forEach(RedisServer::stop);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.account.benchmark;
+
+import com.example.account.config.ConsistencyContext;
+import com.example.account.config.ReadWriteRoutingDataSource;
+import com.example.account.config.SimulatedReplicator;
+import com.example.account.type.AccountStatus;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 복제본 라우팅의 primary 부하 분산율
+ * 세션마다 쓰기 1회 후 토큰을 들고 조회를 반복한다.
+ * 복제 지연 동안의 조회만 primary 로 가야 한다.
+ * 기본 test 태스크에서는 제외되며 ./gradlew benchmark 로 실행한다.
+ */
+@Tag("benchmark")
+class ReplicaOffloadBenchmark {
+    private static final int SESSIONS = 8;
+    private static final int ROUNDS = 20;
+    private static final int READS_PER_WRITE = 10;
+    private static final long THINK_MILLIS = 20;
+    private static final long LAG_MILLIS = 100;
+
+    @Test
+    void primaryOffloadWithReadYourWrites() throws Exception {
+        DataSource primary = h2("primary");
+        DataSource replica = h2("replica");
+        new JdbcTemplate(primary).update(
+                "insert into account_user(id, name) values (1, 'Pororo')");
+        for (int i = 0; i < SESSIONS; i++) {
+            new JdbcTemplate(primary).update("insert into account(id, account_number, " +
+                    "account_status, balance, held_balance, account_user_id) " +
+                    "values (?, ?, ?, 1000000, 0, 1)", i + 1, 1_000_000_000L + i,
+                    AccountStatus.IN_USE.getCode());
+        }
+        SimulatedReplicator replicator = new SimulatedReplicator(primary, replica, LAG_MILLIS);
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ReadWriteRoutingDataSource.PRIMARY, primary);
+        targets.put(ReadWriteRoutingDataSource.REPLICA, replica);
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(replicator);
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        TransactionTemplate write = new TransactionTemplate(transactionManager);
+        TransactionTemplate read = new TransactionTemplate(transactionManager);
+        read.setReadOnly(true);
+
+        ExecutorService executor = Executors.newFixedThreadPool(SESSIONS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < SESSIONS; i++) {
+            String accountNumber = String.valueOf(1_000_000_000L + i);
+            futures.add(executor.submit(() -> {
+                for (int round = 0; round < ROUNDS; round++) {
+                    write.executeWithoutResult(status -> jdbcTemplate.update(
+                            "update account set balance = balance - 10 where account_number = ?",
+                            Long.parseLong(accountNumber)));
+                    // 응답 헤더로 받은 토큰을 다음 조회에 보낸다.
+                    ConsistencyContext.require(ConsistencyContext.getLastCommitPosition());
+                    for (int r = 0; r < READS_PER_WRITE; r++) {
+                        read.executeWithoutResult(status -> jdbcTemplate.queryForObject(
+                                "select balance from account where account_number = ?",
+                                Long.class, Long.parseLong(accountNumber)));
+                        Thread.sleep(THINK_MILLIS);
+                    }
+                }
+                ConsistencyContext.clear();
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        replicator.shutdown();
+
+        long reads = routingDataSource.getPrimaryReads() + routingDataSource.getReplicaReads();
+        System.out.printf("lag=%dms, writes=%d, reads=%d, replica reads=%d (%.1f%% offloaded)%n",
+                LAG_MILLIS, routingDataSource.getWrites(), reads, routingDataSource.getReplicaReads(),
+                100.0 * routingDataSource.getReplicaReads() / reads);
+    }
+
+    private static DataSource h2(String name) {
+        DataSource dataSource = DataSourceBuilder.create()
+                .url("jdbc:h2:mem:offload-" + name + ";DB_CLOSE_DELAY=-1")
+                .username("sa")
+                .password("")
+                .build();
+        new ResourceDatabasePopulator(new ClassPathResource("db/schema.sql")).execute(dataSource);
+        return dataSource;
+    }
+}
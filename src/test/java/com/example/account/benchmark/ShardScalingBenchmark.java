@@ -0,0 +1,112 @@
+package com.example.account.benchmark;
+
+import com.example.account.config.ShardContext;
+import com.example.account.config.ShardingConfig;
+import com.example.account.config.ShardingProperties;
+import com.example.account.domain.TransactionIdConverter;
+import com.example.account.service.ShardRouter;
+import com.example.account.type.AccountStatus;
+import com.example.account.type.TransactionResultType;
+import com.example.account.type.TransactionType;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 샤드 수(1/2/4)별 잔액 사용 처리량
+ * 잔액 차감 + 거래 저장을 샤드 트랜잭션 하나로 실행한다.
+ * 기본 test 태스크에서는 제외되며 ./gradlew benchmark 로 실행한다.
+ */
+@Tag("benchmark")
+class ShardScalingBenchmark {
+    private static final int THREADS = 16;
+    private static final int ACCOUNTS = 16;
+    private static final int OPERATIONS = 20_000;
+    private static final TransactionIdConverter TRANSACTION_ID_CONVERTER = new TransactionIdConverter();
+
+    @Test
+    void useBalanceThroughputByShardCount() throws Exception {
+        for (int shardCount : new int[]{1, 2, 4}) {
+            double opsPerSecond = run(shardCount);
+            System.out.printf("shards=%d, threads=%d, ops/s=%.0f%n",
+                    shardCount, THREADS, opsPerSecond);
+        }
+    }
+
+    private double run(int shardCount) throws Exception {
+        ShardingProperties shardingProperties = new ShardingProperties();
+        shardingProperties.setEnabled(true);
+        String runId = UUID.randomUUID().toString().substring(0, 8);
+        for (int i = 0; i < shardCount; i++) {
+            ShardingProperties.Shard shard = new ShardingProperties.Shard();
+            shard.setUrl("jdbc:h2:mem:bench-" + runId + "-" + i + ";DB_CLOSE_DELAY=-1");
+            shard.setUsername("sa");
+            shard.setPassword("");
+            shardingProperties.getShards().add(shard);
+        }
+        ShardRouter shardRouter = new ShardRouter(shardingProperties);
+        DataSource dataSource = ShardingConfig.createRoutingDataSource(shardingProperties.getShards());
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        TransactionTemplate transactionTemplate =
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        List<String> accountNumbers = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            String accountNumber = String.valueOf(1_000_000_000L + i);
+            accountNumbers.add(accountNumber);
+            ShardContext.callOn(shardRouter.shardOfAccountNumber(accountNumber), () ->
+                    jdbcTemplate.update("insert into account(id, account_number, account_status, " +
+                                    "balance, held_balance, account_user_id) " +
+                                    "values (next value for hibernate_sequence, ?, ?, ?, 0, 1)",
+                            Long.parseLong(accountNumber), AccountStatus.IN_USE.getCode(),
+                            Long.MAX_VALUE / 2));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        long startedAt = System.nanoTime();
+        for (int t = 0; t < THREADS; t++) {
+            int offset = t;
+            futures.add(executor.submit(() -> {
+                for (int i = offset; i < OPERATIONS; i += THREADS) {
+                    String accountNumber = accountNumbers.get(i % ACCOUNTS);
+                    ShardContext.callOn(shardRouter.shardOfAccountNumber(accountNumber), () ->
+                            transactionTemplate.execute(status -> {
+                                jdbcTemplate.update("update account set balance = balance - 10 " +
+                                        "where account_number = ?", Long.parseLong(accountNumber));
+                                return jdbcTemplate.update("insert into transaction(id, amount, " +
+                                                "transaction_id, transaction_type, " +
+                                                "transaction_result_type, account_id) " +
+                                                "select next value for hibernate_sequence, 10, ?, " +
+                                                "?, ?, id from account where account_number = ?",
+                                        TRANSACTION_ID_CONVERTER.convertToDatabaseColumn(
+                                                ShardRouter.tagTransactionId(
+                                                        UUID.randomUUID().toString().replace("-", ""))),
+                                        TransactionType.USE.getCode(), TransactionResultType.S.getCode(),
+                                        Long.parseLong(accountNumber));
+                            }));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        shardRouter.shutdown();
+
+        return OPERATIONS / (elapsedNanos / 1_000_000_000.0);
+    }
+}
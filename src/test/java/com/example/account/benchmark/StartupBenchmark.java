@@ -0,0 +1,144 @@
+package com.example.account.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import redis.embedded.RedisServer;
+
+import java.io.File;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 기동부터 첫 /transaction/use 성공까지 걸리는 시간 (프로필별, 매번 새 JVM)
+ * 1. ready : 첫 HTTP 응답을 받은 시각
+ * 2. first use : 계좌 생성 후 첫 잔액 사용이 성공한 시각
+ * 앱이 남긴 "Startup breakdown" 로그도 함께 출력한다.
+ * build/cds/app.jsa 가 있으면 (./gradlew cdsArchive) CDS 를 켠 faststart 도 잰다.
+ * 기본 test 태스크에서는 제외되며 ./gradlew benchmark 로 실행한다.
+ */
+@Tag("benchmark")
+class StartupBenchmark {
+    private static final int REDIS_PORT = 6398;
+    private static final int SERVER_PORT = 18080;
+    private static final Path CDS_ARCHIVE = Paths.get("build", "cds", "app.jsa");
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void timeToFirstSuccessfulUse() throws Exception {
+        RedisServer redisServer = new RedisServer(REDIS_PORT);
+        redisServer.start();
+        try {
+            measure("default", new ArrayList<>());
+            measure("faststart", new ArrayList<>());
+            if (Files.exists(CDS_ARCHIVE)) {
+                List<String> jvmArgs = new ArrayList<>();
+                jvmArgs.add("-XX:SharedArchiveFile=" + CDS_ARCHIVE);
+                measure("faststart", jvmArgs);
+            }
+        } finally {
+            redisServer.stop();
+        }
+    }
+
+    private void measure(String profile, List<String> jvmArgs) throws Exception {
+        Path log = Files.createTempFile("startup-" + profile, ".log");
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("com.example.account.AccountApplication");
+        if (!"default".equals(profile)) {
+            command.add("--spring.profiles.active=" + profile);
+        }
+        command.add("--server.port=" + SERVER_PORT);
+        command.add("--spring.redis.port=" + REDIS_PORT);
+        command.add("--account.redis.embedded=false");
+        command.add("--account.startup.report=true");
+
+        long startedAt = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            long readyMillis = -1;
+            String accountNumber = null;
+            while (accountNumber == null) {
+                try {
+                    HttpResponse<String> response = post("/account",
+                            "{\"userId\":1,\"initialBalance\":100000}");
+                    if (readyMillis < 0) {
+                        readyMillis = elapsedMillis(startedAt);
+                    }
+                    JsonNode body = objectMapper.readTree(response.body());
+                    if (response.statusCode() == 200 && body.hasNonNull("accountNumber")) {
+                        accountNumber = body.get("accountNumber").asText();
+                    }
+                } catch (ConnectException e) {
+                    Thread.sleep(20);
+                }
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("App exited. See " + log);
+                }
+            }
+            HttpResponse<String> response;
+            do {
+                response = post("/transaction/use", "{\"userId\":1,\"accountNumber\":\""
+                        + accountNumber + "\",\"amount\":1000}");
+            } while (response.statusCode() != 200
+                    || !response.body().contains("\"transactionResult\":\"S\""));
+            long firstUseMillis = elapsedMillis(startedAt);
+
+            System.out.printf("profile=%s%s, ready=%d ms, first use=%d ms%n", profile,
+                    jvmArgs.isEmpty() ? "" : " " + jvmArgs, readyMillis, firstUseMillis);
+            printBreakdown(log.toFile());
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private HttpResponse<String> post(String path, String body) throws Exception {
+        return httpClient.send(HttpRequest.newBuilder()
+                        .uri(URI.create("http://127.0.0.1:" + SERVER_PORT + path))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static long elapsedMillis(long startedAt) {
+        return (System.nanoTime() - startedAt) / 1_000_000;
+    }
+
+    private static void printBreakdown(File log) throws Exception {
+        boolean inBreakdown = false;
+        for (String line : Files.readAllLines(log.toPath(), StandardCharsets.UTF_8)) {
+            if (line.contains("Startup breakdown")) {
+                inBreakdown = true;
+            } else if (inBreakdown && !line.startsWith("  ")) {
+                break;
+            }
+            if (inBreakdown) {
+                System.out.println(line);
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.account.benchmark;
+
+import com.example.account.domain.TransactionIdConverter;
+import com.example.account.service.TimeOrderedTransactionIdGenerator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.*;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 이전 문자열 저장 방식과 현재 압축 저장 방식의 행 크기, 인덱스 크기, 단건 조회 시간
+ * 거래 행 하나에 계좌번호/enum 3개/거래 id 를 넣고, 거래 id(unique)와 계좌번호에 인덱스를 만든다.
+ * 행 수는 -Dbenchmark.rows (기본 2,000,000). ./gradlew benchmark 로 실행한다.
+ */
+@Tag("benchmark")
+class StorageEncodingBenchmark {
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 2_000_000);
+    private static final int LOOKUPS = 100_000;
+    private static final int BATCH = 10_000;
+
+    private static final TransactionIdConverter TRANSACTION_ID_CONVERTER = new TransactionIdConverter();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void rowIndexSizeAndLookupLatency() throws Exception {
+        String[] transactionIds = new String[ROWS];
+        TimeOrderedTransactionIdGenerator generator = new TimeOrderedTransactionIdGenerator(1);
+        for (int i = 0; i < ROWS; i++) {
+            transactionIds[i] = generator.nextId();
+        }
+
+        run("string", transactionIds, "varchar(255)", "varchar(255)", "varchar(255)", false);
+        run("compact", transactionIds, "bigint", "smallint", "varbinary(16)", true);
+    }
+
+    private void run(String encoding, String[] transactionIds, String accountNumberType,
+                     String enumType, String transactionIdType, boolean compact) throws Exception {
+        String url = "jdbc:h2:file:" + directory.resolve(encoding).toAbsolutePath();
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("create table transaction (id bigint primary key, " +
+                        "account_number " + accountNumberType + ", account_status " + enumType + ", " +
+                        "transaction_type " + enumType + ", transaction_result_type " + enumType + ", " +
+                        "transaction_id " + transactionIdType + ", amount bigint)");
+            }
+            connection.setAutoCommit(false);
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "insert into transaction values (?, ?, ?, ?, ?, ?, ?)")) {
+                for (int i = 0; i < transactionIds.length; i++) {
+                    long accountNumber = 1_000_000_000L + i % 100_000;
+                    insert.setLong(1, i);
+                    if (compact) {
+                        insert.setLong(2, accountNumber);
+                        insert.setShort(3, (short) 1);
+                        insert.setShort(4, (short) 1);
+                        insert.setShort(5, (short) 1);
+                        insert.setBytes(6, TRANSACTION_ID_CONVERTER.convertToDatabaseColumn(transactionIds[i]));
+                    } else {
+                        insert.setString(2, String.valueOf(accountNumber));
+                        insert.setString(3, "IN_USE");
+                        insert.setString(4, "USE");
+                        insert.setString(5, "S");
+                        insert.setString(6, transactionIds[i]);
+                    }
+                    insert.setLong(7, 1000L);
+                    insert.addBatch();
+                    if ((i + 1) % BATCH == 0) {
+                        insert.executeBatch();
+                        connection.commit();
+                    }
+                }
+                insert.executeBatch();
+                connection.commit();
+            }
+            connection.setAutoCommit(true);
+
+            long tableBytes = diskSpaceUsed(connection);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("create unique index idx_transaction_id on transaction (transaction_id)");
+                statement.execute("create index idx_account_number on transaction (account_number)");
+            }
+            long indexBytes = diskSpaceUsed(connection) - tableBytes;
+
+            long[] latencies = new long[LOOKUPS];
+            Random random = new Random(42);
+            try (PreparedStatement select = connection.prepareStatement(
+                    "select amount from transaction where transaction_id = ?")) {
+                for (int i = 0; i < LOOKUPS; i++) {
+                    String transactionId = transactionIds[random.nextInt(transactionIds.length)];
+                    long startedAt = System.nanoTime();
+                    if (compact) {
+                        select.setBytes(1, TRANSACTION_ID_CONVERTER.convertToDatabaseColumn(transactionId));
+                    } else {
+                        select.setString(1, transactionId);
+                    }
+                    try (ResultSet resultSet = select.executeQuery()) {
+                        if (!resultSet.next()) {
+                            throw new IllegalStateException("Missing " + transactionId);
+                        }
+                    }
+                    latencies[i] = System.nanoTime() - startedAt;
+                }
+            }
+            Arrays.sort(latencies);
+
+            System.out.printf("encoding=%s, rows=%d, bytes/row=%.1f, index bytes/row=%.1f, " +
+                            "lookup p50=%.1fus, p99=%.1fus%n",
+                    encoding, transactionIds.length,
+                    tableBytes / (double) transactionIds.length,
+                    indexBytes / (double) transactionIds.length,
+                    latencies[LOOKUPS / 2] / 1000.0,
+                    latencies[LOOKUPS * 99 / 100] / 1000.0);
+        }
+    }
+
+    private static long diskSpaceUsed(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select disk_space_used('TRANSACTION')")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
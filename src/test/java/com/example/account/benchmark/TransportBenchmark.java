@@ -0,0 +1,159 @@
+package com.example.account.benchmark;
+
+import com.example.account.grpc.GrpcServer;
+import com.example.account.grpc.proto.BalanceCommand;
+import com.example.account.grpc.proto.BalanceReply;
+import com.example.account.grpc.proto.BalanceServiceGrpc;
+import com.example.account.grpc.proto.UseBalanceRequest;
+import com.example.account.service.AccountService;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 같은 잔액 사용 OPERATIONS 건을 전송 방식별로 순서대로 보낸다.
+ * 1. REST : HTTP/1.1 keep-alive, 요청마다 응답을 기다림
+ * 2. gRPC unary : HTTP/2, 요청마다 응답을 기다림
+ * 3. gRPC streaming : 한 스트림에 응답을 기다리지 않고 이어서 보냄
+ * 기본 test 태스크에서는 제외되며 ./gradlew benchmark 로 실행한다.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "account.grpc.enabled=true",
+        "account.grpc.port=0",
+        "account.rate-limit.enabled=false"
+})
+class TransportBenchmark {
+    private static final int WARM_UP = 500;
+    private static final int OPERATIONS = 5_000;
+    private static final long USER_ID = 1L;
+
+    @LocalServerPort
+    private int httpPort;
+
+    @Autowired
+    private GrpcServer grpcServer;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Test
+    void restVersusUnaryVersusStreaming() throws Exception {
+        String accountNumber = accountService.createAccount(USER_ID, 1_000_000_000L)
+                .getAccountNumber();
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        ManagedChannel channel = ManagedChannelBuilder
+                .forAddress("localhost", grpcServer.getPort())
+                .usePlaintext()
+                .build();
+        try {
+            rest(httpClient, accountNumber, WARM_UP);
+            unary(channel, accountNumber, WARM_UP);
+            streaming(channel, accountNumber, WARM_UP);
+
+            report("REST", OPERATIONS, rest(httpClient, accountNumber, OPERATIONS));
+            report("gRPC unary", OPERATIONS, unary(channel, accountNumber, OPERATIONS));
+            report("gRPC streaming", OPERATIONS, streaming(channel, accountNumber, OPERATIONS));
+        } finally {
+            channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private long rest(HttpClient httpClient, String accountNumber, int operations)
+            throws Exception {
+        String body = "{\"userId\":" + USER_ID + ",\"accountNumber\":\"" + accountNumber
+                + "\",\"amount\":10}";
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:" + httpPort + "/transaction/use"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        long start = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            HttpResponse<String> response =
+                    httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            assertEquals(200, response.statusCode());
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long unary(ManagedChannel channel, String accountNumber, int operations) {
+        BalanceServiceGrpc.BalanceServiceBlockingStub stub =
+                BalanceServiceGrpc.newBlockingStub(channel);
+        UseBalanceRequest request = useRequest(accountNumber);
+        long start = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            assertEquals(true, stub.useBalance(request).getSuccess());
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long streaming(ManagedChannel channel, String accountNumber, int operations)
+            throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        UseBalanceRequest request = useRequest(accountNumber);
+        long start = System.nanoTime();
+        StreamObserver<BalanceCommand> commands = BalanceServiceGrpc.newStub(channel)
+                .pipeline(new StreamObserver<BalanceReply>() {
+                    @Override
+                    public void onNext(BalanceReply reply) {
+                        if (reply.getSuccess()) {
+                            succeeded.incrementAndGet();
+                        }
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        done.countDown();
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        done.countDown();
+                    }
+                });
+        for (int i = 0; i < operations; i++) {
+            commands.onNext(BalanceCommand.newBuilder()
+                    .setCorrelationId(i)
+                    .setUse(request)
+                    .build());
+        }
+        commands.onCompleted();
+        done.await(5, TimeUnit.MINUTES);
+        long elapsed = System.nanoTime() - start;
+        assertEquals(operations, succeeded.get());
+        return elapsed;
+    }
+
+    private static UseBalanceRequest useRequest(String accountNumber) {
+        return UseBalanceRequest.newBuilder()
+                .setUserId(USER_ID)
+                .setAccountNumber(accountNumber)
+                .setAmount(10)
+                .build();
+    }
+
+    private static void report(String transport, int operations, long elapsedNanos) {
+        System.out.printf("%-15s : %,d ops in %,d ms, %,.0f ops/s, %.1f us/op%n",
+                transport, operations, elapsedNanos / 1_000_000,
+                operations * 1e9 / elapsedNanos, elapsedNanos / 1e3 / operations);
+    }
+}
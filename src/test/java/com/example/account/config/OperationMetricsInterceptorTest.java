@@ -0,0 +1,85 @@
+package com.example.account.config;
+
+import com.example.account.aop.MeteredOperation;
+import com.example.account.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OperationMetricsInterceptorTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OperationMetricsInterceptor interceptor =
+            new OperationMetricsInterceptor(meterRegistry);
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Test
+    void successRecordsTotalDbAndLockTime() throws Exception {
+        //given
+        HandlerMethod handler = handler("metered");
+        interceptor.preHandle(request, response, handler);
+        OperationMetricsContext.addDbTime(TimeUnit.MILLISECONDS.toNanos(3));
+        OperationMetricsContext.addLockTime(TimeUnit.MILLISECONDS.toNanos(2));
+        //when
+        interceptor.afterCompletion(request, response, handler, null);
+        //then
+        assertEquals(1, meterRegistry.get("account.operation")
+                .tags("operation", "useBalance", "outcome", "SUCCESS", "error_code", "NONE")
+                .timer().count());
+        assertEquals(3.0, meterRegistry.get("account.operation.db")
+                .tag("operation", "useBalance").timer().totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(2.0, meterRegistry.get("account.operation.lock")
+                .tag("operation", "useBalance").timer().totalTime(TimeUnit.MILLISECONDS));
+        assertNull(OperationMetricsContext.end());
+    }
+
+    @Test
+    @DisplayName("예외 처리기가 남긴 에러 코드로 실패를 태깅")
+    void failureIsTaggedWithErrorCode() throws Exception {
+        //given
+        HandlerMethod handler = handler("metered");
+        interceptor.preHandle(request, response, handler);
+        OperationMetricsContext.recordError(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        //when
+        interceptor.afterCompletion(request, response, handler, null);
+        //then
+        assertEquals(1, meterRegistry.get("account.operation")
+                .tags("outcome", "FAILURE", "error_code", "AMOUNT_EXCEED_BALANCE")
+                .timer().count());
+        assertEquals(1.0, meterRegistry.get("account.operation.errors")
+                .tags("operation", "useBalance", "error_code", "AMOUNT_EXCEED_BALANCE")
+                .counter().count());
+    }
+
+    @Test
+    void unmeteredHandlerIsIgnored() throws Exception {
+        //given
+        HandlerMethod handler = handler("unmetered");
+        //when
+        interceptor.preHandle(request, response, handler);
+        interceptor.afterCompletion(request, response, handler, null);
+        //then
+        assertTrue(meterRegistry.getMeters().isEmpty());
+    }
+
+    private static HandlerMethod handler(String methodName) throws NoSuchMethodException {
+        return new HandlerMethod(new SampleController(),
+                SampleController.class.getMethod(methodName));
+    }
+
+    public static class SampleController {
+        @MeteredOperation("useBalance")
+        public void metered() {
+        }
+
+        public void unmetered() {
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.account.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static com.example.account.config.ReadWriteRoutingDataSource.PRIMARY;
+import static com.example.account.config.ReadWriteRoutingDataSource.REPLICA;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadWriteRoutingDataSourceTest {
+    private long replicatedUpTo = 1000L;
+
+    private final ReadWriteRoutingDataSource routingDataSource =
+            new ReadWriteRoutingDataSource(() -> replicatedUpTo);
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        ConsistencyContext.clear();
+    }
+
+    @Test
+    void readOnlyGoesToReplica() {
+        //given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        //when
+        Object key = routingDataSource.determineCurrentLookupKey();
+        //then
+        assertEquals(REPLICA, key);
+        assertEquals(1, routingDataSource.getReplicaReads());
+    }
+
+    @Test
+    @DisplayName("복제본이 토큰 시점까지 따라오지 못했으면 primary 에서 읽음")
+    void readYourWritesFallsBackToPrimary() {
+        //given
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ConsistencyContext.require(1500L);
+        //when
+        Object behind = routingDataSource.determineCurrentLookupKey();
+        replicatedUpTo = 2000L;
+        Object caughtUp = routingDataSource.determineCurrentLookupKey();
+        //then
+        assertEquals(PRIMARY, behind);
+        assertEquals(REPLICA, caughtUp);
+    }
+
+    @Test
+    @DisplayName("쓰기 트랜잭션이 커밋되면 토큰을 남김")
+    void writeRecordsCommitPosition() {
+        //given
+        TransactionSynchronizationManager.initSynchronization();
+        //when
+        Object key = routingDataSource.determineCurrentLookupKey();
+        assertNull(ConsistencyContext.getLastCommitPosition());
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(TransactionSynchronization::afterCommit);
+        //then
+        assertEquals(PRIMARY, key);
+        assertNotNull(ConsistencyContext.getLastCommitPosition());
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(
+                        TransactionSynchronization.STATUS_COMMITTED));
+    }
+}
@@ -1,11 +1,12 @@
 package com.example.account.controller;
 
-import com.example.account.domain.Account;
 import com.example.account.dto.AccountDto;
 import com.example.account.dto.CreateAccount;
 import com.example.account.dto.DeleteAccount;
+import com.example.account.engine.BalanceEngine;
 import com.example.account.exception.AccountException;
 import com.example.account.service.AccountService;
+import com.example.account.service.BalanceStreamHub;
 import com.example.account.service.LockService;
 import com.example.account.type.AccountStatus;
 import com.example.account.type.ErrorCode;
@@ -34,6 +35,12 @@ class AccountControllerTest {
     @MockBean
     private AccountService accountService;
 
+    @MockBean
+    private BalanceEngine balanceEngine;
+
+    @MockBean
+    private BalanceStreamHub balanceStreamHub;
+
     @MockBean
     private LockService redisTestService;
 
@@ -128,7 +135,7 @@ class AccountControllerTest {
     void successGetAccount() throws Exception {
         //given
         given(accountService.getAccount(anyLong()))
-                .willReturn(Account.builder()
+                .willReturn(AccountDto.builder()
                         .accountNumber("3456")
                         .accountStatus(AccountStatus.IN_USE)
                         .build());
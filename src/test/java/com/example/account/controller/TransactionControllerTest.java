@@ -1,52 +1,82 @@
 package com.example.account.controller;
 
+import com.example.account.dto.AuthorizeBalance;
+import com.example.account.dto.BalanceResult;
 import com.example.account.dto.CancelBalance;
+import com.example.account.dto.CaptureBalance;
+import com.example.account.dto.HoldDto;
 import com.example.account.dto.TransactionDto;
 import com.example.account.dto.UseBalance;
+import com.example.account.engine.BalanceEngine;
+import com.example.account.service.BalanceService;
+import com.example.account.service.HoldService;
 import com.example.account.service.TransactionService;
+import com.example.account.service.UseBalanceGroupCommitter;
+import com.example.account.type.ErrorCode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDateTime;
 
+import static com.example.account.type.HoldStatus.HELD;
 import static com.example.account.type.TransactionResultType.S;
 import static com.example.account.type.TransactionType.CANCEL;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+// 락과 모드 분기는 BalanceService 에 있으므로 실제 빈으로 함께 띄운다. (락 aspect 는 없음)
 @WebMvcTest(TransactionController.class)
+@Import(BalanceService.class)
 class TransactionControllerTest {
     @MockBean
     private TransactionService transactionService;
 
+    @MockBean
+    private UseBalanceGroupCommitter useBalanceGroupCommitter;
+
+    @MockBean
+    private HoldService holdService;
+
+    @MockBean
+    private BalanceEngine balanceEngine;
+
     @Autowired
     private MockMvc mockMvc;
 
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborHttpMessageConverter;
+
     @Test
     void successUseBalance() throws Exception {
         //given
-        given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
-                .willReturn(TransactionDto.builder()
+        given(transactionService.tryUseBalance(anyLong(), anyString(), anyLong()))
+                .willReturn(BalanceResult.success(TransactionDto.builder()
                         .accountNumber("1234567890")
                         .transactedAt(LocalDateTime.now())
                         .amount(12345L)
                         .transactionId("transactionId")
                         .transactionResult(S)
-                        .build());
+                        .build()));
         //when
         //then
         mockMvc.perform(post("/transaction/use")
@@ -63,18 +93,184 @@ class TransactionControllerTest {
     }
 
     @Test
-    void successCancelBalance() throws Exception {
+    void successUseBalanceInCbor() throws Exception {
         //given
-        given(transactionService.cancelBalance(anyString(), anyString(), anyLong()))
+        given(transactionService.tryUseBalance(anyLong(), anyString(), anyLong()))
+                .willReturn(BalanceResult.success(TransactionDto.builder()
+                        .accountNumber("1234567890")
+                        .transactedAt(LocalDateTime.now())
+                        .amount(12345L)
+                        .transactionId("transactionId")
+                        .transactionResult(S)
+                        .build()));
+        ObjectMapper cborMapper = cborHttpMessageConverter.getObjectMapper();
+        //when
+        MvcResult result = mockMvc.perform(post("/transaction/use")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(
+                                new UseBalance.Request(1L, "2000000000", 3000L)
+                        ))
+                ).andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+        //then
+        UseBalance.Response response = cborMapper.readValue(
+                result.getResponse().getContentAsByteArray(), UseBalance.Response.class);
+        assertEquals("1234567890", response.getAccountNumber());
+        assertEquals(S, response.getTransactionResult());
+        assertEquals(12345L, response.getAmount());
+    }
+
+    @Test
+    void failedUseBalanceRendersErrorResponse() throws Exception {
+        //given
+        given(transactionService.tryUseBalance(anyLong(), anyString(), anyLong()))
+                .willReturn(BalanceResult.failure(ErrorCode.AMOUNT_EXCEED_BALANCE));
+        //when
+        //then
+        mockMvc.perform(post("/transaction/use")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UseBalance.Request(1L, "2000000000", 3000L)
+                        ))
+                ).andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errorCode").value("AMOUNT_EXCEED_BALANCE"));
+    }
+
+    @Test
+    void successUseBalanceInGroupCommitMode() throws Exception {
+        //given
+        given(useBalanceGroupCommitter.isEnabled())
+                .willReturn(true);
+        given(useBalanceGroupCommitter.useBalance(any()))
                 .willReturn(TransactionDto.builder()
                         .accountNumber("1234567890")
                         .transactedAt(LocalDateTime.now())
                         .amount(12345L)
-                        .transactionId("transactionIdForCancel")
+                        .transactionId("transactionIdInBatch")
+                        .transactionResult(S)
+                        .build());
+        //when
+        //then
+        mockMvc.perform(post("/transaction/use")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UseBalance.Request(1L, "2000000000", 3000L)
+                        ))
+                ).andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactionId").value("transactionIdInBatch"))
+                .andExpect(jsonPath("$.amount").value(12345));
+    }
+
+    @Test
+    void successUseBalanceInAtomicMode() throws Exception {
+        //given
+        given(transactionService.isAtomicUpdateEnabled())
+                .willReturn(true);
+        given(transactionService.tryUseBalanceAtomic(anyLong(), anyString(), anyLong()))
+                .willReturn(BalanceResult.success(TransactionDto.builder()
+                        .accountNumber("1234567890")
+                        .transactedAt(LocalDateTime.now())
+                        .amount(12345L)
+                        .transactionId("transactionIdAtomic")
+                        .transactionResult(S)
+                        .build()));
+        //when
+        //then
+        mockMvc.perform(post("/transaction/use")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UseBalance.Request(1L, "2000000000", 3000L)
+                        ))
+                ).andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactionId").value("transactionIdAtomic"))
+                .andExpect(jsonPath("$.amount").value(12345));
+    }
+
+    @Test
+    void authorizeBalanceRejectedInAtomicMode() throws Exception {
+        //given
+        given(transactionService.isAtomicUpdateEnabled())
+                .willReturn(true);
+        //when
+        //then
+        mockMvc.perform(post("/transaction/hold")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new AuthorizeBalance.Request(1L, "2000000000", 3000L)
+                        ))
+                ).andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errorCode").value("ATOMIC_MODE_UNSUPPORTED"));
+    }
+
+    @Test
+    void successAuthorizeBalance() throws Exception {
+        //given
+        given(holdService.authorize(anyLong(), anyString(), anyLong()))
+                .willReturn(HoldDto.builder()
+                        .accountNumber("1234567890")
+                        .holdId("holdId")
+                        .holdStatus(HELD)
+                        .amount(12345L)
+                        .expiresAt(LocalDateTime.now().plusMinutes(10))
+                        .build());
+        //when
+        //then
+        mockMvc.perform(post("/transaction/hold")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new AuthorizeBalance.Request(1L, "2000000000", 3000L)
+                        ))
+                ).andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountNumber").value("1234567890"))
+                .andExpect(jsonPath("$.holdId").value("holdId"))
+                .andExpect(jsonPath("$.amount").value(12345));
+    }
+
+    @Test
+    void successCaptureBalance() throws Exception {
+        //given
+        given(holdService.capture(anyString(), anyString()))
+                .willReturn(TransactionDto.builder()
+                        .accountNumber("1234567890")
+                        .transactedAt(LocalDateTime.now())
+                        .amount(12345L)
+                        .transactionId("transactionIdForCapture")
                         .transactionResult(S)
                         .build());
         //when
         //then
+        mockMvc.perform(post("/transaction/hold/capture")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CaptureBalance.Request("holdId", "2000000000")
+                        ))
+                ).andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactionResult").value("S"))
+                .andExpect(jsonPath("$.transactionId").value("transactionIdForCapture"))
+                .andExpect(jsonPath("$.amount").value(12345));
+    }
+
+    @Test
+    void successCancelBalance() throws Exception {
+        //given
+        given(transactionService.tryCancelBalance(anyString(), anyString(), anyLong()))
+                .willReturn(BalanceResult.success(TransactionDto.builder()
+                        .accountNumber("1234567890")
+                        .transactedAt(LocalDateTime.now())
+                        .amount(12345L)
+                        .transactionId("transactionIdForCancel")
+                        .transactionResult(S)
+                        .build()));
+        //when
+        //then
         mockMvc.perform(post("/transaction/cancel")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(
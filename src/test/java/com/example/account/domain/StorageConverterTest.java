@@ -0,0 +1,70 @@
+package com.example.account.domain;
+
+import com.example.account.type.AccountStatus;
+import com.example.account.type.HoldStatus;
+import com.example.account.type.TransactionResultType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StorageConverterTest {
+    private final AccountNumberConverter accountNumberConverter = new AccountNumberConverter();
+    private final TransactionIdConverter transactionIdConverter = new TransactionIdConverter();
+
+    @Test
+    void accountNumberRoundTrip() {
+        //given
+        //when
+        Long stored = accountNumberConverter.convertToDatabaseColumn("1000000012");
+        //then
+        assertEquals(1_000_000_012L, stored);
+        assertEquals("1000000012", accountNumberConverter.convertToEntityAttribute(stored));
+        assertEquals("0000000042", accountNumberConverter.convertToEntityAttribute(42L));
+    }
+
+    @Test
+    @DisplayName("숫자가 아닌 계좌번호는 어떤 계좌와도 맞지 않는 값으로 조회")
+    void invalidAccountNumberMatchesNothing() {
+        assertEquals(-1L, accountNumberConverter.convertToDatabaseColumn("12345abcde"));
+        assertEquals(-1L, accountNumberConverter.convertToDatabaseColumn("12345678901"));
+        assertEquals(-1L, accountNumberConverter.convertToDatabaseColumn("12"));
+    }
+
+    @Test
+    void transactionIdRoundTrip() {
+        //given
+        String transactionId = "0a0189abcdef0123456789abcdef0001";
+        //when
+        byte[] stored = transactionIdConverter.convertToDatabaseColumn(transactionId);
+        //then
+        assertEquals(16, stored.length);
+        assertEquals(transactionId, transactionIdConverter.convertToEntityAttribute(stored));
+    }
+
+    @Test
+    @DisplayName("형식이 맞지 않는 거래 id 는 빈 값으로 조회")
+    void invalidTransactionIdMatchesNothing() {
+        assertEquals(0, transactionIdConverter.convertToDatabaseColumn("transactionId").length);
+        assertEquals(0, transactionIdConverter.convertToDatabaseColumn(
+                "zz0189abcdef0123456789abcdef0001").length);
+        assertEquals(0, transactionIdConverter.convertToDatabaseColumn(
+                "0A0189ABCDEF0123456789ABCDEF0001").length);
+    }
+
+    @Test
+    void enumCodeRoundTrip() {
+        //given
+        AccountStatusConverter accountStatusConverter = new AccountStatusConverter();
+        TransactionResultTypeConverter resultTypeConverter = new TransactionResultTypeConverter();
+        HoldStatusConverter holdStatusConverter = new HoldStatusConverter();
+        //when
+        //then
+        assertEquals((short) 2, accountStatusConverter.convertToDatabaseColumn(AccountStatus.UNREGISTERED));
+        assertEquals(AccountStatus.IN_USE, accountStatusConverter.convertToEntityAttribute((short) 1));
+        assertEquals(TransactionResultType.F, resultTypeConverter.convertToEntityAttribute((short) 2));
+        assertEquals(HoldStatus.EXPIRED, holdStatusConverter.convertToEntityAttribute((short) 4));
+        assertThrows(IllegalArgumentException.class,
+                () -> resultTypeConverter.convertToEntityAttribute((short) 9));
+    }
+}
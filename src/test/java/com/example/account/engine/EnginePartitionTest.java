@@ -0,0 +1,211 @@
+package com.example.account.engine;
+
+import com.example.account.config.EngineProperties;
+import com.example.account.exception.AccountException;
+import com.example.account.service.RandomTransactionIdGenerator;
+import com.example.account.type.AccountStatus;
+import com.example.account.type.ErrorCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnginePartitionTest {
+    private static final long ACCOUNT_NUMBER = 1000000012L;
+    private static final byte IN_USE = (byte) AccountStatus.IN_USE.getCode();
+
+    @TempDir
+    Path dir;
+
+    private final EngineProperties engineProperties = new EngineProperties();
+    private final List<Decision> projected = new CopyOnWriteArrayList<>();
+    private final List<EnginePartition> partitions = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (EnginePartition partition : partitions) {
+            partition.stop();
+            partition.close();
+        }
+    }
+
+    @Test
+    @DisplayName("적재되지 않은 계좌는 null, 적재 후에는 메모리 잔액으로 결정")
+    void loadThenUseBalance() throws Exception {
+        //given
+        engineProperties.setJournalBytes(64 * 1024);
+        EnginePartition partition = startPartition();
+        //when
+        Decision notLoaded = execute(partition, Command.use(12L, ACCOUNT_NUMBER, 100L));
+        execute(partition, Command.load(ACCOUNT_NUMBER, 1000L, 0L, 12L, IN_USE));
+        Decision used = execute(partition, Command.use(12L, ACCOUNT_NUMBER, 100L));
+        Decision exceeded = execute(partition, Command.use(12L, ACCOUNT_NUMBER, 5000L));
+        Decision otherUser = execute(partition, Command.use(13L, ACCOUNT_NUMBER, 100L));
+        //then
+        assertNull(notLoaded);
+        assertTrue(used.success);
+        assertEquals(900L, used.balanceAfter);
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exceeded.errorCode);
+        assertEquals(900L, exceeded.balanceAfter);
+        assertEquals(ErrorCode.USER_ACCOUNT_UN_MATCH, otherUser.errorCode);
+        // 실패 거래도 DB 반영 대상이다. (LOAD 는 제외)
+        assertEquals(3, projected.size());
+    }
+
+    @Test
+    @DisplayName("취소는 원거래의 계좌/금액/시각을 TransactionService 와 같은 순서로 확인")
+    void cancelChecksTarget() throws Exception {
+        //given
+        engineProperties.setJournalBytes(64 * 1024);
+        EnginePartition partition = startPartition();
+        execute(partition, Command.load(ACCOUNT_NUMBER, 1000L, 0L, 12L, IN_USE));
+        Decision used = execute(partition, Command.use(12L, ACCOUNT_NUMBER, 100L));
+        //when
+        Decision notFound = execute(partition, Command.cancel(ACCOUNT_NUMBER, 100L));
+        Decision partial = execute(partition, Command.cancel(ACCOUNT_NUMBER, 50L,
+                used.accountNumber, used.amount, used.transactedAtMillis));
+        Decision otherAccount = execute(partition, Command.cancel(ACCOUNT_NUMBER, 100L,
+                1000000013L, used.amount, used.transactedAtMillis));
+        Decision cancelled = execute(partition, Command.cancel(ACCOUNT_NUMBER, 100L,
+                used.accountNumber, used.amount, used.transactedAtMillis));
+        //then
+        assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, notFound.errorCode);
+        assertEquals(ErrorCode.CANCEL_MUST_FULLY, partial.errorCode);
+        assertEquals(ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH, otherAccount.errorCode);
+        assertTrue(cancelled.success);
+        assertEquals(1000L, cancelled.balanceAfter);
+    }
+
+    @Test
+    @DisplayName("재기동하면 저널을 재생해 잔액을 복구하고 재생한 거래를 다시 반영 대상으로 넘긴다")
+    void recoverFromJournal() throws Exception {
+        //given
+        engineProperties.setJournalBytes(64 * 1024);
+        EnginePartition partition = startPartition();
+        execute(partition, Command.load(ACCOUNT_NUMBER, 1000L, 0L, 12L, IN_USE));
+        execute(partition, Command.use(12L, ACCOUNT_NUMBER, 100L));
+        execute(partition, Command.use(12L, ACCOUNT_NUMBER, 200L));
+        // 스냅샷 없이 멈춘다. (장애 상황)
+        partition.stop();
+        partitions.remove(partition);
+        projected.clear();
+        //when
+        EnginePartition restarted = startPartition();
+        Decision used = execute(restarted, Command.use(12L, ACCOUNT_NUMBER, 300L));
+        //then
+        assertEquals(3, projected.size());
+        assertEquals(400L, used.balanceAfter);
+    }
+
+    @Test
+    @DisplayName("저널이 가득 차면 스냅샷을 남기고 저널을 다시 쓴다")
+    void checkpointWhenJournalIsFull() throws Exception {
+        //given
+        engineProperties.setJournalBytes(MappedJournal.RECORD_BYTES * 4);
+        EnginePartition partition = startPartition();
+        execute(partition, Command.load(ACCOUNT_NUMBER, 1000L, 0L, 12L, IN_USE));
+        //when
+        for (int i = 0; i < 10; i++) {
+            execute(partition, Command.use(12L, ACCOUNT_NUMBER, 10L));
+        }
+        partition.stop();
+        partitions.remove(partition);
+        EnginePartition restarted = startPartition();
+        Decision used = execute(restarted, Command.use(12L, ACCOUNT_NUMBER, 10L));
+        //then
+        assertEquals(890L, used.balanceAfter);
+    }
+
+    @Test
+    @DisplayName("DB 반영이 멈추면 체크포인트는 제한 시간 후 그 배치만 거절")
+    void checkpointTimesOutIfProjectionIsStuck() throws Exception {
+        //given
+        engineProperties.setJournalBytes(MappedJournal.RECORD_BYTES * 4);
+        engineProperties.setTimeoutMillis(100);
+        EnginePartition partition = startPartition(() -> 0L);
+        execute(partition, Command.load(ACCOUNT_NUMBER, 1000L, 0L, 12L, IN_USE));
+        //when
+        AccountException exception = null;
+        for (int i = 0; i < 10 && exception == null; i++) {
+            try {
+                execute(partition, Command.use(12L, ACCOUNT_NUMBER, 10L));
+            } catch (ExecutionException e) {
+                exception = (AccountException) e.getCause();
+            }
+        }
+        //then
+        assertNotNull(exception);
+        assertEquals(ErrorCode.ENGINE_CHECKPOINT_TIMEOUT, exception.getErrorCode());
+        // 파티션은 멈추지 않고 다음 요청을 받는다.
+        assertTrue(partition.submit(Command.use(12L, ACCOUNT_NUMBER, 10L)));
+    }
+
+    @Test
+    @DisplayName("RESET 은 DB 반영을 기다린 뒤 계좌를 비우고, 재기동해도 비운 상태로 복구")
+    void resetDropsAccounts() throws Exception {
+        //given
+        engineProperties.setJournalBytes(64 * 1024);
+        EnginePartition partition = startPartition();
+        execute(partition, Command.load(ACCOUNT_NUMBER, 1000L, 0L, 12L, IN_USE));
+        execute(partition, Command.use(12L, ACCOUNT_NUMBER, 100L));
+        //when
+        execute(partition, Command.reset());
+        Decision afterReset = execute(partition, Command.use(12L, ACCOUNT_NUMBER, 100L));
+        partition.stop();
+        partitions.remove(partition);
+        EnginePartition restarted = startPartition();
+        Decision afterRestart = execute(restarted, Command.use(12L, ACCOUNT_NUMBER, 100L));
+        //then
+        assertNull(afterReset);
+        assertNull(afterRestart);
+    }
+
+    @Test
+    @DisplayName("적재 기록 없는 계좌의 거래를 재생하면 복구 실패")
+    void recoverFailsForMissingAccount() throws Exception {
+        //given
+        engineProperties.setJournalBytes(64 * 1024);
+        EnginePartition partition = startPartition();
+        execute(partition, Command.load(ACCOUNT_NUMBER, 1000L, 0L, 12L, IN_USE));
+        execute(partition, Command.use(12L, ACCOUNT_NUMBER, 100L));
+        partition.stop();
+        partitions.remove(partition);
+        // LOAD(seq 1) 까지 담았어야 할 스냅샷에 계좌가 없다.
+        EngineSnapshot.write(dir.resolve("partition-0.snapshot"), 1, new AccountTable(16));
+        //when
+        EnginePartition restarted = new EnginePartition(0, dir, engineProperties,
+                new RandomTransactionIdGenerator(), projected::add, () -> Long.MAX_VALUE);
+        //then
+        assertThrows(IllegalStateException.class, restarted::recover);
+    }
+
+    private EnginePartition startPartition() throws IOException {
+        // 반영은 항상 끝난 것으로 본다.
+        return startPartition(() -> Long.MAX_VALUE);
+    }
+
+    private EnginePartition startPartition(LongSupplier projectedSeq) throws IOException {
+        EnginePartition partition = new EnginePartition(0, dir, engineProperties,
+                new RandomTransactionIdGenerator(), projected::add, projectedSeq);
+        partition.recover();
+        partition.start();
+        partitions.add(partition);
+        return partition;
+    }
+
+    private static Decision execute(EnginePartition partition, Command command) throws Exception {
+        assertTrue(partition.submit(command));
+        return command.future.get(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.account.grpc;
+
+import com.example.account.dto.TransactionDto;
+import com.example.account.exception.AccountException;
+import com.example.account.grpc.proto.BalanceCommand;
+import com.example.account.grpc.proto.BalanceReply;
+import com.example.account.grpc.proto.UseBalanceRequest;
+import com.example.account.service.BalanceService;
+import com.example.account.type.ErrorCode;
+import io.grpc.stub.StreamObserver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.validation.Validation;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.account.type.TransactionResultType.S;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceGrpcServiceTest {
+    @Mock
+    private BalanceService balanceService;
+
+    private BalanceGrpcService balanceGrpcService;
+
+    @BeforeEach
+    void setUp() {
+        balanceGrpcService = new BalanceGrpcService(balanceService,
+                Validation.buildDefaultValidatorFactory().getValidator());
+    }
+
+    @Test
+    @DisplayName("파이프라인은 실패한 요청이 있어도 요청마다 응답하고 스트림을 유지함")
+    void pipelineRepliesPerMessage() {
+        //given
+        given(balanceService.useBalance(any()))
+                .willReturn(TransactionDto.builder()
+                        .accountNumber("1000000012")
+                        .transactionResult(S)
+                        .transactionId("transactionId")
+                        .amount(1000L)
+                        .transactedAt(LocalDateTime.now())
+                        .build())
+                .willThrow(AccountException.of(ErrorCode.AMOUNT_EXCEED_BALANCE));
+        RecordingObserver replies = new RecordingObserver();
+        StreamObserver<BalanceCommand> commands = balanceGrpcService.pipeline(replies);
+        //when
+        commands.onNext(useCommand(1L, 1000L));
+        commands.onNext(useCommand(2L, 1000L));
+        // 금액 검증 실패는 서비스까지 가지 않는다.
+        commands.onNext(useCommand(3L, 1L));
+        commands.onCompleted();
+        //then
+        assertEquals(3, replies.replies.size());
+        assertTrue(replies.replies.get(0).getSuccess());
+        assertEquals(1L, replies.replies.get(0).getCorrelationId());
+        assertEquals("USE", replies.replies.get(0).getTransactionType());
+        assertEquals(2L, replies.replies.get(1).getCorrelationId());
+        assertEquals("AMOUNT_EXCEED_BALANCE", replies.replies.get(1).getErrorCode());
+        assertEquals(3L, replies.replies.get(2).getCorrelationId());
+        assertEquals("INVALID_REQUEST", replies.replies.get(2).getErrorCode());
+        assertTrue(replies.completed);
+    }
+
+    private static BalanceCommand useCommand(long correlationId, long amount) {
+        return BalanceCommand.newBuilder()
+                .setCorrelationId(correlationId)
+                .setUse(UseBalanceRequest.newBuilder()
+                        .setUserId(12L)
+                        .setAccountNumber("1000000012")
+                        .setAmount(amount))
+                .build();
+    }
+
+    private static class RecordingObserver implements StreamObserver<BalanceReply> {
+        private final List<BalanceReply> replies = new ArrayList<>();
+        private boolean completed;
+
+        @Override
+        public void onNext(BalanceReply reply) {
+            replies.add(reply);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            fail(t);
+        }
+
+        @Override
+        public void onCompleted() {
+            completed = true;
+        }
+    }
+}
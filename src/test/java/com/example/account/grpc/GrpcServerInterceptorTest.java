@@ -0,0 +1,175 @@
+package com.example.account.grpc;
+
+import com.example.account.config.ConsistencyContext;
+import com.example.account.config.OperationMetricsContext;
+import com.example.account.dto.TransactionDto;
+import com.example.account.exception.AccountException;
+import com.example.account.grpc.proto.BalanceCommand;
+import com.example.account.grpc.proto.BalanceReply;
+import com.example.account.grpc.proto.BalanceServiceGrpc;
+import com.example.account.grpc.proto.UseBalanceRequest;
+import com.example.account.service.BalanceService;
+import com.example.account.type.ErrorCode;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Metadata;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.ServerInterceptors;
+import io.grpc.stub.MetadataUtils;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.validation.Validation;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.example.account.type.TransactionResultType.S;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+
+/**
+ * GrpcServer 와 같은 순서로 인터셉터를 건 서버에 실제로 호출한다.
+ */
+@ExtendWith(MockitoExtension.class)
+class GrpcServerInterceptorTest {
+    @Mock
+    private BalanceService balanceService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private Server server;
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        BalanceGrpcService balanceGrpcService = new BalanceGrpcService(balanceService,
+                Validation.buildDefaultValidatorFactory().getValidator());
+        server = ServerBuilder.forPort(0)
+                .addService(ServerInterceptors.intercept(balanceGrpcService,
+                        new ReadConsistencyServerInterceptor(),
+                        new OperationMetricsServerInterceptor(meterRegistry)))
+                .build()
+                .start();
+        channel = ManagedChannelBuilder.forAddress("localhost", server.getPort())
+                .usePlaintext()
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("단건 요청 - 메타데이터의 일관성 토큰을 읽고, HTTP 와 같은 operation 이름으로 지표를 남김")
+    void unaryReadsTokenAndRecordsOperation() throws InterruptedException {
+        //given
+        AtomicReference<Long> requiredPosition = new AtomicReference<>();
+        given(balanceService.useBalance(any()))
+                .willAnswer(invocation -> {
+                    requiredPosition.set(ConsistencyContext.getRequiredPosition());
+                    OperationMetricsContext.addLockTime(TimeUnit.MILLISECONDS.toNanos(2));
+                    return transactionDto();
+                });
+        Metadata headers = new Metadata();
+        headers.put(ReadConsistencyServerInterceptor.TOKEN, "1234");
+        //when
+        BalanceReply reply = BalanceServiceGrpc.newBlockingStub(channel)
+                .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(headers))
+                .useBalance(useRequest(1000L));
+        //then
+        assertTrue(reply.getSuccess());
+        assertEquals(1234L, requiredPosition.get());
+        Timer timer = awaitTimer("useBalance", "NONE");
+        assertEquals(1, timer.count());
+        assertEquals(2.0, meterRegistry.get("account.operation.lock")
+                .tag("operation", "useBalance").timer().totalTime(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("파이프라인 - 메시지마다 지표를 남기고 실패는 에러 코드로 태깅")
+    void pipelineRecordsPerMessage() throws InterruptedException {
+        //given
+        given(balanceService.useBalance(any()))
+                .willReturn(transactionDto())
+                .willThrow(AccountException.of(ErrorCode.AMOUNT_EXCEED_BALANCE));
+        CountDownLatch completed = new CountDownLatch(1);
+        StreamObserver<BalanceCommand> commands = BalanceServiceGrpc.newStub(channel)
+                .pipeline(new StreamObserver<BalanceReply>() {
+                    @Override
+                    public void onNext(BalanceReply reply) {
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        completed.countDown();
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        completed.countDown();
+                    }
+                });
+        //when
+        commands.onNext(BalanceCommand.newBuilder().setCorrelationId(1L)
+                .setUse(useRequest(1000L)).build());
+        commands.onNext(BalanceCommand.newBuilder().setCorrelationId(2L)
+                .setUse(useRequest(1000L)).build());
+        commands.onCompleted();
+        //then
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertEquals(1, awaitTimer("pipeline", "NONE").count());
+        assertEquals(1, awaitTimer("pipeline", "AMOUNT_EXCEED_BALANCE").count());
+        assertEquals(1.0, meterRegistry.get("account.operation.errors")
+                .tags("operation", "pipeline", "error_code", "AMOUNT_EXCEED_BALANCE")
+                .counter().count());
+    }
+
+    /**
+     * 응답을 보낸 뒤에 기록되므로 클라이언트가 응답을 받은 시점에는 아직 없을 수 있다.
+     */
+    private Timer awaitTimer(String operation, String errorCode) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            Timer timer = meterRegistry.find("account.operation")
+                    .tags("operation", operation, "error_code", errorCode)
+                    .timer();
+            if (timer != null) {
+                return timer;
+            }
+            Thread.sleep(10);
+        }
+        return fail("no account.operation timer for " + operation + " " + errorCode);
+    }
+
+    private static UseBalanceRequest useRequest(long amount) {
+        return UseBalanceRequest.newBuilder()
+                .setUserId(12L)
+                .setAccountNumber("1000000012")
+                .setAmount(amount)
+                .build();
+    }
+
+    private static TransactionDto transactionDto() {
+        return TransactionDto.builder()
+                .accountNumber("1000000012")
+                .transactionResult(S)
+                .transactionId("transactionId")
+                .amount(1000L)
+                .transactedAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.account.loadtest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+    @Test
+    @DisplayName("기록이 없으면 0")
+    void emptyHistogram() {
+        //given
+        LatencyHistogram histogram = new LatencyHistogram();
+        //when
+        //then
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.percentile(99));
+    }
+
+    @Test
+    @DisplayName("백분위는 실제 값 이상이고 버킷 폭(2%) 안")
+    void percentileWithinBucketWidth() {
+        //given
+        LatencyHistogram histogram = new LatencyHistogram();
+        //when
+        for (long micros = 1; micros <= 10_000; micros++) {
+            histogram.record(micros);
+        }
+        //then
+        assertEquals(10_000, histogram.count());
+        assertWithinBucket(5_000, histogram.percentile(50));
+        assertWithinBucket(9_900, histogram.percentile(99));
+        assertWithinBucket(9_990, histogram.percentile(99.9));
+        assertWithinBucket(10_000, histogram.percentile(100));
+    }
+
+    @Test
+    @DisplayName("꼬리의 느린 요청만 높은 백분위에 보임")
+    void tailLatency() {
+        //given
+        LatencyHistogram histogram = new LatencyHistogram();
+        //when
+        for (int i = 0; i < 990; i++) {
+            histogram.record(100);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(50_000);
+        }
+        //then
+        assertWithinBucket(100, histogram.percentile(50));
+        assertWithinBucket(100, histogram.percentile(99));
+        assertWithinBucket(50_000, histogram.percentile(99.9));
+    }
+
+    @Test
+    @DisplayName("0, 1us 는 첫 버킷, 최대를 넘는 값은 마지막 버킷")
+    void clampsToEdgeBuckets() {
+        //given
+        LatencyHistogram histogram = new LatencyHistogram();
+        //when
+        histogram.record(0);
+        histogram.record(1);
+        histogram.record(Long.MAX_VALUE);
+        //then
+        assertEquals(1, histogram.percentile(50));
+        assertTrue(histogram.percentile(100) > 300_000_000L);
+    }
+
+    private static void assertWithinBucket(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= Math.ceil(expected * 1.02),
+                "expected " + expected + " within 2% but was " + actual);
+    }
+}
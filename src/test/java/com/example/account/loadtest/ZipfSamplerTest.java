@@ -0,0 +1,68 @@
+package com.example.account.loadtest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ZipfSamplerTest {
+    private static final int SAMPLES = 200_000;
+
+    @Test
+    @DisplayName("순위 k 는 1/(k+1)^s 에 비례해서 뽑힘")
+    void skewFollowsExponent() {
+        //given
+        ZipfSampler sampler = new ZipfSampler(1000, 1.2);
+        Random random = new Random(42);
+        //when
+        int[] counts = sample(sampler, random, 1000);
+        //then
+        double harmonic = 0;
+        for (int k = 0; k < 1000; k++) {
+            harmonic += 1.0 / Math.pow(k + 1, 1.2);
+        }
+        assertEquals(1 / harmonic, (double) counts[0] / SAMPLES, 0.01);
+        // 1위와 2위의 비는 2^1.2
+        assertEquals(Math.pow(2, 1.2), (double) counts[0] / counts[1], 0.1);
+        assertTrue(counts[1] > counts[9]);
+    }
+
+    @Test
+    @DisplayName("지수가 0 이면 고르게 뽑힘")
+    void uniformWithZeroExponent() {
+        //given
+        ZipfSampler sampler = new ZipfSampler(10, 0);
+        Random random = new Random(42);
+        //when
+        int[] counts = sample(sampler, random, 10);
+        //then
+        for (int count : counts) {
+            assertEquals(0.1, (double) count / SAMPLES, 0.01);
+        }
+    }
+
+    @Test
+    @DisplayName("뽑은 순위는 항상 범위 안")
+    void staysInRange() {
+        //given
+        ZipfSampler sampler = new ZipfSampler(3, 2.0);
+        Random random = new Random(7);
+        //when
+        //then
+        for (int i = 0; i < 10_000; i++) {
+            int rank = sampler.next(random);
+            assertTrue(rank >= 0 && rank < 3);
+        }
+    }
+
+    private static int[] sample(ZipfSampler sampler, Random random, int size) {
+        int[] counts = new int[size];
+        for (int i = 0; i < SAMPLES; i++) {
+            counts[sampler.next(random)]++;
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.account.repository;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.AccountUser;
+import com.example.account.type.AccountStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.example.account.type.AccountStatus.IN_USE;
+import static com.example.account.type.AccountStatus.UNREGISTERED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 조건부 update 는 각자 커밋되어야 동시 실행을 볼 수 있으므로 테스트 트랜잭션 없이 실행한다.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AtomicBalanceUpdateTest {
+    private static final String ACCOUNT_NUMBER = "1000000098";
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+
+    private AccountUser user;
+
+    @BeforeEach
+    void setUp() {
+        user = accountUserRepository.findById(1L).get();
+    }
+
+    @AfterEach
+    void tearDown() {
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("사용 가능 잔액(잔액 - 홀드)이 부족하면 갱신되지 않음")
+    void useBalanceAtomicallyRespectsHeldBalance() {
+        //given
+        saveAccount(IN_USE, 10000L, 9500L);
+        //when
+        int exceeded = accountRepository.useBalanceAtomically(user.getId(), ACCOUNT_NUMBER, 1000L);
+        int used = accountRepository.useBalanceAtomically(user.getId(), ACCOUNT_NUMBER, 500L);
+        //then
+        assertEquals(0, exceeded);
+        assertEquals(1, used);
+        assertEquals(9500L, getBalance());
+    }
+
+    @Test
+    @DisplayName("소유주가 다르거나 해지된 계좌는 갱신되지 않음")
+    void useBalanceAtomicallyChecksOwnerAndStatus() {
+        //given
+        saveAccount(UNREGISTERED, 10000L, 0L);
+        //when
+        int unregistered = accountRepository.useBalanceAtomically(user.getId(), ACCOUNT_NUMBER, 100L);
+        int unMatch = accountRepository.useBalanceAtomically(user.getId() + 1, ACCOUNT_NUMBER, 100L);
+        //then
+        assertEquals(0, unregistered);
+        assertEquals(0, unMatch);
+        assertEquals(10000L, getBalance());
+    }
+
+    @Test
+    @DisplayName("락 없이 동시에 차감해도 잔액만큼만 성공")
+    void concurrentUseBalanceAtomically() throws Exception {
+        //given
+        saveAccount(IN_USE, 10000L, 0L);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        //when
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            futures.add(executor.submit(() ->
+                    accountRepository.useBalanceAtomically(user.getId(), ACCOUNT_NUMBER, 1000L)));
+        }
+        int succeeded = 0;
+        for (Future<Integer> future : futures) {
+            succeeded += future.get();
+        }
+        executor.shutdown();
+        //then
+        assertEquals(10, succeeded);
+        assertEquals(0L, getBalance());
+    }
+
+    private void saveAccount(AccountStatus accountStatus, Long balance, Long heldBalance) {
+        accountRepository.save(Account.builder()
+                .accountUser(user)
+                .accountNumber(ACCOUNT_NUMBER)
+                .accountStatus(accountStatus)
+                .balance(balance)
+                .heldBalance(heldBalance)
+                .registeredAt(LocalDateTime.now())
+                .build());
+    }
+
+    private Long getBalance() {
+        return accountRepository.findByAccountNumber(ACCOUNT_NUMBER).get().getBalance();
+    }
+}
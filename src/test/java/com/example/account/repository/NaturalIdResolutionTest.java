@@ -0,0 +1,140 @@
+package com.example.account.repository;
+
+import com.example.account.domain.Account;
+import com.example.account.domain.AccountUser;
+import com.example.account.domain.Transaction;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+
+import static com.example.account.type.AccountStatus.IN_USE;
+import static com.example.account.type.TransactionResultType.S;
+import static com.example.account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * natural id 캐시는 커밋 후에 채워지므로 테스트 트랜잭션 없이 실행한다.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NaturalIdResolutionTest {
+    private static final String ACCOUNT_NUMBER = "1000000099";
+    private static final String TRANSACTION_ID = "00000189abcdef000001a1b2c3d4e599";
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+
+        AccountUser user = accountUserRepository.findById(1L).get();
+        Account account = accountRepository.save(Account.builder()
+                .accountUser(user)
+                .accountNumber(ACCOUNT_NUMBER)
+                .accountStatus(IN_USE)
+                .balance(10000L)
+                .heldBalance(0L)
+                .registeredAt(LocalDateTime.now())
+                .build());
+        transactionRepository.save(Transaction.builder()
+                .account(account)
+                .transactionType(USE)
+                .transactionResultType(S)
+                .amount(1000L)
+                .balanceSnapShot(9000L)
+                .transactionId(TRANSACTION_ID)
+                .transactedAt(LocalDateTime.now())
+                .build());
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionRepository.deleteAll();
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("계좌번호는 natural id 캐시에서 해석하고, 계좌는 2차 캐시가 아닌 DB 에서 읽음")
+    void resolveAccountNumberFromCache() {
+        //when
+        Account account = accountRepository.findByAccountNumber(ACCOUNT_NUMBER).get();
+        //then
+        assertEquals(10000L, account.getBalance());
+        assertEquals(1, statistics.getNaturalIdCacheHitCount());
+        assertEquals(0, statistics.getNaturalIdQueryExecutionCount());
+        assertEquals(1, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("거래 id 는 natural id 캐시에서 해석하고, 거래와 계좌는 id 로 한 번에 읽음")
+    void resolveTransactionIdFromCache() {
+        //when
+        Transaction transaction =
+                transactionRepository.findWithAccountByTransactionId(TRANSACTION_ID).get();
+        //then
+        assertEquals(ACCOUNT_NUMBER, transaction.getAccount().getAccountNumber());
+        assertEquals(1, statistics.getNaturalIdCacheHitCount());
+        assertEquals(0, statistics.getNaturalIdQueryExecutionCount());
+        assertEquals(1, statistics.getQueryExecutionCount());
+    }
+
+    @Test
+    @DisplayName("계좌는 2차 캐시에 두지 않으므로 다시 읽어도 DB 에서 읽고, 해석만 캐시에서 함")
+    void accountIsNotSecondLevelCached() {
+        //given
+        accountRepository.findByAccountNumber(ACCOUNT_NUMBER);
+        //when
+        Account account = accountRepository.findByAccountNumber(ACCOUNT_NUMBER).get();
+        //then
+        assertEquals(10000L, account.getBalance());
+        assertEquals(2, statistics.getNaturalIdCacheHitCount());
+        assertEquals(2, statistics.getEntityLoadCount());
+        assertEquals(0, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    @DisplayName("사용자는 2차 캐시에서 읽음 (setUp 에서 읽을 때 캐시됨)")
+    void accountUserFromSecondLevelCache() {
+        //when
+        AccountUser user = accountUserRepository.findById(1L).get();
+        //then
+        assertEquals(1L, user.getId());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+        assertEquals(1, statistics.getDomainDataRegionStatistics("accountUser").getHitCount());
+    }
+
+    @Test
+    @DisplayName("없는 계좌번호는 빈 결과")
+    void unknownAccountNumber() {
+        //when
+        //then
+        assertFalse(accountRepository.findByAccountNumber("1000000098").isPresent());
+        assertEquals(1, statistics.getNaturalIdQueryExecutionCount());
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.account.service;
+
+import com.example.account.config.AffinityProperties;
+import com.example.account.config.GrpcProperties;
+import com.example.account.dto.AccountOwnershipChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AccountAffinityServiceTest {
+    private static final String NODE_A = "http://127.0.0.1:8080";
+    private static final String NODE_B = "http://127.0.0.1:8081";
+    private static final String NODE_C = "http://127.0.0.1:8082";
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RMapCache<String, String> members;
+
+    private GrpcProperties grpcProperties;
+
+    private AccountAffinityService accountAffinityService;
+
+    @BeforeEach
+    void setUp() {
+        AffinityProperties affinityProperties = new AffinityProperties();
+        affinityProperties.setEnabled(true);
+        affinityProperties.setNodeId("node-a");
+        grpcProperties = new GrpcProperties();
+        given(redissonClient.<String, String>getMapCache(anyString(), any(Codec.class)))
+                .willReturn(members);
+        accountAffinityService = new AccountAffinityService(affinityProperties,
+                grpcProperties, applicationEventPublisher, redissonClient);
+    }
+
+    @Test
+    @DisplayName("기동 시 이미 있던 노드는 바로 계좌를 맡고, 이 노드는 join delay 후에 나눠 맡음")
+    void existingMembersOwnImmediately() {
+        //given
+        Map<String, String> live = members("node-a", NODE_A, "node-b", NODE_B);
+        //when
+        accountAffinityService.refresh(live, 0);
+        int remoteBeforeJoin = countRemoteAccounts();
+        accountAffinityService.refresh(live, 3000);
+        //then
+        assertEquals(1000, remoteBeforeJoin);
+        assertEquals(NODE_B, accountAffinityService.getRemoteOwnerUrl(findAccount(true)).get());
+        assertFalse(accountAffinityService.getRemoteOwnerUrl(findAccount(false)).isPresent());
+        verify(applicationEventPublisher, times(2)).publishEvent(any(AccountOwnershipChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("멤버가 stable 동안 그대로이고 목록이 최신일 때만 소유 노드가 JVM 락만 사용")
+    void steadyOwnerAfterStablePeriod() {
+        //given
+        Map<String, String> live = members("node-a", NODE_A, "node-b", NODE_B);
+        accountAffinityService.refresh(live, 0);
+        accountAffinityService.refresh(live, 3000);
+        String local = findAccount(false);
+        String remote = findAccount(true);
+        //when
+        accountAffinityService.refresh(live, 6000);
+        //then
+        assertFalse(accountAffinityService.isSteadyOwner(local, 5999));
+        assertTrue(accountAffinityService.isSteadyOwner(local, 6000));
+        assertFalse(accountAffinityService.isSteadyOwner(remote, 6000));
+        // 목록을 갱신하지 못하면 다른 노드에서 빠지기 전에 Redis 락으로 돌아간다.
+        assertFalse(accountAffinityService.isSteadyOwner(local, 8001));
+    }
+
+    @Test
+    @DisplayName("새 노드는 join delay 가 지나야 계좌를 맡고, 보인 순간부터 기존 노드는 Redis 락을 함께 잡음")
+    void newMemberJoinsAfterDelay() {
+        //given
+        accountAffinityService.refresh(members("node-a", NODE_A), 0);
+        accountAffinityService.refresh(members("node-a", NODE_A), 3000);
+        accountAffinityService.refresh(members("node-a", NODE_A), 6000);
+        String account = "1000000000";
+        assertTrue(accountAffinityService.isSteadyOwner(account, 6000));
+        //when
+        accountAffinityService.refresh(members("node-a", NODE_A, "node-c", NODE_C), 7000);
+        //then
+        assertEquals(0, countRemoteAccounts());
+        assertFalse(accountAffinityService.isSteadyOwner(account, 7000));
+
+        accountAffinityService.refresh(members("node-a", NODE_A, "node-c", NODE_C), 10000);
+        ArgumentCaptor<AccountOwnershipChangedEvent> captor =
+                ArgumentCaptor.forClass(AccountOwnershipChangedEvent.class);
+        verify(applicationEventPublisher, times(2)).publishEvent(captor.capture());
+        assertEquals(2, captor.getValue().getOwners().size());
+        // 새 노드로는 대략 절반만 옮겨간다.
+        int moved = countRemoteAccounts();
+        assertTrue(moved > 300 && moved < 700, "moved : " + moved);
+        assertEquals(NODE_C, accountAffinityService.getRemoteOwnerUrl(findAccount(true)).get());
+    }
+
+    @Test
+    @DisplayName("gRPC 가 켜져 있으면 소유 노드도 항상 Redis 락을 잡음")
+    void noLocalOnlyLockWithGrpc() {
+        //given
+        grpcProperties.setEnabled(true);
+        accountAffinityService.refresh(members("node-a", NODE_A), 0);
+        accountAffinityService.refresh(members("node-a", NODE_A), 3000);
+        accountAffinityService.refresh(members("node-a", NODE_A), 6000);
+        //when
+        boolean steady = accountAffinityService.isSteadyOwner("1000000000", 6000);
+        //then
+        assertFalse(steady);
+    }
+
+    @Test
+    @DisplayName("멤버가 이 노드뿐인 안정 상태만 단독 소유, 다른 노드가 보이거나 목록을 못 쓴 뒤에는 새 안정 상태")
+    void soleOwnerSince() {
+        //given
+        accountAffinityService.refresh(members("node-a", NODE_A), 0);
+        accountAffinityService.refresh(members("node-a", NODE_A), 3000);
+        accountAffinityService.refresh(members("node-a", NODE_A), 6000);
+        long first = accountAffinityService.getSoleOwnerSince(6000);
+        //when
+        accountAffinityService.refresh(members("node-a", NODE_A, "node-b", NODE_B), 7000);
+        long withOtherNode = accountAffinityService.getSoleOwnerSince(7000);
+        accountAffinityService.refresh(members("node-a", NODE_A), 8000);
+        accountAffinityService.refresh(members("node-a", NODE_A), 11000);
+        long afterOtherNode = accountAffinityService.getSoleOwnerSince(11000);
+        // ttl 넘게 목록을 쓰지 못한 동안 다른 노드가 계좌를 맡았을 수 있다.
+        accountAffinityService.refresh(members("node-a", NODE_A), 20000);
+        long rightAfterGap = accountAffinityService.getSoleOwnerSince(20000);
+        accountAffinityService.refresh(members("node-a", NODE_A), 23000);
+        long afterGap = accountAffinityService.getSoleOwnerSince(23000);
+        //then
+        assertEquals(3000, first);
+        assertEquals(-1, withOtherNode);
+        assertEquals(8000, afterOtherNode);
+        assertEquals(-1, rightAfterGap);
+        assertEquals(20000, afterGap);
+    }
+
+    private String findAccount(boolean remote) {
+        for (int i = 0; i < 1000; i++) {
+            String accountNumber = String.valueOf(1_000_000_000L + i);
+            if (accountAffinityService.getRemoteOwnerUrl(accountNumber).isPresent() == remote) {
+                return accountNumber;
+            }
+        }
+        return fail("no " + (remote ? "remote" : "local") + " account");
+    }
+
+    private int countRemoteAccounts() {
+        int count = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (accountAffinityService.getRemoteOwnerUrl(
+                    String.valueOf(1_000_000_000L + i)).isPresent()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static Map<String, String> members(String... idAndUrls) {
+        Map<String, String> members = new HashMap<>();
+        for (int i = 0; i < idAndUrls.length; i += 2) {
+            members.put(idAndUrls[i], idAndUrls[i + 1]);
+        }
+        return members;
+    }
+}
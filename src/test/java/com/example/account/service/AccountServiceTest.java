@@ -1,5 +1,6 @@
 package com.example.account.service;
 
+import com.example.account.config.ShardingProperties;
 import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
 import com.example.account.dto.AccountDto;
@@ -14,7 +15,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Arrays;
 import java.util.List;
@@ -35,6 +38,12 @@ class AccountServiceTest {
     @Mock
     private AccountUserRepository accountUserRepository;
 
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(new ShardingProperties());
+
     @InjectMocks
     private AccountService accountService;
 
@@ -263,30 +272,29 @@ class AccountServiceTest {
     @Test
     void successGetAccountsByUserId() {
         //given
-        AccountUser pobi = AccountUser.builder()
-                .id(12L)
-                .name("Pobi")
-                .build();
-        List<Account> accounts = Arrays.asList(
-                Account.builder()
-                        .accountUser(pobi)
+        List<AccountDto> accounts = Arrays.asList(
+                AccountDto.builder()
+                        .userId(12L)
                         .accountNumber("1234567890")
                         .balance(1000L)
                         .build(),
-                Account.builder()
-                        .accountUser(pobi)
+                AccountDto.builder()
+                        .userId(12L)
                         .accountNumber("2234567890")
                         .balance(2000L)
                         .build(),
-                Account.builder()
-                        .accountUser(pobi)
+                AccountDto.builder()
+                        .userId(12L)
                         .accountNumber("3234567890")
                         .balance(3000L)
                         .build()
         );
         given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(pobi));
-        given(accountRepository.findByAccountUser(any()))
+                .willReturn(Optional.of(AccountUser.builder()
+                        .id(12L)
+                        .name("Pobi")
+                        .build()));
+        given(accountRepository.findAccountDtosByUserId(anyLong()))
                 .willReturn(accounts);
         //when
         List<AccountDto> accountDtos = accountService.getAccountsByUserId(1L);
@@ -312,4 +320,34 @@ class AccountServiceTest {
         //then
         assertEquals(ErrorCode.USER_NOT_FOUND, exception.getErrorCode());
     }
+
+    @Test
+    void successGetAccount() {
+        //given
+        given(accountRepository.findAccountDtoById(anyLong()))
+                .willReturn(Optional.of(AccountDto.builder()
+                        .userId(12L)
+                        .accountNumber("1000000012")
+                        .accountStatus(AccountStatus.IN_USE)
+                        .balance(1000L)
+                        .build()));
+        //when
+        AccountDto accountDto = accountService.getAccount(1L);
+        //then
+        assertEquals("1000000012", accountDto.getAccountNumber());
+        assertEquals(AccountStatus.IN_USE, accountDto.getAccountStatus());
+    }
+
+    @Test
+    @DisplayName("해당 계좌 없음 - 계좌 조회 실패")
+    void getAccount_AccountNotFound() {
+        //given
+        given(accountRepository.findAccountDtoById(anyLong()))
+                .willReturn(Optional.empty());
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> accountService.getAccount(1L));
+        //then
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, exception.getErrorCode());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+package com.example.account.service;
+
+import com.example.account.config.StreamProperties;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceStreamHubTest {
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RTopic topic;
+
+    private BalanceStreamHub balanceStreamHub;
+
+    @BeforeEach
+    void setUp() {
+        StreamProperties streamProperties = new StreamProperties();
+        streamProperties.setMaxConnections(3);
+        streamProperties.setMaxConnectionsPerUser(2);
+        given(redissonClient.getTopic(anyString(), eq(StringCodec.INSTANCE)))
+                .willReturn(topic);
+        balanceStreamHub = new BalanceStreamHub(streamProperties, redissonClient);
+    }
+
+    @AfterEach
+    void tearDown() {
+        balanceStreamHub.shutdown();
+    }
+
+    @Test
+    void subscribeFailed_TooManyConnectionsPerUser() {
+        //given
+        balanceStreamHub.subscribe(12L, Collections.emptyList());
+        balanceStreamHub.subscribe(12L, Collections.emptyList());
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> balanceStreamHub.subscribe(12L, Collections.emptyList()));
+        //then
+        assertEquals(ErrorCode.TOO_MANY_REQUESTS, exception.getErrorCode());
+        assertEquals(2, balanceStreamHub.getConnectionCount());
+    }
+
+    @Test
+    void subscribeFailed_TooManyConnections() {
+        //given
+        balanceStreamHub.subscribe(12L, Collections.emptyList());
+        balanceStreamHub.subscribe(13L, Collections.emptyList());
+        balanceStreamHub.subscribe(14L, Collections.emptyList());
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> balanceStreamHub.subscribe(15L, Collections.emptyList()));
+        //then
+        assertEquals(ErrorCode.TOO_MANY_REQUESTS, exception.getErrorCode());
+        assertEquals(3, balanceStreamHub.getConnectionCount());
+    }
+
+    @Test
+    @DisplayName("늦게 도착한 오래된 잔액은 새 잔액을 덮어쓰지 않음")
+    void keepNewestBalancePerAccount() {
+        //given
+        balanceStreamHub.subscribe(12L, Collections.emptyList());
+        //when
+        balanceStreamHub.onMessage("12:1000000012:9000:2");
+        balanceStreamHub.onMessage("12:1000000012:10000:1");
+        //then
+        assertEquals(9000L, balanceStreamHub.getPendingBalance(12L, "1000000012"));
+    }
+
+    @Test
+    @DisplayName("이미 보낸 변경보다 오래된 변경은 버림")
+    void dropChangeOlderThanDelivered() {
+        //given
+        balanceStreamHub.subscribe(12L, Collections.emptyList());
+        balanceStreamHub.onMessage("12:1000000012:9000:2");
+        balanceStreamHub.flush();
+        //when
+        balanceStreamHub.onMessage("12:1000000012:10000:1");
+        //then
+        assertNull(balanceStreamHub.getPendingBalance(12L, "1000000012"));
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.account.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+    private static final List<String> NODES = Arrays.asList("node-a", "node-b", "node-c");
+
+    @Test
+    void keysSpreadOverNodes() {
+        //given
+        ConsistentHashRing<String> ring = new ConsistentHashRing<>(NODES, NODES, 160);
+        Map<String, Integer> counts = new HashMap<>();
+        //when
+        for (int i = 0; i < 30_000; i++) {
+            counts.merge(ring.get("ACLK:" + (1_000_000_000L + i)), 1, Integer::sum);
+        }
+        //then
+        assertEquals(3, counts.size());
+        counts.values().forEach(count -> assertTrue(count > 7_000, "skewed : " + counts));
+    }
+
+    @Test
+    @DisplayName("노드를 추가해도 대부분의 키는 그대로 남음")
+    void addingNodeMovesFewKeys() {
+        //given
+        ConsistentHashRing<String> before = new ConsistentHashRing<>(NODES, NODES, 160);
+        List<String> grown = Arrays.asList("node-a", "node-b", "node-c", "node-d");
+        ConsistentHashRing<String> after = new ConsistentHashRing<>(grown, grown, 160);
+        //when
+        int moved = 0;
+        for (int i = 0; i < 10_000; i++) {
+            String key = "ACLK:" + (1_000_000_000L + i);
+            if (!before.get(key).equals(after.get(key))) {
+                moved++;
+            }
+        }
+        //then
+        assertTrue(moved < 3_500, "moved : " + moved);
+    }
+
+    @Test
+    void quorumNodesStartWithPrimaryAndAreDistinct() {
+        //given
+        ConsistentHashRing<String> ring = new ConsistentHashRing<>(NODES, NODES, 160);
+        //when
+        List<String> nodes = ring.get("ACLK:1000000012", 5);
+        //then
+        assertEquals(3, nodes.size());
+        assertEquals(ring.get("ACLK:1000000012"), nodes.get(0));
+        assertEquals(3, nodes.stream().distinct().count());
+    }
+}
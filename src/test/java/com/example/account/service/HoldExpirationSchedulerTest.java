@@ -0,0 +1,122 @@
+package com.example.account.service;
+
+import com.example.account.config.TransactionProperties;
+import com.example.account.dto.AccountOwnershipChangedEvent;
+import com.example.account.dto.HoldDto;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HoldExpirationSchedulerTest {
+    @Mock
+    private HoldService holdService;
+
+    @Mock
+    private LockService lockService;
+
+    @Spy
+    private TransactionProperties transactionProperties;
+
+    @Mock
+    private AccountAffinityService accountAffinityService;
+
+    @InjectMocks
+    private HoldExpirationScheduler holdExpirationScheduler;
+
+    @Test
+    void expireUnderAccountLock() {
+        //given
+        given(holdService.expire("holdId", "1000000012"))
+                .willReturn(true);
+        //when
+        holdExpirationScheduler.expire(new HoldExpirationScheduler.ExpiringHold(
+                "holdId", "1000000012", System.nanoTime()));
+        //then
+        verify(lockService, times(1)).lock("1000000012");
+        verify(holdService, times(1)).expire("holdId", "1000000012");
+        verify(lockService, times(1)).unlock("1000000012");
+        assertEquals(0, holdExpirationScheduler.size());
+    }
+
+    @Test
+    void rescheduleIfLockFailed() {
+        //given
+        willThrow(new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK))
+                .given(lockService).lock("1000000012");
+        //when
+        holdExpirationScheduler.expire(new HoldExpirationScheduler.ExpiringHold(
+                "holdId", "1000000012", System.nanoTime()));
+        //then
+        verify(holdService, never()).expire(anyString(), anyString());
+        assertEquals(1, holdExpirationScheduler.size());
+    }
+
+    @Test
+    void skipHoldOwnedByRemoteNode() {
+        //given
+        given(accountAffinityService.getRemoteOwnerUrl("1000000012"))
+                .willReturn(Optional.of("http://127.0.0.1:8081"));
+        //when
+        holdExpirationScheduler.expire(new HoldExpirationScheduler.ExpiringHold(
+                "holdId", "1000000012", System.nanoTime()));
+        //then
+        verify(lockService, never()).lock(anyString());
+        verify(holdService, never()).expire(anyString(), anyString());
+        assertEquals(0, holdExpirationScheduler.size());
+    }
+
+    @Test
+    void reloadOwnedHoldsWithinLoadedWindow() {
+        //given
+        LocalDateTime expiresAt = LocalDateTime.now().plusSeconds(30);
+        given(holdService.getHeldHoldsExpiringBefore(any()))
+                .willReturn(Collections.emptyList())
+                .willReturn(Arrays.asList(
+                        HoldDto.builder().holdId("owned").accountNumber("1000000012")
+                                .expiresAt(expiresAt).build(),
+                        HoldDto.builder().holdId("remote").accountNumber("1000000013")
+                                .expiresAt(expiresAt).build()));
+        given(accountAffinityService.getRemoteOwnerUrl("1000000012"))
+                .willReturn(Optional.empty());
+        given(accountAffinityService.getRemoteOwnerUrl("1000000013"))
+                .willReturn(Optional.of("http://127.0.0.1:8081"));
+        holdExpirationScheduler.load();
+        //when
+        holdExpirationScheduler.onAccountOwnershipChanged(
+                new AccountOwnershipChangedEvent(Collections.singleton("node-1")));
+        //then
+        verify(holdService, times(2)).getHeldHoldsExpiringBefore(any());
+        verify(holdService, never()).getHeldHoldsExpiringBetween(any(), any());
+        // 다음 구간 읽기 표시 + 이 노드가 맡은 홀드
+        assertEquals(2, holdExpirationScheduler.size());
+    }
+
+    @Test
+    void skipReloadBeforeStart() {
+        //given
+        //when
+        holdExpirationScheduler.onAccountOwnershipChanged(
+                new AccountOwnershipChangedEvent(Collections.singleton("node-1")));
+        //then
+        verify(holdService, never()).getHeldHoldsExpiringBefore(any());
+        assertEquals(0, holdExpirationScheduler.size());
+    }
+}
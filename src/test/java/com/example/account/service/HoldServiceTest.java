@@ -0,0 +1,214 @@
+package com.example.account.service;
+
+import com.example.account.config.TransactionProperties;
+import com.example.account.domain.Account;
+import com.example.account.domain.AccountUser;
+import com.example.account.domain.BalanceHold;
+import com.example.account.dto.HoldAuthorizedEvent;
+import com.example.account.dto.HoldDto;
+import com.example.account.dto.TransactionDto;
+import com.example.account.exception.AccountException;
+import com.example.account.repository.AccountRepository;
+import com.example.account.repository.AccountUserRepository;
+import com.example.account.repository.BalanceHoldRepository;
+import com.example.account.type.ErrorCode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static com.example.account.type.AccountStatus.IN_USE;
+import static com.example.account.type.HoldStatus.*;
+import static com.example.account.type.TransactionResultType.S;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class HoldServiceTest {
+    @Mock
+    private BalanceHoldRepository balanceHoldRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private AccountUserRepository accountUserRepository;
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Spy
+    private TransactionProperties transactionProperties;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @InjectMocks
+    private HoldService holdService;
+
+    @Test
+    void successAuthorize() {
+        //given
+        Account account = account(10000L, 0L);
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(balanceHoldRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+        ArgumentCaptor<BalanceHold> captor = ArgumentCaptor.forClass(BalanceHold.class);
+        //when
+        HoldDto holdDto = holdService.authorize(12L, "1000000012", 3000L);
+        //then
+        verify(balanceHoldRepository, times(1)).save(captor.capture());
+        verify(applicationEventPublisher, times(1)).publishEvent(any(HoldAuthorizedEvent.class));
+        assertEquals(3000L, captor.getValue().getAmount());
+        assertEquals(HELD, holdDto.getHoldStatus());
+        assertTrue(holdDto.getExpiresAt().isAfter(LocalDateTime.now()));
+        assertEquals(10000L, account.getBalance());
+        assertEquals(7000L, account.getAvailableBalance());
+    }
+
+    @Test
+    @DisplayName("사용 가능 잔액보다 큰 금액은 홀드할 수 없음")
+    void authorize_AmountExceedAvailableBalance() {
+        //given
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account(10000L, 8000L)));
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> holdService.authorize(12L, "1000000012", 3000L));
+        //then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+        verify(balanceHoldRepository, times(0)).save(any());
+    }
+
+    @Test
+    void successCapture() {
+        //given
+        Account account = account(10000L, 3000L);
+        BalanceHold hold = hold(account, LocalDateTime.now().plusMinutes(10));
+        given(balanceHoldRepository.findWithAccountByHoldId(anyString()))
+                .willReturn(Optional.of(hold));
+        given(transactionService.saveUseTransaction(account, 3000L))
+                .willReturn(TransactionDto.builder()
+                        .accountNumber("1000000012")
+                        .transactionResult(S)
+                        .amount(3000L)
+                        .balanceSnapShot(7000L)
+                        .build());
+        //when
+        TransactionDto transactionDto = holdService.capture("holdId", "1000000012");
+        //then
+        assertEquals(3000L, transactionDto.getAmount());
+        assertEquals(CAPTURED, hold.getHoldStatus());
+        assertEquals(7000L, account.getBalance());
+        assertEquals(0L, account.getHeldBalance());
+    }
+
+    @Test
+    @DisplayName("만료 시각이 지난 홀드는 확정할 수 없음")
+    void capture_Expired() {
+        //given
+        Account account = account(10000L, 3000L);
+        given(balanceHoldRepository.findWithAccountByHoldId(anyString()))
+                .willReturn(Optional.of(hold(account, LocalDateTime.now().minusSeconds(1))));
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> holdService.capture("holdId", "1000000012"));
+        //then
+        assertEquals(ErrorCode.HOLD_EXPIRED, exception.getErrorCode());
+        assertEquals(10000L, account.getBalance());
+    }
+
+    @Test
+    void capture_HoldAccountUnMatch() {
+        //given
+        given(balanceHoldRepository.findWithAccountByHoldId(anyString()))
+                .willReturn(Optional.of(hold(account(10000L, 3000L),
+                        LocalDateTime.now().plusMinutes(10))));
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> holdService.capture("holdId", "1000000013"));
+        //then
+        assertEquals(ErrorCode.HOLD_ACCOUNT_UN_MATCH, exception.getErrorCode());
+    }
+
+    @Test
+    void successRelease() {
+        //given
+        Account account = account(10000L, 3000L);
+        BalanceHold hold = hold(account, LocalDateTime.now().plusMinutes(10));
+        given(balanceHoldRepository.findWithAccountByHoldId(anyString()))
+                .willReturn(Optional.of(hold));
+        //when
+        HoldDto holdDto = holdService.release("holdId", "1000000012");
+        //then
+        assertEquals(RELEASED, holdDto.getHoldStatus());
+        assertNotNull(holdDto.getClosedAt());
+        assertEquals(10000L, account.getAvailableBalance());
+    }
+
+    @Test
+    @DisplayName("이미 확정된 홀드는 만료 처리하지 않음")
+    void expire_AlreadyCaptured() {
+        //given
+        Account account = account(7000L, 0L);
+        BalanceHold hold = hold(account, LocalDateTime.now().minusSeconds(1));
+        hold.setHoldStatus(CAPTURED);
+        given(balanceHoldRepository.findWithAccountByHoldId(anyString()))
+                .willReturn(Optional.of(hold));
+        //when
+        boolean expired = holdService.expire("holdId", "1000000012");
+        //then
+        assertFalse(expired);
+        assertEquals(0L, account.getHeldBalance());
+    }
+
+    @Test
+    void successExpire() {
+        //given
+        Account account = account(10000L, 3000L);
+        BalanceHold hold = hold(account, LocalDateTime.now().minusSeconds(1));
+        given(balanceHoldRepository.findWithAccountByHoldId(anyString()))
+                .willReturn(Optional.of(hold));
+        //when
+        boolean expired = holdService.expire("holdId", "1000000012");
+        //then
+        assertTrue(expired);
+        assertEquals(EXPIRED, hold.getHoldStatus());
+        assertEquals(10000L, account.getAvailableBalance());
+    }
+
+    private static Account account(Long balance, Long heldBalance) {
+        return Account.builder()
+                .accountUser(AccountUser.builder()
+                        .id(12L)
+                        .name("Pobi")
+                        .build())
+                .accountNumber("1000000012")
+                .accountStatus(IN_USE)
+                .balance(balance)
+                .heldBalance(heldBalance)
+                .build();
+    }
+
+    private static BalanceHold hold(Account account, LocalDateTime expiresAt) {
+        return BalanceHold.builder()
+                .account(account)
+                .holdId("holdId")
+                .amount(3000L)
+                .holdStatus(HELD)
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
@@ -1,19 +1,31 @@
 package com.example.account.service;
 
+import com.example.account.aop.AccountLock;
+import com.example.account.config.TransactionProperties;
+import com.example.account.dto.CancelBalance;
 import com.example.account.dto.UseBalance;
 import com.example.account.exception.AccountException;
+import com.example.account.exception.RateLimitException;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.sleuth.Tracer;
 
 import static com.example.account.type.ErrorCode.ACCOUNT_NOT_FOUND;
+import static com.example.account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+import static com.example.account.type.UseBalanceMode.GROUP_COMMIT;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -22,9 +34,21 @@ class LockAopAspectTest {
     @Mock
     private LockService lockService;
 
+    @Mock
+    private RateLimitService rateLimitService;
+
+    @Spy
+    private TransactionProperties transactionProperties = new TransactionProperties();
+
+    @Mock
+    private AccountAffinityService accountAffinityService;
+
     @Mock
     private ProceedingJoinPoint proceedingJoinPoint;
 
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private Tracer tracer;
+
     @InjectMocks
     private LockAopAspect lockAopAspect;
 
@@ -39,7 +63,7 @@ class LockAopAspectTest {
                 "1234",
                 1000L);
         //when
-        lockAopAspect.aroundMethod(proceedingJoinPoint, request);
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock("locked"), request);
         //then
         verify(lockService, times(1))
                 .lock(lockArgumentCaptor.capture());
@@ -63,7 +87,7 @@ class LockAopAspectTest {
                 .willThrow(new AccountException(ACCOUNT_NOT_FOUND));
         //when
         assertThrows(AccountException.class, () ->
-                lockAopAspect.aroundMethod(proceedingJoinPoint, request));
+                lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock("locked"), request));
         //then
         verify(lockService, times(1))
                 .lock(lockArgumentCaptor.capture());
@@ -73,4 +97,114 @@ class LockAopAspectTest {
         assertEquals("54321", unLockArgumentCaptor.getValue());
     }
 
-}
\ No newline at end of file
+    @Test
+    void rateLimitedBeforeLock() throws Throwable {
+        //given
+        UseBalance.Request request = new UseBalance.Request(123L,
+                "1234",
+                1000L);
+        willThrow(new RateLimitException(500L))
+                .given(rateLimitService).acquire("1234", 123L);
+        //when
+        assertThrows(RateLimitException.class, () ->
+                lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock("locked"), request));
+        //then
+        verify(lockService, never()).lock(anyString());
+        verify(proceedingJoinPoint, never()).proceed();
+    }
+
+    @Test
+    void skipRequestLockInGroupCommitMode() throws Throwable {
+        //given
+        transactionProperties.setUseMode(GROUP_COMMIT);
+        UseBalance.Request request = new UseBalance.Request(123L,
+                "1234",
+                1000L);
+        //when
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock("skippable"), request);
+        //then
+        verify(rateLimitService, times(1)).acquire("1234", 123L);
+        verify(lockService, never()).lock(anyString());
+        verify(proceedingJoinPoint, times(1)).proceed();
+    }
+
+    @Test
+    void keepRequestLockIfNotSkippable() throws Throwable {
+        //given
+        transactionProperties.setUseMode(GROUP_COMMIT);
+        UseBalance.Request request = new UseBalance.Request(123L,
+                "1234",
+                1000L);
+        //when
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock("locked"), request);
+        //then
+        verify(lockService, times(1)).lock("1234");
+        verify(lockService, times(1)).unlock("1234");
+    }
+
+    @Test
+    void quorumLockForCriticalOperation() throws Throwable {
+        //given
+        CancelBalance.Request request = new CancelBalance.Request("transactionId",
+                "1234",
+                1000L);
+        //when
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock("quorum"), request);
+        //then
+        verify(lockService, times(1)).lockQuorum("1234");
+        verify(lockService, times(1)).unlockQuorum("1234");
+        verify(lockService, never()).lock(anyString());
+    }
+
+    @Test
+    void localLockOnlyForSteadyOwner() throws Throwable {
+        //given
+        given(accountAffinityService.isEnabled()).willReturn(true);
+        given(accountAffinityService.isSteadyOwner("1234")).willReturn(true);
+        UseBalance.Request request = new UseBalance.Request(123L,
+                "1234",
+                1000L);
+        //when
+        lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock("locked"), request);
+        //then
+        verify(lockService, times(1)).lockLocal("1234");
+        verify(lockService, times(1)).unlockLocal("1234");
+        verify(lockService, never()).lock(anyString());
+        verify(lockService, never()).unlock(anyString());
+    }
+
+    @Test
+    void releaseLocalLockIfDistributedLockFailed() throws Throwable {
+        //given
+        given(accountAffinityService.isEnabled()).willReturn(true);
+        willThrow(new AccountException(ACCOUNT_TRANSACTION_LOCK))
+                .given(lockService).lock("1234");
+        UseBalance.Request request = new UseBalance.Request(123L,
+                "1234",
+                1000L);
+        //when
+        assertThrows(AccountException.class, () ->
+                lockAopAspect.aroundMethod(proceedingJoinPoint, accountLock("locked"), request));
+        //then
+        verify(lockService, times(1)).lockLocal("1234");
+        verify(lockService, times(1)).unlockLocal("1234");
+        verify(proceedingJoinPoint, never()).proceed();
+    }
+
+    private static AccountLock accountLock(String methodName) throws NoSuchMethodException {
+        return LockAopAspectTest.class.getDeclaredMethod(methodName)
+                .getAnnotation(AccountLock.class);
+    }
+
+    @AccountLock
+    private void locked() {
+    }
+
+    @AccountLock(skippable = true)
+    private void skippable() {
+    }
+
+    @AccountLock(quorum = true)
+    private void quorum() {
+    }
+}
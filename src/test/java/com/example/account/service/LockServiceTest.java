@@ -2,33 +2,42 @@ package com.example.account.service;
 
 import com.example.account.exception.AccountException;
 import com.example.account.type.ErrorCode;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.redisson.api.RLock;
-import org.redisson.api.RedissonClient;
+
+import java.util.Arrays;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class LockServiceTest {
     @Mock
-    private RedissonClient redissonClient;
+    private RedisLockRouter redisLockRouter;
 
     @Mock
     private RLock rlock;
 
+    @Mock
+    private RLock secondLock;
+
+    @Mock
+    private RLock thirdLock;
+
     @InjectMocks
     private LockService lockService;
 
     @Test
     void successGetLock() throws InterruptedException {
         //given
-        given(redissonClient.getLock(anyString()))
+        given(redisLockRouter.getLock(anyString()))
                 .willReturn(rlock);
         given(rlock.tryLock(anyLong(), anyLong(), any()))
                 .willReturn(true);
@@ -40,7 +49,7 @@ class LockServiceTest {
     @Test
     void failGetLock() throws InterruptedException {
         //given
-        given(redissonClient.getLock(anyString()))
+        given(redisLockRouter.getLock(anyString()))
                 .willReturn(rlock);
         given(rlock.tryLock(anyLong(), anyLong(), any()))
                 .willReturn(false);
@@ -50,4 +59,60 @@ class LockServiceTest {
         //then
         assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("정족수 락 - 과반의 노드에서 잡으면 성공")
+    void successGetQuorumLock() throws InterruptedException {
+        //given
+        given(redisLockRouter.getQuorumLocks(anyString()))
+                .willReturn(Arrays.asList(rlock, secondLock, thirdLock));
+        given(rlock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(true);
+        given(secondLock.tryLock(anyLong(), anyLong(), any()))
+                .willThrow(new IllegalStateException("node down"));
+        given(thirdLock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(true);
+        //when
+        //then
+        assertDoesNotThrow(() -> lockService.lockQuorum("123"));
+    }
+
+    @Test
+    @DisplayName("정족수 락 - 과반을 못 채우면 잡은 락을 풀고 실패")
+    void failGetQuorumLock() throws InterruptedException {
+        //given
+        given(redisLockRouter.getQuorumLocks(anyString()))
+                .willReturn(Arrays.asList(rlock, secondLock, thirdLock));
+        given(rlock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(true);
+        given(secondLock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(false);
+        given(thirdLock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(false);
+        given(rlock.isHeldByCurrentThread())
+                .willReturn(true);
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> lockService.lockQuorum("123"));
+        //then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+        verify(rlock, times(1)).unlock();
+        verify(secondLock, never()).unlock();
+    }
+
+    @Test
+    @DisplayName("정족수 락 - 주 노드를 못 잡으면 나머지는 시도하지 않음")
+    void failGetQuorumLock_primaryLocked() throws InterruptedException {
+        //given
+        given(redisLockRouter.getQuorumLocks(anyString()))
+                .willReturn(Arrays.asList(rlock, secondLock, thirdLock));
+        given(rlock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(false);
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> lockService.lockQuorum("123"));
+        //then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+        verify(secondLock, never()).tryLock(anyLong(), anyLong(), any());
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.account.service;
+
+import com.example.account.config.OutboxConfig;
+import com.example.account.config.OutboxProperties;
+import com.example.account.config.ShardingProperties;
+import com.example.account.domain.OutboxEvent;
+import com.example.account.dto.BalanceEvent;
+import com.example.account.repository.OutboxEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.example.account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 릴레이의 선점/발행/삭제는 각자 커밋되어야 하므로 테스트 트랜잭션 없이 실행한다.
+ */
+@DataJpaTest(properties = {
+        "account.outbox.relay-enabled=false",
+        "account.outbox.batch-size=2"})
+@Import({OutboxRelay.class, OutboxConfig.class, OutboxProperties.class,
+        ShardRouter.class, ShardingProperties.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxRelayTest {
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxSink outboxSink;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAll();
+        ((InMemoryOutboxSink) outboxSink).drain();
+    }
+
+    @Test
+    @DisplayName("가득 찬 배치가 나오는 동안 이어서 발행하고, 발행한 행은 지운다")
+    void relayInBatchesAndDeletePublished() {
+        //given
+        for (long amount = 100; amount <= 500; amount += 100) {
+            outboxEventRepository.save(event(amount));
+        }
+        //when
+        outboxRelay.poll();
+        //then
+        List<BalanceEvent> published = ((InMemoryOutboxSink) outboxSink).drain();
+        assertEquals(List.of(100L, 200L, 300L, 400L, 500L), published.stream()
+                .map(BalanceEvent::getAmount)
+                .collect(Collectors.toList()));
+        assertEquals("1000000012", published.get(0).getAccountNumber());
+        assertEquals(USE, published.get(0).getEventType());
+        assertEquals(0, outboxEventRepository.count());
+    }
+
+    @Test
+    @DisplayName("다른 릴레이가 선점한 행은 선점 기한이 지날 때까지 건너뛴다")
+    void skipRowsClaimedByAnotherRelay() {
+        //given
+        OutboxEvent claimed = event(100L);
+        claimed.setClaimedBy("other:1");
+        claimed.setClaimedUntil(LocalDateTime.now().plusMinutes(1));
+        claimed = outboxEventRepository.save(claimed);
+        outboxEventRepository.save(event(200L));
+        //when
+        outboxRelay.poll();
+        List<BalanceEvent> first = ((InMemoryOutboxSink) outboxSink).drain();
+        claimed.setClaimedUntil(LocalDateTime.now().minusSeconds(1));
+        outboxEventRepository.save(claimed);
+        outboxRelay.poll();
+        List<BalanceEvent> second = ((InMemoryOutboxSink) outboxSink).drain();
+        //then
+        assertEquals(1, first.size());
+        assertEquals(200L, first.get(0).getAmount());
+        assertEquals(1, second.size());
+        assertEquals(100L, second.get(0).getAmount());
+        assertEquals(0, outboxEventRepository.count());
+    }
+
+    @Test
+    @DisplayName("메모리 sink 가 배치를 받을 수 없으면 행을 지우지 않는다")
+    void keepRowsIfSinkIsFull() {
+        //given
+        outboxSink.publish(Collections.nCopies(9_999, BalanceEvent.builder().build()));
+        outboxEventRepository.save(event(100L));
+        outboxEventRepository.save(event(200L));
+        //when
+        outboxRelay.poll();
+        //then
+        assertEquals(2, outboxEventRepository.count());
+        assertEquals(9_999, ((InMemoryOutboxSink) outboxSink).drain().size());
+    }
+
+    private static OutboxEvent event(long amount) {
+        return OutboxEvent.builder()
+                .eventType(USE)
+                .transactionId(new TimeOrderedTransactionIdGenerator(1).nextId())
+                .accountNumber("1000000012")
+                .amount(amount)
+                .balanceSnapShot(10000L - amount)
+                .transactedAt(LocalDateTime.now())
+                .build();
+    }
+}
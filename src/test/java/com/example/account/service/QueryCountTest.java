@@ -0,0 +1,157 @@
+package com.example.account.service;
+
+import com.example.account.config.ShardingProperties;
+import com.example.account.config.TransactionIdConfig;
+import com.example.account.config.TransactionProperties;
+import com.example.account.domain.Account;
+import com.example.account.domain.AccountUser;
+import com.example.account.domain.Transaction;
+import com.example.account.dto.AccountDto;
+import com.example.account.dto.TransactionDto;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.example.account.type.AccountStatus.IN_USE;
+import static com.example.account.type.TransactionResultType.S;
+import static com.example.account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * API 별로 실행되는 SQL 개수를 고정한다.
+ * 엔티티 그래프를 즉시 로딩하거나 락 구간의 조회가 늘어나면 이 테스트가 깨진다.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({AccountService.class, TransactionService.class,
+        ShardRouter.class, ShardingProperties.class,
+        TransactionIdConfig.class, TransactionProperties.class})
+class QueryCountTest {
+    private static final String TRANSACTION_ID = "00000189abcdef000001a1b2c3d4e5f6";
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    private Statistics statistics;
+
+    private Long accountId;
+
+    @BeforeEach
+    void setUp() {
+        SessionFactory sessionFactory = entityManager.getEntityManager()
+                .getEntityManagerFactory()
+                .unwrap(SessionFactory.class);
+        statistics = sessionFactory.getStatistics();
+        // 앞선 테스트(롤백됨)가 남긴 2차 캐시/natural id 해석을 지운다.
+        sessionFactory.getCache().evictAllRegions();
+
+        AccountUser user = entityManager.find(AccountUser.class, 1L);
+        Account account = entityManager.persist(Account.builder()
+                .accountUser(user)
+                .accountNumber("1000000000")
+                .accountStatus(IN_USE)
+                .balance(10000L)
+                .registeredAt(LocalDateTime.now())
+                .build());
+        entityManager.persist(Transaction.builder()
+                .account(account)
+                .transactionType(USE)
+                .transactionResultType(S)
+                .amount(1000L)
+                .balanceSnapShot(9000L)
+                .transactionId(TRANSACTION_ID)
+                .transactedAt(LocalDateTime.now())
+                .build());
+        accountId = account.getId();
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("GET /account/{id} - 쿼리 1회, 엔티티 로딩 없음")
+    void getAccount() {
+        //when
+        AccountDto accountDto = accountService.getAccount(accountId);
+        //then
+        assertEquals("1000000000", accountDto.getAccountNumber());
+        assertEquals(1L, accountDto.getUserId());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("GET /account?user_id= - 사용자 확인은 2차 캐시, 계좌 조회 1회, 엔티티 로딩 없음")
+    void getAccountsByUserId() {
+        //when
+        List<AccountDto> accountDtos = accountService.getAccountsByUserId(1L);
+        //then
+        assertEquals(1, accountDtos.size());
+        assertEquals(10000L, accountDtos.get(0).getBalance());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    @DisplayName("2차 캐시를 비우면 사용자 확인이 다시 DB 로 감")
+    void getAccountsByUserIdWithoutSecondLevelCache() {
+        //given
+        entityManager.getEntityManager().getEntityManagerFactory().getCache().evictAll();
+        //when
+        accountService.getAccountsByUserId(1L);
+        //then
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("GET /transaction/{id} - 쿼리 1회, 엔티티 로딩 없음")
+    void queryTransaction() {
+        //when
+        TransactionDto transactionDto = transactionService.queryTransaction(TRANSACTION_ID);
+        //then
+        assertEquals("1000000000", transactionDto.getAccountNumber());
+        assertEquals(9000L, transactionDto.getBalanceSnapShot());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("POST /transaction/use - 락 구간의 조회는 계좌 1건 (계좌번호 해석 + id 조회)")
+    void useBalance() {
+        //when
+        transactionService.tryUseBalance(1L, "1000000000", 1000L);
+        //then
+        // 캐시가 비어 있으므로 해석은 id 만 읽는 쿼리로 한다. 이후 요청은 캐시에서 해석한다.
+        assertEquals(1, statistics.getNaturalIdQueryExecutionCount());
+        assertEquals(0, statistics.getQueryExecutionCount());
+        assertEquals(1, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("POST /transaction/cancel - 거래와 계좌를 한 번에 조회")
+    void cancelBalance() {
+        //when
+        transactionService.tryCancelBalance(TRANSACTION_ID, "1000000000", 1000L);
+        //then
+        assertEquals(1, statistics.getNaturalIdQueryExecutionCount());
+        assertEquals(1, statistics.getQueryExecutionCount());
+        assertEquals(2, statistics.getEntityLoadCount());
+    }
+}
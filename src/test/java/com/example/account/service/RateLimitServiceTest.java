@@ -0,0 +1,128 @@
+package com.example.account.service;
+
+import com.example.account.config.RateLimitProperties;
+import com.example.account.exception.RateLimitException;
+import com.example.account.type.ErrorCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitServiceTest {
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RScript rScript;
+
+    private RateLimitProperties rateLimitProperties;
+
+    private RateLimitService rateLimitService;
+
+    @BeforeEach
+    void setUp() {
+        rateLimitProperties = new RateLimitProperties();
+        rateLimitProperties.setEnabled(true);
+        rateLimitProperties.getTiers().put("standard",
+                new RateLimitProperties.Bucket(20, 10));
+        rateLimitProperties.getTiers().put("merchant",
+                new RateLimitProperties.Bucket(200, 100));
+        rateLimitProperties.getAccountTiers().put("1000000000", "merchant");
+        rateLimitService = new RateLimitService(redissonClient, rateLimitProperties);
+    }
+
+    @Test
+    void allowed() {
+        //given
+        given(redissonClient.getScript(any())).willReturn(rScript);
+        given(rScript.eval(any(), anyString(), any(), anyList(), any()))
+                .willReturn(Arrays.asList(1L, 0L));
+        //when
+        //then
+        assertDoesNotThrow(() -> rateLimitService.acquire("1000000001", 1L));
+    }
+
+    @Test
+    void rejectedWithRetryAfter() {
+        //given
+        given(redissonClient.getScript(any())).willReturn(rScript);
+        given(rScript.eval(any(), anyString(), any(), anyList(), any()))
+                .willReturn(Arrays.asList(0L, 350L));
+        //when
+        RateLimitException exception = assertThrows(RateLimitException.class,
+                () -> rateLimitService.acquire("1000000001", 1L));
+        //then
+        assertEquals(ErrorCode.TOO_MANY_REQUESTS, exception.getErrorCode());
+        assertEquals(350L, exception.getRetryAfterMillis());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void accountTierAndUserBucketInOneCall() {
+        //given
+        given(redissonClient.getScript(any())).willReturn(rScript);
+        given(rScript.eval(any(), anyString(), any(), anyList(), any()))
+                .willReturn(Arrays.asList(1L, 0L));
+        ArgumentCaptor<List<Object>> keysCaptor = ArgumentCaptor.forClass(List.class);
+        //when
+        rateLimitService.acquire("1000000000", 7L);
+        //then
+        verify(rScript).eval(any(), anyString(), any(), keysCaptor.capture(), any());
+        assertEquals(Arrays.asList("ACRL:1000000000", "USRL:7"), keysCaptor.getValue());
+        assertEquals(200, rateLimitProperties.getAccountBucket("1000000000").getCapacity());
+    }
+
+    @Test
+    void failOpenWhenRedisUnavailable() {
+        //given
+        given(redissonClient.getScript(any())).willThrow(new IllegalStateException("down"));
+        //when
+        //then
+        assertDoesNotThrow(() -> rateLimitService.acquire("1000000001", null));
+    }
+
+    @Test
+    void disabled() {
+        //given
+        rateLimitProperties.setEnabled(false);
+        //when
+        rateLimitService.acquire("1000000001", 1L);
+        //then
+        verifyNoInteractions(redissonClient);
+    }
+
+    @Test
+    @DisplayName("충전량이 0 인 등급은 설정 검증에서 거부")
+    void rejectZeroRefill() {
+        //given
+        rateLimitProperties.getTiers().put("frozen",
+                new RateLimitProperties.Bucket(20, 0));
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        //when
+        Set<ConstraintViolation<RateLimitProperties>> violations =
+                validator.validate(rateLimitProperties);
+        //then
+        assertEquals(1, violations.size());
+        String path = violations.iterator().next().getPropertyPath().toString();
+        assertTrue(path.contains("frozen") && path.endsWith("refillPerSecond"), path);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.account.service;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.sleuth.Span;
+import org.springframework.cloud.sleuth.Tracer;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class RepositoryTracingAspectTest {
+    @Mock
+    private Tracer tracer;
+
+    @Mock
+    private Span span;
+
+    @Mock
+    private ProceedingJoinPoint proceedingJoinPoint;
+
+    @Mock
+    private Signature signature;
+
+    @InjectMocks
+    private RepositoryTracingAspect repositoryTracingAspect;
+
+    @BeforeEach
+    void setUp() {
+        given(tracer.nextSpan()).willReturn(span);
+        given(span.name(anyString())).willReturn(span);
+        given(span.start()).willReturn(span);
+        given(proceedingJoinPoint.getSignature()).willReturn(signature);
+        given(signature.getName()).willReturn("findByAccountNumber");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("리포지토리 메서드 이름으로 span 을 남기고 결과를 그대로 돌려줌")
+    void repositorySpan() throws Throwable {
+        //given
+        Object result = new Object();
+        given(proceedingJoinPoint.proceed()).willReturn(result);
+        //when
+        Object returned = repositoryTracingAspect.aroundRepository(proceedingJoinPoint);
+        //then
+        assertSame(result, returned);
+        verify(span, times(1)).name("repository.findByAccountNumber");
+        verify(span, times(1)).end();
+        verify(span, never()).error(any());
+    }
+
+    @Test
+    @DisplayName("예외는 span 에 남기고 다시 던짐")
+    void repositorySpanError() throws Throwable {
+        //given
+        IllegalStateException exception = new IllegalStateException("db down");
+        given(proceedingJoinPoint.proceed()).willThrow(exception);
+        //when
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> repositoryTracingAspect.aroundRepository(proceedingJoinPoint));
+        //then
+        assertSame(exception, thrown);
+        verify(span, times(1)).error(exception);
+        verify(span, times(1)).end();
+    }
+
+    @Test
+    @DisplayName("트랜잭션마다 커밋 span 은 하나, 롤백이면 outcome 태그")
+    void commitSpanPerTransaction() throws Throwable {
+        //given
+        given(span.tag(anyString(), anyString())).willReturn(span);
+        TransactionSynchronizationManager.initSynchronization();
+        repositoryTracingAspect.aroundRepository(proceedingJoinPoint);
+        repositoryTracingAspect.aroundRepository(proceedingJoinPoint);
+        List<TransactionSynchronization> synchronizations =
+                TransactionSynchronizationManager.getSynchronizations();
+        //when
+        synchronizations.get(0).beforeCommit(false);
+        synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        //then
+        assertEquals(1, synchronizations.size());
+        verify(span, times(2)).name("repository.findByAccountNumber");
+        verify(span, times(1)).name("transaction.commit");
+        verify(span, times(1)).tag("read_only", "false");
+        verify(span, times(1)).tag("outcome", "rollback");
+        // 리포지토리 span 2개 + 커밋 span 1개
+        verify(span, times(3)).end();
+        assertTrue(TransactionSynchronizationManager.getResourceMap().isEmpty());
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.account.service;
+
+import com.example.account.config.ShardContext;
+import com.example.account.config.ShardingProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static com.example.account.type.ShardKeyType.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ShardRouterTest {
+    private ShardRouter shardRouter;
+
+    @BeforeEach
+    void setUp() {
+        ShardingProperties shardingProperties = new ShardingProperties();
+        shardingProperties.setEnabled(true);
+        for (int i = 0; i < 4; i++) {
+            ShardingProperties.Shard shard = new ShardingProperties.Shard();
+            shard.setUrl("jdbc:h2:mem:shard" + i);
+            shardingProperties.getShards().add(shard);
+        }
+        shardRouter = new ShardRouter(shardingProperties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        shardRouter.shutdown();
+    }
+
+    @Test
+    @DisplayName("샤드 안에서 매긴 계좌번호는 같은 샤드로 라우팅됨")
+    void accountNumberStaysOnShard() {
+        //given
+        //when
+        String first = ShardContext.callOn(3, shardRouter::firstAccountNumber);
+        String next = shardRouter.nextAccountNumber(first);
+        //then
+        assertEquals("1000000003", first);
+        assertEquals("1000000007", next);
+        assertEquals(3, shardRouter.resolve(ACCOUNT_NUMBER, first));
+        assertEquals(3, shardRouter.resolve(ACCOUNT_NUMBER, next));
+    }
+
+    @Test
+    @DisplayName("거래 id 앞 2자리로 샤드를 찾음")
+    void transactionIdCarriesShard() {
+        //given
+        //when
+        String transactionId = ShardContext.callOn(2,
+                () -> ShardRouter.tagTransactionId("0123456789abcdef0123456789abcdef"));
+        //then
+        assertEquals("02", transactionId.substring(0, 2));
+        assertEquals(32, transactionId.length());
+        assertEquals(2, shardRouter.resolve(TRANSACTION_ID, transactionId));
+        assertEquals(0, shardRouter.resolve(TRANSACTION_ID, "ff23456789abcdef0123456789abcdef"));
+    }
+
+    @Test
+    void scatterOnEveryShard() {
+        //given
+        //when
+        List<Integer> shards = shardRouter.scatter(
+                () -> Collections.singletonList(ShardContext.current()));
+        //then
+        assertEquals(List.of(0, 1, 2, 3), shards);
+    }
+
+    @Test
+    void newAccountsSpreadOverShards() {
+        //given
+        //when
+        //then
+        for (int i = 0; i < 8; i++) {
+            assertEquals(i % 4, shardRouter.resolve(NEW_ACCOUNT, 12L));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.account.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedTransactionIdGeneratorTest {
+    @Test
+    void idIs32LowerHexWithEmptyShardPrefix() {
+        //given
+        TimeOrderedTransactionIdGenerator generator = new TimeOrderedTransactionIdGenerator(0xabcd);
+        //when
+        String id = generator.nextId();
+        //then
+        assertTrue(id.matches("[0-9a-f]{32}"));
+        assertEquals("00", id.substring(0, 2));
+        assertEquals("abcd", id.substring(18, 22));
+    }
+
+    @Test
+    @DisplayName("같은 ms 안에서 순번을 다 써도 id 는 계속 증가")
+    void idsAreSortedEvenWhenSequenceOverflows() {
+        //given
+        TimeOrderedTransactionIdGenerator generator =
+                new TimeOrderedTransactionIdGenerator(1, () -> 1_700_000_000_000L);
+        //when
+        String previous = generator.nextId();
+        for (int i = 0; i < 70_000; i++) {
+            String next = generator.nextId();
+            //then
+            assertTrue(next.compareTo(previous) > 0, previous + " >= " + next);
+            previous = next;
+        }
+    }
+
+    @Test
+    @DisplayName("시계가 뒤로 가도 id 는 줄어들지 않음")
+    void clockGoingBackwardsKeepsOrder() {
+        //given
+        long[] now = {1_700_000_000_000L};
+        TimeOrderedTransactionIdGenerator generator =
+                new TimeOrderedTransactionIdGenerator(1, () -> now[0]);
+        String first = generator.nextId();
+        //when
+        now[0] -= 1000;
+        String second = generator.nextId();
+        //then
+        assertTrue(second.compareTo(first) > 0);
+    }
+
+    @Test
+    @DisplayName("여러 노드, 여러 스레드에서 동시에 만들어도 중복 없음")
+    void uniqueAcrossThreadsAndNodes() throws Exception {
+        //given
+        int threads = 8;
+        int perThread = 50_000;
+        List<TimeOrderedTransactionIdGenerator> nodes = List.of(
+                new TimeOrderedTransactionIdGenerator(1),
+                new TimeOrderedTransactionIdGenerator(2));
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        //when
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            TimeOrderedTransactionIdGenerator generator = nodes.get(t % nodes.size());
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    ids.add(generator.nextId());
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        //then
+        assertEquals(threads * perThread, ids.size());
+    }
+}
@@ -1,12 +1,18 @@
 package com.example.account.service;
 
+import com.example.account.config.ShardContext;
+import com.example.account.config.TransactionProperties;
 import com.example.account.domain.Account;
 import com.example.account.domain.AccountUser;
+import com.example.account.domain.OutboxEvent;
 import com.example.account.domain.Transaction;
+import com.example.account.dto.BalanceResult;
 import com.example.account.dto.TransactionDto;
+import com.example.account.dto.UseBalance;
 import com.example.account.exception.AccountException;
 import com.example.account.repository.AccountRepository;
 import com.example.account.repository.AccountUserRepository;
+import com.example.account.repository.OutboxEventRepository;
 import com.example.account.repository.TransactionRepository;
 import com.example.account.type.ErrorCode;
 import org.junit.jupiter.api.DisplayName;
@@ -15,9 +21,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static com.example.account.type.AccountStatus.IN_USE;
@@ -28,6 +41,7 @@ import static com.example.account.type.TransactionType.CANCEL;
 import static com.example.account.type.TransactionType.USE;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.times;
@@ -43,6 +57,25 @@ class TransactionServiceTest {
     @Mock
     private AccountUserRepository accountUserRepository;
 
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Mock
+    private TransactionProperties transactionProperties;
+
+    @Mock
+    private ShardRouter shardRouter;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private TransactionIdGenerator transactionIdGenerator =
+            new TimeOrderedTransactionIdGenerator(1);
+
     @InjectMocks
     private TransactionService transactionService;
 
@@ -59,8 +92,6 @@ class TransactionServiceTest {
                 .accountStatus(IN_USE)
                 .balance(10000L)
                 .build();
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(user));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(account));
         given(transactionRepository.save(any()))
@@ -76,9 +107,11 @@ class TransactionServiceTest {
         ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(
                 Transaction.class);
         //when
-        TransactionDto transactionDto = transactionService.useBalance(1L,
+        BalanceResult result = transactionService.tryUseBalance(12L,
                 "1000000000", 200L);
         //then
+        assertTrue(result.isSuccess());
+        TransactionDto transactionDto = result.getTransactionDto();
         verify(transactionRepository, times(1)).save(captor.capture());
         assertEquals(200L, captor.getValue().getAmount());
         assertEquals(10000L - 200L, captor.getValue().getBalanceSnapShot());
@@ -87,39 +120,30 @@ class TransactionServiceTest {
         assertEquals(USE, transactionDto.getTransactionType());
         assertEquals(9000L, transactionDto.getBalanceSnapShot());
         assertEquals(1000L, transactionDto.getAmount());
+        verify(outboxEventRepository, times(1)).save(any(OutboxEvent.class));
     }
 
     @Test
     @DisplayName("해당 유저 없음 - 잔액 사용 실패")
     void useBalance_UserNotFound() {
         //given
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.empty());
-        //when
-        AccountException exception = assertThrows(AccountException.class,
-                () -> transactionService.useBalance(1L, "1234567890", 1000L));
-        //then
-        assertEquals(ErrorCode.USER_NOT_FOUND, exception.getErrorCode());
-    }
-
-    @Test
-    @DisplayName("해당 계좌 없음 - 잔액 사용 실패")
-    void useBalance_AccountNotFound() {
-        //given
-        AccountUser user = AccountUser.builder()
+        AccountUser pobi = AccountUser.builder()
                 .id(12L)
                 .name("Pobi")
                 .build();
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(user));
         given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.empty());
-
+                .willReturn(Optional.of(Account.builder()
+                        .accountUser(pobi)
+                        .accountNumber("1000000012")
+                        .balance(1000L)
+                        .build()));
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(false);
         //when
-        AccountException exception = assertThrows(AccountException.class,
-                () -> transactionService.useBalance(1L, "1234567890", 1000L));
+        BalanceResult result = transactionService.tryUseBalance(1L,
+                "1234567890", 1000L);
         //then
-        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, exception.getErrorCode());
+        assertEquals(ErrorCode.USER_NOT_FOUND, result.getErrorCode());
     }
 
     @Test
@@ -134,20 +158,20 @@ class TransactionServiceTest {
                 .id(13L)
                 .name("Harry")
                 .build();
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(pobi));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(Account.builder()
                         .accountUser(harry)
                         .accountNumber("1000000012")
                         .balance(0L)
                         .build()));
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(true);
 
         //when
-        AccountException exception = assertThrows(AccountException.class,
-                () -> transactionService.useBalance(1L, "1234567890", 1000L));
+        BalanceResult result = transactionService.tryUseBalance(pobi.getId(),
+                "1234567890", 1000L);
         //then
-        assertEquals(ErrorCode.USER_ACCOUNT_UN_MATCH, exception.getErrorCode());
+        assertEquals(ErrorCode.USER_ACCOUNT_UN_MATCH, result.getErrorCode());
     }
 
     @Test
@@ -158,8 +182,6 @@ class TransactionServiceTest {
                 .id(12L)
                 .name("Pobi")
                 .build();
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(pobi));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(Account.builder()
                         .accountUser(pobi)
@@ -169,15 +191,15 @@ class TransactionServiceTest {
                         .build()));
 
         //when
-        AccountException exception = assertThrows(AccountException.class,
-                () -> transactionService.useBalance(1L, "1234567890", 1000L));
+        BalanceResult result = transactionService.tryUseBalance(pobi.getId(),
+                "1234567890", 1000L);
         //then
-        assertEquals(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED, exception.getErrorCode());
+        assertEquals(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED, result.getErrorCode());
     }
 
     @Test
-    @DisplayName("거래 금액이 계좌 잔액보다 큰 경우")
-    void useBalance_amountExceedBalance() {
+    @DisplayName("홀드로 묶인 금액은 사용할 수 없음")
+    void useBalance_amountExceedAvailableBalance() {
         //given
         AccountUser pobi = AccountUser.builder()
                 .id(12L)
@@ -187,24 +209,96 @@ class TransactionServiceTest {
                 .accountUser(pobi)
                 .accountNumber("1000000012")
                 .accountStatus(IN_USE)
-                .balance(100L)
+                .balance(10000L)
+                .heldBalance(9500L)
                 .build();
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(pobi));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(account));
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(
+                Transaction.class);
 
         //when
-        AccountException exception = assertThrows(AccountException.class,
-                () -> transactionService.useBalance(1L, "1234567890", 1000L));
+        BalanceResult result = transactionService.tryUseBalance(pobi.getId(),
+                "1000000012", 1000L);
         //then
-        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, result.getErrorCode());
+        verify(transactionRepository, times(1)).save(captor.capture());
+        assertEquals(F, captor.getValue().getTransactionResultType());
+        assertEquals(10000L, account.getBalance());
+    }
+
+    @Test
+    @DisplayName("그룹 커밋 - 누적 잔액 기준으로 순서대로 검증하고 한 번에 저장")
+    @SuppressWarnings("unchecked")
+    void useBalanceInBatch() {
+        //given
+        AccountUser user = AccountUser.builder()
+                .id(12L)
+                .name("Pobi")
+                .build();
+        Account account = Account.builder()
+                .accountUser(user)
+                .accountNumber("1000000012")
+                .accountStatus(IN_USE)
+                .balance(1000L)
+                .build();
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(transactionRepository.saveAll(anyList()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+        ArgumentCaptor<List<Transaction>> captor = ArgumentCaptor.forClass(List.class);
+        //when
+        List<BalanceResult> results = transactionService.useBalanceInBatch(
+                "1000000012", Arrays.asList(
+                        new UseBalance.Request(12L, "1000000012", 600L),
+                        new UseBalance.Request(12L, "1000000012", 600L),
+                        new UseBalance.Request(12L, "1000000012", 300L)));
+        //then
+        verify(transactionRepository, times(1)).saveAll(captor.capture());
         verify(transactionRepository, times(0)).save(any());
+        List<Transaction> saved = captor.getValue();
+        assertEquals(3, saved.size());
+        assertEquals(S, saved.get(0).getTransactionResultType());
+        assertEquals(400L, saved.get(0).getBalanceSnapShot());
+        assertEquals(F, saved.get(1).getTransactionResultType());
+        assertEquals(400L, saved.get(1).getBalanceSnapShot());
+        assertEquals(S, saved.get(2).getTransactionResultType());
+        assertEquals(100L, saved.get(2).getBalanceSnapShot());
+        assertEquals(100L, account.getBalance());
+
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, results.get(1).getErrorCode());
+        assertEquals(100L, results.get(2).getTransactionDto().getBalanceSnapShot());
+
+        // 성공한 두 건만 같은 커밋으로 아웃박스에 남는다.
+        ArgumentCaptor<List<OutboxEvent>> outboxCaptor = ArgumentCaptor.forClass(List.class);
+        verify(outboxEventRepository, times(1)).saveAll(outboxCaptor.capture());
+        assertEquals(2, outboxCaptor.getValue().size());
+        assertEquals(100L, outboxCaptor.getValue().get(1).getBalanceSnapShot());
+    }
+
+    @Test
+    @DisplayName("그룹 커밋 - 계좌가 없으면 모두 실패, 저장 없음")
+    void useBalanceInBatch_AccountNotFound() {
+        //given
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.empty());
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(true);
+        //when
+        List<BalanceResult> results = transactionService.useBalanceInBatch(
+                "1000000012", Arrays.asList(
+                        new UseBalance.Request(12L, "1000000012", 600L),
+                        new UseBalance.Request(12L, "1000000012", 300L)));
+        //then
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, results.get(0).getErrorCode());
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, results.get(1).getErrorCode());
+        verify(transactionRepository, times(0)).saveAll(anyList());
     }
 
     @Test
-    @DisplayName("실패 트랜잭션 저장 성공")
-    void saveFailedUseTransaction() {
+    @DisplayName("잔액 부족 - 예외 없이 실패 결과와 실패 거래를 같은 트랜잭션에서 남김")
+    void tryUseBalance_amountExceedBalance() {
         //given
         AccountUser user = AccountUser.builder()
                 .id(12L)
@@ -214,30 +308,54 @@ class TransactionServiceTest {
                 .accountUser(user)
                 .accountNumber("1000000012")
                 .accountStatus(IN_USE)
-                .balance(10000L)
+                .balance(100L)
+                .heldBalance(0L)
                 .build();
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(account));
-        given(transactionRepository.save(any()))
-                .willReturn(Transaction.builder()
-                        .account(account)
-                        .transactionResultType(F)
-                        .transactionType(USE)
-                        .amount(200L)
-                        .balanceSnapShot(10000L)
-                        .transactionId("transactionId")
-                        .transactedAt(LocalDateTime.now())
-                        .build());
         ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(
                 Transaction.class);
         //when
-        transactionService.saveFailedUseTransaction(
-                "1000000000", 200L);
+        BalanceResult result = transactionService.tryUseBalance(12L,
+                "1000000012", 1000L);
         //then
         verify(transactionRepository, times(1)).save(captor.capture());
-        assertEquals(200L, captor.getValue().getAmount());
-        assertEquals(10000L, captor.getValue().getBalanceSnapShot());
         assertEquals(F, captor.getValue().getTransactionResultType());
+        assertEquals(100L, captor.getValue().getBalanceSnapShot());
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, result.getErrorCode());
+        assertEquals(100L, account.getBalance());
+    }
+
+    @Test
+    @DisplayName("해당 계좌 없음 - 실패 거래 없이 실패 결과")
+    void tryUseBalance_AccountNotFound() {
+        //given
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.empty());
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(true);
+        //when
+        BalanceResult result = transactionService.tryUseBalance(1L,
+                "1234567890", 1000L);
+        //then
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, result.getErrorCode());
+        verify(transactionRepository, times(0)).save(any());
+    }
+
+    @Test
+    @DisplayName("유저와 계좌 모두 없음 - 유저 확인이 먼저")
+    void tryUseBalance_UserAndAccountNotFound() {
+        //given
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.empty());
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(false);
+        //when
+        BalanceResult result = transactionService.tryUseBalance(1L,
+                "1234567890", 1000L);
+        //then
+        assertEquals(ErrorCode.USER_NOT_FOUND, result.getErrorCode());
+        verify(transactionRepository, times(0)).save(any());
     }
 
     @Test
@@ -262,10 +380,8 @@ class TransactionServiceTest {
                 .transactionId("transactionId")
                 .transactedAt(LocalDateTime.now())
                 .build();
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findWithAccountByTransactionId(anyString()))
                 .willReturn(Optional.of(transaction));
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(account));
         given(transactionRepository.save(any()))
                 .willReturn(Transaction.builder()
                         .account(account)
@@ -279,10 +395,12 @@ class TransactionServiceTest {
         ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(
                 Transaction.class);
         //when
-        TransactionDto transactionDto = transactionService.cancelBalance(
+        BalanceResult result = transactionService.tryCancelBalance(
                 "transactionId",
                 "1000000012", 200L);
         //then
+        assertTrue(result.isSuccess());
+        TransactionDto transactionDto = result.getTransactionDto();
         verify(transactionRepository, times(1)).save(captor.capture());
         assertEquals(200L, captor.getValue().getAmount());
         assertEquals(10000L + 200L, captor.getValue().getBalanceSnapShot());
@@ -298,33 +416,21 @@ class TransactionServiceTest {
     void cancelBalance_AccountNotFound() {
         //given
         Transaction transaction = Transaction.builder()
+                .account(Account.builder()
+                        .accountNumber("1000000012")
+                        .build())
                 .build();
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findWithAccountByTransactionId(anyString()))
                 .willReturn(Optional.of(transaction));
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.empty());
-
-        //when
-        AccountException exception = assertThrows(AccountException.class,
-                () -> transactionService.cancelBalance(
-                        "transactionId", "1234567890", 1000L));
-        //then
-        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, exception.getErrorCode());
-    }
-
-    @Test
-    @DisplayName("사용 거래 없음 - 잔액 사용 취소 실패")
-    void cancelBalance_TransactionNotFound() {
-        //given
-        given(transactionRepository.findByTransactionId(anyString()))
-                .willReturn(Optional.empty());
+        given(accountRepository.existsByAccountNumber(anyString()))
+                .willReturn(false);
 
         //when
-        AccountException exception = assertThrows(AccountException.class,
-                () -> transactionService.cancelBalance(
-                        "transactionId", "1234567890", 1000L));
+        BalanceResult result = transactionService.tryCancelBalance(
+                "transactionId", "1234567890", 1000L);
         //then
-        assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, exception.getErrorCode());
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, result.getErrorCode());
+        verify(transactionRepository, times(0)).save(any());
     }
 
     @Test
@@ -337,12 +443,6 @@ class TransactionServiceTest {
                 .accountStatus(IN_USE)
                 .balance(10000L)
                 .build();
-        Account account2 = Account.builder()
-                .id(2L)
-                .accountNumber("1000000012")
-                .accountStatus(IN_USE)
-                .balance(10000L)
-                .build();
 
         Transaction transaction = Transaction.builder()
                 .account(account1)
@@ -353,17 +453,30 @@ class TransactionServiceTest {
                 .transactionId("transactionId")
                 .transactedAt(LocalDateTime.now())
                 .build();
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findWithAccountByTransactionId(anyString()))
                 .willReturn(Optional.of(transaction));
+        Account account2 = Account.builder()
+                .id(2L)
+                .accountNumber("1234567890")
+                .accountStatus(IN_USE)
+                .balance(5000L)
+                .build();
+        given(accountRepository.existsByAccountNumber(anyString()))
+                .willReturn(true);
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(account2));
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(
+                Transaction.class);
 
         //when
-        AccountException exception = assertThrows(AccountException.class,
-                () -> transactionService.cancelBalance(
-                        "transactionId", "1234567890", 1000L));
+        BalanceResult result = transactionService.tryCancelBalance(
+                "transactionId", "1234567890", 1000L);
         //then
-        assertEquals(ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH, exception.getErrorCode());
+        assertEquals(ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH, result.getErrorCode());
+        // 실패 거래는 요청한 계좌에 남는다.
+        verify(transactionRepository, times(1)).save(captor.capture());
+        assertEquals(account2, captor.getValue().getAccount());
+        assertEquals(F, captor.getValue().getTransactionResultType());
     }
 
     @Test
@@ -385,17 +498,19 @@ class TransactionServiceTest {
                 .transactionId("transactionId")
                 .transactedAt(LocalDateTime.now())
                 .build();
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findWithAccountByTransactionId(anyString()))
                 .willReturn(Optional.of(transaction));
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(account));
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(
+                Transaction.class);
 
         //when
-        AccountException exception = assertThrows(AccountException.class,
-                () -> transactionService.cancelBalance(
-                        "transactionId", "1234567890", 100L));
+        BalanceResult result = transactionService.tryCancelBalance(
+                "transactionId", "1000000012", 100L);
         //then
-        assertEquals(ErrorCode.CANCEL_MUST_FULLY, exception.getErrorCode());
+        assertEquals(ErrorCode.CANCEL_MUST_FULLY, result.getErrorCode());
+        verify(transactionRepository, times(1)).save(captor.capture());
+        assertEquals(F, captor.getValue().getTransactionResultType());
+        assertEquals(10000L, account.getBalance());
     }
 
     @Test
@@ -417,17 +532,14 @@ class TransactionServiceTest {
                 .transactionId("transactionId")
                 .transactedAt(LocalDateTime.now().minusYears(1).minusDays(1))
                 .build();
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findWithAccountByTransactionId(anyString()))
                 .willReturn(Optional.of(transaction));
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(account));
 
         //when
-        AccountException exception = assertThrows(AccountException.class,
-                () -> transactionService.cancelBalance(
-                        "transactionId", "1234567890", 200L));
+        BalanceResult result = transactionService.tryCancelBalance(
+                "transactionId", "1000000012", 200L);
         //then
-        assertEquals(ErrorCode.TOO_OLD_ORDER_TO_CANCEL, exception.getErrorCode());
+        assertEquals(ErrorCode.TOO_OLD_ORDER_TO_CANCEL, result.getErrorCode());
     }
 
     @Test
@@ -449,81 +561,94 @@ class TransactionServiceTest {
                 .transactionId("transactionId")
                 .transactedAt(LocalDateTime.now())
                 .build();
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findWithAccountByTransactionId(anyString()))
                 .willReturn(Optional.of(transaction));
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(account));
 
         //when
-        AccountException exception = assertThrows(AccountException.class,
-                () -> transactionService.cancelBalance(
-                        "transactionId", "1234567890", -200L));
+        BalanceResult result = transactionService.tryCancelBalance(
+                "transactionId", "1000000012", -200L);
         //then
-        assertEquals(ErrorCode.INVALID_REQUEST, exception.getErrorCode());
+        assertEquals(ErrorCode.INVALID_REQUEST, result.getErrorCode());
     }
 
     @Test
-    @DisplayName("취소 실패 트랜잭션 저장 성공")
-    void saveFailedCancelTransaction() {
+    @DisplayName("원거래 없음 - 요청 계좌에 실패 거래를 남기고 실패 결과")
+    void tryCancelBalance_TransactionNotFound() {
         //given
-        AccountUser user = AccountUser.builder()
-                .id(12L)
-                .name("Pobi")
-                .build();
         Account account = Account.builder()
-                .accountUser(user)
+                .id(1L)
                 .accountNumber("1000000012")
                 .accountStatus(IN_USE)
-                .balance(20000L)
+                .balance(10000L)
                 .build();
+        given(transactionRepository.findWithAccountByTransactionId(anyString()))
+                .willReturn(Optional.empty());
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(account));
-        given(transactionRepository.save(any()))
-                .willReturn(Transaction.builder()
-                        .account(account)
-                        .transactionResultType(F)
-                        .transactionType(CANCEL)
-                        .amount(200L)
-                        .balanceSnapShot(0L)
-                        .transactionId("transactionId")
-                        .transactedAt(LocalDateTime.now())
-                        .build());
         ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(
                 Transaction.class);
         //when
-        transactionService.saveFailedCancelTransaction(
-                "1000000000", 200L);
+        BalanceResult result = transactionService.tryCancelBalance(
+                "transactionId", "1000000012", 200L);
         //then
         verify(transactionRepository, times(1)).save(captor.capture());
-        assertEquals(200L, captor.getValue().getAmount());
-        assertEquals(20000L, captor.getValue().getBalanceSnapShot());
+        assertEquals(CANCEL, captor.getValue().getTransactionType());
         assertEquals(F, captor.getValue().getTransactionResultType());
+        assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, result.getErrorCode());
     }
 
     @Test
-    void successQueryTransaction() {
+    @DisplayName("샤드 2개 - 다른 샤드 계좌의 거래는 계좌 불일치, 실패 거래는 요청한 계좌의 샤드에 남김")
+    void tryCancelBalance_transactionOnOtherShard() {
         //given
-        AccountUser user = AccountUser.builder()
-                .id(12L)
-                .name("Pobi")
-                .build();
         Account account = Account.builder()
-                .accountUser(user)
+                .id(1L)
                 .accountNumber("1000000012")
                 .accountStatus(IN_USE)
                 .balance(10000L)
                 .build();
-        Transaction transaction = Transaction.builder()
-                .account(account)
-                .transactionType(USE)
-                .transactionResultType(S)
-                .amount(200L)
-                .balanceSnapShot(8000L)
-                .transactionId("transactionId")
-                .transactedAt(LocalDateTime.now())
-                .build();
-        given(transactionRepository.findByTransactionId(anyString()))
-                .willReturn(Optional.of(transaction));
+        List<Integer> transactionLookupShards = new ArrayList<>();
+        given(transactionRepository.findWithAccountByTransactionId(anyString()))
+                .willReturn(Optional.empty());
+        given(shardRouter.shardOfTransactionId(anyString()))
+                .willReturn(1);
+        given(transactionRepository.existsByTransactionId(anyString()))
+                .willAnswer(invocation -> {
+                    transactionLookupShards.add(ShardContext.current());
+                    return ShardContext.current() == 1;
+                });
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willAnswer(invocation -> ShardContext.current() == 0
+                        ? Optional.of(account) : Optional.empty());
+        List<Integer> savedShards = new ArrayList<>();
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> {
+                    savedShards.add(ShardContext.current());
+                    return invocation.getArgument(0);
+                });
+        //when
+        // 요청한 계좌(1000000012)의 샤드 0 에 묶인 상태 (ShardRoutingAspect)
+        BalanceResult result = ShardContext.callOn(0, () -> transactionService.tryCancelBalance(
+                "01000000000000000000000000000000", "1000000012", 200L));
+        //then
+        assertEquals(ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH, result.getErrorCode());
+        assertEquals(Collections.singletonList(1), transactionLookupShards);
+        assertEquals(Collections.singletonList(0), savedShards);
+    }
+
+    @Test
+    void successQueryTransaction() {
+        //given
+        given(transactionRepository.findTransactionDtoByTransactionId(anyString()))
+                .willReturn(Optional.of(TransactionDto.builder()
+                        .accountNumber("1000000012")
+                        .transactionType(USE)
+                        .transactionResult(S)
+                        .amount(200L)
+                        .balanceSnapShot(8000L)
+                        .transactionId("transactionId")
+                        .transactedAt(LocalDateTime.now())
+                        .build()));
         //when
         TransactionDto transactionDto = transactionService.queryTransaction(
                 "transactionId");
@@ -539,14 +664,14 @@ class TransactionServiceTest {
     @DisplayName("사용 거래 없음 - 거래 조회 실패")
     void queryTransaction_TransactionNotFound() {
         //given
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findTransactionDtoByTransactionId(anyString()))
                 .willReturn(Optional.empty());
 
         //when
         AccountException exception = assertThrows(AccountException.class,
-                () -> transactionService.cancelBalance(
-                        "transactionId", "1234567890", 1000L));
+                () -> transactionService.queryTransaction("transactionId"));
         //then
         assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, exception.getErrorCode());
+        assertEquals(0, exception.getStackTrace().length);
     }
 }
\ No newline at end of file
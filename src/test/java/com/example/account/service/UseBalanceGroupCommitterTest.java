@@ -0,0 +1,107 @@
+package com.example.account.service;
+
+import com.example.account.config.TransactionProperties;
+import com.example.account.dto.BalanceResult;
+import com.example.account.dto.TransactionDto;
+import com.example.account.dto.UseBalance;
+import com.example.account.exception.AccountException;
+import com.example.account.type.ErrorCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+import static com.example.account.type.UseBalanceMode.GROUP_COMMIT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class UseBalanceGroupCommitterTest {
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private LockService lockService;
+
+    @Mock
+    private AccountAffinityService accountAffinityService;
+
+    private UseBalanceGroupCommitter useBalanceGroupCommitter;
+
+    @BeforeEach
+    void setUp() {
+        TransactionProperties transactionProperties = new TransactionProperties();
+        transactionProperties.setUseMode(GROUP_COMMIT);
+        // 테스트 스레드들이 모두 도착할 만큼 넉넉한 창
+        transactionProperties.getGroupCommit().setWindowMillis(300);
+        useBalanceGroupCommitter = new UseBalanceGroupCommitter(
+                transactionService, lockService, transactionProperties, accountAffinityService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        useBalanceGroupCommitter.shutdown();
+    }
+
+    @Test
+    void concurrentRequestsShareOneLockAndCommit() throws Exception {
+        //given
+        given(transactionService.useBalanceInBatch(eq("1000000012"), anyList()))
+                .willAnswer(invocation -> {
+                    List<UseBalance.Request> requests = invocation.getArgument(1);
+                    return requests.stream()
+                            .map(request -> BalanceResult.success(TransactionDto.builder()
+                                    .accountNumber(request.getAccountNumber())
+                                    .amount(request.getAmount())
+                                    .build()))
+                            .collect(Collectors.toList());
+                });
+        ExecutorService callers = Executors.newFixedThreadPool(5);
+        //when
+        List<Future<TransactionDto>> futures = new ArrayList<>();
+        for (long amount = 100; amount <= 500; amount += 100) {
+            UseBalance.Request request = new UseBalance.Request(12L, "1000000012", amount);
+            futures.add(callers.submit(() -> useBalanceGroupCommitter.useBalance(request)));
+        }
+        long total = 0;
+        for (Future<TransactionDto> future : futures) {
+            total += future.get(5, TimeUnit.SECONDS).getAmount();
+        }
+        callers.shutdown();
+        //then
+        assertEquals(1500L, total);
+        verify(lockService, times(1)).lock("1000000012");
+        verify(lockService, times(1)).unlock("1000000012");
+        verify(transactionService, times(1)).useBalanceInBatch(eq("1000000012"), anyList());
+    }
+
+    @Test
+    void failedRequestGetsItsOwnErrorCode() {
+        //given
+        given(transactionService.useBalanceInBatch(eq("1000000012"), anyList()))
+                .willAnswer(invocation -> {
+                    List<UseBalance.Request> requests = invocation.getArgument(1);
+                    return requests.stream()
+                            .map(request -> BalanceResult.failure(ErrorCode.AMOUNT_EXCEED_BALANCE))
+                            .collect(Collectors.toList());
+                });
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> useBalanceGroupCommitter.useBalance(
+                        new UseBalance.Request(12L, "1000000012", 100L)));
+        //then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+    }
+}